@@ -0,0 +1,74 @@
+package cardoso.commerce.app.cache;
+
+import cardoso.commerce.app.support.BenchmarkBaskets;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the value codec of the Redis tier for one cached product and for the cached product list,
+ * as {@link TwoTierCache} stores them: JDK serialization, the previous default, typed JSON, and
+ * {@link CompactCacheCodec} with its default compression threshold. The encoded size of each value is
+ * printed in the setup output.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductCacheCodecBenchmark {
+
+    @Param({"jdk", "json", "compact"})
+    private String codec;
+
+    @Param({"1", "200"})
+    private int products;
+
+    private RedisSerializer<Object> values;
+    private CacheEntry entry;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() {
+        values = switch (codec) {
+            case "jdk" -> RedisSerializer.java();
+            case "json" -> new GenericJackson2JsonRedisSerializer();
+            case "compact" -> new CompactCacheCodec(true, 1024);
+            default -> throw new IllegalArgumentException("Unknown codec " + codec);
+        };
+        // the product API client decodes lists into ArrayList, which is also what typed JSON can read back
+        Object value = products == 1
+                ? BenchmarkBaskets.responses(1).get(0)
+                : new ArrayList<>(BenchmarkBaskets.responses(products));
+        entry = new CacheEntry(value, System.currentTimeMillis());
+        encoded = values.serialize(entry);
+        if (!entry.equals(values.deserialize(encoded))) {
+            throw new IllegalStateException(codec + " does not read back what it wrote");
+        }
+        System.out.printf("%n%s codec, %d product(s): %d bytes%n", codec, products, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return values.serialize(entry);
+    }
+
+    @Benchmark
+    public Object decode() {
+        return values.deserialize(encoded);
+    }
+}
@@ -0,0 +1,56 @@
+package cardoso.commerce.app.entity;
+
+import cardoso.commerce.app.support.BenchmarkBaskets;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of writing a basket as the JSON of an API response or a hot store entry, and of reading it
+ * back, with the Jackson defaults Spring applies to the application's mapper.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BasketJsonBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int lines;
+
+    private ObjectMapper objectMapper;
+    private Basket basket;
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        basket = BenchmarkBaskets.basket(lines);
+        json = objectMapper.writeValueAsBytes(basket);
+    }
+
+    @Benchmark
+    public byte[] write() throws IOException {
+        return objectMapper.writeValueAsBytes(basket);
+    }
+
+    @Benchmark
+    public Basket read() throws IOException {
+        return objectMapper.readValue(json, Basket.class);
+    }
+}
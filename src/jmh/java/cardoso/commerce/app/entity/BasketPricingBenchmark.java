@@ -0,0 +1,46 @@
+package cardoso.commerce.app.entity;
+
+import cardoso.commerce.app.support.BenchmarkBaskets;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of pricing a basket from scratch, which {@link Basket#addProducts} falls back to when a basket
+ * has no total yet, by the number of lines.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BasketPricingBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int lines;
+
+    private Basket basket;
+
+    @Setup
+    public void setUp() {
+        basket = BenchmarkBaskets.basket(lines);
+    }
+
+    @Benchmark
+    public BigDecimal calculateTotalPrice() {
+        basket.calculateTotalPrice();
+        return basket.getTotalPrice();
+    }
+}
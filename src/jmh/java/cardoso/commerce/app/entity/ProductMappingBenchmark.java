@@ -0,0 +1,66 @@
+package cardoso.commerce.app.entity;
+
+import cardoso.commerce.app.client.response.PlatziProductResponse;
+import cardoso.commerce.app.controller.request.ProductRequest;
+import cardoso.commerce.app.service.ProductResolver;
+import cardoso.commerce.app.support.BenchmarkBaskets;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning upstream products into basket lines: {@link Product#of} for a single request, and
+ * the copy per request that {@link ProductResolver.Resolution#productsFor} makes for batches.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductMappingBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int lines;
+
+    private List<PlatziProductResponse> responses;
+    private List<ProductRequest> requests;
+    private ProductResolver.Resolution resolution;
+
+    @Setup
+    public void setUp() {
+        responses = BenchmarkBaskets.responses(lines);
+        requests = responses.stream().map(response -> new ProductRequest(response.id(), 2)).toList();
+        Map<Long, Product> products = new LinkedHashMap<>();
+        responses.forEach(response -> products.put(response.id(), Product.of(response, 1)));
+        resolution = new ProductResolver.Resolution(products, Map.of());
+    }
+
+    @Benchmark
+    public List<Product> productOf() {
+        List<Product> products = new ArrayList<>(responses.size());
+        for (int i = 0; i < responses.size(); i++) {
+            products.add(Product.of(responses.get(i), requests.get(i).quantity()));
+        }
+        return products;
+    }
+
+    @Benchmark
+    public List<Product> productsFor() {
+        return resolution.productsFor(requests);
+    }
+}
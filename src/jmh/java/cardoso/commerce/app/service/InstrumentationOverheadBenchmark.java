@@ -0,0 +1,64 @@
+package cardoso.commerce.app.service;
+
+import cardoso.commerce.app.entity.Basket;
+import cardoso.commerce.app.support.BenchmarkBaskets;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the meters on the request path, recorded into a Prometheus registry from four threads: a
+ * timer with the percentile histogram the HTTP, Feign and repository timers are configured with, and
+ * {@link BasketSizeMetrics}. Compare with the latency of the request they are recorded for, which is
+ * at least a MongoDB or Redis round trip.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class InstrumentationOverheadBenchmark {
+
+    private Timer timer;
+    private BasketSizeMetrics basketSizeMetrics;
+    private Basket basket;
+
+    @Setup
+    public void setUp() {
+        PrometheusMeterRegistry registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        timer = Timer.builder("http.server.requests")
+                .tags("method", "POST", "uri", "/basket", "status", "201", "outcome", "SUCCESS", "exception", "none")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(registry);
+        basketSizeMetrics = new BasketSizeMetrics(registry);
+        basket = BenchmarkBaskets.basket(10);
+    }
+
+    @Benchmark
+    public void timer() {
+        timer.record(3_000_000, TimeUnit.NANOSECONDS);
+    }
+
+    @Benchmark
+    public Basket basketSize() {
+        return basketSizeMetrics.record(BasketSizeMetrics.CREATE, basket);
+    }
+}
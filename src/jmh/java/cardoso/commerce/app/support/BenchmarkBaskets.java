@@ -0,0 +1,41 @@
+package cardoso.commerce.app.support;
+
+import cardoso.commerce.app.client.response.PlatziProductResponse;
+import cardoso.commerce.app.entity.Basket;
+import cardoso.commerce.app.entity.Product;
+import cardoso.commerce.app.entity.Status;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+/**
+ * Products and baskets shaped like the ones the service handles, with prices in cents as the
+ * upstream store sends them.
+ */
+public final class BenchmarkBaskets {
+
+    private BenchmarkBaskets() {
+    }
+
+    public static List<PlatziProductResponse> responses(int count) {
+        return LongStream.rangeClosed(1, count)
+                .mapToObj(id -> new PlatziProductResponse(id, "Product " + id, BigDecimal.valueOf(100 + id * 37, 2)))
+                .toList();
+    }
+
+    public static Basket basket(int lines) {
+        List<Product> products = new ArrayList<>(lines);
+        responses(lines).forEach(response -> products.add(Product.of(response, 1 + (int) (response.id() % 3))));
+        Basket basket = Basket.builder()
+                .id("66f1a2b3c4d5e6f7a8b9c0d1")
+                .clientId(12345L)
+                .status(Status.OPEN)
+                .products(products)
+                .version(3L)
+                .build();
+        basket.calculateTotalPrice();
+        return basket;
+    }
+}
@@ -0,0 +1,9 @@
+package cardoso.commerce.app.cache;
+
+import java.io.Serializable;
+
+/**
+ * A cached value together with the wall-clock time it was written, so every instance can tell
+ * fresh entries from stale ones regardless of which tier served them.
+ */
+public record CacheEntry(Object value, long writtenAt) implements Serializable {}
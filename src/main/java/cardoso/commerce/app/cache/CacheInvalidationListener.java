@@ -0,0 +1,43 @@
+package cardoso.commerce.app.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+
+import java.io.IOException;
+
+@Slf4j
+@RequiredArgsConstructor
+public class CacheInvalidationListener implements MessageListener {
+
+    private final TwoTierCacheManager cacheManager;
+    private final ObjectMapper objectMapper;
+    private final String instanceId;
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        CacheInvalidationMessage invalidation;
+        try {
+            invalidation = objectMapper.readValue(message.getBody(), CacheInvalidationMessage.class);
+        } catch (IOException exception) {
+            log.warn("Ignoring malformed cache invalidation message", exception);
+            return;
+        }
+        if (instanceId.equals(invalidation.origin())) {
+            return;
+        }
+        TwoTierCache cache = cacheManager.getExistingCache(invalidation.cacheName());
+        if (cache == null) {
+            return;
+        }
+        if (invalidation.keys() != null) {
+            invalidation.keys().forEach(cache::evictLocal);
+        } else if (invalidation.key() == null) {
+            cache.clearLocal();
+        } else {
+            cache.evictLocal(invalidation.key());
+        }
+    }
+}
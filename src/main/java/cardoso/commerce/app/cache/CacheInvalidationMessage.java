@@ -0,0 +1,14 @@
+package cardoso.commerce.app.cache;
+
+import java.util.List;
+
+/**
+ * Broadcast when an instance writes or evicts cache entries: the single {@code key}, or all of
+ * {@code keys} for a batch write. A message with neither clears the cache.
+ */
+public record CacheInvalidationMessage(String origin, String cacheName, String key, List<String> keys) {
+
+    public CacheInvalidationMessage(String origin, String cacheName, String key) {
+        this(origin, cacheName, key, null);
+    }
+}
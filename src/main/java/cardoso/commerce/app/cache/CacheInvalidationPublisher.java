@@ -0,0 +1,57 @@
+package cardoso.commerce.app.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+@Slf4j
+public class CacheInvalidationPublisher {
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final String channel;
+
+    public CacheInvalidationPublisher(StringRedisTemplate redisTemplate, ObjectMapper objectMapper, String channel) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.channel = channel;
+    }
+
+    public static CacheInvalidationPublisher disabled() {
+        return new CacheInvalidationPublisher(null, null, null);
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    public void publish(String cacheName, String key) {
+        send(new CacheInvalidationMessage(instanceId, cacheName, key));
+    }
+
+    /**
+     * Publishes the eviction of all {@code keys} in one message; nothing when there are none.
+     */
+    public void publishAll(String cacheName, List<String> keys) {
+        if (!keys.isEmpty()) {
+            send(new CacheInvalidationMessage(instanceId, cacheName, null, keys));
+        }
+    }
+
+    private void send(CacheInvalidationMessage message) {
+        if (redisTemplate == null) {
+            return;
+        }
+        try {
+            redisTemplate.convertAndSend(channel, objectMapper.writeValueAsString(message));
+        } catch (JsonProcessingException | RuntimeException exception) {
+            log.warn("Could not publish invalidation for cache '{}' key '{}'", message.cacheName(),
+                    message.key() != null ? message.key() : message.keys(), exception);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package cardoso.commerce.app.cache;
+
+import java.time.Duration;
+
+/**
+ * Expiry policy of one cache. Entries older than {@code softTtl} are still served while they are
+ * reloaded in the background; entries older than {@code hardTtl} are gone. Entries read at least
+ * {@code refreshAheadMinHits} times are reloaded once they reach {@code refreshAhead} of their soft
+ * TTL, before any caller sees them stale. A {@code null} TTL never expires.
+ */
+public record CacheSpec(Duration softTtl, Duration hardTtl, double refreshAhead, long refreshAheadMinHits) {
+
+    public CacheSpec {
+        if (softTtl == null || (hardTtl != null && softTtl.compareTo(hardTtl) > 0)) {
+            softTtl = hardTtl;
+        }
+    }
+
+    public static CacheSpec of(Duration timeToLive) {
+        return new CacheSpec(timeToLive, timeToLive, 0, 0);
+    }
+
+    boolean refreshAheadEnabled() {
+        return softTtl != null && refreshAhead > 0 && refreshAhead < 1;
+    }
+}
@@ -0,0 +1,394 @@
+package cardoso.commerce.app.cache;
+
+import cardoso.commerce.app.catalog.CatalogIndex;
+import cardoso.commerce.app.client.response.PlatziProductResponse;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Redis value codec for the product cache. {@link CacheEntry} values holding a product, a product
+ * list, a {@link CatalogIndex} or nothing are written field by field in a binary format; everything
+ * else, such as the {@code NullValue} marker, falls back to JDK serialization.
+ *
+ * <p>A compact value starts with {@link #MAGIC}, the format version and a flags byte, followed by
+ * the value, deflated at the fastest level once it is larger than the compression threshold. Each
+ * value is tagged with its type and every type has a fixed field layout, so a field added to a
+ * cached type needs a new tag or a new format version. Values of a format version this codec does
+ * not know are read as cache misses, which lets instances of different releases share Redis.
+ *
+ * <p>Values written by JDK serialization start with its stream magic {@code 0xACED} instead and are
+ * read as before, so entries stored before this codec keep being served until they expire. With
+ * compact writes turned off the codec only writes JDK serialization, for releases that have to share
+ * Redis with instances unable to read the compact format.
+ */
+public class CompactCacheCodec implements RedisSerializer<Object> {
+
+    static final byte MAGIC = (byte) 0xC5;
+    static final byte VERSION = 1;
+
+    private static final int HEADER_LENGTH = 3;
+    private static final byte DEFLATED = 0x01;
+
+    private static final byte TAG_NULL = 0;
+    private static final byte TAG_ENTRY = 1;
+    private static final byte TAG_PRODUCT = 2;
+    private static final byte TAG_PRODUCT_LIST = 3;
+    private static final byte TAG_CATALOG_INDEX = 4;
+
+    private static final int HAS_ID = 0x01;
+    private static final int HAS_TITLE = 0x02;
+    private static final int HAS_PRICE = 0x04;
+    private static final int COMPACT_PRICE = 0x08;
+
+    private final boolean writeCompact;
+    private final int compressionThreshold;
+    private final RedisSerializer<Object> fallback;
+
+    public CompactCacheCodec(boolean writeCompact, int compressionThreshold) {
+        this(writeCompact, compressionThreshold, RedisSerializer.java());
+    }
+
+    public CompactCacheCodec(boolean writeCompact, int compressionThreshold, RedisSerializer<Object> fallback) {
+        this.writeCompact = writeCompact;
+        this.compressionThreshold = compressionThreshold;
+        this.fallback = fallback;
+    }
+
+    @Override
+    public byte[] serialize(Object value) {
+        if (!writeCompact || !isCompact(value)) {
+            return fallback.serialize(value);
+        }
+
+        Output output = new Output(64);
+        output.skip(HEADER_LENGTH);
+        writeValue(output, value);
+        int length = output.length - HEADER_LENGTH;
+        if (length > compressionThreshold) {
+            byte[] deflated = deflate(output.bytes, HEADER_LENGTH, length);
+            if (deflated != null) {
+                return deflated;
+            }
+        }
+        output.bytes[0] = MAGIC;
+        output.bytes[1] = VERSION;
+        output.bytes[2] = 0;
+        return Arrays.copyOf(output.bytes, output.length);
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != MAGIC) {
+            return fallback.deserialize(bytes);
+        }
+        if (bytes.length < HEADER_LENGTH) {
+            throw new SerializationException("Truncated cache value");
+        }
+        if (bytes[1] != VERSION) {
+            // written by a release with another format: a miss, reloaded and overwritten in this one
+            return null;
+        }
+
+        Input input = new Input(bytes, HEADER_LENGTH);
+        if ((bytes[2] & DEFLATED) != 0) {
+            input = new Input(inflate(bytes, input), 0);
+        }
+        try {
+            return readValue(input);
+        } catch (ArrayIndexOutOfBoundsException exception) {
+            throw new SerializationException("Malformed cache value", exception);
+        }
+    }
+
+    private static boolean isCompact(Object value) {
+        if (value instanceof CacheEntry entry) {
+            return entry.value() == null || isCompact(entry.value());
+        }
+        if (value instanceof List<?> list) {
+            for (Object element : list) {
+                if (!(element instanceof PlatziProductResponse)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return value instanceof PlatziProductResponse || value instanceof CatalogIndex;
+    }
+
+    private static void writeValue(Output output, Object value) {
+        if (value == null) {
+            output.write(TAG_NULL);
+        } else if (value instanceof CacheEntry entry) {
+            output.write(TAG_ENTRY);
+            output.writeVarLong(entry.writtenAt());
+            writeValue(output, entry.value());
+        } else if (value instanceof PlatziProductResponse product) {
+            output.write(TAG_PRODUCT);
+            writeProduct(output, product);
+        } else if (value instanceof CatalogIndex index) {
+            output.write(TAG_CATALOG_INDEX);
+            writeCatalogIndex(output, index);
+        } else {
+            List<?> products = (List<?>) value;
+            output.write(TAG_PRODUCT_LIST);
+            output.writeVarLong(products.size());
+            for (Object product : products) {
+                writeProduct(output, (PlatziProductResponse) product);
+            }
+        }
+    }
+
+    private static Object readValue(Input input) {
+        byte tag = input.read();
+        return switch (tag) {
+            case TAG_NULL -> null;
+            case TAG_ENTRY -> {
+                long writtenAt = input.readVarLong();
+                yield new CacheEntry(readValue(input), writtenAt);
+            }
+            case TAG_PRODUCT -> readProduct(input);
+            case TAG_CATALOG_INDEX -> readCatalogIndex(input);
+            case TAG_PRODUCT_LIST -> {
+                PlatziProductResponse[] products = new PlatziProductResponse[input.readLength()];
+                for (int i = 0; i < products.length; i++) {
+                    products[i] = readProduct(input);
+                }
+                yield List.of(products);
+            }
+            default -> throw new SerializationException("Unknown cache value tag " + tag);
+        };
+    }
+
+    private static void writeProduct(Output output, PlatziProductResponse product) {
+        BigDecimal price = product.price();
+        boolean compactPrice = price != null && price.unscaledValue().bitLength() < Long.SIZE;
+        output.write((byte) ((product.id() != null ? HAS_ID : 0)
+                | (product.title() != null ? HAS_TITLE : 0)
+                | (price != null ? HAS_PRICE : 0)
+                | (compactPrice ? COMPACT_PRICE : 0)));
+        if (product.id() != null) {
+            output.writeVarLong(zigZag(product.id()));
+        }
+        if (product.title() != null) {
+            output.writeString(product.title());
+        }
+        if (price != null) {
+            output.writeVarLong(zigZag(price.scale()));
+            if (compactPrice) {
+                output.writeVarLong(zigZag(price.unscaledValue().longValue()));
+            } else {
+                byte[] unscaled = price.unscaledValue().toByteArray();
+                output.writeVarLong(unscaled.length);
+                output.write(unscaled, 0, unscaled.length);
+            }
+        }
+    }
+
+    private static PlatziProductResponse readProduct(Input input) {
+        int fields = input.read();
+        Long id = (fields & HAS_ID) != 0 ? unZigZag(input.readVarLong()) : null;
+        String title = (fields & HAS_TITLE) != 0 ? input.readString() : null;
+        BigDecimal price = null;
+        if ((fields & HAS_PRICE) != 0) {
+            int scale = (int) unZigZag(input.readVarLong());
+            price = (fields & COMPACT_PRICE) != 0
+                    ? BigDecimal.valueOf(unZigZag(input.readVarLong()), scale)
+                    : new BigDecimal(new BigInteger(input.readBytes()), scale);
+        }
+        return new PlatziProductResponse(id, title, price);
+    }
+
+    /**
+     * Writes the ids as differences from the previous one, which stay small while the upstream
+     * lists products roughly in id order.
+     */
+    private static void writeCatalogIndex(Output output, CatalogIndex index) {
+        output.writeVarLong(zigZag(index.version()));
+        output.writeVarLong(index.ids().length);
+        long previous = 0;
+        for (long id : index.ids()) {
+            output.writeVarLong(zigZag(id - previous));
+            previous = id;
+        }
+    }
+
+    private static CatalogIndex readCatalogIndex(Input input) {
+        long version = unZigZag(input.readVarLong());
+        long[] ids = new long[input.readLength()];
+        long previous = 0;
+        for (int i = 0; i < ids.length; i++) {
+            previous += unZigZag(input.readVarLong());
+            ids[i] = previous;
+        }
+        return new CatalogIndex(version, ids);
+    }
+
+    /**
+     * Returns the header and the deflated value, or {@code null} when deflating does not make it
+     * smaller.
+     */
+    private static byte[] deflate(byte[] bytes, int offset, int length) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+        try {
+            deflater.setInput(bytes, offset, length);
+            deflater.finish();
+            Output output = new Output(length / 2 + 16);
+            output.write(MAGIC);
+            output.write(VERSION);
+            output.write(DEFLATED);
+            output.writeVarLong(length);
+            while (!deflater.finished()) {
+                output.ensureCapacity(256);
+                output.length += deflater.deflate(output.bytes, output.length, output.bytes.length - output.length);
+                if (output.length >= length) {
+                    return null;
+                }
+            }
+            return Arrays.copyOf(output.bytes, output.length);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] bytes, Input input) {
+        long length = input.readVarLong();
+        if (length < 0 || length > Integer.MAX_VALUE - 8) {
+            throw new SerializationException("Malformed compressed cache value");
+        }
+        byte[] inflated = new byte[(int) length];
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(bytes, input.position, bytes.length - input.position);
+            if (inflater.inflate(inflated) != inflated.length || !inflater.finished()) {
+                throw new SerializationException("Truncated compressed cache value");
+            }
+            return inflated;
+        } catch (DataFormatException exception) {
+            throw new SerializationException("Malformed compressed cache value", exception);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static final class Output {
+
+        private byte[] bytes;
+        private int length;
+
+        Output(int capacity) {
+            this.bytes = new byte[capacity];
+        }
+
+        void ensureCapacity(int extra) {
+            if (length + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + extra));
+            }
+        }
+
+        void skip(int count) {
+            ensureCapacity(count);
+            length += count;
+        }
+
+        void write(byte value) {
+            ensureCapacity(1);
+            bytes[length++] = value;
+        }
+
+        void write(byte[] source, int offset, int count) {
+            ensureCapacity(count);
+            System.arraycopy(source, offset, bytes, length, count);
+            length += count;
+        }
+
+        /**
+         * Writes an unsigned value in groups of seven bits, lowest first.
+         */
+        void writeVarLong(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                bytes[length++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[length++] = (byte) value;
+        }
+
+        void writeString(String value) {
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(utf8.length);
+            write(utf8, 0, utf8.length);
+        }
+    }
+
+    private static final class Input {
+
+        private final byte[] bytes;
+        private int position;
+
+        Input(byte[] bytes, int position) {
+            this.bytes = bytes;
+            this.position = position;
+        }
+
+        byte read() {
+            return bytes[position++];
+        }
+
+        long readVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < Long.SIZE; shift += 7) {
+                byte current = bytes[position++];
+                value |= (long) (current & 0x7F) << shift;
+                if (current >= 0) {
+                    return value;
+                }
+            }
+            throw new SerializationException("Malformed variable-length number in cache value");
+        }
+
+        /**
+         * Reads the length of what follows, which cannot be more than the bytes left.
+         */
+        int readLength() {
+            long length = readVarLong();
+            if (length < 0 || length > bytes.length - position) {
+                throw new SerializationException("Malformed length in cache value");
+            }
+            return (int) length;
+        }
+
+        byte[] readBytes() {
+            int count = readLength();
+            byte[] value = Arrays.copyOfRange(bytes, position, position + count);
+            position += count;
+            return value;
+        }
+
+        String readString() {
+            int count = readLength();
+            String value = new String(bytes, position, count, StandardCharsets.UTF_8);
+            position += count;
+            return value;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package cardoso.commerce.app.cache;
+
+import cardoso.commerce.app.config.SingleFlightProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Extends single-flight loading across instances with a short-lived Redis lock. The instance that
+ * takes the lock loads the value, which its caller then writes to the cache; the others poll the
+ * cache until a fresh value shows up or the wait times out, and then load it themselves. Redis
+ * errors degrade to a plain load.
+ */
+@Slf4j
+@Component
+public class DistributedFetchLock {
+
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final SingleFlightProperties.DistributedLock properties;
+    private final MeterRegistry meterRegistry;
+
+    public DistributedFetchLock(StringRedisTemplate redisTemplate, SingleFlightProperties properties,
+                                MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.properties = properties.distributedLock();
+        this.meterRegistry = meterRegistry;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T load(Cache cache, Object key, Supplier<T> loader) {
+        if (!properties.enabled()) {
+            return loader.get();
+        }
+
+        String lockKey = "lock:" + cache.getName() + "::" + key;
+        String token = UUID.randomUUID().toString();
+        Boolean acquired;
+        try {
+            acquired = redisTemplate.opsForValue().setIfAbsent(lockKey, token, properties.ttl());
+        } catch (RuntimeException exception) {
+            log.debug("Could not take fetch lock {}, loading without it", lockKey, exception);
+            return loader.get();
+        }
+
+        if (Boolean.TRUE.equals(acquired)) {
+            try {
+                Cache.ValueWrapper cached = cache.get(key);
+                return cached != null ? (T) cached.get() : loader.get();
+            } finally {
+                release(lockKey, token);
+            }
+        }
+
+        long deadline = System.nanoTime() + properties.waitTimeout().toNanos();
+        while (System.nanoTime() < deadline) {
+            sleep();
+            Cache.ValueWrapper cached = cache.get(key);
+            if (cached != null) {
+                collapsedCounter(cache.getName()).increment();
+                return (T) cached.get();
+            }
+        }
+        return loader.get();
+    }
+
+    private void release(String lockKey, String token) {
+        try {
+            redisTemplate.execute(RELEASE_SCRIPT, List.of(lockKey), token);
+        } catch (RuntimeException exception) {
+            log.debug("Could not release fetch lock {}, it expires on its own", lockKey, exception);
+        }
+    }
+
+    private void sleep() {
+        try {
+            Thread.sleep(properties.pollInterval());
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for fetch lock", exception);
+        }
+    }
+
+    private Counter collapsedCounter(String cacheName) {
+        return Counter.builder("cache.collapsed.calls")
+                .description("Calls that shared an in-flight load instead of starting their own")
+                .tags("cache", cacheName, "scope", "remote")
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,98 @@
+package cardoso.commerce.app.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.util.ByteUtils;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Batch operations on a {@link RedisCache}, with the keys and values it would write itself: reads
+ * are {@code MGET}s of at most {@code batchSize} keys and writes are {@code SET}s with the entry TTL
+ * of the cache, all sent in one pipeline. Remotes other than Redis go {@link #PER_KEY}.
+ */
+public class RedisBatchOperations implements RemoteBatchOperations {
+
+    private final RedisConnectionFactory connectionFactory;
+    private final int batchSize;
+
+    public RedisBatchOperations(RedisConnectionFactory connectionFactory, int batchSize) {
+        this.connectionFactory = connectionFactory;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public List<Object> getAll(Cache remote, List<?> keys) {
+        if (!(remote instanceof RedisCache redisCache) || keys.isEmpty()) {
+            return PER_KEY.getAll(remote, keys);
+        }
+
+        byte[][] cacheKeys = new byte[keys.size()][];
+        for (int i = 0; i < cacheKeys.length; i++) {
+            cacheKeys[i] = cacheKey(redisCache, keys.get(i));
+        }
+        List<Object> batches;
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.openPipeline();
+            for (int from = 0; from < cacheKeys.length; from += batchSize) {
+                connection.stringCommands().mGet(Arrays.copyOfRange(cacheKeys, from, Math.min(from + batchSize, cacheKeys.length)));
+            }
+            batches = connection.closePipeline();
+        }
+
+        RedisCacheConfiguration configuration = redisCache.getCacheConfiguration();
+        List<Object> values = new ArrayList<>(keys.size());
+        for (Object batch : batches) {
+            for (Object value : (List<?>) batch) {
+                values.add(value != null
+                        ? configuration.getValueSerializationPair().read(ByteBuffer.wrap((byte[]) value))
+                        : null);
+            }
+        }
+        return values;
+    }
+
+    @Override
+    public void putAll(Cache remote, Map<?, ?> values) {
+        if (!(remote instanceof RedisCache redisCache) || values.isEmpty()) {
+            PER_KEY.putAll(remote, values);
+            return;
+        }
+
+        RedisCacheConfiguration configuration = redisCache.getCacheConfiguration();
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.openPipeline();
+            values.forEach((key, value) -> connection.stringCommands().set(cacheKey(redisCache, key),
+                    ByteUtils.getBytes(configuration.getValueSerializationPair().write(value)),
+                    expiration(configuration.getTtlFunction().getTimeToLive(key, value)),
+                    RedisStringCommands.SetOption.upsert()));
+            connection.closePipeline();
+        }
+    }
+
+    /**
+     * The key {@link RedisCache} stores {@code key} under.
+     */
+    private static byte[] cacheKey(RedisCache cache, Object key) {
+        RedisCacheConfiguration configuration = cache.getCacheConfiguration();
+        String cacheKey = configuration.getConversionService().convert(key, String.class);
+        if (configuration.usePrefix()) {
+            cacheKey = configuration.getKeyPrefixFor(cache.getName()) + cacheKey;
+        }
+        return ByteUtils.getBytes(configuration.getKeySerializationPair().write(cacheKey));
+    }
+
+    private static Expiration expiration(Duration ttl) {
+        return ttl != null && ttl.isPositive() ? Expiration.from(ttl) : Expiration.persistent();
+    }
+}
@@ -0,0 +1,39 @@
+package cardoso.commerce.app.cache;
+
+import org.springframework.cache.Cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads and writes many keys of the remote tier at once. {@link #PER_KEY} goes through the
+ * {@link Cache} one key at a time and works with any remote; {@link RedisBatchOperations} pipelines
+ * the keys of a Redis cache.
+ */
+public interface RemoteBatchOperations {
+
+    RemoteBatchOperations PER_KEY = new RemoteBatchOperations() {
+        @Override
+        public List<Object> getAll(Cache remote, List<?> keys) {
+            List<Object> values = new ArrayList<>(keys.size());
+            for (Object key : keys) {
+                Cache.ValueWrapper wrapper = remote.get(key);
+                values.add(wrapper != null ? wrapper.get() : null);
+            }
+            return values;
+        }
+
+        @Override
+        public void putAll(Cache remote, Map<?, ?> values) {
+            values.forEach(remote::put);
+        }
+    };
+
+    /**
+     * Returns the stored values in the order of {@code keys}, with {@code null} for the missing ones.
+     */
+    List<Object> getAll(Cache remote, List<?> keys);
+
+    void putAll(Cache remote, Map<?, ?> values);
+}
@@ -0,0 +1,378 @@
+package cardoso.commerce.app.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Serves reads from a bounded in-heap tier and falls back to the shared remote tier (Redis) on a
+ * local miss. Writes go to both tiers and are broadcast so other instances drop their local copy.
+ *
+ * <p>Values are stored as {@link CacheEntry} and expire according to the cache's {@link CacheSpec}.
+ * {@link #get(Object)} only returns fresh entries. {@link #get(Object, Callable)} also returns stale
+ * entries and reloads them in the background with the given loader. The {@code retrieve} variants
+ * behave the same for reactive callers without blocking on the remote tier.
+ *
+ * <p>{@link #getAll(List)} and {@link #putAll(Map)} read and write many keys in a few round trips
+ * through {@link RemoteBatchOperations}, for values that are cached one per key but read together.
+ */
+@Slf4j
+public class TwoTierCache implements Cache {
+
+    private final Cache remote;
+    private final com.github.benmanes.caffeine.cache.Cache<String, CacheEntry> local;
+    private final com.github.benmanes.caffeine.cache.Cache<String, LongAdder> reads;
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+    private final CacheSpec spec;
+    private final CacheInvalidationPublisher invalidationPublisher;
+    private final Executor refreshExecutor;
+    private final Clock clock;
+    private final RemoteBatchOperations batchOperations;
+
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder refreshFailures = new LongAdder();
+
+    public TwoTierCache(Cache remote, long maximumSize, Duration timeToLive, CacheSpec spec,
+                        CacheInvalidationPublisher invalidationPublisher, Executor refreshExecutor, Clock clock) {
+        this(remote, maximumSize, timeToLive, spec, invalidationPublisher, refreshExecutor, clock,
+                RemoteBatchOperations.PER_KEY);
+    }
+
+    public TwoTierCache(Cache remote, long maximumSize, Duration timeToLive, CacheSpec spec,
+                        CacheInvalidationPublisher invalidationPublisher, Executor refreshExecutor, Clock clock,
+                        RemoteBatchOperations batchOperations) {
+        this.remote = remote;
+        this.local = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .recordStats()
+                .build();
+        this.reads = spec.refreshAheadEnabled()
+                ? Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(spec.softTtl()).build()
+                : null;
+        this.spec = spec;
+        this.invalidationPublisher = invalidationPublisher;
+        this.refreshExecutor = refreshExecutor;
+        this.clock = clock;
+        this.batchOperations = batchOperations;
+    }
+
+    @Override
+    public String getName() {
+        return remote.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return this;
+    }
+
+    public Cache getRemote() {
+        return remote;
+    }
+
+    public com.github.benmanes.caffeine.cache.Cache<String, CacheEntry> getLocal() {
+        return local;
+    }
+
+    public CacheSpec getSpec() {
+        return spec;
+    }
+
+    public long staleHitCount() {
+        return staleHits.sum();
+    }
+
+    public long refreshCount() {
+        return refreshes.sum();
+    }
+
+    public long refreshFailureCount() {
+        return refreshFailures.sum();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        CacheEntry entry = lookup(key);
+        if (entry == null || age(entry) >= millis(spec.softTtl())) {
+            return null;
+        }
+        return new SimpleValueWrapper(entry.value());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        CacheEntry entry = lookup(key);
+        if (entry != null) {
+            long age = age(entry);
+            if (age >= millis(spec.softTtl())) {
+                staleHits.increment();
+                refresh(key, valueLoader);
+            } else if (dueForRefreshAhead(key, age)) {
+                refresh(key, valueLoader);
+            }
+            return (T) entry.value();
+        }
+
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception exception) {
+            throw new ValueRetrievalException(key, valueLoader, exception);
+        }
+        put(key, value);
+        return value;
+    }
+
+    @Override
+    public CompletableFuture<?> retrieve(Object key) {
+        return retrieveEntry(key).thenApply(entry -> entry == null || age(entry) >= millis(spec.softTtl())
+                ? null
+                : new SimpleValueWrapper(entry.value()));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+        return retrieveEntry(key).thenCompose(entry -> {
+            if (entry != null) {
+                long age = age(entry);
+                if (age >= millis(spec.softTtl())) {
+                    staleHits.increment();
+                    refresh(key, () -> valueLoader.get().join());
+                } else if (dueForRefreshAhead(key, age)) {
+                    refresh(key, () -> valueLoader.get().join());
+                }
+                return CompletableFuture.completedFuture((T) entry.value());
+            }
+            return valueLoader.get().thenApply(value -> {
+                putAsync(key, value);
+                return value;
+            });
+        });
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        CacheEntry entry = new CacheEntry(value, clock.millis());
+        remote.put(key, entry);
+        putLocal(key, entry);
+        invalidationPublisher.publish(getName(), localKey(key));
+    }
+
+    /**
+     * Returns the values held for {@code keys}, stale ones included, keyed like {@code keys}; missing
+     * and {@code null} values are left out. Values read from the remote tier are not copied to the
+     * local one, so reading a large set does not push out the entries read one at a time.
+     */
+    public Map<Object, Object> getAll(List<?> keys) {
+        Map<Object, Object> values = HashMap.newHashMap(keys.size());
+        List<Object> missing = new ArrayList<>();
+        for (Object key : keys) {
+            CacheEntry entry = local.getIfPresent(localKey(key));
+            entry = entry != null ? live(entry) : null;
+            if (entry == null) {
+                missing.add(key);
+            } else if (entry.value() != null) {
+                values.put(key, entry.value());
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            List<Object> stored = batchOperations.getAll(remote, missing);
+            for (int i = 0; i < missing.size(); i++) {
+                Object value = stored.get(i);
+                CacheEntry entry = value instanceof CacheEntry cacheEntry ? live(cacheEntry) : null;
+                if (entry != null && entry.value() != null) {
+                    values.put(missing.get(i), entry.value());
+                }
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Writes {@code values} to the remote tier in one batch. Only the keys whose stored value
+     * changed are dropped from the local tier, here and, with a single message, on the other
+     * instances, so rewriting a mostly unchanged set keeps the local copies of the rest.
+     */
+    public void putAll(Map<?, ?> values) {
+        List<Object> keys = new ArrayList<>(values.keySet());
+        List<Object> stored = batchOperations.getAll(remote, keys);
+        long now = clock.millis();
+        Map<Object, CacheEntry> entries = LinkedHashMap.newLinkedHashMap(keys.size());
+        List<String> changed = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i++) {
+            Object value = values.get(keys.get(i));
+            entries.put(keys.get(i), new CacheEntry(value, now));
+            if (!(stored.get(i) instanceof CacheEntry current) || !Objects.equals(current.value(), value)) {
+                changed.add(localKey(keys.get(i)));
+            }
+        }
+        batchOperations.putAll(remote, entries);
+        local.invalidateAll(changed);
+        invalidationPublisher.publishAll(getName(), changed);
+    }
+
+    @Override
+    public void evict(Object key) {
+        remote.evict(key);
+        evictLocal(localKey(key));
+        invalidationPublisher.publish(getName(), localKey(key));
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        clearLocal();
+        invalidationPublisher.publish(getName(), null);
+    }
+
+    void evictLocal(String localKey) {
+        local.invalidate(localKey);
+    }
+
+    void clearLocal() {
+        local.invalidateAll();
+    }
+
+    static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+
+    private CacheEntry lookup(Object key) {
+        CacheEntry entry = local.getIfPresent(localKey(key));
+        if (entry == null) {
+            ValueWrapper wrapper = remote.get(key);
+            if (wrapper == null) {
+                return null;
+            }
+            entry = promote(key, wrapper.get());
+        }
+        return live(entry);
+    }
+
+    private CompletableFuture<CacheEntry> retrieveEntry(Object key) {
+        CacheEntry entry = local.getIfPresent(localKey(key));
+        if (entry != null) {
+            return CompletableFuture.completedFuture(live(entry));
+        }
+        CompletableFuture<?> remoteValue = remote.retrieve(key);
+        if (remoteValue == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return remoteValue.thenApply(value -> {
+            if (value == null) {
+                return null;
+            }
+            return live(promote(key, value instanceof ValueWrapper wrapper ? wrapper.get() : value));
+        });
+    }
+
+    private CacheEntry promote(Object key, Object stored) {
+        CacheEntry entry = stored instanceof CacheEntry cacheEntry
+                ? cacheEntry
+                : new CacheEntry(stored, clock.millis());
+        local.put(localKey(key), entry);
+        return entry;
+    }
+
+    private CacheEntry live(CacheEntry entry) {
+        return age(entry) < millis(spec.hardTtl()) ? entry : null;
+    }
+
+    private void putLocal(Object key, CacheEntry entry) {
+        String localKey = localKey(key);
+        local.put(localKey, entry);
+        if (reads != null) {
+            reads.invalidate(localKey);
+        }
+    }
+
+    private void putAsync(Object key, Object value) {
+        CacheEntry entry = new CacheEntry(value, clock.millis());
+        putLocal(key, entry);
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    remote.put(key, entry);
+                    invalidationPublisher.publish(getName(), localKey(key));
+                } catch (RuntimeException exception) {
+                    log.debug("Writing cache '{}' key '{}' to the remote tier failed", getName(), key, exception);
+                }
+            });
+        } catch (RejectedExecutionException exception) {
+            log.debug("Skipped remote write of cache '{}' key '{}'", getName(), key);
+        }
+    }
+
+    private boolean dueForRefreshAhead(Object key, long age) {
+        if (reads == null) {
+            return false;
+        }
+        LongAdder count = reads.get(localKey(key), ignored -> new LongAdder());
+        count.increment();
+        return age >= spec.refreshAhead() * millis(spec.softTtl()) && count.sum() >= spec.refreshAheadMinHits();
+    }
+
+    private void refresh(Object key, Callable<?> valueLoader) {
+        String localKey = localKey(key);
+        if (!refreshing.add(localKey)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    put(key, valueLoader.call());
+                    refreshes.increment();
+                } catch (Exception exception) {
+                    refreshFailures.increment();
+                    log.debug("Background refresh of cache '{}' key '{}' failed, serving stale value", getName(), key, exception);
+                } finally {
+                    refreshing.remove(localKey);
+                }
+            });
+        } catch (RejectedExecutionException exception) {
+            refreshing.remove(localKey);
+        }
+    }
+
+    private long age(CacheEntry entry) {
+        return clock.millis() - entry.writtenAt();
+    }
+
+    private static long millis(Duration ttl) {
+        return ttl != null ? ttl.toMillis() : Long.MAX_VALUE;
+    }
+}
@@ -0,0 +1,70 @@
+package cardoso.commerce.app.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+public class TwoTierCacheManager implements CacheManager {
+
+    private final ConcurrentMap<String, TwoTierCache> caches = new ConcurrentHashMap<>();
+    private final CacheManager remoteCacheManager;
+    private final long localMaximumSize;
+    private final Duration localTimeToLive;
+    private final Function<String, CacheSpec> specs;
+    private final CacheInvalidationPublisher invalidationPublisher;
+    private final Executor refreshExecutor;
+    private final MeterRegistry meterRegistry;
+    private final RemoteBatchOperations batchOperations;
+
+    public TwoTierCacheManager(CacheManager remoteCacheManager, long localMaximumSize, Duration localTimeToLive,
+                               Function<String, CacheSpec> specs, CacheInvalidationPublisher invalidationPublisher,
+                               Executor refreshExecutor, MeterRegistry meterRegistry) {
+        this(remoteCacheManager, localMaximumSize, localTimeToLive, specs, invalidationPublisher, refreshExecutor,
+                meterRegistry, RemoteBatchOperations.PER_KEY);
+    }
+
+    public TwoTierCacheManager(CacheManager remoteCacheManager, long localMaximumSize, Duration localTimeToLive,
+                               Function<String, CacheSpec> specs, CacheInvalidationPublisher invalidationPublisher,
+                               Executor refreshExecutor, MeterRegistry meterRegistry,
+                               RemoteBatchOperations batchOperations) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.localMaximumSize = localMaximumSize;
+        this.localTimeToLive = localTimeToLive;
+        this.specs = specs;
+        this.invalidationPublisher = invalidationPublisher;
+        this.refreshExecutor = refreshExecutor;
+        this.meterRegistry = meterRegistry;
+        this.batchOperations = batchOperations;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, this::createCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    TwoTierCache getExistingCache(String name) {
+        return caches.get(name);
+    }
+
+    private TwoTierCache createCache(String name) {
+        Cache remote = remoteCacheManager.getCache(name);
+        TwoTierCache cache = new TwoTierCache(remote, localMaximumSize, localTimeToLive, specs.apply(name),
+                invalidationPublisher, refreshExecutor, Clock.systemUTC(), batchOperations);
+        TwoTierCacheMetrics.bind(cache, meterRegistry);
+        return cache;
+    }
+}
@@ -0,0 +1,60 @@
+package cardoso.commerce.app.cache;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.data.redis.cache.CacheStatistics;
+import org.springframework.data.redis.cache.RedisCache;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Publishes {@code cache.gets}, {@code cache.puts} and {@code cache.evictions} for each tier of a
+ * {@link TwoTierCache}, tagged with {@code tier=local|remote}, plus the stale hits and background
+ * refreshes of stale-while-revalidate caches.
+ */
+final class TwoTierCacheMetrics {
+
+    private TwoTierCacheMetrics() {
+    }
+
+    static void bind(TwoTierCache cache, MeterRegistry registry) {
+        Tags local = Tags.of("cache", cache.getName(), "tier", "local");
+        counter(registry, "cache.gets", local.and("result", "hit"), cache, c -> localStats(c).hitCount());
+        counter(registry, "cache.gets", local.and("result", "miss"), cache, c -> localStats(c).missCount());
+        counter(registry, "cache.evictions", local, cache, c -> localStats(c).evictionCount());
+        Gauge.builder("cache.size", cache, c -> c.getLocal().estimatedSize())
+                .tags(local)
+                .register(registry);
+
+        Tags tags = Tags.of("cache", cache.getName());
+        counter(registry, "cache.stale.hits", tags, cache, TwoTierCache::staleHitCount);
+        counter(registry, "cache.refreshes", tags.and("result", "success"), cache, TwoTierCache::refreshCount);
+        counter(registry, "cache.refreshes", tags.and("result", "failure"), cache, TwoTierCache::refreshFailureCount);
+
+        if (cache.getRemote() instanceof RedisCache) {
+            Tags remote = Tags.of("cache", cache.getName(), "tier", "remote");
+            counter(registry, "cache.gets", remote.and("result", "hit"), cache, c -> remoteStats(c).getHits());
+            counter(registry, "cache.gets", remote.and("result", "miss"), cache, c -> remoteStats(c).getMisses());
+            counter(registry, "cache.puts", remote, cache, c -> remoteStats(c).getPuts());
+            counter(registry, "cache.evictions", remote, cache, c -> remoteStats(c).getDeletes());
+        }
+    }
+
+    private static void counter(MeterRegistry registry, String name, Tags tags, TwoTierCache cache,
+                                ToDoubleFunction<TwoTierCache> function) {
+        FunctionCounter.builder(name, cache, function)
+                .tags(tags)
+                .register(registry);
+    }
+
+    private static CacheStats localStats(TwoTierCache cache) {
+        return cache.getLocal().stats();
+    }
+
+    private static CacheStatistics remoteStats(TwoTierCache cache) {
+        return ((RedisCache) cache.getRemote()).getStatistics();
+    }
+}
@@ -0,0 +1,39 @@
+package cardoso.commerce.app.catalog;
+
+import cardoso.commerce.app.client.response.PlatziProductResponse;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The cached form of the upstream product list: the product ids in upstream order and the
+ * {@link CatalogSnapshot} version of the list they were read from. The products themselves are
+ * cached one per id.
+ */
+public record CatalogIndex(long version, long[] ids) implements Serializable {
+
+    public static CatalogIndex of(List<PlatziProductResponse> products) {
+        return new CatalogIndex(CatalogSnapshot.version(products),
+                products.stream().mapToLong(PlatziProductResponse::id).toArray());
+    }
+
+    public List<Long> idList() {
+        return Arrays.stream(ids).boxed().toList();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof CatalogIndex index && version == index.version && Arrays.equals(ids, index.ids);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(version) + Arrays.hashCode(ids);
+    }
+
+    @Override
+    public String toString() {
+        return "CatalogIndex[version=" + version + ", ids=" + ids.length + "]";
+    }
+}
@@ -0,0 +1,7 @@
+package cardoso.commerce.app.catalog;
+
+/**
+ * A catalog page serialized to JSON, with the ETag of the catalog version it was rendered from.
+ */
+public record CatalogPage(byte[] body, String etag) {
+}
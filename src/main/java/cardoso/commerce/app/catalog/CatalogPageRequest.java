@@ -0,0 +1,10 @@
+package cardoso.commerce.app.catalog;
+
+import java.util.List;
+
+/**
+ * One page of the catalog: up to {@code limit} products with an id greater than {@code afterId}, or
+ * from the start when it is {@code null}, holding only {@code fields}, in their declaration order.
+ */
+public record CatalogPageRequest(Long afterId, int limit, List<String> fields) {
+}
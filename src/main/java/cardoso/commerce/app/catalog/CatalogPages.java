@@ -0,0 +1,193 @@
+package cardoso.commerce.app.catalog;
+
+import cardoso.commerce.app.client.response.PlatziProductResponse;
+import cardoso.commerce.app.config.CatalogPageProperties;
+import cardoso.commerce.app.exception.BusinessesException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Serves the catalog in pages keyed by product id. Pages are serialized to JSON once per catalog
+ * version and kept as bytes, so repeated reads only copy them out. The ETag is the catalog version,
+ * which covers every product field: it is known before any page is looked up, so a client polling
+ * with {@code If-None-Match} is answered without touching the page cache.
+ *
+ * <p>The catalog comes from the snapshot when it is fresh and otherwise from the cached upstream
+ * list, which is indexed once per version of the cached {@link CatalogIndex}, or once per list
+ * instance on the reactive stack.
+ */
+@Component
+public class CatalogPages {
+
+    static final Map<String, Function<PlatziProductResponse, Object>> FIELDS = fields();
+
+    private final ObjectMapper objectMapper;
+    private final CatalogPageProperties properties;
+    private final Cache<PageKey, byte[]> pages;
+
+    private volatile Fallback fallback = new Fallback(List.of(), CatalogSnapshot.EMPTY);
+    private volatile Indexed indexed = new Indexed(CatalogSnapshot.EMPTY.version(), CatalogSnapshot.EMPTY);
+    private volatile Sorted sorted = new Sorted(CatalogSnapshot.EMPTY.version(), new PlatziProductResponse[0]);
+
+    public CatalogPages(ObjectMapper objectMapper, CatalogPageProperties properties) {
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.pages = Caffeine.newBuilder().maximumSize(properties.maxCachedPages()).build();
+    }
+
+    /**
+     * Validates the query parameters of a page and brings them into a canonical form, so equal
+     * pages share one cache entry.
+     */
+    public CatalogPageRequest request(Long afterId, Integer limit, String fields) {
+        int pageLimit = limit != null ? limit : properties.defaultLimit();
+        if (pageLimit < 1 || pageLimit > properties.maxLimit()) {
+            throw new BusinessesException("limit must be between 1 and " + properties.maxLimit());
+        }
+        if (fields == null || fields.isBlank()) {
+            return new CatalogPageRequest(afterId, pageLimit, List.copyOf(FIELDS.keySet()));
+        }
+
+        List<String> requested = Arrays.stream(fields.split(",")).map(String::trim).toList();
+        requested.stream()
+                .filter(field -> !FIELDS.containsKey(field))
+                .findFirst()
+                .ifPresent(field -> {
+                    throw new BusinessesException("Unknown product field: " + field);
+                });
+        return new CatalogPageRequest(afterId, pageLimit,
+                FIELDS.keySet().stream().filter(requested::contains).toList());
+    }
+
+    /**
+     * Returns the catalog held by {@code snapshot}, or by {@code products} when there is no fresh
+     * snapshot. The catalog built from {@code products} is kept until another list instance comes in.
+     */
+    public CatalogSnapshot catalog(CatalogSnapshot snapshot, List<PlatziProductResponse> products) {
+        if (snapshot != null) {
+            return snapshot;
+        }
+        Fallback current = fallback;
+        if (current.products() != products) {
+            current = new Fallback(products, CatalogSnapshot.of(products, Instant.now()));
+            fallback = current;
+        }
+        return current.snapshot();
+    }
+
+    /**
+     * Returns the catalog of the cached product list at {@code version}, built from {@code products}
+     * only when that version was not seen last.
+     */
+    public CatalogSnapshot catalog(long version, Supplier<List<PlatziProductResponse>> products) {
+        Indexed current = indexed;
+        if (current.version() != version) {
+            current = new Indexed(version, CatalogSnapshot.of(products.get(), Instant.now()));
+            indexed = current;
+        }
+        return current.snapshot();
+    }
+
+    public String etag(CatalogSnapshot snapshot) {
+        return "\"" + Long.toHexString(snapshot.version()) + "\"";
+    }
+
+    public CatalogPage page(CatalogSnapshot snapshot, CatalogPageRequest request) {
+        byte[] body = pages.get(new PageKey(snapshot.version(), request), key -> render(sorted(snapshot), request));
+        return new CatalogPage(body, etag(snapshot));
+    }
+
+    private PlatziProductResponse[] sorted(CatalogSnapshot snapshot) {
+        Sorted current = sorted;
+        if (current.version() != snapshot.version()) {
+            current = new Sorted(snapshot.version(), snapshot.products().stream()
+                    .sorted(Comparator.comparing(PlatziProductResponse::id))
+                    .toArray(PlatziProductResponse[]::new));
+            sorted = current;
+        }
+        return current.byId();
+    }
+
+    private byte[] render(PlatziProductResponse[] byId, CatalogPageRequest request) {
+        int from = request.afterId() != null ? firstAfter(byId, request.afterId()) : 0;
+        int to = Math.min(from + request.limit(), byId.length);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("items");
+            for (int i = from; i < to; i++) {
+                generator.writeStartObject();
+                for (String field : request.fields()) {
+                    generator.writeObjectField(field, FIELDS.get(field).apply(byId[i]));
+                }
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.writeObjectField("nextAfterId", to < byId.length ? byId[to - 1].id() : null);
+            generator.writeEndObject();
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        return out.toByteArray();
+    }
+
+    private static int firstAfter(PlatziProductResponse[] byId, long afterId) {
+        int low = 0;
+        int high = byId.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (byId[middle].id() <= afterId) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static Map<String, Function<PlatziProductResponse, Object>> fields() {
+        Map<String, Function<PlatziProductResponse, Object>> fields = new LinkedHashMap<>();
+        fields.put("id", PlatziProductResponse::id);
+        fields.put("title", PlatziProductResponse::title);
+        fields.put("price", PlatziProductResponse::price);
+        return Collections.unmodifiableMap(fields);
+    }
+
+    private record PageKey(long version, CatalogPageRequest request) {
+    }
+
+    /**
+     * The catalog built from the last upstream list served while there was no fresh snapshot.
+     */
+    private record Fallback(List<PlatziProductResponse> products, CatalogSnapshot snapshot) {
+    }
+
+    /**
+     * The catalog built from the cached product list at the last {@code version} served.
+     */
+    private record Indexed(long version, CatalogSnapshot snapshot) {
+    }
+
+    /**
+     * The products of the last catalog version a page was rendered from, in id order.
+     */
+    private record Sorted(long version, PlatziProductResponse[] byId) {
+    }
+}
@@ -0,0 +1,33 @@
+package cardoso.commerce.app.catalog;
+
+import cardoso.commerce.app.client.response.PlatziProductResponse;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A point-in-time copy of the whole upstream catalog. The version is a hash of the catalog
+ * content, so instances holding the same products agree on it.
+ */
+public record CatalogSnapshot(ProductIndex index, List<PlatziProductResponse> products, long version, Instant loadedAt) {
+
+    public static final CatalogSnapshot EMPTY = new CatalogSnapshot(ProductIndex.empty(), List.of(), 0L, Instant.EPOCH);
+
+    public static CatalogSnapshot of(List<PlatziProductResponse> products, Instant loadedAt) {
+        List<PlatziProductResponse> copy = List.copyOf(products);
+        return new CatalogSnapshot(ProductIndex.of(copy), copy, version(copy), loadedAt);
+    }
+
+    public boolean isEmpty() {
+        return index.size() == 0;
+    }
+
+    static long version(List<PlatziProductResponse> products) {
+        long hash = 1125899906842597L;
+        for (PlatziProductResponse product : products) {
+            hash = 31 * hash + Objects.hash(product.id(), product.title(), product.price());
+        }
+        return hash;
+    }
+}
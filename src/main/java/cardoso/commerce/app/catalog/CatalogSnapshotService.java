@@ -0,0 +1,68 @@
+package cardoso.commerce.app.catalog;
+
+import cardoso.commerce.app.client.PlatziStoreClient;
+import cardoso.commerce.app.client.response.PlatziProductResponse;
+import cardoso.commerce.app.config.CatalogSnapshotProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Keeps the whole upstream catalog in memory. The snapshot is rebuilt in the background and
+ * swapped in atomically, so readers never see a partially built index.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CatalogSnapshotService {
+
+    private final PlatziStoreClient platziStoreClient;
+    private final CatalogSnapshotProperties properties;
+
+    private final AtomicReference<CatalogSnapshot> snapshot = new AtomicReference<>(CatalogSnapshot.EMPTY);
+
+    /**
+     * Returns the product from the current snapshot, or {@code null} when the id is unknown or the
+     * snapshot is older than {@code basket.catalog.snapshot.max-age}.
+     */
+    public PlatziProductResponse find(long id) {
+        CatalogSnapshot current = current();
+        return current != null ? current.index().get(id) : null;
+    }
+
+    /**
+     * Returns the current snapshot, or {@code null} when snapshots are disabled, not loaded yet or stale.
+     */
+    public CatalogSnapshot current() {
+        if (!properties.enabled()) {
+            return null;
+        }
+        CatalogSnapshot current = snapshot.get();
+        if (current.isEmpty() || current.loadedAt().plus(properties.maxAge()).isBefore(Instant.now())) {
+            return null;
+        }
+        return current;
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${basket.catalog.snapshot.refresh-interval:60s}")
+    public void refresh() {
+        if (!properties.enabled()) {
+            return;
+        }
+        try {
+            List<PlatziProductResponse> products = platziStoreClient.getAllProducts();
+            CatalogSnapshot next = CatalogSnapshot.of(products, Instant.now());
+            CatalogSnapshot previous = snapshot.getAndSet(next);
+            if (previous.version() != next.version()) {
+                log.info("Catalog snapshot refreshed with {} products (version {})", next.index().size(), next.version());
+            }
+        } catch (RuntimeException exception) {
+            log.warn("Could not refresh catalog snapshot, keeping the previous one", exception);
+        }
+    }
+}
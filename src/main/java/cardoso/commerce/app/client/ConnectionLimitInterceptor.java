@@ -0,0 +1,79 @@
+package cardoso.commerce.app.client;
+
+import okhttp3.Interceptor;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.Okio;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Caps the OkHttp calls in flight, counting a call until its response body is closed, since the
+ * connection is only handed back then. OkHttp's {@code Dispatcher} limits apply to asynchronous
+ * calls only, and Feign executes synchronously, so this is what keeps the blocking transport
+ * within {@code basket.client.transport.pool.max-connections}. A call that cannot get a slot within
+ * {@code maxWait} fails with an {@link IOException}.
+ */
+public class ConnectionLimitInterceptor implements Interceptor {
+
+    private final Semaphore permits;
+    private final long maxWaitNanos;
+
+    public ConnectionLimitInterceptor(int maxConnections, Duration maxWait) {
+        this.permits = new Semaphore(maxConnections);
+        this.maxWaitNanos = maxWait.toNanos();
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        try {
+            if (!permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS)) {
+                throw new IOException("Connection limit reached calling " + chain.request().url());
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for a connection");
+        }
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        };
+        try {
+            Response response = chain.proceed(chain.request());
+            ResponseBody body = response.body();
+            if (body == null) {
+                release.run();
+                return response;
+            }
+            BufferedSource source = Okio.buffer(new ForwardingSource(body.source()) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        release.run();
+                    }
+                }
+            });
+            return response.newBuilder()
+                    .body(ResponseBody.create(source, body.contentType(), body.contentLength()))
+                    .build();
+        } catch (IOException | RuntimeException exception) {
+            release.run();
+            throw exception;
+        }
+    }
+
+    public int availableConnections() {
+        return permits.availablePermits();
+    }
+}
@@ -0,0 +1,74 @@
+package cardoso.commerce.app.client;
+
+import cardoso.commerce.app.client.resilience.RequestDeadline;
+import cardoso.commerce.app.exception.DeadlineExceededException;
+import feign.Client;
+import feign.Request;
+import feign.Response;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shrinks the connect and read timeouts of each outbound call to what is left of the incoming
+ * request's deadline, and refuses to start calls whose deadline has already passed. A call that
+ * times out on a shrunk timeout fails with {@link DeadlineTimeoutException}, since it ran out of the
+ * caller's time rather than the upstream being slow; see {@link #causedByDeadline}.
+ */
+public class DeadlineAwareFeignClient implements Client {
+
+    private final Client delegate;
+
+    public DeadlineAwareFeignClient(Client delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        if (!RequestDeadline.isSet()) {
+            return delegate.execute(request, options);
+        }
+        long remaining = RequestDeadline.remainingNanos();
+        if (remaining <= 0) {
+            throw new DeadlineExceededException("Request deadline exceeded before calling " + request.url());
+        }
+        long remainingMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(remaining));
+        Request.Options bounded = new Request.Options(
+                Math.min(options.connectTimeoutMillis(), remainingMillis), TimeUnit.MILLISECONDS,
+                Math.min(options.readTimeoutMillis(), remainingMillis), TimeUnit.MILLISECONDS,
+                options.isFollowRedirects());
+        try {
+            return delegate.execute(request, bounded);
+        } catch (SocketTimeoutException exception) {
+            if (bounded.readTimeoutMillis() < options.readTimeoutMillis()
+                    || bounded.connectTimeoutMillis() < options.connectTimeoutMillis()) {
+                throw new DeadlineTimeoutException(request.url(), exception);
+            }
+            throw exception;
+        }
+    }
+
+    /**
+     * Whether {@code throwable} is, or was caused by, a call timing out on the caller's deadline.
+     */
+    public static boolean causedByDeadline(Throwable throwable) {
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DeadlineExceededException || cause instanceof DeadlineTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A timeout that only happened because the request deadline shortened the configured one.
+     */
+    public static class DeadlineTimeoutException extends SocketTimeoutException {
+
+        DeadlineTimeoutException(String url, SocketTimeoutException cause) {
+            super("Request deadline exceeded calling " + url);
+            initCause(cause);
+        }
+    }
+}
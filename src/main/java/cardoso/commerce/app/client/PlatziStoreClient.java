@@ -8,7 +8,8 @@ import org.springframework.web.bind.annotation.PathVariable;
 
 import java.util.List;
 
-@FeignClient(name = "PlatziStoreClient", url = "${basket.client.platzi}", configuration = { CustomErrorDecoder.class })
+@FeignClient(name = "PlatziStoreClient", url = "${basket.client.platzi}", configuration = { CustomErrorDecoder.class },
+        qualifiers = "platziStoreFeignClient", primary = false)
 public interface PlatziStoreClient {
 
     @GetMapping("/products")
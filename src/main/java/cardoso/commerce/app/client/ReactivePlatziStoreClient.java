@@ -0,0 +1,55 @@
+package cardoso.commerce.app.client;
+
+import cardoso.commerce.app.client.resilience.ResilientCallExecutor;
+import cardoso.commerce.app.client.response.PlatziProductResponse;
+import cardoso.commerce.app.exception.DataNotFoundException;
+import cardoso.commerce.app.exception.UpstreamServiceException;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Non-blocking counterpart of {@link PlatziStoreClient} used by the reactive runtime. Errors are
+ * mapped like {@link cardoso.commerce.app.exception.CustomErrorDecoder} and every call goes through
+ * the same {@link ResilientCallExecutor} as the Feign client.
+ */
+public class ReactivePlatziStoreClient {
+
+    private static final ParameterizedTypeReference<List<PlatziProductResponse>> PRODUCT_LIST =
+            new ParameterizedTypeReference<>() {};
+
+    private final WebClient webClient;
+    private final ResilientCallExecutor executor;
+
+    public ReactivePlatziStoreClient(WebClient webClient, ResilientCallExecutor executor) {
+        this.webClient = webClient;
+        this.executor = executor;
+    }
+
+    public Mono<List<PlatziProductResponse>> getAllProducts() {
+        return executor.executeReactive(webClient.get()
+                .uri("/products")
+                .retrieve()
+                .onStatus(HttpStatusCode::isError, response -> toException(response, "getAllProducts"))
+                .bodyToMono(PRODUCT_LIST));
+    }
+
+    public Mono<PlatziProductResponse> getProductById(Long id) {
+        return executor.executeReactive(webClient.get()
+                .uri("/products/{id}", id)
+                .retrieve()
+                .onStatus(HttpStatusCode::isError, response -> toException(response, "getProductById"))
+                .bodyToMono(PlatziProductResponse.class));
+    }
+
+    private static Mono<RuntimeException> toException(ClientResponse response, String method) {
+        int status = response.statusCode().value();
+        return response.releaseBody().then(Mono.fromSupplier(() -> status == 400
+                ? new DataNotFoundException("Product not found")
+                : new UpstreamServiceException(status, "Exception while calling " + method)));
+    }
+}
@@ -0,0 +1,36 @@
+package cardoso.commerce.app.client;
+
+import cardoso.commerce.app.client.resilience.LatencyTracker;
+import cardoso.commerce.app.client.resilience.ResilientCallExecutor;
+import cardoso.commerce.app.client.response.PlatziProductResponse;
+import cardoso.commerce.app.config.ResilienceProperties;
+
+import java.util.List;
+
+/**
+ * The {@link PlatziStoreClient} the application uses: every call goes through the
+ * {@link ResilientCallExecutor}, and single-product lookups are hedged.
+ */
+public class ResilientPlatziStoreClient implements PlatziStoreClient {
+
+    private final PlatziStoreClient delegate;
+    private final ResilientCallExecutor executor;
+    private final LatencyTracker productLatency;
+
+    public ResilientPlatziStoreClient(PlatziStoreClient delegate, ResilientCallExecutor executor,
+                                      ResilienceProperties.Hedge hedge) {
+        this.delegate = delegate;
+        this.executor = executor;
+        this.productLatency = new LatencyTracker(hedge.window(), hedge.percentile());
+    }
+
+    @Override
+    public List<PlatziProductResponse> getAllProducts() {
+        return executor.execute(delegate::getAllProducts);
+    }
+
+    @Override
+    public PlatziProductResponse getProductById(Long id) {
+        return executor.executeHedged(() -> delegate.getProductById(id), productLatency);
+    }
+}
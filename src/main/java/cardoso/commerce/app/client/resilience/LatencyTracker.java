@@ -0,0 +1,44 @@
+package cardoso.commerce.app.client.resilience;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the most recent call latencies in a ring buffer and answers a percentile of them. The
+ * percentile is recomputed every {@code window / 4} samples rather than on every read.
+ */
+public class LatencyTracker {
+
+    private final long[] samples;
+    private final double percentile;
+    private final int recomputeEvery;
+    private final AtomicLong recorded = new AtomicLong();
+    private volatile long cachedPercentile = -1;
+
+    public LatencyTracker(int window, double percentile) {
+        this.samples = new long[window];
+        this.percentile = percentile;
+        this.recomputeEvery = Math.max(1, window / 4);
+    }
+
+    public void record(long nanos) {
+        long count = recorded.getAndIncrement();
+        samples[(int) (count % samples.length)] = nanos;
+        if (count + 1 >= samples.length / 4 && (count + 1) % recomputeEvery == 0) {
+            cachedPercentile = compute(Math.min(count + 1, samples.length));
+        }
+    }
+
+    /**
+     * Returns the tracked percentile in nanoseconds, or {@code -1} until enough samples are in.
+     */
+    public long percentileNanos() {
+        return cachedPercentile;
+    }
+
+    private long compute(long size) {
+        long[] copy = Arrays.copyOf(samples, (int) size);
+        Arrays.sort(copy);
+        return copy[(int) Math.min(size - 1, Math.ceil(percentile * size) - 1)];
+    }
+}
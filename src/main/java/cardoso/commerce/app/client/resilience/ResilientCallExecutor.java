@@ -0,0 +1,267 @@
+package cardoso.commerce.app.client.resilience;
+
+import cardoso.commerce.app.config.ResilienceProperties;
+import cardoso.commerce.app.exception.DeadlineExceededException;
+import cardoso.commerce.app.exception.UpstreamServiceException;
+import feign.RetryableException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Runs upstream calls through, from the outside in: retries with jittered exponential backoff
+ * limited by a {@link RetryBudget}, an optional hedged second attempt after the tracked latency
+ * percentile, a semaphore {@link Bulkhead} and a {@link CircuitBreaker}. Every step respects the
+ * {@link RequestDeadline} of the incoming request. {@link #executeReactive} applies the same
+ * breaker, bulkhead and retry budget to non-blocking calls; those are not hedged.
+ */
+public class ResilientCallExecutor {
+
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final RetryBudget retryBudget;
+    private final ResilienceProperties.Retry retry;
+    private final ResilienceProperties.Hedge hedge;
+    private final ExecutorService hedgeExecutor;
+
+    private final Counter retries;
+    private final Counter retriesRejected;
+    private final Counter hedgesLaunched;
+    private final Counter hedgesWon;
+    private final Counter deadlinesExceeded;
+
+    public ResilientCallExecutor(CircuitBreaker circuitBreaker, Bulkhead bulkhead, ResilienceProperties properties,
+                                 ExecutorService hedgeExecutor, MeterRegistry meterRegistry) {
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = bulkhead;
+        this.retry = properties.retry();
+        this.hedge = properties.hedge();
+        this.retryBudget = new RetryBudget(retry.budgetRatio(), retry.budgetMinTokens(), retry.budgetMaxTokens());
+        this.hedgeExecutor = hedgeExecutor;
+
+        String client = circuitBreaker.getName();
+        Gauge.builder("upstream.retry.budget.tokens", retryBudget, RetryBudget::tokens)
+                .tag("client", client)
+                .register(meterRegistry);
+        this.retries = Counter.builder("upstream.retries").tags("client", client, "result", "attempted").register(meterRegistry);
+        this.retriesRejected = Counter.builder("upstream.retries").tags("client", client, "result", "budget_exhausted").register(meterRegistry);
+        this.hedgesLaunched = Counter.builder("upstream.hedges").tags("client", client, "result", "launched").register(meterRegistry);
+        this.hedgesWon = Counter.builder("upstream.hedges").tags("client", client, "result", "won").register(meterRegistry);
+        this.deadlinesExceeded = Counter.builder("upstream.deadline.exceeded").tag("client", client).register(meterRegistry);
+    }
+
+    public <T> T execute(Supplier<T> call) {
+        return withRetries(() -> guarded(call));
+    }
+
+    public <T> T executeHedged(Supplier<T> call, LatencyTracker latencyTracker) {
+        return withRetries(() -> hedged(() -> timed(() -> guarded(call), latencyTracker), latencyTracker));
+    }
+
+    public <T> Mono<T> executeReactive(Mono<T> call) {
+        return Mono.defer(() -> {
+            retryBudget.deposit();
+            return call.transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                    .transformDeferred(BulkheadOperator.of(bulkhead))
+                    .retryWhen(Retry.from(signals -> signals.concatMap(this::retryDelay)));
+        });
+    }
+
+    public RetryBudget getRetryBudget() {
+        return retryBudget;
+    }
+
+    private <T> T withRetries(Supplier<T> attempt) {
+        retryBudget.deposit();
+        for (int attemptNumber = 1; ; attemptNumber++) {
+            try {
+                return attempt.get();
+            } catch (RuntimeException exception) {
+                if (attemptNumber >= retry.maxAttempts() || !isRetryable(exception)) {
+                    throw exception;
+                }
+                if (!retryBudget.tryWithdraw()) {
+                    retriesRejected.increment();
+                    throw exception;
+                }
+                long backoff = backoffNanos(attemptNumber);
+                if (backoff >= RequestDeadline.remainingNanos()) {
+                    throw exception;
+                }
+                retries.increment();
+                sleep(backoff);
+            }
+        }
+    }
+
+    private Mono<Long> retryDelay(Retry.RetrySignal signal) {
+        int attemptNumber = (int) signal.totalRetries() + 1;
+        Throwable failure = signal.failure();
+        if (attemptNumber >= retry.maxAttempts()
+                || !(failure instanceof RuntimeException exception && isRetryable(exception))) {
+            return Mono.error(failure);
+        }
+        if (!retryBudget.tryWithdraw()) {
+            retriesRejected.increment();
+            return Mono.error(failure);
+        }
+        retries.increment();
+        return Mono.delay(Duration.ofNanos(backoffNanos(attemptNumber)));
+    }
+
+    private <T> T hedged(Supplier<T> attempt, LatencyTracker latencyTracker) {
+        long delay = latencyTracker.percentileNanos();
+        if (!hedge.enabled() || delay < 0) {
+            return attempt.get();
+        }
+        delay = Math.max(delay, hedge.minDelay().toNanos());
+
+        CompletableFuture<T> primary = submit(attempt);
+        try {
+            return primary.get(Math.min(delay, RequestDeadline.remainingNanos()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException exception) {
+            if (RequestDeadline.remainingNanos() <= 0 || !retryBudget.tryWithdraw()) {
+                try {
+                    return await(primary);
+                } finally {
+                    primary.cancel(true);
+                }
+            }
+        } catch (ExecutionException exception) {
+            throw rethrow(exception.getCause());
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for upstream", exception);
+        }
+
+        hedgesLaunched.increment();
+        CompletableFuture<T> secondary = submit(attempt);
+        CompletableFuture<T> first = new CompletableFuture<>();
+        AtomicReference<CompletableFuture<T>> winner = new AtomicReference<>();
+        AtomicInteger failures = new AtomicInteger();
+        primary.whenComplete((value, error) -> complete(first, primary, value, error, winner, failures));
+        secondary.whenComplete((value, error) -> complete(first, secondary, value, error, winner, failures));
+        try {
+            T value = await(first);
+            if (winner.get() == secondary) {
+                hedgesWon.increment();
+            }
+            return value;
+        } finally {
+            primary.cancel(true);
+            secondary.cancel(true);
+        }
+    }
+
+    private <T> T guarded(Supplier<T> call) {
+        if (RequestDeadline.remainingNanos() <= 0) {
+            deadlinesExceeded.increment();
+            throw new DeadlineExceededException("Request deadline exceeded before calling " + circuitBreaker.getName());
+        }
+        return Bulkhead.decorateSupplier(bulkhead, CircuitBreaker.decorateSupplier(circuitBreaker, call)).get();
+    }
+
+    private static <T> T timed(Supplier<T> call, LatencyTracker latencyTracker) {
+        long start = System.nanoTime();
+        T value = call.get();
+        latencyTracker.record(System.nanoTime() - start);
+        return value;
+    }
+
+    /**
+     * Runs {@code attempt} on the hedge executor. Cancelling the returned future interrupts the
+     * attempt, so a losing or abandoned call gives its connection and bulkhead permit back.
+     */
+    private <T> CompletableFuture<T> submit(Supplier<T> attempt) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Future<?> task = hedgeExecutor.submit(RequestDeadline.wrap(() -> {
+            try {
+                future.complete(attempt.get());
+            } catch (Throwable throwable) {
+                future.completeExceptionally(throwable);
+            }
+            return null;
+        }));
+        future.whenComplete((value, error) -> {
+            if (future.isCancelled()) {
+                task.cancel(true);
+            }
+        });
+        return future;
+    }
+
+    private <T> T await(CompletableFuture<T> future) {
+        try {
+            long remaining = RequestDeadline.remainingNanos();
+            return remaining == Long.MAX_VALUE ? future.get() : future.get(remaining, TimeUnit.NANOSECONDS);
+        } catch (ExecutionException exception) {
+            throw rethrow(exception.getCause());
+        } catch (TimeoutException exception) {
+            deadlinesExceeded.increment();
+            throw new DeadlineExceededException("Request deadline exceeded waiting for " + circuitBreaker.getName());
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for upstream", exception);
+        }
+    }
+
+    private static <T> void complete(CompletableFuture<T> first, CompletableFuture<T> source, T value, Throwable error,
+                                     AtomicReference<CompletableFuture<T>> winner, AtomicInteger failures) {
+        if (error == null) {
+            if (winner.compareAndSet(null, source)) {
+                first.complete(value);
+            }
+        } else if (failures.incrementAndGet() == 2) {
+            first.completeExceptionally(error);
+        }
+    }
+
+    private long backoffNanos(int attemptNumber) {
+        long ceiling = Math.min(retry.maxBackoff().toNanos(), retry.baseBackoff().toNanos() << Math.min(attemptNumber - 1, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private static boolean isRetryable(RuntimeException exception) {
+        return exception instanceof RetryableException
+                || exception instanceof WebClientRequestException
+                || (exception instanceof UpstreamServiceException upstream && upstream.isRetryable());
+    }
+
+    private static RuntimeException rethrow(Throwable cause) {
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new IllegalStateException(cause);
+    }
+
+    private static void sleep(long nanos) {
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during retry backoff", exception);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package cardoso.commerce.app.client.resilience;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket that caps retries (and hedged attempts) to a fraction of regular traffic. Every call
+ * deposits {@code ratio} tokens, every retry withdraws one, and the balance never exceeds
+ * {@code maxTokens}, so a failing upstream gets at most {@code ratio} extra load.
+ */
+public class RetryBudget {
+
+    private static final long SCALE = 1_000;
+
+    private final long deposit;
+    private final long maxBalance;
+    private final AtomicLong balance;
+
+    public RetryBudget(double ratio, int minTokens, int maxTokens) {
+        this.deposit = Math.round(ratio * SCALE);
+        this.maxBalance = (long) maxTokens * SCALE;
+        this.balance = new AtomicLong((long) minTokens * SCALE);
+    }
+
+    public void deposit() {
+        balance.getAndUpdate(current -> Math.min(maxBalance, current + deposit));
+    }
+
+    public boolean tryWithdraw() {
+        long current;
+        do {
+            current = balance.get();
+            if (current < SCALE) {
+                return false;
+            }
+        } while (!balance.compareAndSet(current, current - SCALE));
+        return true;
+    }
+
+    public double tokens() {
+        return (double) balance.get() / SCALE;
+    }
+}
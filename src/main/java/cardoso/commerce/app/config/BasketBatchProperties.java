@@ -0,0 +1,12 @@
+package cardoso.commerce.app.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "basket.batch")
+public record BasketBatchProperties(
+
+        @DefaultValue("1000")
+        int maxOperations
+
+) {}
@@ -0,0 +1,17 @@
+package cardoso.commerce.app.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "basket.export")
+public record BasketExportProperties(
+
+        @DefaultValue("1000")
+        int batchSize,
+
+        @DefaultValue("2h")
+        Duration timeout
+
+) {}
@@ -0,0 +1,118 @@
+package cardoso.commerce.app.config;
+
+import cardoso.commerce.app.cache.CacheInvalidationListener;
+import cardoso.commerce.app.cache.CacheInvalidationPublisher;
+import cardoso.commerce.app.cache.CacheSpec;
+import cardoso.commerce.app.cache.CompactCacheCodec;
+import cardoso.commerce.app.cache.RedisBatchOperations;
+import cardoso.commerce.app.cache.SingleFlight;
+import cardoso.commerce.app.cache.TwoTierCacheManager;
+import cardoso.commerce.app.client.response.PlatziProductResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+
+@Configuration
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfig {
+
+    @Bean
+    public TwoTierCacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                            CacheProperties cacheProperties,
+                                            TwoTierCacheProperties twoTierCacheProperties,
+                                            CatalogCacheProperties catalogCacheProperties,
+                                            CacheInvalidationPublisher cacheInvalidationPublisher,
+                                            @Qualifier("cacheRefreshExecutor") ExecutorService cacheRefreshExecutor,
+                                            MeterRegistry meterRegistry) {
+        RedisCacheConfiguration defaults = redisCacheConfiguration(cacheProperties.getRedis(), twoTierCacheProperties.codec());
+        Map<String, CacheSpec> specs = new HashMap<>();
+        Map<String, RedisCacheConfiguration> configurations = new HashMap<>();
+        twoTierCacheProperties.specs().forEach((name, spec) -> {
+            Duration hardTtl = spec.hardTtl() != null ? spec.hardTtl() : cacheProperties.getRedis().getTimeToLive();
+            specs.put(name, new CacheSpec(spec.softTtl(), hardTtl, spec.refreshAhead(), spec.refreshAheadMinHits()));
+            configurations.put(name, hardTtl != null ? defaults.entryTtl(hardTtl) : defaults);
+        });
+        CacheSpec defaultSpec = CacheSpec.of(cacheProperties.getRedis().getTimeToLive());
+
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
+                .cacheDefaults(defaults)
+                .withInitialCacheConfigurations(configurations)
+                .enableStatistics()
+                .build();
+        redisCacheManager.afterPropertiesSet();
+
+        TwoTierCacheProperties.Local local = twoTierCacheProperties.local();
+        return new TwoTierCacheManager(redisCacheManager, local.maximumSize(), local.timeToLive(),
+                name -> specs.getOrDefault(name, defaultSpec), cacheInvalidationPublisher,
+                cacheRefreshExecutor, meterRegistry,
+                new RedisBatchOperations(connectionFactory, catalogCacheProperties.batchSize()));
+    }
+
+    @Bean
+    public SingleFlight<Long, PlatziProductResponse> productSingleFlight(MeterRegistry meterRegistry) {
+        return new SingleFlight<>("products", meterRegistry);
+    }
+
+    @Bean
+    public CacheInvalidationPublisher cacheInvalidationPublisher(StringRedisTemplate stringRedisTemplate,
+                                                                 ObjectMapper objectMapper,
+                                                                 TwoTierCacheProperties properties) {
+        TwoTierCacheProperties.Invalidation invalidation = properties.invalidation();
+        if (!invalidation.enabled()) {
+            return CacheInvalidationPublisher.disabled();
+        }
+        return new CacheInvalidationPublisher(stringRedisTemplate, objectMapper, invalidation.channel());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "basket.cache.invalidation", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                           TwoTierCacheManager cacheManager,
+                                                                           CacheInvalidationPublisher publisher,
+                                                                           ObjectMapper objectMapper,
+                                                                           TwoTierCacheProperties properties) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(new CacheInvalidationListener(cacheManager, objectMapper, publisher.getInstanceId()),
+                new ChannelTopic(properties.invalidation().channel()));
+        return container;
+    }
+
+    private static RedisCacheConfiguration redisCacheConfiguration(CacheProperties.Redis redis,
+                                                                   TwoTierCacheProperties.Codec codec) {
+        CompactCacheCodec values = new CompactCacheCodec(codec.type() == TwoTierCacheProperties.Codec.Type.COMPACT,
+                (int) codec.compressionThreshold().toBytes());
+        RedisCacheConfiguration configuration = RedisCacheConfiguration.defaultCacheConfig()
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(values));
+        if (redis.getTimeToLive() != null) {
+            configuration = configuration.entryTtl(redis.getTimeToLive());
+        }
+        if (redis.getKeyPrefix() != null) {
+            configuration = configuration.prefixCacheNameWith(redis.getKeyPrefix());
+        }
+        if (!redis.isCacheNullValues()) {
+            configuration = configuration.disableCachingNullValues();
+        }
+        if (!redis.isUseKeyPrefix()) {
+            configuration = configuration.disableKeyPrefix();
+        }
+        return configuration;
+    }
+}
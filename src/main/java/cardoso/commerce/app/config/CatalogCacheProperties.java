@@ -0,0 +1,15 @@
+package cardoso.commerce.app.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "basket.catalog.cache")
+public record CatalogCacheProperties(
+
+        @DefaultValue("1000")
+        int batchSize,
+
+        @DefaultValue("100")
+        int maxItemLoads
+
+) {}
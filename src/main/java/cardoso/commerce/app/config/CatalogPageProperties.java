@@ -0,0 +1,18 @@
+package cardoso.commerce.app.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "basket.catalog.pages")
+public record CatalogPageProperties(
+
+        @DefaultValue("50")
+        int defaultLimit,
+
+        @DefaultValue("200")
+        int maxLimit,
+
+        @DefaultValue("1000")
+        int maxCachedPages
+
+) {}
@@ -0,0 +1,20 @@
+package cardoso.commerce.app.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "basket.catalog.snapshot")
+public record CatalogSnapshotProperties(
+
+        @DefaultValue("true")
+        boolean enabled,
+
+        @DefaultValue("60s")
+        Duration refreshInterval,
+
+        @DefaultValue("10m")
+        Duration maxAge
+
+) {}
@@ -0,0 +1,26 @@
+package cardoso.commerce.app.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Configuration
+public class ConcurrencyConfig {
+
+    @Bean(destroyMethod = "close")
+    public ExecutorService productResolutionExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("product-resolver-", 0).factory());
+    }
+
+    @Bean(destroyMethod = "close")
+    public ExecutorService cacheRefreshExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("cache-refresh-", 0).factory());
+    }
+
+    @Bean(destroyMethod = "close")
+    public ExecutorService upstreamHedgeExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("upstream-call-", 0).factory());
+    }
+}
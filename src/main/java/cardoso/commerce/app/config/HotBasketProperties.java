@@ -0,0 +1,29 @@
+package cardoso.commerce.app.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "basket.hot-store")
+public record HotBasketProperties(
+
+        @DefaultValue("true")
+        boolean enabled,
+
+        @DefaultValue("basket:hot")
+        String keyPrefix,
+
+        @DefaultValue("1s")
+        Duration maxFlushLag,
+
+        @DefaultValue("500")
+        int batchSize,
+
+        @DefaultValue("30m")
+        Duration idleTtl,
+
+        @DefaultValue("30s")
+        Duration claimAfter
+
+) {}
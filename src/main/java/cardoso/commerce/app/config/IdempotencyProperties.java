@@ -0,0 +1,35 @@
+package cardoso.commerce.app.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "basket.idempotency")
+public record IdempotencyProperties(
+
+        @DefaultValue("true")
+        boolean enabled,
+
+        @DefaultValue("basket:idempotency")
+        String keyPrefix,
+
+        @DefaultValue("24h")
+        Duration ttl,
+
+        @DefaultValue("30s")
+        Duration lease,
+
+        @DefaultValue("2s")
+        Duration waitTimeout,
+
+        @DefaultValue("25ms")
+        Duration pollInterval,
+
+        @DefaultValue("100000")
+        int maxKeys,
+
+        @DefaultValue("128")
+        int maxKeyLength
+
+) {}
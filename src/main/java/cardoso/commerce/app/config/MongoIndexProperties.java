@@ -0,0 +1,12 @@
+package cardoso.commerce.app.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "basket.mongo.indexes")
+public record MongoIndexProperties(
+
+        @DefaultValue("true")
+        boolean enabled
+
+) {}
@@ -0,0 +1,17 @@
+package cardoso.commerce.app.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "basket.diagnostics.pinning")
+public record PinningMonitorProperties(
+
+        @DefaultValue("false")
+        boolean enabled,
+
+        @DefaultValue("20ms")
+        Duration threshold
+
+) {}
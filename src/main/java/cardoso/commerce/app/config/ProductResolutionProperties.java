@@ -0,0 +1,17 @@
+package cardoso.commerce.app.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "basket.product-resolution")
+public record ProductResolutionProperties(
+
+        @DefaultValue("2s")
+        Duration timeout,
+
+        @DefaultValue("64")
+        int maxConcurrency
+
+) {}
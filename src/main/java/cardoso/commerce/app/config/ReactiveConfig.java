@@ -0,0 +1,39 @@
+package cardoso.commerce.app.config;
+
+import cardoso.commerce.app.client.ReactivePlatziStoreClient;
+import cardoso.commerce.app.client.resilience.ResilientCallExecutor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+
+/**
+ * Beans of the reactive runtime, enabled with the {@code reactive} profile
+ * ({@code spring.main.web-application-type=reactive}). Serves on Netty even though Tomcat is on the
+ * classpath for the servlet runtime.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveConfig {
+
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Bean
+    public ReactivePlatziStoreClient reactivePlatziStoreClient(WebClient.Builder webClientBuilder,
+                                                               HttpClient platziReactorHttpClient,
+                                                               @Value("${basket.client.platzi}") String baseUrl,
+                                                               ResilientCallExecutor platziCallExecutor) {
+        WebClient webClient = webClientBuilder
+                .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(platziReactorHttpClient))
+                .build();
+        return new ReactivePlatziStoreClient(webClient, platziCallExecutor);
+    }
+}
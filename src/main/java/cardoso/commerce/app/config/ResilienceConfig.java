@@ -0,0 +1,83 @@
+package cardoso.commerce.app.config;
+
+import cardoso.commerce.app.client.DeadlineAwareFeignClient;
+import cardoso.commerce.app.client.PlatziStoreClient;
+import cardoso.commerce.app.client.ResilientPlatziStoreClient;
+import cardoso.commerce.app.client.resilience.ResilientCallExecutor;
+import cardoso.commerce.app.exception.DataNotFoundException;
+import cardoso.commerce.app.exception.DeadlineExceededException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.util.concurrent.ExecutorService;
+
+@Configuration
+public class ResilienceConfig {
+
+    private static final String PLATZI = "platzi";
+
+    @Bean
+    public CircuitBreakerRegistry circuitBreakerRegistry(ResilienceProperties properties, MeterRegistry meterRegistry) {
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.of(circuitBreakerConfig(properties.circuitBreaker()));
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
+        return registry;
+    }
+
+    /**
+     * Failures the caller brought on itself, a missing product, a deadline too short for the
+     * upstream or a hedge attempt interrupted because the other one won, are not held against the
+     * upstream, so short {@code X-Request-Timeout}s cannot open the breaker for everyone.
+     */
+    public static CircuitBreakerConfig circuitBreakerConfig(ResilienceProperties.CircuitBreaker circuitBreaker) {
+        return CircuitBreakerConfig.custom()
+                .failureRateThreshold(circuitBreaker.failureRateThreshold())
+                .slidingWindowSize(circuitBreaker.slidingWindowSize())
+                .minimumNumberOfCalls(circuitBreaker.minimumNumberOfCalls())
+                .waitDurationInOpenState(circuitBreaker.waitInOpenState())
+                .ignoreExceptions(DataNotFoundException.class, DeadlineExceededException.class)
+                .recordException(throwable -> !Thread.currentThread().isInterrupted()
+                        && !DeadlineAwareFeignClient.causedByDeadline(throwable))
+                .build();
+    }
+
+    @Bean
+    public BulkheadRegistry bulkheadRegistry(ResilienceProperties properties, MeterRegistry meterRegistry) {
+        ResilienceProperties.Bulkhead bulkhead = properties.bulkhead();
+        BulkheadRegistry registry = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(bulkhead.maxConcurrentCalls())
+                .maxWaitDuration(bulkhead.maxWait())
+                .build());
+        TaggedBulkheadMetrics.ofBulkheadRegistry(registry).bindTo(meterRegistry);
+        return registry;
+    }
+
+    @Bean
+    public ResilientCallExecutor platziCallExecutor(CircuitBreakerRegistry circuitBreakerRegistry,
+                                                    BulkheadRegistry bulkheadRegistry,
+                                                    ResilienceProperties properties,
+                                                    @Qualifier("upstreamHedgeExecutor") ExecutorService upstreamHedgeExecutor,
+                                                    MeterRegistry meterRegistry) {
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(PLATZI);
+        Bulkhead bulkhead = bulkheadRegistry.bulkhead(PLATZI);
+        return new ResilientCallExecutor(circuitBreaker, bulkhead, properties, upstreamHedgeExecutor, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public PlatziStoreClient resilientPlatziStoreClient(@Qualifier("platziStoreFeignClient") PlatziStoreClient platziStoreFeignClient,
+                                                        ResilientCallExecutor platziCallExecutor,
+                                                        ResilienceProperties properties) {
+        return new ResilientPlatziStoreClient(platziStoreFeignClient, platziCallExecutor, properties.hedge());
+    }
+}
@@ -0,0 +1,94 @@
+package cardoso.commerce.app.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "basket.client.resilience")
+public record ResilienceProperties(
+
+        @DefaultValue("5s")
+        Duration requestTimeout,
+
+        @DefaultValue("100ms")
+        Duration minRequestTimeout,
+
+        @DefaultValue
+        CircuitBreaker circuitBreaker,
+
+        @DefaultValue
+        Bulkhead bulkhead,
+
+        @DefaultValue
+        Retry retry,
+
+        @DefaultValue
+        Hedge hedge
+
+) {
+
+    public record CircuitBreaker(
+
+            @DefaultValue("50")
+            float failureRateThreshold,
+
+            @DefaultValue("50")
+            int slidingWindowSize,
+
+            @DefaultValue("20")
+            int minimumNumberOfCalls,
+
+            @DefaultValue("10s")
+            Duration waitInOpenState
+
+    ) {}
+
+    public record Bulkhead(
+
+            @DefaultValue("32")
+            int maxConcurrentCalls,
+
+            @DefaultValue("100ms")
+            Duration maxWait
+
+    ) {}
+
+    public record Retry(
+
+            @DefaultValue("3")
+            int maxAttempts,
+
+            @DefaultValue("50ms")
+            Duration baseBackoff,
+
+            @DefaultValue("500ms")
+            Duration maxBackoff,
+
+            @DefaultValue("0.2")
+            double budgetRatio,
+
+            @DefaultValue("10")
+            int budgetMinTokens,
+
+            @DefaultValue("100")
+            int budgetMaxTokens
+
+    ) {}
+
+    public record Hedge(
+
+            @DefaultValue("true")
+            boolean enabled,
+
+            @DefaultValue("0.95")
+            double percentile,
+
+            @DefaultValue("20ms")
+            Duration minDelay,
+
+            @DefaultValue("256")
+            int window
+
+    ) {}
+}
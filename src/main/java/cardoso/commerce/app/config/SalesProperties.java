@@ -0,0 +1,39 @@
+package cardoso.commerce.app.config;
+
+import cardoso.commerce.app.sales.SalesGranularity;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "basket.sales")
+public record SalesProperties(
+
+        @DefaultValue("true")
+        boolean enabled,
+
+        @DefaultValue("basket:sales")
+        String keyPrefix,
+
+        @DefaultValue("48h")
+        Duration minuteRetention,
+
+        @DefaultValue("90d")
+        Duration hourRetention,
+
+        @DefaultValue("3650d")
+        Duration dayRetention,
+
+        @DefaultValue("1500")
+        int maxBuckets
+
+) {
+
+    public Duration retention(SalesGranularity granularity) {
+        return switch (granularity) {
+            case MINUTE -> minuteRetention;
+            case HOUR -> hourRetention;
+            case DAY -> dayRetention;
+        };
+    }
+}
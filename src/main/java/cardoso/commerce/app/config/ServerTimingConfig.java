@@ -0,0 +1,44 @@
+package cardoso.commerce.app.config;
+
+import cardoso.commerce.app.diagnostics.ServerTiming;
+import cardoso.commerce.app.diagnostics.ServerTimingCommandListener;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * Hooks that feed {@link ServerTiming}: MongoDB commands through a driver listener, and JSON
+ * responses through the Jackson message converter, which replaces the one Spring Boot would
+ * register.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "basket.diagnostics.server-timing", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ServerTimingConfig {
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer serverTimingCommandListener() {
+        return settings -> settings.addCommandListener(new ServerTimingCommandListener());
+    }
+
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2HttpMessageConverter(objectMapper) {
+            @Override
+            protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+                long start = System.nanoTime();
+                try {
+                    super.writeInternal(object, type, outputMessage);
+                } finally {
+                    ServerTiming.record(ServerTiming.Phase.SERIALIZATION, start);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,17 @@
+package cardoso.commerce.app.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "basket.diagnostics.server-timing")
+public record ServerTimingProperties(
+
+        @DefaultValue("true")
+        boolean enabled,
+
+        @DefaultValue("1s")
+        Duration slowThreshold
+
+) {}
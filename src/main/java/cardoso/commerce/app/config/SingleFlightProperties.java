@@ -0,0 +1,31 @@
+package cardoso.commerce.app.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "basket.cache.single-flight")
+public record SingleFlightProperties(
+
+        @DefaultValue
+        DistributedLock distributedLock
+
+) {
+
+    public record DistributedLock(
+
+            @DefaultValue("false")
+            boolean enabled,
+
+            @DefaultValue("3s")
+            Duration ttl,
+
+            @DefaultValue("500ms")
+            Duration waitTimeout,
+
+            @DefaultValue("25ms")
+            Duration pollInterval
+
+    ) {}
+}
@@ -0,0 +1,126 @@
+package cardoso.commerce.app.config;
+
+import cardoso.commerce.app.client.ConnectionLimitInterceptor;
+import cardoso.commerce.app.client.DeadlineAwareFeignClient;
+import feign.Client;
+import feign.Request;
+import feign.micrometer.DefaultFeignObservationConvention;
+import feign.micrometer.MicrometerObservationCapability;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.okhttp3.OkHttpConnectionPoolMetrics;
+import io.micrometer.observation.ObservationRegistry;
+import io.netty.channel.ChannelOption;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outbound HTTP transport for the Feign clients. By default calls go through a pooled OkHttp
+ * client that keeps connections alive between cache misses, negotiates HTTP/2 over TLS and asks
+ * for gzip responses, decompressing them transparently, with at most {@code pool.max-connections}
+ * calls in flight. The reactive runtime gets a Reactor Netty client with the same settings.
+ *
+ * <p>OkHttp's HTTP/2 streams wait for response headers inside a monitor, which pins a virtual
+ * thread to its carrier for the whole upstream call, so the {@code virtual-threads} profile
+ * switches the transport to HTTP/1.1.
+ */
+@Slf4j
+@Configuration
+public class TransportConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "basket.client.transport", name = "type", havingValue = "okhttp", matchIfMissing = true)
+    public OkHttpClient platziHttpClient(TransportProperties properties, MeterRegistry meterRegistry,
+                                         Environment environment) {
+        if (properties.http2() && Threading.VIRTUAL.isActive(environment)) {
+            log.warn("OkHttp HTTP/2 pins virtual threads while waiting for responses, "
+                    + "consider basket.client.transport.http2=false");
+        }
+        TransportProperties.Pool pool = properties.pool();
+        ConnectionPool connectionPool = new ConnectionPool(pool.maxIdleConnections(),
+                pool.keepAlive().toMillis(), TimeUnit.MILLISECONDS);
+        new OkHttpConnectionPoolMetrics(connectionPool, "platzi.http.pool", Tags.of("client", "platzi"))
+                .bindTo(meterRegistry);
+
+        OkHttpClient.Builder builder = new OkHttpClient.Builder()
+                .connectionPool(connectionPool)
+                .addInterceptor(new ConnectionLimitInterceptor(pool.maxConnections(), properties.connectTimeout()))
+                .connectTimeout(properties.connectTimeout())
+                .readTimeout(properties.readTimeout())
+                .protocols(properties.http2()
+                        ? List.of(Protocol.HTTP_2, Protocol.HTTP_1_1)
+                        : List.of(Protocol.HTTP_1_1));
+        if (!properties.gzip()) {
+            builder.addInterceptor(chain -> chain.proceed(chain.request().newBuilder()
+                    .header("Accept-Encoding", "identity")
+                    .build()));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Times every Feign call as {@code feign.client.requests}, tagged with the client, HTTP method,
+     * URI template and status. The name keeps it apart from {@code http.client.requests} of the
+     * reactive WebClient, whose tags differ and which Prometheus would refuse under the same name.
+     */
+    @Bean
+    public MicrometerObservationCapability feignObservationCapability(ObservationRegistry observationRegistry) {
+        return new MicrometerObservationCapability(observationRegistry, new DefaultFeignObservationConvention() {
+            @Override
+            public String getName() {
+                return "feign.client.requests";
+            }
+        });
+    }
+
+    @Bean
+    public Client feignClient(TransportProperties properties, ObjectProvider<OkHttpClient> platziHttpClient) {
+        Client transport = properties.type() == TransportProperties.Type.OKHTTP
+                ? new feign.okhttp.OkHttpClient(platziHttpClient.getObject())
+                : new Client.Default(null, null);
+        return new DeadlineAwareFeignClient(transport);
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    public HttpClient platziReactorHttpClient(TransportProperties properties,
+                                              @Value("${basket.client.platzi}") String baseUrl) {
+        TransportProperties.Pool pool = properties.pool();
+        ConnectionProvider connectionProvider = ConnectionProvider.builder("platzi")
+                .maxConnections(pool.maxConnections())
+                .maxIdleTime(pool.keepAlive())
+                .evictInBackground(pool.keepAlive())
+                .metrics(true)
+                .build();
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.connectTimeout().toMillis())
+                .responseTimeout(properties.readTimeout())
+                .compress(properties.gzip());
+        // HTTP/2 is only negotiated over TLS, plain-text endpoints stay on HTTP/1.1
+        if (properties.http2() && baseUrl.startsWith("https")) {
+            httpClient = httpClient.protocol(HttpProtocol.H2, HttpProtocol.HTTP11);
+        }
+        return httpClient;
+    }
+
+    @Bean
+    public Request.Options feignRequestOptions(TransportProperties properties) {
+        return new Request.Options(properties.connectTimeout(), properties.readTimeout(), true);
+    }
+}
@@ -0,0 +1,47 @@
+package cardoso.commerce.app.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "basket.client.transport")
+public record TransportProperties(
+
+        @DefaultValue("okhttp")
+        Type type,
+
+        @DefaultValue("2s")
+        Duration connectTimeout,
+
+        @DefaultValue("5s")
+        Duration readTimeout,
+
+        @DefaultValue("true")
+        boolean http2,
+
+        @DefaultValue("true")
+        boolean gzip,
+
+        @DefaultValue
+        Pool pool
+
+) {
+
+    public enum Type {
+        OKHTTP, JDK
+    }
+
+    public record Pool(
+
+            @DefaultValue("500")
+            int maxConnections,
+
+            @DefaultValue("32")
+            int maxIdleConnections,
+
+            @DefaultValue("60s")
+            Duration keepAlive
+
+    ) {}
+}
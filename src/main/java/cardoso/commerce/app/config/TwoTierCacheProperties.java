@@ -0,0 +1,82 @@
+package cardoso.commerce.app.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "basket.cache")
+public record TwoTierCacheProperties(
+
+        @DefaultValue
+        Local local,
+
+        @DefaultValue
+        Invalidation invalidation,
+
+        @DefaultValue
+        Codec codec,
+
+        Map<String, Spec> specs
+
+) {
+
+    public TwoTierCacheProperties {
+        specs = specs != null ? Map.copyOf(specs) : Map.of();
+    }
+
+    public record Local(
+
+            @DefaultValue("10000")
+            long maximumSize,
+
+            @DefaultValue("10s")
+            Duration timeToLive
+
+    ) {}
+
+    public record Invalidation(
+
+            @DefaultValue("true")
+            boolean enabled,
+
+            @DefaultValue("basket:cache:invalidation")
+            String channel
+
+    ) {}
+
+    /**
+     * How values are written to Redis. Either way, values in both formats are read, so a fleet that
+     * still runs releases without the compact format can be upgraded with {@code jdk} first.
+     */
+    public record Codec(
+
+            @DefaultValue("compact")
+            Type type,
+
+            @DefaultValue("1KB")
+            DataSize compressionThreshold
+
+    ) {
+
+        public enum Type {
+            COMPACT, JDK
+        }
+    }
+
+    public record Spec(
+
+            Duration softTtl,
+
+            Duration hardTtl,
+
+            @DefaultValue("0")
+            double refreshAhead,
+
+            @DefaultValue("5")
+            long refreshAheadMinHits
+
+    ) {}
+}
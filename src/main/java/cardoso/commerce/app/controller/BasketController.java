@@ -1,43 +1,96 @@
 package cardoso.commerce.app.controller;
 
+import cardoso.commerce.app.controller.request.BasketBatchRequest;
 import cardoso.commerce.app.controller.request.BasketRequest;
 import cardoso.commerce.app.controller.request.PaymentRequest;
+import cardoso.commerce.app.controller.response.BasketBatchResponse;
 import cardoso.commerce.app.entity.Basket;
+import cardoso.commerce.app.entity.PaymentMethod;
+import cardoso.commerce.app.entity.Status;
+import cardoso.commerce.app.repository.BasketExportFilter;
+import cardoso.commerce.app.service.BasketBatchService;
+import cardoso.commerce.app.service.BasketExportService;
 import cardoso.commerce.app.service.BasketService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
 
 @RestController
 @RequestMapping("/basket")
 @RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class BasketController implements BasketControllerSwagger{
 
     private final BasketService basketService;
+    private final BasketBatchService basketBatchService;
+    private final BasketExportService basketExportService;
+
+    @GetMapping(value = "/export", produces = BasketExportService.NDJSON)
+    public ResponseEntity<StreamingResponseBody> exportBaskets(@RequestParam(required = false) Status status,
+                                                               @RequestParam(required = false) PaymentMethod paymentMethod,
+                                                               @RequestParam(required = false) String afterId,
+                                                               @RequestParam(required = false) String beforeId,
+                                                               HttpServletRequest request) {
+        BasketExportFilter filter = BasketExportService.validate(
+                new BasketExportFilter(status, paymentMethod, afterId, beforeId));
+        extendAsyncTimeout(request, basketExportService.timeout());
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(BasketExportService.NDJSON))
+                .body(out -> basketExportService.export(filter, out));
+    }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Basket> getBasketById(@PathVariable String id) {
-        return ResponseEntity.ok(basketService.getBasketById(id));
+    public ResponseEntity<Basket> getBasketById(@PathVariable String id,
+                                                @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            long version = basketService.getBasketVersion(id);
+            if (BasketETags.matches(ifNoneMatch, version)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(BasketETags.of(version)).build();
+            }
+        }
+        Basket basket = basketService.getBasketById(id);
+        return ResponseEntity.ok().eTag(BasketETags.of(basket)).body(basket);
     }
 
     @PostMapping
     public ResponseEntity<Basket> createBasket(@Valid @RequestBody BasketRequest request) {
-        return ResponseEntity.status(HttpStatus.CREATED)
-                .body(basketService.createBasket(request));
+        Basket basket = basketService.createBasket(request);
+        return ResponseEntity.status(HttpStatus.CREATED).eTag(BasketETags.of(basket)).body(basket);
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<BasketBatchResponse> applyBatch(@Valid @RequestBody BasketBatchRequest request) {
+        return ResponseEntity.ok(new BasketBatchResponse(basketBatchService.apply(request.operations())));
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Basket> updateBasket(@PathVariable String id, @Valid @RequestBody BasketRequest request) {
-        return ResponseEntity.status(HttpStatus.OK)
-                .body(basketService.updateBasket(id, request));
+    public ResponseEntity<Basket> updateBasket(@PathVariable String id,
+                                               @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                               @Valid @RequestBody BasketRequest request) {
+        Basket basket = basketService.updateBasket(id, request, BasketETags.versions(ifMatch));
+        return ResponseEntity.status(HttpStatus.OK).eTag(BasketETags.of(basket)).body(basket);
     }
 
     @PutMapping("/{id}/payment")
-    public ResponseEntity<Basket> payBasket(@PathVariable String id, @Valid @RequestBody PaymentRequest request) {
-        return ResponseEntity.status(HttpStatus.OK)
-                .body(basketService.updatePaymentMethod(id, request));
+    public ResponseEntity<Basket> payBasket(@PathVariable String id,
+                                            @RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey,
+                                            @Valid @RequestBody PaymentRequest request) {
+        Basket basket = basketService.updatePaymentMethod(id, request, idempotencyKey);
+        return ResponseEntity.status(HttpStatus.OK).eTag(BasketETags.of(basket)).body(basket);
     }
 
     @DeleteMapping("/{id}")
@@ -45,4 +98,21 @@ public class BasketController implements BasketControllerSwagger{
         basketService.deleteBasket(id);
         return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
     }
+
+    /**
+     * Gives the streaming of this request its own async timeout, leaving the default of every other
+     * endpoint alone. The interceptor runs right before the async processing starts, after the
+     * default was applied.
+     */
+    private static void extendAsyncTimeout(HttpServletRequest request, Duration timeout) {
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(BasketExportService.class,
+                new CallableProcessingInterceptor() {
+                    @Override
+                    public <T> void beforeConcurrentHandling(NativeWebRequest webRequest, Callable<T> task) {
+                        if (webRequest instanceof AsyncWebRequest asyncWebRequest) {
+                            asyncWebRequest.setTimeout(timeout.toMillis());
+                        }
+                    }
+                });
+    }
 }
@@ -1,8 +1,12 @@
 package cardoso.commerce.app.controller;
 
+import cardoso.commerce.app.controller.request.BasketBatchRequest;
 import cardoso.commerce.app.controller.request.BasketRequest;
 import cardoso.commerce.app.controller.request.PaymentRequest;
+import cardoso.commerce.app.controller.response.BasketBatchResponse;
 import cardoso.commerce.app.entity.Basket;
+import cardoso.commerce.app.entity.PaymentMethod;
+import cardoso.commerce.app.entity.Status;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -10,13 +14,44 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @Tag(name = "Basket Management", description = "APIs para gerenciamento de carrinhos de compras")
 public interface BasketControllerSwagger {
 
+    @Operation(
+            summary = "Exportar carrinhos",
+            description = "Transmite os carrinhos filtrados em JSON delimitado por linhas (NDJSON), um por linha e em "
+                    + "ordem de ID. Uma exportação interrompida continua passando o último ID recebido em afterId"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Carrinhos exportados",
+                    content = @Content(mediaType = "application/x-ndjson", schema = @Schema(implementation = Basket.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "ID de carrinho inválido nos limites da exportação"
+            )
+    })
+    ResponseEntity<StreamingResponseBody> exportBaskets(
+            @Parameter(description = "Status dos carrinhos", example = "SOLD")
+            @RequestParam(required = false) Status status,
+            @Parameter(description = "Método de pagamento dos carrinhos", example = "PIX")
+            @RequestParam(required = false) PaymentMethod paymentMethod,
+            @Parameter(description = "Exporta apenas carrinhos com ID maior que este", example = "66f1a2b3c4d5e6f7a8b9c0d1")
+            @RequestParam(required = false) String afterId,
+            @Parameter(description = "Exporta apenas carrinhos com ID menor que este", example = "66f1a2b3c4d5e6f7a8b9c0ff")
+            @RequestParam(required = false) String beforeId,
+            @Parameter(hidden = true) HttpServletRequest request
+    );
+
     @Operation(
             summary = "Obter carrinho por ID",
             description = "Recupera um carrinho de compras específico pelo seu identificador único"
@@ -24,9 +59,13 @@ public interface BasketControllerSwagger {
     @ApiResponses({
             @ApiResponse(
                     responseCode = "200",
-                    description = "Carrinho encontrado com sucesso",
+                    description = "Carrinho encontrado com sucesso, com a sua versão no ETag",
                     content = @Content(schema = @Schema(implementation = Basket.class))
             ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Carrinho não modificado desde a versão informada em If-None-Match"
+            ),
             @ApiResponse(
                     responseCode = "404",
                     description = "Carrinho não encontrado"
@@ -34,7 +73,9 @@ public interface BasketControllerSwagger {
     })
     ResponseEntity<Basket> getBasketById(
             @Parameter(description = "ID do carrinho", example = "123e4567-e89b-12d3-a456-426614174000")
-            @PathVariable String id
+            @PathVariable String id,
+            @Parameter(description = "ETag da última versão recebida do carrinho", example = "\"3\"")
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
     );
 
     @Operation(
@@ -57,6 +98,27 @@ public interface BasketControllerSwagger {
             @Valid @RequestBody BasketRequest request
     );
 
+    @Operation(
+            summary = "Criar ou atualizar carrinhos em lote",
+            description = "Aplica várias operações de criação ou atualização de carrinhos em uma única requisição, "
+                    + "com um resultado por operação"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Lote processado; o status de cada operação está no seu resultado",
+                    content = @Content(schema = @Schema(implementation = BasketBatchResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Lote vazio, grande demais ou com operações inválidas"
+            )
+    })
+    ResponseEntity<BasketBatchResponse> applyBatch(
+            @Parameter(description = "Operações do lote")
+            @Valid @RequestBody BasketBatchRequest request
+    );
+
     @Operation(
             summary = "Atualizar carrinho",
             description = "Atualiza os itens e informações de um carrinho existente"
@@ -74,11 +136,17 @@ public interface BasketControllerSwagger {
             @ApiResponse(
                     responseCode = "404",
                     description = "Carrinho não encontrado"
+            ),
+            @ApiResponse(
+                    responseCode = "412",
+                    description = "Carrinho alterado desde a versão informada em If-Match"
             )
     })
     ResponseEntity<Basket> updateBasket(
             @Parameter(description = "ID do carrinho", example = "123e4567-e89b-12d3-a456-426614174000")
             @PathVariable String id,
+            @Parameter(description = "ETag da versão do carrinho que a atualização substitui", example = "\"3\"")
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Parameter(description = "Dados para atualização do carrinho")
             @Valid @RequestBody BasketRequest request
     );
@@ -95,16 +163,27 @@ public interface BasketControllerSwagger {
             ),
             @ApiResponse(
                     responseCode = "400",
-                    description = "Dados de pagamento inválidos"
+                    description = "Dados de pagamento inválidos ou carrinho já pago com outro método"
             ),
             @ApiResponse(
                     responseCode = "404",
                     description = "Carrinho não encontrado"
+            ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "Requisição com a mesma Idempotency-Key ainda em processamento"
+            ),
+            @ApiResponse(
+                    responseCode = "422",
+                    description = "Idempotency-Key já utilizada em outra requisição"
             )
     })
     ResponseEntity<Basket> payBasket(
             @Parameter(description = "ID do carrinho", example = "123e4567-e89b-12d3-a456-426614174000")
             @PathVariable String id,
+            @Parameter(description = "Chave que faz retentativas do mesmo pagamento receberem a resposta original",
+                    example = "6f1c2b1e-8a2d-4f5e-9b7a-3c1d2e4f5a6b")
+            @RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey,
             @Parameter(description = "Dados do método de pagamento")
             @Valid @RequestBody PaymentRequest request
     );
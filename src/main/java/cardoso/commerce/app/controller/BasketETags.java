@@ -0,0 +1,61 @@
+package cardoso.commerce.app.controller;
+
+import cardoso.commerce.app.entity.Basket;
+import cardoso.commerce.app.repository.BasketUpdates;
+import org.springframework.http.ETag;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * ETags of baskets. The ETag is the quoted basket version, which every write advances, so it can be
+ * compared against the version alone without reading the basket.
+ */
+final class BasketETags {
+
+    private BasketETags() {
+    }
+
+    static String of(Basket basket) {
+        return of(BasketUpdates.versionOf(basket));
+    }
+
+    static String of(long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Whether an {@code If-None-Match} header matches the basket at {@code version}, comparing weakly
+     * as RFC 9110 asks for.
+     */
+    static boolean matches(String ifNoneMatch, long version) {
+        ETag current = ETag.create(of(version));
+        return ETag.parse(ifNoneMatch).stream().anyMatch(etag -> etag.isWildcard() || etag.compare(current, false));
+    }
+
+    /**
+     * The versions an {@code If-Match} header accepts, or {@code null} when it accepts any, because
+     * it is missing or {@code *}. Weak and foreign ETags never match.
+     */
+    static Set<Long> versions(String ifMatch) {
+        if (ifMatch == null) {
+            return null;
+        }
+        List<ETag> etags = ETag.parse(ifMatch);
+        if (etags.stream().anyMatch(ETag::isWildcard)) {
+            return null;
+        }
+        Set<Long> versions = new HashSet<>();
+        for (ETag etag : etags) {
+            if (!etag.weak()) {
+                try {
+                    versions.add(Long.valueOf(etag.tag()));
+                } catch (NumberFormatException exception) {
+                    // not a basket ETag, so it matches no version
+                }
+            }
+        }
+        return versions;
+    }
+}
@@ -1,25 +1,53 @@
 package cardoso.commerce.app.controller;
 
+import cardoso.commerce.app.catalog.CatalogPageRequest;
+import cardoso.commerce.app.catalog.CatalogPages;
+import cardoso.commerce.app.catalog.CatalogSnapshot;
 import cardoso.commerce.app.client.response.PlatziProductResponse;
 import cardoso.commerce.app.service.ProductService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
 @RestController
 @RequestMapping("/products")
 @RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class ProductController implements ProductControllerSwagger {
 
     private final ProductService productService;
+    private final CatalogPages catalogPages;
 
     @GetMapping
     public ResponseEntity<List<PlatziProductResponse>> getAllProducts() {
         return ResponseEntity.ok(productService.getAllProducts());
     }
 
+    @GetMapping(value = "/catalog", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getCatalogPage(@RequestParam(required = false) Long afterId,
+                                                 @RequestParam(required = false) Integer limit,
+                                                 @RequestParam(required = false) String fields,
+                                                 WebRequest webRequest) {
+        CatalogPageRequest request = catalogPages.request(afterId, limit, fields);
+        CatalogSnapshot catalog = productService.getCatalog();
+        String etag = catalogPages.etag(catalog);
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CacheControl.noCache()).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(catalogPages.page(catalog, request).body());
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<PlatziProductResponse> getProductById(@PathVariable Long id) {
         return ResponseEntity.ok(productService.getProductById(id));
@@ -11,6 +11,8 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -61,4 +63,35 @@ public interface ProductControllerSwagger {
             )
             @PathVariable Long id
     );
-}
\ No newline at end of file
+
+    @Operation(
+            summary = "Obter página do catálogo",
+            description = "Retorna até limit produtos com ID maior que afterId, em ordem de ID, com os campos pedidos. "
+                    + "A resposta traz nextAfterId para a próxima página e um ETag da versão do catálogo: enviado em "
+                    + "If-None-Match, a resposta é 304 enquanto o catálogo não mudar"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Página recuperada com sucesso",
+                    content = @Content(mediaType = "application/json")
+            ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "O catálogo não mudou desde o ETag enviado"
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Limite fora do permitido ou campo desconhecido"
+            )
+    })
+    ResponseEntity<byte[]> getCatalogPage(
+            @Parameter(description = "Retorna apenas produtos com ID maior que este", example = "40")
+            @RequestParam(required = false) Long afterId,
+            @Parameter(description = "Número máximo de produtos na página", example = "50")
+            @RequestParam(required = false) Integer limit,
+            @Parameter(description = "Campos de cada produto, separados por vírgula", example = "id,price")
+            @RequestParam(required = false) String fields,
+            @Parameter(hidden = true) WebRequest webRequest
+    );
+}
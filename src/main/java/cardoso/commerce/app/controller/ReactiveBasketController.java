@@ -0,0 +1,78 @@
+package cardoso.commerce.app.controller;
+
+import cardoso.commerce.app.controller.request.BasketRequest;
+import cardoso.commerce.app.controller.request.PaymentRequest;
+import cardoso.commerce.app.entity.Basket;
+import cardoso.commerce.app.entity.PaymentMethod;
+import cardoso.commerce.app.entity.Status;
+import cardoso.commerce.app.repository.BasketExportFilter;
+import cardoso.commerce.app.service.BasketExportService;
+import cardoso.commerce.app.service.ReactiveBasketService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/basket")
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveBasketController {
+
+    private final ReactiveBasketService basketService;
+
+    @GetMapping(value = "/export", produces = BasketExportService.NDJSON)
+    public Flux<byte[]> exportBaskets(@RequestParam(required = false) Status status,
+                                      @RequestParam(required = false) PaymentMethod paymentMethod,
+                                      @RequestParam(required = false) String afterId,
+                                      @RequestParam(required = false) String beforeId) {
+        return basketService.exportBaskets(new BasketExportFilter(status, paymentMethod, afterId, beforeId));
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Basket>> getBasketById(@PathVariable String id,
+                                                      @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Mono<ResponseEntity<Basket>> basket = basketService.getBasketById(id)
+                .map(found -> ResponseEntity.ok().eTag(BasketETags.of(found)).body(found));
+        if (ifNoneMatch == null) {
+            return basket;
+        }
+        return basketService.getBasketVersion(id)
+                .flatMap(version -> BasketETags.matches(ifNoneMatch, version)
+                        ? Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(BasketETags.of(version)).<Basket>build())
+                        : basket);
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<Basket>> createBasket(@Valid @RequestBody BasketRequest request) {
+        return basketService.createBasket(request)
+                .map(basket -> ResponseEntity.status(HttpStatus.CREATED).eTag(BasketETags.of(basket)).body(basket));
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<Basket>> updateBasket(@PathVariable String id,
+                                                     @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                     @Valid @RequestBody BasketRequest request) {
+        return basketService.updateBasket(id, request, BasketETags.versions(ifMatch))
+                .map(basket -> ResponseEntity.status(HttpStatus.OK).eTag(BasketETags.of(basket)).body(basket));
+    }
+
+    @PutMapping("/{id}/payment")
+    public Mono<ResponseEntity<Basket>> payBasket(@PathVariable String id,
+                                                  @RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey,
+                                                  @Valid @RequestBody PaymentRequest request) {
+        return basketService.updatePaymentMethod(id, request, idempotencyKey)
+                .map(basket -> ResponseEntity.status(HttpStatus.OK).eTag(BasketETags.of(basket)).body(basket));
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteBasket(@PathVariable String id) {
+        return basketService.deleteBasket(id)
+                .then(Mono.fromSupplier(() -> ResponseEntity.status(HttpStatus.NO_CONTENT).<Void>build()));
+    }
+}
@@ -0,0 +1,57 @@
+package cardoso.commerce.app.controller;
+
+import cardoso.commerce.app.catalog.CatalogPages;
+import cardoso.commerce.app.client.response.PlatziProductResponse;
+import cardoso.commerce.app.service.ReactiveProductService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/products")
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveProductController {
+
+    private final ReactiveProductService productService;
+    private final CatalogPages catalogPages;
+
+    @GetMapping
+    public Mono<ResponseEntity<List<PlatziProductResponse>>> getAllProducts() {
+        return productService.getAllProducts()
+                .map(ResponseEntity::ok);
+    }
+
+    @GetMapping(value = "/catalog", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<byte[]>> getCatalogPage(@RequestParam(required = false) Long afterId,
+                                                       @RequestParam(required = false) Integer limit,
+                                                       @RequestParam(required = false) String fields,
+                                                       ServerWebExchange exchange) {
+        return Mono.fromSupplier(() -> catalogPages.request(afterId, limit, fields))
+                .flatMap(request -> productService.getCatalog().map(catalog -> {
+                    String etag = catalogPages.etag(catalog);
+                    if (exchange.checkNotModified(etag)) {
+                        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CacheControl.noCache()).<byte[]>build();
+                    }
+                    return ResponseEntity.ok()
+                            .eTag(etag)
+                            .cacheControl(CacheControl.noCache())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .body(catalogPages.page(catalog, request).body());
+                }));
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<PlatziProductResponse>> getProductById(@PathVariable Long id) {
+        return productService.getProductById(id)
+                .map(ResponseEntity::ok);
+    }
+}
@@ -0,0 +1,43 @@
+package cardoso.commerce.app.controller;
+
+import cardoso.commerce.app.controller.response.SalesReport;
+import cardoso.commerce.app.sales.SalesGranularity;
+import cardoso.commerce.app.service.SalesService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Instant;
+
+/**
+ * Serves the sales reports on the reactive stack. The counters and the rebuild are read through
+ * blocking clients, so they run off the event loop.
+ */
+@RestController
+@RequestMapping("/sales")
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveSalesController {
+
+    private final SalesService salesService;
+
+    @GetMapping
+    public Mono<ResponseEntity<SalesReport>> getSales(@RequestParam(defaultValue = "HOUR") SalesGranularity granularity,
+                                                      @RequestParam Instant from,
+                                                      @RequestParam(required = false) Instant to) {
+        return Mono.fromCallable(() -> salesService.report(granularity, from, to))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(ResponseEntity::ok);
+    }
+
+    @PostMapping("/rebuild")
+    public Mono<ResponseEntity<Void>> rebuildSales(@RequestParam Instant from, @RequestParam Instant to) {
+        return Mono.fromRunnable(() -> salesService.rebuild(from, to))
+                .subscribeOn(Schedulers.boundedElastic())
+                .then(Mono.just(ResponseEntity.status(HttpStatus.NO_CONTENT).build()));
+    }
+}
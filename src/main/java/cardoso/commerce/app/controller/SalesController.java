@@ -0,0 +1,34 @@
+package cardoso.commerce.app.controller;
+
+import cardoso.commerce.app.controller.response.SalesReport;
+import cardoso.commerce.app.sales.SalesGranularity;
+import cardoso.commerce.app.service.SalesService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+
+@RestController
+@RequestMapping("/sales")
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class SalesController implements SalesControllerSwagger {
+
+    private final SalesService salesService;
+
+    @GetMapping
+    public ResponseEntity<SalesReport> getSales(@RequestParam(defaultValue = "HOUR") SalesGranularity granularity,
+                                                @RequestParam Instant from,
+                                                @RequestParam(required = false) Instant to) {
+        return ResponseEntity.ok(salesService.report(granularity, from, to));
+    }
+
+    @PostMapping("/rebuild")
+    public ResponseEntity<Void> rebuildSales(@RequestParam Instant from, @RequestParam Instant to) {
+        salesService.rebuild(from, to);
+        return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
+    }
+}
@@ -0,0 +1,67 @@
+package cardoso.commerce.app.controller;
+
+import cardoso.commerce.app.controller.response.SalesReport;
+import cardoso.commerce.app.sales.SalesGranularity;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.time.Instant;
+
+@Tag(name = "Sales Aggregates", description = "APIs para consulta de vendas agregadas")
+public interface SalesControllerSwagger {
+
+    @Operation(
+            summary = "Obter vendas agregadas",
+            description = "Retorna a receita e os carrinhos pagos por método de pagamento e as unidades vendidas por "
+                    + "produto, em intervalos de um minuto, uma hora ou um dia. O custo depende do número de intervalos, "
+                    + "não do número de carrinhos"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Vendas recuperadas com sucesso",
+                    content = @Content(schema = @Schema(implementation = SalesReport.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Período inválido ou com intervalos demais"
+            )
+    })
+    ResponseEntity<SalesReport> getSales(
+            @Parameter(description = "Largura de cada intervalo", example = "HOUR")
+            @RequestParam(defaultValue = "HOUR") SalesGranularity granularity,
+            @Parameter(description = "Início do período, em ISO-8601", example = "2025-09-01T00:00:00Z")
+            @RequestParam Instant from,
+            @Parameter(description = "Fim do período, exclusivo; agora quando omitido", example = "2025-09-02T00:00:00Z")
+            @RequestParam(required = false) Instant to
+    );
+
+    @Operation(
+            summary = "Reconstruir vendas agregadas",
+            description = "Recalcula a partir do MongoDB os intervalos dos dias (UTC) que cobrem o período, "
+                    + "substituindo os contadores atuais"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "204",
+                    description = "Vendas reconstruídas com sucesso"
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Período inválido"
+            )
+    })
+    ResponseEntity<Void> rebuildSales(
+            @Parameter(description = "Início do período, em ISO-8601", example = "2025-09-01T00:00:00Z")
+            @RequestParam Instant from,
+            @Parameter(description = "Fim do período, exclusivo", example = "2025-09-02T00:00:00Z")
+            @RequestParam Instant to
+    );
+}
@@ -0,0 +1,31 @@
+package cardoso.commerce.app.controller.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+@Schema(description = "Operação de um lote: sem ID de carrinho adiciona produtos ao carrinho aberto do cliente, com ID substitui os produtos do carrinho")
+public record BasketBatchOperation(
+
+        @Schema(
+                description = "ID do carrinho a ser atualizado",
+                example = "123e4567-e89b-12d3-a456-426614174000"
+        )
+        String basketId,
+
+        @Schema(
+                description = "Identificador único do cliente, obrigatório quando não há ID de carrinho",
+                example = "12345"
+        )
+        Long clientId,
+
+        @Schema(
+                description = "Lista de produtos da operação",
+                requiredMode = Schema.RequiredMode.REQUIRED
+        )
+        @NotEmpty(message = "A operação deve ter ao menos um produto")
+        List<@Valid ProductRequest> products
+
+) {}
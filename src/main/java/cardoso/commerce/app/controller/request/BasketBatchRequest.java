@@ -0,0 +1,20 @@
+package cardoso.commerce.app.controller.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+@Schema(description = "Requisição para criar ou atualizar vários carrinhos de uma vez")
+public record BasketBatchRequest(
+
+        @Schema(
+                description = "Operações do lote, aplicadas na ordem em que aparecem",
+                requiredMode = Schema.RequiredMode.REQUIRED
+        )
+        @NotEmpty(message = "O lote deve ter ao menos uma operação")
+        List<@Valid @NotNull BasketBatchOperation> operations
+
+) {}
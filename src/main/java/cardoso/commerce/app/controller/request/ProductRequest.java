@@ -1,6 +1,7 @@
 package cardoso.commerce.app.controller.request;
 
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 
 @Schema(description = "Requisição para adicionar um produto ao carrinho")
@@ -22,6 +23,7 @@ public record ProductRequest(
                 requiredMode = Schema.RequiredMode.REQUIRED
         )
         @NotNull(message = "Quantidade é obrigatória")
+        @Min(value = 1, message = "Quantidade deve ser no mínimo 1")
         Integer quantity
 
 ) {}
\ No newline at end of file
@@ -0,0 +1,13 @@
+package cardoso.commerce.app.controller.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Resultados de um lote de operações, um por operação e na mesma ordem")
+public record BasketBatchResponse(
+
+        @Schema(description = "Resultado de cada operação")
+        List<BasketBatchResult> results
+
+) {}
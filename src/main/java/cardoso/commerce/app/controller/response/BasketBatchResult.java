@@ -0,0 +1,38 @@
+package cardoso.commerce.app.controller.response;
+
+import cardoso.commerce.app.entity.Basket;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+
+@Schema(description = "Resultado de uma operação do lote")
+public record BasketBatchResult(
+
+        @Schema(description = "Posição da operação no lote", example = "0")
+        int index,
+
+        @Schema(description = "Status HTTP que a operação teria recebido sozinha", example = "200")
+        int status,
+
+        @Schema(description = "ID do carrinho afetado", example = "123e4567-e89b-12d3-a456-426614174000")
+        String basketId,
+
+        @Schema(description = "Versão do carrinho após a operação", example = "3")
+        Long version,
+
+        @Schema(description = "Valor total do carrinho após a operação", example = "1299.98")
+        BigDecimal totalPrice,
+
+        @Schema(description = "Motivo da falha, quando a operação não foi aplicada")
+        String error
+
+) {
+
+    public static BasketBatchResult applied(int index, int status, Basket basket) {
+        return new BasketBatchResult(index, status, basket.getId(), basket.getVersion(), basket.getTotalPrice(), null);
+    }
+
+    public static BasketBatchResult failed(int index, int status, String basketId, String error) {
+        return new BasketBatchResult(index, status, basketId, null, null, error);
+    }
+}
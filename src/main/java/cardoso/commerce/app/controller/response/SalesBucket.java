@@ -0,0 +1,25 @@
+package cardoso.commerce.app.controller.response;
+
+import cardoso.commerce.app.entity.PaymentMethod;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Map;
+
+@Schema(description = "Vendas de um intervalo de tempo")
+public record SalesBucket(
+
+        @Schema(description = "Início do intervalo, em UTC", example = "2025-09-01T12:00:00Z")
+        Instant start,
+
+        @Schema(description = "Receita por método de pagamento", example = "{\"PIX\": 1299.98}")
+        Map<PaymentMethod, BigDecimal> revenue,
+
+        @Schema(description = "Carrinhos pagos por método de pagamento", example = "{\"PIX\": 2}")
+        Map<PaymentMethod, Long> baskets,
+
+        @Schema(description = "Unidades vendidas por ID de produto", example = "{\"12\": 3}")
+        Map<Long, Long> units
+
+) {}
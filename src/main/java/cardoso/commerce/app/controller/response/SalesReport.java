@@ -0,0 +1,24 @@
+package cardoso.commerce.app.controller.response;
+
+import cardoso.commerce.app.sales.SalesGranularity;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+import java.util.List;
+
+@Schema(description = "Vendas agregadas por intervalo de tempo")
+public record SalesReport(
+
+        @Schema(description = "Largura de cada intervalo", example = "HOUR")
+        SalesGranularity granularity,
+
+        @Schema(description = "Início do primeiro intervalo, em UTC", example = "2025-09-01T00:00:00Z")
+        Instant from,
+
+        @Schema(description = "Fim do último intervalo, exclusivo, em UTC", example = "2025-09-02T00:00:00Z")
+        Instant to,
+
+        @Schema(description = "Intervalos em ordem cronológica, incluindo os sem vendas")
+        List<SalesBucket> buckets
+
+) {}
@@ -0,0 +1,151 @@
+package cardoso.commerce.app.diagnostics;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Time one request spends in each {@link Phase}, reported in its {@code Server-Timing} header. The
+ * collector is bound to the thread serving the request; work handed to other threads carries it
+ * through {@link #wrap(Callable)}, and those threads may record concurrently. Recording outside a
+ * request does nothing, so background work such as flushes and cache refreshes is left out.
+ *
+ * <p>Durations are summed per phase, so lookups running in parallel can add up to more than the
+ * request took.
+ */
+public final class ServerTiming {
+
+    public static final String HEADER = "Server-Timing";
+
+    private static final ThreadLocal<ServerTiming> CURRENT = new ThreadLocal<>();
+    private static final Phase[] PHASES = Phase.values();
+
+    public enum Phase {
+        PRODUCT_CACHE("product-cache", "Product lookups from cache"),
+        PRODUCT_UPSTREAM("product-upstream", "Product API calls"),
+        HOT_STORE("hot-store", "Redis hot store"),
+        MONGO_READ("mongo-read", "MongoDB reads"),
+        MONGO_WRITE("mongo-write", "MongoDB writes"),
+        SERIALIZATION("serialization", "Response serialization");
+
+        private final String metric;
+        private final String description;
+
+        Phase(String metric, String description) {
+            this.metric = metric;
+            this.description = description;
+        }
+
+        public String metric() {
+            return metric;
+        }
+    }
+
+    private final long startNanos = System.nanoTime();
+    // nanoseconds of each phase, followed by the number of times it was recorded
+    private final AtomicLongArray totals = new AtomicLongArray(PHASES.length * 2);
+
+    private ServerTiming() {
+    }
+
+    /**
+     * Binds a new collector to the current thread.
+     */
+    public static ServerTiming start() {
+        ServerTiming timing = new ServerTiming();
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Adds the time since {@code startNanos} to {@code phase} of the current request, if any.
+     */
+    public static void record(Phase phase, long startNanos) {
+        ServerTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.add(phase, System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * Adds the time since {@code startNanos} to {@code phase}, taking it out of {@code from}: for a
+     * step nested in another that is timed as a whole, without counting it twice.
+     */
+    public static void move(Phase from, Phase phase, long startNanos) {
+        ServerTiming timing = CURRENT.get();
+        if (timing != null) {
+            long elapsed = System.nanoTime() - startNanos;
+            timing.totals.addAndGet(from.ordinal() * 2, -elapsed);
+            timing.add(phase, elapsed);
+        }
+    }
+
+    public static <T> Callable<T> wrap(Callable<T> task) {
+        ServerTiming timing = CURRENT.get();
+        if (timing == null) {
+            return task;
+        }
+        return () -> {
+            ServerTiming previous = CURRENT.get();
+            CURRENT.set(timing);
+            try {
+                return task.call();
+            } finally {
+                if (previous != null) {
+                    CURRENT.set(previous);
+                } else {
+                    CURRENT.remove();
+                }
+            }
+        };
+    }
+
+    public long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    public long nanos(Phase phase) {
+        return totals.get(phase.ordinal() * 2);
+    }
+
+    public long count(Phase phase) {
+        return totals.get(phase.ordinal() * 2 + 1);
+    }
+
+    /**
+     * Formats the phases that were recorded, and the {@code total} time of the request, as a
+     * {@code Server-Timing} header value.
+     */
+    public String header(long totalNanos) {
+        StringBuilder header = new StringBuilder(64 + PHASES.length * 48);
+        for (Phase phase : PHASES) {
+            long count = count(phase);
+            if (count > 0) {
+                appendMillis(header.append(phase.metric).append(";dur="), nanos(phase));
+                header.append(";desc=\"").append(phase.description).append(" (").append(count).append(")\", ");
+            }
+        }
+        return appendMillis(header.append("total;dur="), totalNanos).toString();
+    }
+
+    private void add(Phase phase, long nanos) {
+        totals.addAndGet(phase.ordinal() * 2, nanos);
+        totals.incrementAndGet(phase.ordinal() * 2 + 1);
+    }
+
+    /**
+     * Appends {@code nanos} as milliseconds with microsecond precision.
+     */
+    private static StringBuilder appendMillis(StringBuilder builder, long nanos) {
+        long micros = Math.max(nanos, 0) / 1_000;
+        long fraction = micros % 1_000;
+        builder.append(micros / 1_000).append('.');
+        if (fraction < 100) {
+            builder.append(fraction < 10 ? "00" : "0");
+        }
+        return builder.append(fraction);
+    }
+}
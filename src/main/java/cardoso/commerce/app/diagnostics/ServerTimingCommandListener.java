@@ -0,0 +1,46 @@
+package cardoso.commerce.app.diagnostics;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandSucceededEvent;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adds the round trip of every MongoDB command to the {@link ServerTiming} of the request that sent
+ * it, as a read or a write. The synchronous driver reports commands on the calling thread; commands
+ * of the reactive driver, index management and the like are not attributed to any request.
+ */
+public class ServerTimingCommandListener implements CommandListener {
+
+    private static final Set<String> READS = Set.of("find", "getMore", "aggregate", "count", "distinct");
+    private static final Set<String> WRITES = Set.of("insert", "update", "delete", "findAndModify");
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        record(event.getCommandName(), event.getElapsedTime(TimeUnit.NANOSECONDS));
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        record(event.getCommandName(), event.getElapsedTime(TimeUnit.NANOSECONDS));
+    }
+
+    private static void record(String commandName, long elapsedNanos) {
+        ServerTiming.Phase phase = phase(commandName);
+        if (phase != null) {
+            ServerTiming.record(phase, System.nanoTime() - elapsedNanos);
+        }
+    }
+
+    static ServerTiming.Phase phase(String commandName) {
+        if (READS.contains(commandName)) {
+            return ServerTiming.Phase.MONGO_READ;
+        }
+        if (WRITES.contains(commandName)) {
+            return ServerTiming.Phase.MONGO_WRITE;
+        }
+        return null;
+    }
+}
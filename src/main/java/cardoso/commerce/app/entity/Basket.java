@@ -3,10 +3,16 @@ package cardoso.commerce.app.entity;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Getter
 @Setter
@@ -14,6 +20,11 @@ import java.util.List;
 @AllArgsConstructor
 @Builder
 @Document(collection = "basket")
+@CompoundIndex(name = "client_status", def = "{'clientId': 1, 'status': 1}")
+@CompoundIndex(name = "open_basket_per_client", def = "{'clientId': 1}", unique = true, partialFilter = "{'status': 'OPEN'}")
+@CompoundIndex(name = "status_payment_id", def = "{'status': 1, 'paymentMethod': 1, '_id': 1}")
+@CompoundIndex(name = "status_id", def = "{'status': 1, '_id': 1}")
+@CompoundIndex(name = "status_sold_at", def = "{'status': 1, 'soldAt': 1}")
 @Schema(description = "Entidade que representa um carrinho de compras")
 public class Basket {
 
@@ -58,9 +69,73 @@ public class Basket {
     )
     private PaymentMethod paymentMethod;
 
+    @Schema(
+            description = "Momento em que o carrinho foi pago",
+            example = "2025-09-01T12:34:56Z",
+            accessMode = Schema.AccessMode.READ_ONLY,
+            nullable = true
+    )
+    private Instant soldAt;
+
+    @Version
+    @Schema(
+            description = "Versão do carrinho, incrementada a cada alteração",
+            example = "3",
+            accessMode = Schema.AccessMode.READ_ONLY
+    )
+    private Long version;
+
     public void calculateTotalPrice() {
         this.totalPrice = products.stream()
-                .map(product -> product.getPrice().multiply(BigDecimal.valueOf(product.getQuantity())))
+                .map(Basket::lineTotal)
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
     }
+
+    /**
+     * Adds the given products, merging them by product id into the lines already in the basket and
+     * summing their quantities. A merged line takes the latest price and title. The total moves by
+     * the difference of the touched lines only.
+     */
+    public void addProducts(List<Product> additions) {
+        if (products == null) {
+            products = new ArrayList<>();
+        }
+        if (totalPrice == null) {
+            calculateTotalPrice();
+        }
+
+        Map<Long, Product> lines = new HashMap<>();
+        products.forEach(line -> lines.putIfAbsent(line.getId(), line));
+
+        BigDecimal delta = BigDecimal.ZERO;
+        for (Product addition : additions) {
+            Product line = lines.get(addition.getId());
+            if (line == null) {
+                line = addition.toBuilder().build();
+                products.add(line);
+                lines.put(line.getId(), line);
+                delta = delta.add(lineTotal(line));
+            } else {
+                delta = delta.subtract(lineTotal(line));
+                line.setQuantity(line.getQuantity() + addition.getQuantity());
+                line.setPrice(addition.getPrice());
+                line.setTitle(addition.getTitle());
+                delta = delta.add(lineTotal(line));
+            }
+        }
+        totalPrice = totalPrice.add(delta);
+    }
+
+    /**
+     * Replaces every line of the basket with the given products, merged by product id.
+     */
+    public void replaceProducts(List<Product> replacement) {
+        products = new ArrayList<>();
+        totalPrice = BigDecimal.ZERO;
+        addProducts(replacement);
+    }
+
+    private static BigDecimal lineTotal(Product product) {
+        return product.getPrice().multiply(BigDecimal.valueOf(product.getQuantity()));
+    }
 }
\ No newline at end of file
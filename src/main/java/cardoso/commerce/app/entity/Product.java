@@ -1,15 +1,20 @@
 package cardoso.commerce.app.entity;
 
+import cardoso.commerce.app.client.response.PlatziProductResponse;
 import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import java.math.BigDecimal;
 
 @Getter
 @Setter
-@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
 @Schema(description = "Representa um produto dentro de um carrinho de compras")
 public class Product {
 
@@ -42,4 +47,13 @@ public class Product {
             requiredMode = Schema.RequiredMode.REQUIRED
     )
     private Integer quantity;
-}
\ No newline at end of file
+
+    public static Product of(PlatziProductResponse response, Integer quantity) {
+        return Product.builder()
+                .id(response.id())
+                .title(response.title())
+                .price(response.price())
+                .quantity(quantity)
+                .build();
+    }
+}
@@ -1,6 +1,10 @@
 package cardoso.commerce.app.exception;
 
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -19,4 +23,46 @@ public class ControllerAdvice {
     public String handleDataBusinessesException(BusinessesException exception) {
         return exception.getMessage();
     }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public String handleOptimisticLockingFailureException(OptimisticLockingFailureException exception) {
+        return exception.getMessage();
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    @ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+    public String handlePreconditionFailedException(PreconditionFailedException exception) {
+        return exception.getMessage();
+    }
+
+    @ExceptionHandler(IdempotencyKeyConflictException.class)
+    public ResponseEntity<String> handleIdempotencyKeyConflictException(IdempotencyKeyConflictException exception) {
+        HttpStatus status = exception.isReused() ? HttpStatus.UNPROCESSABLE_ENTITY : HttpStatus.CONFLICT;
+        return ResponseEntity.status(status).body(exception.getMessage());
+    }
+
+    @ExceptionHandler(ProductResolutionException.class)
+    public ResponseEntity<String> handleProductResolutionException(ProductResolutionException exception) {
+        HttpStatus status = exception.isNotFound() ? HttpStatus.NOT_FOUND : HttpStatus.BAD_GATEWAY;
+        return ResponseEntity.status(status).body(exception.getMessage());
+    }
+
+    @ExceptionHandler(DeadlineExceededException.class)
+    @ResponseStatus(HttpStatus.GATEWAY_TIMEOUT)
+    public String handleDeadlineExceededException(DeadlineExceededException exception) {
+        return exception.getMessage();
+    }
+
+    @ExceptionHandler({CallNotPermittedException.class, BulkheadFullException.class})
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public String handleUpstreamRejectedException(RuntimeException exception) {
+        return exception.getMessage();
+    }
+
+    @ExceptionHandler(UpstreamServiceException.class)
+    @ResponseStatus(HttpStatus.BAD_GATEWAY)
+    public String handleUpstreamServiceException(UpstreamServiceException exception) {
+        return exception.getMessage();
+    }
 }
@@ -10,6 +10,6 @@ public class CustomErrorDecoder implements ErrorDecoder {
         if (response.status() == 400) {
             return new DataNotFoundException("Product not found");
         }
-        return new Exception("Exception while decoding " + methodKey);
+        return new UpstreamServiceException(response.status(), "Exception while decoding " + methodKey);
     }
 }
@@ -0,0 +1,7 @@
+package cardoso.commerce.app.exception;
+
+public class DeadlineExceededException extends RuntimeException {
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,19 @@
+package cardoso.commerce.app.exception;
+
+public class IdempotencyKeyConflictException extends RuntimeException {
+
+    private final boolean reused;
+
+    public IdempotencyKeyConflictException(String message, boolean reused) {
+        super(message);
+        this.reused = reused;
+    }
+
+    /**
+     * Whether the key was sent with a different request, as opposed to its first request still
+     * being in flight.
+     */
+    public boolean isReused() {
+        return reused;
+    }
+}
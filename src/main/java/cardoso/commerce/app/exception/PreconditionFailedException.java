@@ -0,0 +1,7 @@
+package cardoso.commerce.app.exception;
+
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,28 @@
+package cardoso.commerce.app.exception;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class ProductResolutionException extends RuntimeException {
+
+    private final Map<Long, Throwable> failures;
+
+    public ProductResolutionException(Map<Long, Throwable> failures) {
+        super(buildMessage(failures));
+        this.failures = Map.copyOf(failures);
+    }
+
+    public Map<Long, Throwable> getFailures() {
+        return failures;
+    }
+
+    public boolean isNotFound() {
+        return failures.values().stream().allMatch(DataNotFoundException.class::isInstance);
+    }
+
+    private static String buildMessage(Map<Long, Throwable> failures) {
+        return failures.entrySet().stream()
+                .map(entry -> entry.getKey() + ": " + entry.getValue().getMessage())
+                .collect(Collectors.joining(", ", "Could not resolve products [", "]"));
+    }
+}
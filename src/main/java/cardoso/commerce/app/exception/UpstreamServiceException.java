@@ -0,0 +1,19 @@
+package cardoso.commerce.app.exception;
+
+public class UpstreamServiceException extends RuntimeException {
+
+    private final int status;
+
+    public UpstreamServiceException(int status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public boolean isRetryable() {
+        return status >= 500 || status == 429;
+    }
+}
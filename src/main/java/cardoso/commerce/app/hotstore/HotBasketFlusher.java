@@ -0,0 +1,239 @@
+package cardoso.commerce.app.hotstore;
+
+import cardoso.commerce.app.config.HotBasketProperties;
+import cardoso.commerce.app.entity.Basket;
+import cardoso.commerce.app.entity.Status;
+import com.mongodb.bulk.BulkWriteError;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Range;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Replays the hot basket log into MongoDB every {@code basket.hot-store.max-flush-lag}. Log entries
+ * are read through a consumer group in batches of {@code batch-size}; the latest state of every
+ * basket in a batch goes out as one unordered bulk write, and the entries are acknowledged only
+ * after it. Entries of baskets the bulk write rejected, and all entries of a flush that failed, are
+ * left unacknowledged and read again on the next run; those of an instance that died are claimed
+ * after {@code claim-after}.
+ *
+ * <p>Writes only replace a stored basket with an older version, so a replayed entry never
+ * overwrites a newer state.
+ */
+@Slf4j
+@Component
+public class HotBasketFlusher {
+
+    static final String GROUP = "flushers";
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final HotBasketStore store;
+    private final StringRedisTemplate redisTemplate;
+    private final MongoTemplate mongoTemplate;
+    private final HotBasketProperties properties;
+    private final String consumer = "flusher-" + UUID.randomUUID();
+    private volatile boolean groupCreated;
+
+    private final Timer flushes;
+    private final Timer lag;
+    private final Counter flushed;
+
+    public HotBasketFlusher(HotBasketStore store, StringRedisTemplate redisTemplate, MongoTemplate mongoTemplate,
+                            HotBasketProperties properties, MeterRegistry meterRegistry) {
+        this.store = store;
+        this.redisTemplate = redisTemplate;
+        this.mongoTemplate = mongoTemplate;
+        this.properties = properties;
+        this.flushes = Timer.builder("basket.hot.flush")
+                .description("Time to write a batch of hot baskets to MongoDB")
+                .register(meterRegistry);
+        this.lag = Timer.builder("basket.hot.flush.lag")
+                .description("Age of the oldest log entry of each flushed batch")
+                .register(meterRegistry);
+        this.flushed = Counter.builder("basket.hot.flushed")
+                .description("Hot baskets written to MongoDB")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${basket.hot-store.max-flush-lag:1s}")
+    public void flushLog() {
+        if (!store.isEnabled()) {
+            return;
+        }
+        try {
+            createGroup();
+            claimAbandoned();
+            drain(ReadOffset.from("0"));
+            drain(ReadOffset.lastConsumed());
+        } catch (RuntimeException exception) {
+            log.warn("Flushing hot baskets failed, the log will be replayed", exception);
+        }
+    }
+
+    /**
+     * Writes the current state of the given baskets to MongoDB right away and releases the written
+     * ones from Redis. Their log entries stay and are acknowledged by the next replay.
+     *
+     * @return the ids of the baskets MongoDB rejected, which stay in Redis
+     */
+    public Set<String> flush(Collection<String> ids) {
+        Map<String, HotBasketStore.Entry> entries = store.load(ids);
+        if (entries.isEmpty()) {
+            return Set.of();
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Basket.class);
+        List<String> operations = new ArrayList<>(entries.size());
+        entries.forEach((id, entry) -> {
+            if (entry.deleted()) {
+                bulk.remove(Query.query(where("id").is(id)));
+            } else {
+                bulk.replaceOne(olderThan(entry.basket()), entry.basket(), FindAndReplaceOptions.options().upsert());
+            }
+            operations.add(id);
+        });
+        Set<String> failed = flushes.record(() -> execute(bulk, operations));
+        flushed.increment(entries.size() - failed.size());
+
+        entries.forEach((id, entry) -> {
+            if (!failed.contains(id)) {
+                store.release(id, entry.version(), entry.deleted() || entry.basket().getStatus() != Status.OPEN);
+            }
+        });
+        return failed;
+    }
+
+    private void drain(ReadOffset offset) {
+        while (true) {
+            List<MapRecord<String, Object, Object>> records = read(offset);
+            if (records == null || records.isEmpty()) {
+                return;
+            }
+
+            Set<String> ids = new LinkedHashSet<>();
+            records.forEach(record -> ids.add(logId(record)));
+            Set<String> failed = flush(ids);
+
+            RecordId[] recordIds = records.stream()
+                    .filter(record -> !failed.contains(logId(record)))
+                    .map(MapRecord::getId)
+                    .toArray(RecordId[]::new);
+            if (recordIds.length > 0) {
+                redisTemplate.opsForStream().acknowledge(store.logKey(), GROUP, recordIds);
+                redisTemplate.opsForStream().delete(store.logKey(), recordIds);
+            }
+            lag.record(System.currentTimeMillis() - records.get(0).getId().getTimestamp(), TimeUnit.MILLISECONDS);
+
+            if (records.size() < properties.batchSize()) {
+                return;
+            }
+            if (!offset.equals(ReadOffset.lastConsumed())) {
+                // pending entries left unacknowledged would be read again from the same offset
+                offset = ReadOffset.from(records.get(records.size() - 1).getId());
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<MapRecord<String, Object, Object>> read(ReadOffset offset) {
+        return redisTemplate.opsForStream().read(
+                Consumer.from(GROUP, consumer),
+                StreamReadOptions.empty().count(properties.batchSize()),
+                StreamOffset.create(store.logKey(), offset));
+    }
+
+    private static String logId(MapRecord<String, Object, Object> record) {
+        return (String) record.getValue().get(HotBasketStore.LOG_ID);
+    }
+
+    private void claimAbandoned() {
+        List<RecordId> abandoned = redisTemplate.opsForStream()
+                .pending(store.logKey(), GROUP, Range.unbounded(), properties.batchSize())
+                .stream()
+                .filter(message -> !consumer.equals(message.getConsumerName()))
+                .filter(message -> message.getElapsedTimeSinceLastDelivery().compareTo(properties.claimAfter()) >= 0)
+                .map(PendingMessage::getId)
+                .toList();
+        if (!abandoned.isEmpty()) {
+            redisTemplate.opsForStream().claim(store.logKey(), GROUP, consumer, properties.claimAfter(),
+                    abandoned.toArray(RecordId[]::new));
+            log.info("Claimed {} hot basket log entries left by another instance", abandoned.size());
+        }
+    }
+
+    private void createGroup() {
+        if (groupCreated) {
+            return;
+        }
+        byte[] key = store.logKey().getBytes(StandardCharsets.UTF_8);
+        try {
+            redisTemplate.execute((RedisCallback<String>) connection ->
+                    connection.streamCommands().xGroupCreate(key, GROUP, ReadOffset.from("0"), true));
+        } catch (RedisSystemException exception) {
+            if (exception.getMessage() == null || !exception.getMessage().contains("BUSYGROUP")) {
+                throw exception;
+            }
+        }
+        groupCreated = true;
+    }
+
+    /**
+     * Runs the bulk write and returns the ids of the baskets whose operation failed, by their
+     * position in {@code operations}.
+     */
+    private Set<String> execute(BulkOperations bulk, List<String> operations) {
+        try {
+            bulk.execute();
+            return Set.of();
+        } catch (BulkOperationException exception) {
+            Set<String> failed = new HashSet<>();
+            for (BulkWriteError error : exception.getErrors()) {
+                // a duplicate _id means MongoDB already holds a newer version of that basket
+                if (error.getCode() != DUPLICATE_KEY || !error.getMessage().contains("_id_")) {
+                    String id = operations.get(error.getIndex());
+                    log.error("Could not flush hot basket {}, it stays in Redis: {}", id, error.getMessage());
+                    failed.add(id);
+                }
+            }
+            return failed;
+        }
+    }
+
+    private static Query olderThan(Basket basket) {
+        return Query.query(new Criteria().andOperator(
+                where("id").is(basket.getId()),
+                new Criteria().orOperator(where("version").lt(basket.getVersion()), where("version").is(null))));
+    }
+}
@@ -0,0 +1,287 @@
+package cardoso.commerce.app.hotstore;
+
+import cardoso.commerce.app.config.HotBasketProperties;
+import cardoso.commerce.app.diagnostics.ServerTiming;
+import cardoso.commerce.app.entity.Basket;
+import cardoso.commerce.app.entity.Status;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Keeps baskets in Redis while they are being edited, with MongoDB as the durable tier. Each basket
+ * is a hash under {@code <prefix>:<id>} holding its JSON, version and client id, and the
+ * {@code <prefix>:clients} hash maps every client to its OPEN basket. Writes are a compare-and-set on
+ * the version that also append the basket id to the {@code <prefix>:log} stream, which
+ * {@link HotBasketFlusher} replays into MongoDB.
+ *
+ * <p>A basket stays in Redis until it has been flushed: OPEN ones then expire after
+ * {@code basket.hot-store.idle-ttl} without edits, SOLD and deleted ones are dropped. Only the servlet
+ * {@code BasketService} and {@code BasketBatchService} go through this store. Round trips made for a request are timed in its
+ * {@link ServerTiming}.
+ */
+@Component
+public class HotBasketStore {
+
+    static final String DATA = "data";
+    static final String VERSION = "version";
+    static final String DELETED = "deleted";
+    static final String LOG_ID = "id";
+
+    private static final RedisScript<Long> WRITE_SCRIPT = new DefaultRedisScript<>("""
+            local current = redis.call('hget', KEYS[1], 'version')
+            if ARGV[3] == '' then
+              if current then return 0 end
+              local mapped = redis.call('hget', KEYS[2], ARGV[2])
+              if ARGV[6] == '1' and mapped and mapped ~= ARGV[1]
+                  and redis.call('hexists', ARGV[7] .. mapped, 'data') == 1 then
+                return 0
+              end
+            elseif current ~= ARGV[3] or redis.call('hexists', KEYS[1], 'data') == 0 then
+              return 0
+            end
+            redis.call('hset', KEYS[1], 'data', ARGV[5], 'version', ARGV[4], 'client', ARGV[2])
+            redis.call('persist', KEYS[1])
+            if ARGV[6] == '1' then
+              redis.call('hset', KEYS[2], ARGV[2], ARGV[1])
+            elseif redis.call('hget', KEYS[2], ARGV[2]) == ARGV[1] then
+              redis.call('hdel', KEYS[2], ARGV[2])
+            end
+            redis.call('xadd', KEYS[3], '*', 'id', ARGV[1])
+            return 1
+            """, Long.class);
+
+    private static final RedisScript<Long> DELETE_SCRIPT = new DefaultRedisScript<>("""
+            local client = redis.call('hget', KEYS[1], 'client')
+            if client and redis.call('hget', KEYS[2], client) == ARGV[1] then
+              redis.call('hdel', KEYS[2], client)
+            end
+            redis.call('hdel', KEYS[1], 'data')
+            redis.call('hincrby', KEYS[1], 'version', 1)
+            redis.call('hset', KEYS[1], 'deleted', '1')
+            redis.call('pexpire', KEYS[1], ARGV[2])
+            redis.call('xadd', KEYS[3], '*', 'id', ARGV[1])
+            return 1
+            """, Long.class);
+
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('hget', KEYS[1], 'version') ~= ARGV[1] then return 0 end
+            if ARGV[2] == '0' then return redis.call('del', KEYS[1]) end
+            return redis.call('pexpire', KEYS[1], ARGV[2])
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final HotBasketProperties properties;
+
+    public HotBasketStore(StringRedisTemplate redisTemplate, ObjectMapper objectMapper, HotBasketProperties properties) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+    }
+
+    public boolean isEnabled() {
+        return properties.enabled();
+    }
+
+    /**
+     * Returns the basket if Redis holds it, empty when it is only in MongoDB or was deleted.
+     */
+    public Optional<Basket> find(String id) {
+        long start = System.nanoTime();
+        String data = (String) redisTemplate.opsForHash().get(key(id), DATA);
+        ServerTiming.record(ServerTiming.Phase.HOT_STORE, start);
+        return Optional.ofNullable(data).map(this::read);
+    }
+
+    /**
+     * Returns the version of the basket if Redis holds it, without reading the basket itself.
+     */
+    public Optional<Long> findVersion(String id) {
+        long start = System.nanoTime();
+        List<Object> fields = redisTemplate.opsForHash().multiGet(key(id), List.<Object>of(VERSION, DELETED));
+        ServerTiming.record(ServerTiming.Phase.HOT_STORE, start);
+        if (fields.get(0) == null || fields.get(1) != null) {
+            return Optional.empty();
+        }
+        return Optional.of(Long.valueOf((String) fields.get(0)));
+    }
+
+    public Optional<Basket> findOpenBasket(Long clientId) {
+        long start = System.nanoTime();
+        String id = (String) redisTemplate.opsForHash().get(clientsKey(), String.valueOf(clientId));
+        ServerTiming.record(ServerTiming.Phase.HOT_STORE, start);
+        if (id == null) {
+            return Optional.empty();
+        }
+        return find(id).filter(basket -> basket.getStatus() == Status.OPEN);
+    }
+
+    /**
+     * Returns the baskets Redis holds among {@code ids}, read in one round trip.
+     */
+    public Map<String, Basket> findAll(Collection<String> ids) {
+        Map<String, Basket> baskets = new LinkedHashMap<>();
+        if (!ids.isEmpty()) {
+            load(ids).forEach((id, entry) -> {
+                if (!entry.deleted()) {
+                    baskets.put(id, entry.basket());
+                }
+            });
+        }
+        return baskets;
+    }
+
+    /**
+     * Returns the OPEN baskets Redis holds for {@code clientIds}, keyed by client.
+     */
+    public Map<Long, Basket> findOpenBaskets(Collection<Long> clientIds) {
+        Map<Long, Basket> baskets = new LinkedHashMap<>();
+        if (clientIds.isEmpty()) {
+            return baskets;
+        }
+        List<Long> clients = new ArrayList<>(clientIds);
+        long start = System.nanoTime();
+        List<Object> ids = redisTemplate.opsForHash().multiGet(clientsKey(),
+                clients.stream().<Object>map(String::valueOf).toList());
+        ServerTiming.record(ServerTiming.Phase.HOT_STORE, start);
+        Map<String, Basket> hotBaskets = findAll(ids.stream().filter(Objects::nonNull).map(String.class::cast).toList());
+        for (int i = 0; i < clients.size(); i++) {
+            Basket basket = hotBaskets.get((String) ids.get(i));
+            if (basket != null && basket.getStatus() == Status.OPEN) {
+                baskets.put(clients.get(i), basket);
+            }
+        }
+        return baskets;
+    }
+
+    /**
+     * Stores a basket that is not in Redis yet, either new or read from MongoDB. Fails when Redis
+     * already holds it or, for an OPEN basket, another OPEN basket of the same client.
+     */
+    public boolean insert(Basket basket) {
+        return write(basket, "", basket.getVersion() != null ? basket.getVersion() + 1 : 0);
+    }
+
+    /**
+     * Stores a basket read from this store, provided nobody changed it since.
+     */
+    public boolean update(Basket basket) {
+        return write(basket, String.valueOf(basket.getVersion()), basket.getVersion() + 1);
+    }
+
+    /**
+     * Replaces the basket with a tombstone that stops it from being read from or written to Redis
+     * again, and that the flusher turns into a delete.
+     */
+    public void delete(String id) {
+        long start = System.nanoTime();
+        redisTemplate.execute(DELETE_SCRIPT, List.of(key(id), clientsKey(), logKey()),
+                id, String.valueOf(properties.idleTtl().toMillis()));
+        ServerTiming.record(ServerTiming.Phase.HOT_STORE, start);
+    }
+
+    Map<String, Entry> load(Collection<String> ids) {
+        List<String> keys = new ArrayList<>(ids);
+        long start = System.nanoTime();
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            keys.forEach(id -> hashFields(connection, id));
+            return null;
+        });
+        ServerTiming.record(ServerTiming.Phase.HOT_STORE, start);
+
+        Map<String, Entry> entries = new LinkedHashMap<>();
+        for (int i = 0; i < keys.size(); i++) {
+            List<?> fields = (List<?>) results.get(i);
+            String data = (String) fields.get(0);
+            String version = (String) fields.get(1);
+            boolean deleted = fields.get(2) != null;
+            if (version != null && (data != null || deleted)) {
+                entries.put(keys.get(i), new Entry(data != null ? read(data) : null, version, deleted));
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Drops a flushed basket from Redis, or lets it expire when it is still OPEN, unless it changed
+     * since it was loaded.
+     */
+    void release(String id, String version, boolean drop) {
+        String ttl = drop ? "0" : String.valueOf(properties.idleTtl().toMillis());
+        redisTemplate.execute(RELEASE_SCRIPT, List.of(key(id)), version, ttl);
+    }
+
+    String logKey() {
+        return properties.keyPrefix() + ":log";
+    }
+
+    private boolean write(Basket basket, String expectedVersion, long newVersion) {
+        Long previousVersion = basket.getVersion();
+        basket.setVersion(newVersion);
+        String data = write(basket);
+        long start = System.nanoTime();
+        Long written = redisTemplate.execute(WRITE_SCRIPT, List.of(key(basket.getId()), clientsKey(), logKey()),
+                basket.getId(), String.valueOf(basket.getClientId()), expectedVersion, String.valueOf(newVersion),
+                data, basket.getStatus() == Status.OPEN ? "1" : "0", properties.keyPrefix() + ":");
+        ServerTiming.record(ServerTiming.Phase.HOT_STORE, start);
+        if (written == null || written == 0) {
+            basket.setVersion(previousVersion);
+            return false;
+        }
+        return true;
+    }
+
+    private void hashFields(RedisConnection connection, String id) {
+        connection.hashCommands().hMGet(bytes(key(id)), bytes(DATA), bytes(VERSION), bytes(DELETED));
+    }
+
+    private String key(String id) {
+        return properties.keyPrefix() + ":" + id;
+    }
+
+    private String clientsKey() {
+        return properties.keyPrefix() + ":clients";
+    }
+
+    private String write(Basket basket) {
+        try {
+            return objectMapper.writeValueAsString(basket);
+        } catch (JsonProcessingException exception) {
+            throw new IllegalStateException("Could not serialize basket " + basket.getId(), exception);
+        }
+    }
+
+    private Basket read(String json) {
+        try {
+            return objectMapper.readValue(json, Basket.class);
+        } catch (JsonProcessingException exception) {
+            throw new IllegalStateException("Could not deserialize hot basket", exception);
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * A basket as loaded for flushing: its state, or {@code null} for a tombstone, and the version
+     * it was loaded at.
+     */
+    record Entry(Basket basket, String version, boolean deleted) {
+    }
+}
@@ -0,0 +1,214 @@
+package cardoso.commerce.app.idempotency;
+
+import cardoso.commerce.app.config.IdempotencyProperties;
+import cardoso.commerce.app.exception.BusinessesException;
+import cardoso.commerce.app.exception.IdempotencyKeyConflictException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Runs a request at most once per {@code Idempotency-Key} and replays its response to the retries.
+ * Each key is a hash under {@code <prefix>:<key>} that holds a short lease while the first request
+ * runs and its JSON response once it succeeded, kept for {@code basket.idempotency.ttl}. A retry that
+ * arrives while the first request is still running waits up to {@code wait-timeout} for its response
+ * and is rejected after that; a key sent with a different request is always rejected.
+ *
+ * <p>Completed keys are also indexed by completion time, and the oldest are evicted once there are
+ * more than {@code max-keys}. Failed requests release their key so they can be retried. If Redis is
+ * unavailable the request runs without deduplication.
+ */
+@Slf4j
+@Component
+public class IdempotencyStore {
+
+    static final String STATE = "state";
+    static final String FINGERPRINT = "fingerprint";
+    static final String RESPONSE = "response";
+    static final String PENDING = "pending";
+    static final String DONE = "done";
+
+    private static final RedisScript<Long> CLAIM_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('exists', KEYS[1]) == 1 then return 0 end
+            redis.call('hset', KEYS[1], 'state', 'pending', 'fingerprint', ARGV[2], 'token', ARGV[1])
+            redis.call('pexpire', KEYS[1], ARGV[3])
+            return 1
+            """, Long.class);
+
+    private static final RedisScript<Long> COMPLETE_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('hget', KEYS[1], 'token') ~= ARGV[1] then return 0 end
+            redis.call('hset', KEYS[1], 'state', 'done', 'response', ARGV[2])
+            redis.call('hdel', KEYS[1], 'token')
+            redis.call('pexpire', KEYS[1], ARGV[3])
+            local now = tonumber(ARGV[4])
+            redis.call('zadd', KEYS[2], now, KEYS[1])
+            redis.call('zremrangebyscore', KEYS[2], '-inf', now - tonumber(ARGV[3]))
+            local overflow = redis.call('zcard', KEYS[2]) - tonumber(ARGV[5])
+            if overflow > 0 then
+              local evicted = redis.call('zrange', KEYS[2], 0, overflow - 1)
+              redis.call('del', unpack(evicted))
+              redis.call('zremrangebyrank', KEYS[2], 0, overflow - 1)
+            end
+            return 1
+            """, Long.class);
+
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('hget', KEYS[1], 'token') == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final IdempotencyProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public IdempotencyStore(StringRedisTemplate redisTemplate, ObjectMapper objectMapper,
+                            IdempotencyProperties properties, MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Runs {@code action} unless a request with the same key already did, in which case its
+     * response is returned instead. {@code fingerprint} identifies the request the key was first
+     * sent with.
+     */
+    public <T> T execute(String key, String fingerprint, Class<T> responseType, Supplier<T> action) {
+        if (!properties.enabled()) {
+            return action.get();
+        }
+        if (key.isBlank() || key.length() > properties.maxKeyLength()) {
+            throw new BusinessesException("Idempotency-Key must have between 1 and "
+                    + properties.maxKeyLength() + " characters");
+        }
+
+        String entryKey = properties.keyPrefix() + ":" + key;
+        String token = UUID.randomUUID().toString();
+        long deadline = System.nanoTime() + properties.waitTimeout().toNanos();
+        while (true) {
+            boolean claimed;
+            List<Object> entry = null;
+            // only the Redis calls fall back to running without deduplication, failures of the
+            // action itself must reach the caller once
+            try {
+                claimed = claim(entryKey, token, fingerprint);
+                if (!claimed) {
+                    entry = redisTemplate.opsForHash().multiGet(entryKey, List.of(STATE, FINGERPRINT, RESPONSE));
+                }
+            } catch (DataAccessException exception) {
+                log.warn("Idempotency store unavailable, running request {} without deduplication", key, exception);
+                count("unavailable");
+                return action.get();
+            }
+            if (claimed) {
+                return executeClaimed(entryKey, token, action);
+            }
+
+            String state = (String) entry.get(0);
+            if (state == null) {
+                // the first request failed or its key expired in between, claim it again
+                continue;
+            }
+            if (!fingerprint.equals(entry.get(1))) {
+                count("reused");
+                throw new IdempotencyKeyConflictException(
+                        "Idempotency-Key " + key + " was already used for a different request", true);
+            }
+            if (DONE.equals(state)) {
+                count("replayed");
+                return read((String) entry.get(2), responseType);
+            }
+            if (System.nanoTime() >= deadline) {
+                count("in-flight");
+                throw new IdempotencyKeyConflictException(
+                        "A request with Idempotency-Key " + key + " is still in progress", false);
+            }
+            sleep();
+        }
+    }
+
+    /**
+     * {@link #execute} for the reactive runtime. The store talks to Redis through the blocking
+     * client, so it runs on the bounded elastic scheduler and waits there for {@code action}.
+     */
+    public <T> Mono<T> executeReactive(String key, String fingerprint, Class<T> responseType, Mono<T> action) {
+        return Mono.fromCallable(() -> execute(key, fingerprint, responseType, action::block))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private boolean claim(String entryKey, String token, String fingerprint) {
+        Long claimed = redisTemplate.execute(CLAIM_SCRIPT, List.of(entryKey),
+                token, fingerprint, String.valueOf(properties.lease().toMillis()));
+        return claimed != null && claimed == 1;
+    }
+
+    private <T> T executeClaimed(String entryKey, String token, Supplier<T> action) {
+        T response;
+        try {
+            response = action.get();
+        } catch (RuntimeException exception) {
+            release(entryKey, token);
+            throw exception;
+        }
+
+        count("executed");
+        try {
+            redisTemplate.execute(COMPLETE_SCRIPT, List.of(entryKey, properties.keyPrefix() + ":index"),
+                    token, write(response), String.valueOf(properties.ttl().toMillis()),
+                    String.valueOf(System.currentTimeMillis()), String.valueOf(properties.maxKeys()));
+        } catch (DataAccessException exception) {
+            log.warn("Could not store response for {}, retries will run again once its lease expires", entryKey, exception);
+        }
+        return response;
+    }
+
+    private void release(String entryKey, String token) {
+        try {
+            redisTemplate.execute(RELEASE_SCRIPT, List.of(entryKey), token);
+        } catch (DataAccessException exception) {
+            log.debug("Could not release {}, it expires with its lease", entryKey, exception);
+        }
+    }
+
+    private void sleep() {
+        try {
+            Thread.sleep(properties.pollInterval());
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for an idempotent request", exception);
+        }
+    }
+
+    private void count(String outcome) {
+        meterRegistry.counter("basket.idempotency.requests", "outcome", outcome).increment();
+    }
+
+    private String write(Object response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException exception) {
+            throw new IllegalStateException("Could not serialize idempotent response", exception);
+        }
+    }
+
+    private <T> T read(String json, Class<T> responseType) {
+        try {
+            return objectMapper.readValue(json, responseType);
+        } catch (JsonProcessingException exception) {
+            throw new IllegalStateException("Could not deserialize idempotent response", exception);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package cardoso.commerce.app.repository;
+
+import cardoso.commerce.app.entity.PaymentMethod;
+import cardoso.commerce.app.entity.Status;
+
+/**
+ * Which baskets an export covers. Every field is optional; ids are exclusive bounds, so an
+ * interrupted export resumes by passing the last id it received as {@code afterId}.
+ */
+public record BasketExportFilter(Status status, PaymentMethod paymentMethod, String afterId, String beforeId) {
+}
@@ -0,0 +1,58 @@
+package cardoso.commerce.app.repository;
+
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+/**
+ * Builds the export query behind {@link BasketRepositoryCustom#streamForExport}. Baskets come in id
+ * order so an export can resume, and the query is pinned to an index that returns them in that
+ * order: {@code status_payment_id} when both status and payment method are given, {@code status_id}
+ * when only the status is, the {@code _id} index otherwise. MongoDB then never has to sort in memory,
+ * however many baskets match, and reads only the matching baskets unless the filter is on payment
+ * method alone. Product titles are left out of the projection.
+ */
+final class BasketExports {
+
+    static final String STATUS_PAYMENT_ID_INDEX = "status_payment_id";
+    static final String STATUS_ID_INDEX = "status_id";
+    static final String ID_INDEX = "_id_";
+
+    private BasketExports() {
+    }
+
+    static Query query(BasketExportFilter filter, int batchSize) {
+        Query query = new Query();
+        if (filter.status() != null) {
+            query.addCriteria(Criteria.where("status").is(filter.status()));
+        }
+        if (filter.paymentMethod() != null) {
+            query.addCriteria(Criteria.where("paymentMethod").is(filter.paymentMethod()));
+        }
+        if (filter.afterId() != null || filter.beforeId() != null) {
+            Criteria id = Criteria.where("id");
+            if (filter.afterId() != null) {
+                id.gt(new ObjectId(filter.afterId()));
+            }
+            if (filter.beforeId() != null) {
+                id.lt(new ObjectId(filter.beforeId()));
+            }
+            query.addCriteria(id);
+        }
+
+        query.fields()
+                .include("clientId", "status", "paymentMethod", "soldAt", "totalPrice", "version")
+                .include("products.id", "products.price", "products.quantity");
+        return query.with(Sort.by(Sort.Direction.ASC, "id"))
+                .withHint(hint(filter))
+                .cursorBatchSize(batchSize);
+    }
+
+    private static String hint(BasketExportFilter filter) {
+        if (filter.status() == null) {
+            return ID_INDEX;
+        }
+        return filter.paymentMethod() != null ? STATUS_PAYMENT_ID_INDEX : STATUS_ID_INDEX;
+    }
+}
@@ -4,10 +4,14 @@ import cardoso.commerce.app.entity.Basket;
 import cardoso.commerce.app.entity.Status;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface BasketRepository extends MongoRepository<Basket, String> {
+public interface BasketRepository extends MongoRepository<Basket, String>, BasketRepositoryCustom {
 
     Optional<Basket> findByClientIdAndStatus(Long clientId, Status status);
+
+    List<Basket> findByClientIdInAndStatus(Collection<Long> clientIds, Status status);
 }
\ No newline at end of file
@@ -0,0 +1,60 @@
+package cardoso.commerce.app.repository;
+
+import cardoso.commerce.app.entity.Basket;
+import cardoso.commerce.app.entity.PaymentMethod;
+import cardoso.commerce.app.entity.Product;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Basket mutations written in place with {@code $push}, {@code $inc} and {@code $set} instead of
+ * rewriting the whole document. Each update only applies if the stored basket still has the version
+ * it was read at; on success the given basket reflects the stored one, otherwise it has to be read
+ * again.
+ */
+public interface BasketRepositoryCustom {
+
+    /**
+     * Returns the version of a basket without loading its products, empty when there is no such
+     * basket.
+     */
+    Optional<Long> findVersion(String id);
+
+    boolean addProducts(Basket basket, List<Product> products);
+
+    boolean replaceProducts(Basket basket, List<Product> products);
+
+    boolean checkout(Basket basket, PaymentMethod paymentMethod);
+
+    /**
+     * Writes baskets whose products were changed in memory with a single unordered bulk write. A
+     * basket without a version is inserted, the others get their products and total set under the
+     * same version check as the single updates. Returns the ids of the baskets that were not
+     * written, because they changed since they were read or, for new ones, the client already has
+     * an OPEN basket; the others are advanced to their stored version.
+     */
+    Set<String> writeAll(Collection<Basket> baskets);
+
+    /**
+     * Streams the baskets matching {@code filter} in id order from a cursor that fetches
+     * {@code batchSize} of them at a time. The stream must be closed.
+     */
+    Stream<Basket> streamForExport(BasketExportFilter filter, int batchSize);
+
+    /**
+     * Streams the revenue and baskets of every payment method per minute, over the baskets sold in
+     * {@code [from, to)}. The stream must be closed.
+     */
+    Stream<PaymentSales> streamPaymentSales(Instant from, Instant to);
+
+    /**
+     * Streams the units sold of every product per minute, over the baskets sold in
+     * {@code [from, to)}. The stream must be closed.
+     */
+    Stream<ProductSales> streamProductSales(Instant from, Instant to);
+}
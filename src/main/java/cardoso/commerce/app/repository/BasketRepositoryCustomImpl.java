@@ -0,0 +1,148 @@
+package cardoso.commerce.app.repository;
+
+import cardoso.commerce.app.entity.Basket;
+import cardoso.commerce.app.entity.PaymentMethod;
+import cardoso.commerce.app.entity.Product;
+import com.mongodb.bulk.BulkWriteResult;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+@RequiredArgsConstructor
+class BasketRepositoryCustomImpl implements BasketRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public Optional<Long> findVersion(String id) {
+        return Optional.ofNullable(mongoTemplate.findOne(BasketUpdates.version(id), Basket.class))
+                .map(BasketUpdates::versionOf);
+    }
+
+    @Override
+    public boolean addProducts(Basket basket, List<Product> products) {
+        return apply(basket, BasketUpdates.addProducts(basket, products));
+    }
+
+    @Override
+    public boolean replaceProducts(Basket basket, List<Product> products) {
+        return apply(basket, BasketUpdates.replaceProducts(basket, products));
+    }
+
+    @Override
+    public boolean checkout(Basket basket, PaymentMethod paymentMethod) {
+        return apply(basket, BasketUpdates.checkout(basket, paymentMethod));
+    }
+
+    @Override
+    public Set<String> writeAll(Collection<Basket> baskets) {
+        if (baskets.isEmpty()) {
+            return Set.of();
+        }
+
+        List<Basket> operations = new ArrayList<>(baskets);
+        boolean[] inserts = new boolean[operations.size()];
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Basket.class);
+        for (int i = 0; i < operations.size(); i++) {
+            Basket basket = operations.get(i);
+            if (basket.getVersion() == null) {
+                inserts[i] = true;
+                basket.setVersion(0L);
+                bulk.insert(basket);
+            } else {
+                bulk.updateOne(BasketUpdates.current(basket), BasketUpdates.contents(basket));
+            }
+        }
+
+        Set<Integer> failed = new HashSet<>();
+        BulkWriteResult result;
+        try {
+            result = bulk.execute();
+        } catch (BulkOperationException exception) {
+            result = exception.getResult();
+            exception.getErrors().forEach(error -> failed.add(error.getIndex()));
+        }
+
+        List<Integer> updates = IntStream.range(0, operations.size())
+                .filter(i -> !inserts[i] && !failed.contains(i))
+                .boxed()
+                .toList();
+        if (result.getMatchedCount() < updates.size()) {
+            failed.addAll(unmatched(operations, updates));
+        }
+
+        Set<String> failedIds = new HashSet<>();
+        for (int i = 0; i < operations.size(); i++) {
+            Basket basket = operations.get(i);
+            if (failed.contains(i)) {
+                failedIds.add(basket.getId());
+                if (inserts[i]) {
+                    basket.setVersion(null);
+                }
+            } else if (!inserts[i]) {
+                BasketUpdates.advance(basket);
+            }
+        }
+        return failedIds;
+    }
+
+    @Override
+    public Stream<Basket> streamForExport(BasketExportFilter filter, int batchSize) {
+        return mongoTemplate.stream(BasketExports.query(filter, batchSize), Basket.class);
+    }
+
+    @Override
+    public Stream<PaymentSales> streamPaymentSales(Instant from, Instant to) {
+        return mongoTemplate.aggregateStream(SalesPipelines.payments(from, to), Document.class)
+                .map(SalesPipelines::paymentSales);
+    }
+
+    @Override
+    public Stream<ProductSales> streamProductSales(Instant from, Instant to) {
+        return mongoTemplate.aggregateStream(SalesPipelines.products(from, to), Document.class)
+                .map(SalesPipelines::productSales);
+    }
+
+    /**
+     * A bulk write only reports how many updates matched in total, so when some did not the stored
+     * versions tell which ones. An update that did apply but was overtaken by another change in the
+     * meantime is reported as not applied too.
+     */
+    private List<Integer> unmatched(List<Basket> operations, List<Integer> updates) {
+        Query query = Query.query(where("id").in(updates.stream().map(i -> operations.get(i).getId()).toList()));
+        query.fields().include("version");
+        Map<String, Long> storedVersions = new HashMap<>();
+        mongoTemplate.find(query, Basket.class).forEach(stored -> storedVersions.put(stored.getId(), stored.getVersion()));
+
+        return updates.stream()
+                .filter(i -> !Long.valueOf(operations.get(i).getVersion() + 1).equals(storedVersions.get(operations.get(i).getId())))
+                .toList();
+    }
+
+    private boolean apply(Basket basket, Update update) {
+        boolean applied = mongoTemplate.updateFirst(BasketUpdates.current(basket), update, Basket.class)
+                .getMatchedCount() == 1;
+        if (applied) {
+            BasketUpdates.advance(basket);
+        }
+        return applied;
+    }
+}
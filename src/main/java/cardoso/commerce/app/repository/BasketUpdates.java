@@ -0,0 +1,117 @@
+package cardoso.commerce.app.repository;
+
+import cardoso.commerce.app.entity.Basket;
+import cardoso.commerce.app.entity.PaymentMethod;
+import cardoso.commerce.app.entity.Product;
+import cardoso.commerce.app.entity.Status;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Builds the in-place updates behind {@link BasketRepositoryCustom}. Each method applies the change
+ * to the basket in memory, so the basket keeps its merge and total rules, and returns only the
+ * operators for the fields that changed. Array positions are safe to address because the update is
+ * guarded by the version the basket was read at.
+ */
+public final class BasketUpdates {
+
+    private BasketUpdates() {
+    }
+
+    static Query current(Basket basket) {
+        return Query.query(Criteria.where("id").is(basket.getId()).and("version").is(basket.getVersion()));
+    }
+
+    /**
+     * Reads only the version of a basket, which is all a conditional request needs.
+     */
+    static Query version(String id) {
+        Query query = Query.query(Criteria.where("id").is(id));
+        query.fields().include("version");
+        return query;
+    }
+
+    /**
+     * The version of a stored basket, where baskets written before versioning count as version 0,
+     * as their ETag does.
+     */
+    public static long versionOf(Basket basket) {
+        return basket.getVersion() != null ? basket.getVersion() : 0L;
+    }
+
+    static Update addProducts(Basket basket, List<Product> additions) {
+        int existing = basket.getProducts() != null ? basket.getProducts().size() : 0;
+        List<Product> before = new ArrayList<>(existing);
+        for (int i = 0; i < existing; i++) {
+            before.add(basket.getProducts().get(i).toBuilder().build());
+        }
+
+        basket.addProducts(additions);
+
+        Update update = new Update();
+        List<Product> lines = basket.getProducts();
+        List<Integer> changed = new ArrayList<>();
+        for (int i = 0; i < existing; i++) {
+            // a merge also refreshes price and title, even when it adds no quantity
+            Product line = lines.get(i);
+            Product previous = before.get(i);
+            if (line.getQuantity() != previous.getQuantity()
+                    || !Objects.equals(line.getPrice(), previous.getPrice())
+                    || !Objects.equals(line.getTitle(), previous.getTitle())) {
+                changed.add(i);
+            }
+        }
+        boolean appended = lines.size() > existing;
+        if (appended && !changed.isEmpty()) {
+            // MongoDB rejects $inc on products.<i> next to $push on products in one update
+            update.set("products", lines);
+        } else if (appended) {
+            update.push("products").each(lines.subList(existing, lines.size()).toArray());
+        } else {
+            for (int i : changed) {
+                Product line = lines.get(i);
+                String path = "products." + i;
+                update.inc(path + ".quantity", line.getQuantity() - before.get(i).getQuantity())
+                        .set(path + ".price", line.getPrice())
+                        .set(path + ".title", line.getTitle());
+            }
+        }
+        return update.set("totalPrice", basket.getTotalPrice()).inc("version", 1);
+    }
+
+    static Update replaceProducts(Basket basket, List<Product> replacement) {
+        basket.replaceProducts(replacement);
+        return new Update()
+                .set("products", basket.getProducts())
+                .set("totalPrice", basket.getTotalPrice())
+                .inc("version", 1);
+    }
+
+    static Update contents(Basket basket) {
+        return new Update()
+                .set("products", basket.getProducts())
+                .set("totalPrice", basket.getTotalPrice())
+                .inc("version", 1);
+    }
+
+    static Update checkout(Basket basket, PaymentMethod paymentMethod) {
+        basket.setPaymentMethod(paymentMethod);
+        basket.setStatus(Status.SOLD);
+        basket.setSoldAt(Instant.now());
+        return new Update()
+                .set("paymentMethod", paymentMethod)
+                .set("status", Status.SOLD)
+                .set("soldAt", basket.getSoldAt())
+                .inc("version", 1);
+    }
+
+    static void advance(Basket basket) {
+        basket.setVersion(basket.getVersion() != null ? basket.getVersion() + 1 : 1);
+    }
+}
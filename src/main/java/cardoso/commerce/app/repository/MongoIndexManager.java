@@ -0,0 +1,78 @@
+package cardoso.commerce.app.repository;
+
+import cardoso.commerce.app.config.MongoIndexProperties;
+import cardoso.commerce.app.entity.Basket;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+/**
+ * Creates the indexes declared on the mapped documents before the application serves traffic and
+ * checks that each of them exists with the declared uniqueness. MongoDB only builds the indexes that
+ * are missing, so later starts cost one round trip per index. Startup fails when an index cannot be
+ * created, for instance when two OPEN baskets of one client already violate the unique one.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MongoIndexManager implements SmartInitializingSingleton {
+
+    static final List<Class<?>> DOCUMENTS = List.of(Basket.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoIndexProperties properties;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!properties.enabled()) {
+            return;
+        }
+        DOCUMENTS.forEach(this::ensureIndexes);
+    }
+
+    void ensureIndexes(Class<?> documentType) {
+        String collection = mongoTemplate.getCollectionName(documentType);
+        IndexOperations indexOperations = mongoTemplate.indexOps(documentType);
+        List<IndexDefinition> declared = declaredIndexes(documentType);
+
+        for (IndexDefinition index : declared) {
+            try {
+                indexOperations.createIndex(index);
+            } catch (RuntimeException exception) {
+                throw new IllegalStateException("Could not create index " + index.getIndexKeys().toJson()
+                        + " on '" + collection + "'", exception);
+            }
+        }
+
+        Map<String, IndexInfo> existing = indexOperations.getIndexInfo().stream()
+                .collect(Collectors.toMap(IndexInfo::getName, Function.identity()));
+        for (IndexDefinition index : declared) {
+            String name = index.getIndexOptions().getString("name");
+            IndexInfo info = existing.get(name);
+            boolean unique = index.getIndexOptions().getBoolean("unique", false);
+            if (info == null || info.isUnique() != unique) {
+                throw new IllegalStateException("Index '" + name + "' on '" + collection + "' is missing or differs from its declaration");
+            }
+        }
+        log.info("Checked {} indexes on '{}'", declared.size(), collection);
+    }
+
+    List<IndexDefinition> declaredIndexes(Class<?> documentType) {
+        return StreamSupport.stream(new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext())
+                        .resolveIndexFor(documentType).spliterator(), false)
+                .map(IndexDefinition.class::cast)
+                .toList();
+    }
+}
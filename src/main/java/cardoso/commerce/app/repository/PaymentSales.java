@@ -0,0 +1,12 @@
+package cardoso.commerce.app.repository;
+
+import cardoso.commerce.app.entity.PaymentMethod;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Revenue and number of baskets paid with one method in the minute starting at {@code minute}.
+ */
+public record PaymentSales(Instant minute, PaymentMethod paymentMethod, BigDecimal revenue, long baskets) {
+}
@@ -0,0 +1,9 @@
+package cardoso.commerce.app.repository;
+
+import java.time.Instant;
+
+/**
+ * Units of one product sold in the minute starting at {@code minute}.
+ */
+public record ProductSales(Instant minute, Long productId, long units) {
+}
@@ -0,0 +1,13 @@
+package cardoso.commerce.app.repository;
+
+import cardoso.commerce.app.entity.Basket;
+import cardoso.commerce.app.entity.Status;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface ReactiveBasketRepository extends ReactiveMongoRepository<Basket, String>, ReactiveBasketRepositoryCustom {
+
+    Mono<Basket> findByClientIdAndStatus(Long clientId, Status status);
+}
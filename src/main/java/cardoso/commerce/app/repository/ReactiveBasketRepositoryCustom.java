@@ -0,0 +1,25 @@
+package cardoso.commerce.app.repository;
+
+import cardoso.commerce.app.entity.Basket;
+import cardoso.commerce.app.entity.PaymentMethod;
+import cardoso.commerce.app.entity.Product;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Reactive counterpart of {@link BasketRepositoryCustom}.
+ */
+public interface ReactiveBasketRepositoryCustom {
+
+    Mono<Long> findVersion(String id);
+
+    Mono<Boolean> addProducts(Basket basket, List<Product> products);
+
+    Mono<Boolean> replaceProducts(Basket basket, List<Product> products);
+
+    Mono<Boolean> checkout(Basket basket, PaymentMethod paymentMethod);
+
+    Flux<Basket> findForExport(BasketExportFilter filter, int batchSize);
+}
@@ -0,0 +1,54 @@
+package cardoso.commerce.app.repository;
+
+import cardoso.commerce.app.entity.Basket;
+import cardoso.commerce.app.entity.PaymentMethod;
+import cardoso.commerce.app.entity.Product;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+class ReactiveBasketRepositoryCustomImpl implements ReactiveBasketRepositoryCustom {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Mono<Long> findVersion(String id) {
+        return Mono.defer(() -> mongoTemplate.findOne(BasketUpdates.version(id), Basket.class))
+                .map(BasketUpdates::versionOf);
+    }
+
+    @Override
+    public Mono<Boolean> addProducts(Basket basket, List<Product> products) {
+        return Mono.defer(() -> apply(basket, BasketUpdates.addProducts(basket, products)));
+    }
+
+    @Override
+    public Mono<Boolean> replaceProducts(Basket basket, List<Product> products) {
+        return Mono.defer(() -> apply(basket, BasketUpdates.replaceProducts(basket, products)));
+    }
+
+    @Override
+    public Mono<Boolean> checkout(Basket basket, PaymentMethod paymentMethod) {
+        return Mono.defer(() -> apply(basket, BasketUpdates.checkout(basket, paymentMethod)));
+    }
+
+    @Override
+    public Flux<Basket> findForExport(BasketExportFilter filter, int batchSize) {
+        return Flux.defer(() -> mongoTemplate.find(BasketExports.query(filter, batchSize), Basket.class));
+    }
+
+    private Mono<Boolean> apply(Basket basket, Update update) {
+        return mongoTemplate.updateFirst(BasketUpdates.current(basket), update, Basket.class)
+                .map(result -> result.getMatchedCount() == 1)
+                .doOnNext(applied -> {
+                    if (applied) {
+                        BasketUpdates.advance(basket);
+                    }
+                });
+    }
+}
@@ -0,0 +1,98 @@
+package cardoso.commerce.app.repository;
+
+import cardoso.commerce.app.entity.Basket;
+import cardoso.commerce.app.entity.PaymentMethod;
+import cardoso.commerce.app.entity.Status;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Builds the aggregations behind {@link BasketRepositoryCustom#streamPaymentSales} and
+ * {@link BasketRepositoryCustom#streamProductSales}, which replay SOLD baskets into per-minute
+ * totals. A basket counts at its {@code soldAt}; baskets paid before that field existed count at the
+ * creation time held in their ObjectId. Only stages available since MongoDB 4.0 are used.
+ */
+final class SalesPipelines {
+
+    private static final Document SOLD_AT = new Document("$ifNull", List.of("$soldAt", new Document("$toDate", "$_id")));
+    private static final Document MINUTE = new Document("$subtract", List.of(SOLD_AT,
+            new Document("$mod", List.of(new Document("$toLong", SOLD_AT), 60_000L))));
+
+    private SalesPipelines() {
+    }
+
+    static TypedAggregation<Basket> payments(Instant from, Instant to) {
+        return Aggregation.newAggregation(Basket.class,
+                        Aggregation.match(sold(from, to)),
+                        stage("$group", new Document("_id", new Document("minute", MINUTE).append("paymentMethod", "$paymentMethod"))
+                                .append("revenue", new Document("$sum", new Document("$toDecimal", "$totalPrice")))
+                                .append("baskets", new Document("$sum", 1))))
+                .withOptions(AggregationOptions.builder().allowDiskUse(true).build());
+    }
+
+    static TypedAggregation<Basket> products(Instant from, Instant to) {
+        return Aggregation.newAggregation(Basket.class,
+                        Aggregation.match(sold(from, to)),
+                        stage("$unwind", new Document("path", "$products")),
+                        stage("$group", new Document("_id", new Document("minute", MINUTE).append("productId", "$products._id"))
+                                .append("units", new Document("$sum", "$products.quantity"))))
+                .withOptions(AggregationOptions.builder().allowDiskUse(true).build());
+    }
+
+    static PaymentSales paymentSales(Document row) {
+        Document id = row.get("_id", Document.class);
+        String paymentMethod = id.getString("paymentMethod");
+        return new PaymentSales(id.getDate("minute").toInstant(),
+                paymentMethod != null ? PaymentMethod.valueOf(paymentMethod) : null,
+                decimal(row.get("revenue")), row.get("baskets", Number.class).longValue());
+    }
+
+    static ProductSales productSales(Document row) {
+        Document id = row.get("_id", Document.class);
+        Number productId = id.get("productId", Number.class);
+        return new ProductSales(id.getDate("minute").toInstant(),
+                productId != null ? productId.longValue() : null, row.get("units", Number.class).longValue());
+    }
+
+    /**
+     * SOLD baskets paid in {@code [from, to)}. Both bounds must be whole seconds for the ObjectId
+     * range to match exactly.
+     */
+    static Criteria sold(Instant from, Instant to) {
+        return new Criteria().andOperator(
+                where("status").is(Status.SOLD),
+                new Criteria().orOperator(
+                        where("soldAt").gte(from).lt(to),
+                        new Criteria().andOperator(
+                                where("soldAt").is(null),
+                                where("id").gte(firstId(from)).lt(firstId(to)))));
+    }
+
+    private static ObjectId firstId(Instant instant) {
+        return new ObjectId(String.format("%08x%016x", instant.getEpochSecond(), 0));
+    }
+
+    private static BigDecimal decimal(Object value) {
+        if (value instanceof Decimal128 decimal) {
+            return decimal.bigDecimalValue();
+        }
+        return value != null ? BigDecimal.valueOf(((Number) value).longValue()) : BigDecimal.ZERO;
+    }
+
+    private static AggregationOperation stage(String operator, Document body) {
+        Document stage = new Document(operator, body);
+        return context -> stage;
+    }
+}
@@ -0,0 +1,204 @@
+package cardoso.commerce.app.sales;
+
+import cardoso.commerce.app.config.SalesProperties;
+import cardoso.commerce.app.controller.response.SalesBucket;
+import cardoso.commerce.app.entity.Basket;
+import cardoso.commerce.app.entity.PaymentMethod;
+import cardoso.commerce.app.entity.Product;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Sales totals kept in Redis, one hash per bucket under {@code <prefix>:<granularity>:<epoch second>}
+ * with the revenue in cents and the baskets of every payment method and the units of every product.
+ * A checkout adds its basket to the minute, hour and day buckets it falls in with one script, so the
+ * three granularities always agree, and each bucket expires after the retention of its granularity.
+ *
+ * <p>Reading a range costs one hash per bucket, however many baskets were sold in it. Counters that
+ * could not be updated, because Redis was unavailable, are restored by rebuilding the range from
+ * MongoDB.
+ */
+@Slf4j
+@Component
+public class SalesCounters {
+
+    static final String REVENUE = "revenue:";
+    static final String BASKETS = "baskets:";
+    static final String UNITS = "units:";
+
+    private static final RedisScript<Long> RECORD_SCRIPT = new DefaultRedisScript<>("""
+            for i, key in ipairs(KEYS) do
+              redis.call('hincrby', key, 'revenue:' .. ARGV[1], ARGV[2])
+              redis.call('hincrby', key, 'baskets:' .. ARGV[1], 1)
+              for j = 3 + #KEYS, #ARGV, 2 do
+                redis.call('hincrby', key, 'units:' .. ARGV[j], ARGV[j + 1])
+              end
+              redis.call('pexpireat', key, ARGV[2 + i])
+            end
+            return 1
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final SalesProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public SalesCounters(StringRedisTemplate redisTemplate, SalesProperties properties, MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public boolean isEnabled() {
+        return properties.enabled();
+    }
+
+    /**
+     * Adds a basket that was just checked out to the buckets of its {@code soldAt}. Never fails the
+     * checkout: when Redis is unavailable the sale is only logged.
+     */
+    public void record(Basket basket) {
+        if (!properties.enabled()) {
+            return;
+        }
+        Instant soldAt = basket.getSoldAt() != null ? basket.getSoldAt() : Instant.now();
+        List<String> keys = new ArrayList<>();
+        List<String> args = new ArrayList<>();
+        args.add(basket.getPaymentMethod().name());
+        args.add(String.valueOf(cents(basket.getTotalPrice())));
+        for (SalesGranularity granularity : SalesGranularity.values()) {
+            Instant bucket = granularity.bucketOf(soldAt);
+            keys.add(key(granularity, bucket));
+            args.add(String.valueOf(expiresAt(granularity, bucket).toEpochMilli()));
+        }
+        if (basket.getProducts() != null) {
+            for (Product product : basket.getProducts()) {
+                args.add(String.valueOf(product.getId()));
+                args.add(String.valueOf(product.getQuantity()));
+            }
+        }
+
+        try {
+            redisTemplate.execute(RECORD_SCRIPT, keys, args.toArray());
+            count("recorded");
+        } catch (DataAccessException exception) {
+            log.warn("Could not add basket {} to the sales counters, rebuild them to recover it", basket.getId(), exception);
+            count("failed");
+        }
+    }
+
+    /**
+     * Returns every bucket starting in {@code [from, to)}, {@code from} being a bucket start, in one
+     * round trip. Buckets without sales come back empty.
+     */
+    public List<SalesBucket> read(SalesGranularity granularity, Instant from, Instant to) {
+        List<Instant> starts = new ArrayList<>();
+        for (Instant bucket = from; bucket.isBefore(to); bucket = granularity.next(bucket)) {
+            starts.add(bucket);
+        }
+        List<Object> hashes = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            starts.forEach(bucket -> connection.hashCommands().hGetAll(bytes(key(granularity, bucket))));
+            return null;
+        });
+
+        List<SalesBucket> buckets = new ArrayList<>(starts.size());
+        for (int i = 0; i < starts.size(); i++) {
+            buckets.add(bucket(starts.get(i), (Map<?, ?>) hashes.get(i)));
+        }
+        return buckets;
+    }
+
+    /**
+     * Overwrites the buckets of {@code granularity} starting in {@code [from, to)} with
+     * {@code buckets}, clearing the ones it has no entry for. Buckets already past their retention
+     * are left alone.
+     */
+    public void replace(SalesGranularity granularity, Instant from, Instant to, Map<Instant, SalesBucket> buckets) {
+        Instant retainedFrom = granularity.bucketOf(Instant.now().minus(properties.retention(granularity)));
+        Instant start = from.isAfter(retainedFrom) ? from : retainedFrom;
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (Instant bucket = start; bucket.isBefore(to); bucket = granularity.next(bucket)) {
+                write(connection, granularity, bucket, buckets.get(bucket));
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Whether buckets of {@code granularity} starting at {@code bucket} are still kept.
+     */
+    public boolean isRetained(SalesGranularity granularity, Instant bucket) {
+        return expiresAt(granularity, bucket).isAfter(Instant.now());
+    }
+
+    private void write(RedisConnection connection, SalesGranularity granularity, Instant start, SalesBucket bucket) {
+        byte[] key = bytes(key(granularity, start));
+        connection.keyCommands().del(key);
+        if (bucket == null) {
+            return;
+        }
+        Map<byte[], byte[]> fields = new LinkedHashMap<>();
+        bucket.revenue().forEach((method, revenue) -> fields.put(bytes(REVENUE + method), bytes(String.valueOf(cents(revenue)))));
+        bucket.baskets().forEach((method, baskets) -> fields.put(bytes(BASKETS + method), bytes(String.valueOf(baskets))));
+        bucket.units().forEach((productId, units) -> fields.put(bytes(UNITS + productId), bytes(String.valueOf(units))));
+        if (!fields.isEmpty()) {
+            connection.hashCommands().hMSet(key, fields);
+            connection.keyCommands().pExpireAt(key, expiresAt(granularity, start).toEpochMilli());
+        }
+    }
+
+    private static SalesBucket bucket(Instant start, Map<?, ?> hash) {
+        Map<PaymentMethod, BigDecimal> revenue = new EnumMap<>(PaymentMethod.class);
+        Map<PaymentMethod, Long> baskets = new EnumMap<>(PaymentMethod.class);
+        Map<Long, Long> units = new TreeMap<>();
+        hash.forEach((field, value) -> {
+            String name = (String) field;
+            long amount = Long.parseLong((String) value);
+            if (name.startsWith(REVENUE)) {
+                revenue.put(PaymentMethod.valueOf(name.substring(REVENUE.length())), BigDecimal.valueOf(amount, 2));
+            } else if (name.startsWith(BASKETS)) {
+                baskets.put(PaymentMethod.valueOf(name.substring(BASKETS.length())), amount);
+            } else if (name.startsWith(UNITS)) {
+                units.put(Long.valueOf(name.substring(UNITS.length())), amount);
+            }
+        });
+        return new SalesBucket(start, revenue, baskets, units);
+    }
+
+    private Instant expiresAt(SalesGranularity granularity, Instant bucket) {
+        return granularity.next(bucket).plus(properties.retention(granularity));
+    }
+
+    private String key(SalesGranularity granularity, Instant bucket) {
+        return properties.keyPrefix() + ":" + granularity.name().toLowerCase() + ":" + bucket.getEpochSecond();
+    }
+
+    private void count(String outcome) {
+        meterRegistry.counter("basket.sales.updates", "outcome", outcome).increment();
+    }
+
+    private static long cents(BigDecimal amount) {
+        return amount == null ? 0 : amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,43 @@
+package cardoso.commerce.app.sales;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Width of a sales bucket. Buckets start at whole minutes, hours or days in UTC.
+ */
+public enum SalesGranularity {
+
+    MINUTE(ChronoUnit.MINUTES),
+    HOUR(ChronoUnit.HOURS),
+    DAY(ChronoUnit.DAYS);
+
+    private final ChronoUnit unit;
+
+    SalesGranularity(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    public Instant bucketOf(Instant instant) {
+        return instant.truncatedTo(unit);
+    }
+
+    public Instant next(Instant bucket) {
+        return bucket.plus(1, unit);
+    }
+
+    /**
+     * The first bucket start at or after {@code instant}.
+     */
+    public Instant roundUp(Instant instant) {
+        Instant bucket = bucketOf(instant);
+        return bucket.equals(instant) ? bucket : next(bucket);
+    }
+
+    /**
+     * Number of buckets overlapping {@code [from, to)}.
+     */
+    public long count(Instant from, Instant to) {
+        return unit.between(bucketOf(from), roundUp(to));
+    }
+}
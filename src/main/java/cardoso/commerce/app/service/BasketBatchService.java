@@ -0,0 +1,198 @@
+package cardoso.commerce.app.service;
+
+import cardoso.commerce.app.config.BasketBatchProperties;
+import cardoso.commerce.app.controller.request.BasketBatchOperation;
+import cardoso.commerce.app.controller.request.ProductRequest;
+import cardoso.commerce.app.controller.response.BasketBatchResult;
+import cardoso.commerce.app.entity.Basket;
+import cardoso.commerce.app.entity.Product;
+import cardoso.commerce.app.entity.Status;
+import cardoso.commerce.app.exception.BusinessesException;
+import cardoso.commerce.app.exception.DataNotFoundException;
+import cardoso.commerce.app.exception.ProductResolutionException;
+import cardoso.commerce.app.hotstore.HotBasketStore;
+import cardoso.commerce.app.repository.BasketRepository;
+import lombok.RequiredArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Applies batches of basket operations for bulk imports. The products of the whole batch are
+ * resolved once, the baskets it touches are read with one query for those addressed by id and one
+ * for those addressed by client, and every changed basket goes out in a single unordered bulk write.
+ * Each operation gets its own result, so a failing operation does not fail the others; operations
+ * on the same basket are applied in order and are written, or not, together.
+ *
+ * <p>With the hot store enabled, every changed basket is written to Redis instead, through the same
+ * compare-and-set as single requests, and reaches MongoDB through {@code HotBasketFlusher}. A basket
+ * read from MongoDB that a concurrent request moved into Redis in the meantime, or a new basket for
+ * a client that already has a hot OPEN one, is then reported as a conflict rather than overwritten.
+ */
+@Service
+@RequiredArgsConstructor
+public class BasketBatchService {
+
+    private final BasketRepository basketRepository;
+    private final ProductResolver productResolver;
+    private final HotBasketStore hotBasketStore;
+    private final BasketBatchProperties properties;
+
+    public List<BasketBatchResult> apply(List<BasketBatchOperation> operations) {
+        if (operations.size() > properties.maxOperations()) {
+            throw new BusinessesException("A batch can have at most " + properties.maxOperations() + " operations");
+        }
+
+        ProductResolver.Resolution resolution = productResolver.resolveAll(operations.stream()
+                .flatMap(operation -> operation.products().stream())
+                .map(ProductRequest::productId)
+                .distinct()
+                .toList());
+        Targets targets = load(operations);
+
+        BasketBatchResult[] results = new BasketBatchResult[operations.size()];
+        Map<String, List<Integer>> operationsByBasket = new LinkedHashMap<>();
+        Set<String> created = new HashSet<>();
+        for (int index = 0; index < operations.size(); index++) {
+            BasketBatchOperation operation = operations.get(index);
+            try {
+                Basket basket = applyOperation(operation, resolution.productsFor(operation.products()), targets, created);
+                operationsByBasket.computeIfAbsent(basket.getId(), id -> new ArrayList<>()).add(index);
+            } catch (DataNotFoundException | BusinessesException | ProductResolutionException exception) {
+                results[index] = BasketBatchResult.failed(index, statusOf(exception), operation.basketId(),
+                        exception.getMessage());
+            }
+        }
+
+        Set<String> failed = write(operationsByBasket.keySet(), targets);
+        operationsByBasket.forEach((id, indexes) -> indexes.forEach(index -> results[index] = failed.contains(id)
+                ? BasketBatchResult.failed(index, HttpStatus.CONFLICT.value(), created.contains(id) ? null : id,
+                        "Basket was modified concurrently, retry the operation")
+                : BasketBatchResult.applied(index, created.contains(id) ? HttpStatus.CREATED.value() : HttpStatus.OK.value(),
+                        targets.byId.get(id))));
+        return Arrays.asList(results);
+    }
+
+    private static Basket applyOperation(BasketBatchOperation operation, List<Product> products, Targets targets,
+                                         Set<String> created) {
+        if (operation.basketId() != null) {
+            Basket basket = targets.byId.get(operation.basketId());
+            if (basket == null) {
+                throw new DataNotFoundException("Basket not found with id: " + operation.basketId());
+            }
+            if (basket.getStatus() != Status.OPEN) {
+                throw new BusinessesException("Cannot update a closed basket");
+            }
+            basket.replaceProducts(products);
+            return basket;
+        }
+
+        if (operation.clientId() == null) {
+            throw new BusinessesException("A client id is required to add products without a basket id");
+        }
+        Basket basket = targets.byClient.get(operation.clientId());
+        if (basket == null) {
+            basket = targets.add(Basket.builder()
+                    .id(new ObjectId().toHexString())
+                    .clientId(operation.clientId())
+                    .status(Status.OPEN)
+                    .build(), false);
+            created.add(basket.getId());
+        }
+        basket.addProducts(products);
+        return basket;
+    }
+
+    private Targets load(List<BasketBatchOperation> operations) {
+        Set<String> ids = new HashSet<>();
+        Set<Long> clientIds = new HashSet<>();
+        operations.forEach(operation -> {
+            if (operation.basketId() != null) {
+                ids.add(operation.basketId());
+            } else if (operation.clientId() != null) {
+                clientIds.add(operation.clientId());
+            }
+        });
+
+        Targets targets = new Targets();
+        if (hotBasketStore.isEnabled()) {
+            hotBasketStore.findAll(ids).values().forEach(basket -> targets.add(basket, true));
+            hotBasketStore.findOpenBaskets(clientIds).values().forEach(basket -> targets.add(basket, true));
+        }
+
+        List<String> storedIds = ids.stream().filter(id -> !targets.byId.containsKey(id)).toList();
+        if (!storedIds.isEmpty()) {
+            basketRepository.findAllById(storedIds).forEach(basket -> targets.add(basket, false));
+        }
+        List<Long> storedClientIds = clientIds.stream().filter(clientId -> !targets.byClient.containsKey(clientId)).toList();
+        if (!storedClientIds.isEmpty()) {
+            basketRepository.findByClientIdInAndStatus(storedClientIds, Status.OPEN)
+                    .forEach(basket -> targets.add(basket, false));
+        }
+        return targets;
+    }
+
+    /**
+     * Writes the changed baskets and returns the ids of those that were not written.
+     */
+    private Set<String> write(Set<String> ids, Targets targets) {
+        if (!hotBasketStore.isEnabled()) {
+            return basketRepository.writeAll(ids.stream().map(targets.byId::get).toList());
+        }
+
+        // only the flusher writes MongoDB, so batch and single requests share one version sequence
+        Set<String> failed = new HashSet<>();
+        for (String id : ids) {
+            Basket basket = targets.byId.get(id);
+            boolean written = targets.hot.contains(id) ? hotBasketStore.update(basket) : hotBasketStore.insert(basket);
+            if (!written) {
+                failed.add(id);
+            }
+        }
+        return failed;
+    }
+
+    private static int statusOf(RuntimeException exception) {
+        if (exception instanceof DataNotFoundException) {
+            return HttpStatus.NOT_FOUND.value();
+        }
+        if (exception instanceof ProductResolutionException resolutionException) {
+            return resolutionException.isNotFound() ? HttpStatus.NOT_FOUND.value() : HttpStatus.BAD_GATEWAY.value();
+        }
+        return HttpStatus.BAD_REQUEST.value();
+    }
+
+    /**
+     * The baskets a batch works on, indexed by id and, for OPEN ones, by client. A basket reached
+     * both ways is the same instance, so every operation on it sees the previous ones.
+     */
+    private static final class Targets {
+
+        private final Map<String, Basket> byId = new HashMap<>();
+        private final Map<Long, Basket> byClient = new HashMap<>();
+        private final Set<String> hot = new HashSet<>();
+
+        private Basket add(Basket basket, boolean fromHotStore) {
+            Basket target = byId.putIfAbsent(basket.getId(), basket);
+            if (target != null) {
+                return target;
+            }
+            if (fromHotStore) {
+                hot.add(basket.getId());
+            }
+            if (basket.getStatus() == Status.OPEN && basket.getClientId() != null) {
+                byClient.putIfAbsent(basket.getClientId(), basket);
+            }
+            return basket;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package cardoso.commerce.app.service;
+
+import cardoso.commerce.app.config.BasketExportProperties;
+import cardoso.commerce.app.entity.Basket;
+import cardoso.commerce.app.exception.BusinessesException;
+import cardoso.commerce.app.repository.BasketExportFilter;
+import cardoso.commerce.app.repository.BasketRepository;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.bson.types.ObjectId;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Exports baskets as newline-delimited JSON, one basket per line in id order. Baskets are read from
+ * a MongoDB cursor {@code basket.export.batch-size} at a time and written out as they arrive, so
+ * memory stays flat however many baskets match, and a slow reader holds back the cursor instead of
+ * piling baskets up. An export that breaks off resumes from the id on its last complete line.
+ */
+@Service
+public class BasketExportService {
+
+    public static final String NDJSON = "application/x-ndjson";
+
+    private final BasketRepository basketRepository;
+    private final BasketExportProperties properties;
+    private final ObjectWriter writer;
+
+    public BasketExportService(BasketRepository basketRepository, BasketExportProperties properties,
+                               ObjectMapper objectMapper) {
+        this.basketRepository = basketRepository;
+        this.properties = properties;
+        this.writer = objectMapper.copy().setSerializationInclusion(JsonInclude.Include.NON_NULL).writer();
+    }
+
+    /**
+     * Rejects filters that cannot be exported, before the response is committed.
+     */
+    public static BasketExportFilter validate(BasketExportFilter filter) {
+        requireObjectId("afterId", filter.afterId());
+        requireObjectId("beforeId", filter.beforeId());
+        return filter;
+    }
+
+    /**
+     * How long an export may stream, in place of the default async request timeout.
+     */
+    public Duration timeout() {
+        return properties.timeout();
+    }
+
+    public void export(BasketExportFilter filter, OutputStream out) throws IOException {
+        try (Stream<Basket> baskets = basketRepository.streamForExport(filter, properties.batchSize())) {
+            Iterator<Basket> iterator = baskets.iterator();
+            while (iterator.hasNext()) {
+                out.write(line(iterator.next()));
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * The export line of one basket, newline included.
+     */
+    public byte[] line(Basket basket) {
+        try {
+            byte[] json = writer.writeValueAsBytes(basket);
+            byte[] line = new byte[json.length + 1];
+            System.arraycopy(json, 0, line, 0, json.length);
+            line[json.length] = '\n';
+            return line;
+        } catch (JsonProcessingException exception) {
+            throw new IllegalStateException("Could not serialize basket " + basket.getId(), exception);
+        }
+    }
+
+    private static void requireObjectId(String name, String value) {
+        if (value != null && !ObjectId.isValid(value)) {
+            throw new BusinessesException(name + " must be a basket id");
+        }
+    }
+}
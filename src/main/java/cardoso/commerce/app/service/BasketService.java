@@ -1,119 +1,283 @@
 package cardoso.commerce.app.service;
 
-import cardoso.commerce.app.client.response.PlatziProductResponse;
+import cardoso.commerce.app.config.BasketUpdateProperties;
 import cardoso.commerce.app.controller.request.BasketRequest;
 import cardoso.commerce.app.controller.request.PaymentRequest;
 import cardoso.commerce.app.controller.request.ProductRequest;
 import cardoso.commerce.app.entity.Basket;
+import cardoso.commerce.app.entity.PaymentMethod;
 import cardoso.commerce.app.entity.Product;
 import cardoso.commerce.app.entity.Status;
 import cardoso.commerce.app.exception.BusinessesException;
 import cardoso.commerce.app.exception.DataNotFoundException;
+import cardoso.commerce.app.exception.PreconditionFailedException;
+import cardoso.commerce.app.hotstore.HotBasketFlusher;
+import cardoso.commerce.app.hotstore.HotBasketStore;
+import cardoso.commerce.app.idempotency.IdempotencyStore;
 import cardoso.commerce.app.repository.BasketRepository;
+import cardoso.commerce.app.repository.BasketUpdates;
+import cardoso.commerce.app.sales.SalesCounters;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
-import java.util.ArrayList;
+
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
+/**
+ * Basket use cases. Changes to a stored basket are written in place and only apply to the version
+ * they were computed from; a concurrent change makes the basket be read again, up to
+ * {@code basket.update.max-attempts} times.
+ *
+ * <p>With the hot store enabled, baskets are edited in Redis and written to MongoDB behind the
+ * scenes by {@link HotBasketFlusher}; checkout writes the basket to MongoDB before returning.
+ *
+ * <p>Checking out a basket that is already paid with the same method returns it unchanged, and a
+ * checkout sent with an {@code Idempotency-Key} runs once, its retries getting the stored response.
+ * Only the checkout that marks a basket SOLD adds it to the {@link SalesCounters}.
+ *
+ * <p>The version of a basket doubles as its ETag: it can be read without the basket, so conditional
+ * reads are answered cheaply, and an update can require the version the client last saw.
+ */
 @Service
 @RequiredArgsConstructor
 public class BasketService {
 
     private final BasketRepository basketRepository;
-    private final ProductService productService;
+    private final ProductResolver productResolver;
+    private final BasketUpdateProperties updateProperties;
+    private final HotBasketStore hotBasketStore;
+    private final HotBasketFlusher hotBasketFlusher;
+    private final IdempotencyStore idempotencyStore;
+    private final SalesCounters salesCounters;
+    private final BasketSizeMetrics basketSizeMetrics;
 
     public Basket createBasket(BasketRequest basketRequest) {
-        Optional<Basket> existingBasketOpt = basketRepository.findByClientIdAndStatus(basketRequest.clientId(), Status.OPEN);
+        List<Product> products = createProductList(basketRequest.products());
 
-        if (existingBasketOpt.isPresent()) {
-            Basket existingBasket = existingBasketOpt.get();
-            addProductsToBasket(existingBasket, basketRequest.products());
-            existingBasket.calculateTotalPrice();
-            return basketRepository.save(existingBasket);
+        if (hotBasketStore.isEnabled()) {
+            return basketSizeMetrics.record(BasketSizeMetrics.CREATE,
+                    withRetries(() -> addToHotBasket(basketRequest.clientId(), products)));
         }
 
-        List<Product> products = createProductList(basketRequest.products());
+        return basketSizeMetrics.record(BasketSizeMetrics.CREATE, withRetries(() -> {
+            Optional<Basket> existingBasketOpt = basketRepository.findByClientIdAndStatus(basketRequest.clientId(), Status.OPEN);
+
+            if (existingBasketOpt.isEmpty()) {
+                Basket newBasket = Basket.builder()
+                        .clientId(basketRequest.clientId())
+                        .status(Status.OPEN)
+                        .build();
 
-        Basket newBasket = Basket.builder()
-                .clientId(basketRequest.clientId())
-                .status(Status.OPEN)
-                .products(products)
-                .build();
+                newBasket.replaceProducts(products);
+                try {
+                    return Optional.of(basketRepository.save(newBasket));
+                } catch (DuplicateKeyException exception) {
+                    // a concurrent request opened the client's basket first, add to that one instead
+                    return Optional.empty();
+                }
+            }
 
-        newBasket.calculateTotalPrice();
-        return basketRepository.save(newBasket);
+            return existingBasketOpt.filter(existingBasket -> basketRepository.addProducts(existingBasket, products));
+        }));
     }
 
     private List<Product> createProductList(List<ProductRequest> productRequests) {
-        List<Product> products = new ArrayList<>();
-        productRequests.forEach(productRequest -> {
-            PlatziProductResponse platziProductResponse = productService.getProductById(productRequest.productId());
+        return productResolver.resolve(productRequests);
+    }
 
-            products.add(Product.builder()
-                    .id(platziProductResponse.id())
-                    .title(platziProductResponse.title())
-                    .price(platziProductResponse.price())
-                    .quantity(productRequest.quantity())
-                    .build());
-        });
-        return products;
+    public Basket getBasketById(String id) {
+        if (hotBasketStore.isEnabled()) {
+            Optional<Basket> hotBasket = hotBasketStore.find(id);
+            if (hotBasket.isPresent()) {
+                return hotBasket.get();
+            }
+        }
+        return findStoredBasket(id);
     }
 
-    private void addProductsToBasket(Basket basket, List<ProductRequest> productRequests) {
-        productRequests.forEach(productRequest -> {
-            PlatziProductResponse platziProductResponse = productService.getProductById(productRequest.productId());
+    /**
+     * Returns the current version of a basket, from Redis when the hot store holds it and otherwise
+     * from MongoDB without loading the products.
+     */
+    public long getBasketVersion(String id) {
+        if (hotBasketStore.isEnabled()) {
+            Optional<Long> hotVersion = hotBasketStore.findVersion(id);
+            if (hotVersion.isPresent()) {
+                return hotVersion.get();
+            }
+        }
+        return basketRepository.findVersion(id)
+                .orElseThrow(() -> new DataNotFoundException("Basket not found with id: " + id));
+    }
+
+    public Basket updateBasket(String id, @Valid BasketRequest request) {
+        return updateBasket(id, request, null);
+    }
 
-            Product newProduct = Product.builder()
-                    .id(platziProductResponse.id())
-                    .title(platziProductResponse.title())
-                    .price(platziProductResponse.price())
-                    .quantity(productRequest.quantity())
-                    .build();
+    /**
+     * Replaces the products of a basket, provided it is at one of {@code expectedVersions}, or at any
+     * version when it is {@code null}. A basket changed concurrently is only updated if it is still
+     * at an expected version when read again.
+     */
+    public Basket updateBasket(String id, @Valid BasketRequest request, Set<Long> expectedVersions) {
+        List<Product> products = createProductList(request.products());
 
-            basket.getProducts().add(newProduct);
-        });
+        if (hotBasketStore.isEnabled()) {
+            return basketSizeMetrics.record(BasketSizeMetrics.UPDATE, withRetries(() -> changeHotBasket(id, basket -> {
+                requireOpen(requireVersion(basket, expectedVersions)).replaceProducts(products);
+                return true;
+            })));
+        }
+
+        return basketSizeMetrics.record(BasketSizeMetrics.UPDATE,
+                withRetries(() -> Optional.of(requireOpen(requireVersion(findStoredBasket(id), expectedVersions)))
+                        .filter(basket -> basketRepository.replaceProducts(basket, products))));
     }
 
-    public Basket getBasketById(String id) {
+    public Basket updatePaymentMethod(String id, @Valid PaymentRequest request, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return updatePaymentMethod(id, request);
+        }
+        return idempotencyStore.execute(idempotencyKey, paymentFingerprint(id, request), Basket.class,
+                () -> updatePaymentMethod(id, request));
+    }
+
+    static String paymentFingerprint(String id, PaymentRequest request) {
+        return "payment:" + id + ":" + request.getPaymentMethod();
+    }
+
+    public Basket updatePaymentMethod(String id, @Valid PaymentRequest request) {
+        PaymentMethod paymentMethod = request.getPaymentMethod();
+        AtomicBoolean sold = new AtomicBoolean();
+
+        if (hotBasketStore.isEnabled()) {
+            Basket basket = withRetries(() -> changeHotBasket(id, current -> {
+                sold.set(!isPaid(current, paymentMethod));
+                if (sold.get()) {
+                    current.setPaymentMethod(paymentMethod);
+                    current.setStatus(Status.SOLD);
+                    current.setSoldAt(Instant.now());
+                }
+                return sold.get();
+            }));
+            // the sale is committed once the hot store holds the SOLD basket, its log replays it to
+            // MongoDB, and a retry after a failed flush finds the basket paid and records nothing
+            if (sold.get()) {
+                recordSale(basket);
+            }
+            if (!hotBasketFlusher.flush(List.of(basket.getId())).isEmpty()) {
+                // the log entry stays and is replayed, but the checkout is not durable yet
+                throw new IllegalStateException("Basket " + basket.getId() + " could not be written to MongoDB");
+            }
+            return basket;
+        }
+
+        Basket basket = withRetries(() -> Optional.of(findStoredBasket(id)).filter(current -> {
+            sold.set(!isPaid(current, paymentMethod));
+            return !sold.get() || basketRepository.checkout(current, paymentMethod);
+        }));
+        if (sold.get()) {
+            recordSale(basket);
+        }
+        return basket;
+    }
+
+    private void recordSale(Basket basket) {
+        salesCounters.record(basket);
+        basketSizeMetrics.record(BasketSizeMetrics.CHECKOUT, basket);
+    }
+
+    public void deleteBasket(String id) {
+        if (hotBasketStore.isEnabled()) {
+            hotBasketStore.delete(id);
+        }
+        basketRepository.deleteById(id);
+    }
+
+    private Basket findStoredBasket(String id) {
         return basketRepository.findById(id)
                 .orElseThrow(() -> new DataNotFoundException("Basket not found with id: " + id));
     }
 
-    public Basket updateBasket(String id, @Valid BasketRequest request) {
-        Basket basket = getBasketById(id);
+    private static Basket requireVersion(Basket basket, Set<Long> expectedVersions) {
+        long version = BasketUpdates.versionOf(basket);
+        if (expectedVersions != null && !expectedVersions.contains(version)) {
+            throw new PreconditionFailedException("Basket " + basket.getId() + " is at version " + version);
+        }
+        return basket;
+    }
 
+    private static Basket requireOpen(Basket basket) {
         if (basket.getStatus() != Status.OPEN) {
             throw new BusinessesException("Cannot update a closed basket");
         }
+        return basket;
+    }
 
-        List<Product> products = new ArrayList<>();
-        request.products().forEach(product -> {
-            PlatziProductResponse platziProductResponse = productService.getProductById(product.productId());
-
-            products.add(Product.builder()
-                    .id(platziProductResponse.id())
-                    .title(platziProductResponse.title())
-                    .price(platziProductResponse.price())
-                    .quantity(product.quantity())
-                    .build());
-        });
+    /**
+     * Whether the basket was already checked out with {@code paymentMethod}, so there is nothing to
+     * write. Fails if it was paid with another method.
+     */
+    private static boolean isPaid(Basket basket, PaymentMethod paymentMethod) {
+        if (basket.getStatus() != Status.SOLD) {
+            return false;
+        }
+        if (basket.getPaymentMethod() != paymentMethod) {
+            throw new BusinessesException("Basket was already paid with " + basket.getPaymentMethod());
+        }
+        return true;
+    }
 
-        basket.setProducts(products);
-        basket.calculateTotalPrice();
+    private Optional<Basket> addToHotBasket(Long clientId, List<Product> products) {
+        Optional<Basket> hotBasket = hotBasketStore.findOpenBasket(clientId);
+        if (hotBasket.isPresent()) {
+            hotBasket.get().addProducts(products);
+            return hotBasket.filter(hotBasketStore::update);
+        }
 
-        return basketRepository.save(basket);
+        Basket basket = basketRepository.findByClientIdAndStatus(clientId, Status.OPEN)
+                .orElseGet(() -> Basket.builder()
+                        .id(new ObjectId().toHexString())
+                        .clientId(clientId)
+                        .status(Status.OPEN)
+                        .build());
+        basket.addProducts(products);
+        return Optional.of(basket).filter(hotBasketStore::insert);
     }
 
-    public Basket updatePaymentMethod(String id, @Valid PaymentRequest request) {
-        Basket basket = getBasketById(id);
-        basket.setPaymentMethod(request.getPaymentMethod());
-        basket.setStatus(Status.SOLD);
-        return basketRepository.save(basket);
+    /**
+     * Applies {@code change} to the basket held by the hot store, or to the stored one, which then
+     * moves into the hot store. A change that returns {@code false} left the basket as it was and
+     * nothing is written.
+     */
+    private Optional<Basket> changeHotBasket(String id, Predicate<Basket> change) {
+        Optional<Basket> hotBasket = hotBasketStore.find(id);
+        Basket basket = hotBasket.orElseGet(() -> findStoredBasket(id));
+        if (!change.test(basket)) {
+            return Optional.of(basket);
+        }
+        return Optional.of(basket).filter(hotBasket.isPresent() ? hotBasketStore::update : hotBasketStore::insert);
     }
 
-    public void deleteBasket(String id) {
-        basketRepository.deleteById(id);
+    private Basket withRetries(Supplier<Optional<Basket>> attempt) {
+        for (int attemptNumber = 1; ; attemptNumber++) {
+            Optional<Basket> basket = attempt.get();
+            if (basket.isPresent()) {
+                return basket.get();
+            }
+            if (attemptNumber >= updateProperties.maxAttempts()) {
+                throw new OptimisticLockingFailureException(
+                        "Basket was modified concurrently, gave up after " + attemptNumber + " attempts");
+            }
+        }
     }
-}
\ No newline at end of file
+}
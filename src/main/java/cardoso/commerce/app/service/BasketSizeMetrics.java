@@ -0,0 +1,44 @@
+package cardoso.commerce.app.service;
+
+import cardoso.commerce.app.entity.Basket;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Publishes {@code basket.size}, the product lines of the baskets written by the basket use cases,
+ * tagged with the {@code operation} that wrote them. The summaries are registered up front so
+ * recording one is a lookup in a small map and a bucket increment.
+ */
+@Component
+public class BasketSizeMetrics {
+
+    static final String CREATE = "create";
+    static final String UPDATE = "update";
+    static final String CHECKOUT = "checkout";
+
+    private final Map<String, DistributionSummary> summaries;
+
+    public BasketSizeMetrics(MeterRegistry meterRegistry) {
+        this.summaries = Map.of(
+                CREATE, summary(meterRegistry, CREATE),
+                UPDATE, summary(meterRegistry, UPDATE),
+                CHECKOUT, summary(meterRegistry, CHECKOUT));
+    }
+
+    public Basket record(String operation, Basket basket) {
+        summaries.get(operation).record(basket.getProducts() != null ? basket.getProducts().size() : 0);
+        return basket;
+    }
+
+    private static DistributionSummary summary(MeterRegistry meterRegistry, String operation) {
+        return DistributionSummary.builder("basket.size")
+                .description("Product lines of a basket when it is written")
+                .baseUnit("lines")
+                .tag("operation", operation)
+                .serviceLevelObjectives(1, 2, 5, 10, 20, 50, 100)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,156 @@
+package cardoso.commerce.app.service;
+
+import cardoso.commerce.app.client.resilience.RequestDeadline;
+import cardoso.commerce.app.client.response.PlatziProductResponse;
+import cardoso.commerce.app.config.ProductResolutionProperties;
+import cardoso.commerce.app.controller.request.ProductRequest;
+import cardoso.commerce.app.diagnostics.ServerTiming;
+import cardoso.commerce.app.entity.Product;
+import cardoso.commerce.app.exception.ProductResolutionException;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Resolves the products of a basket request concurrently, so a basket costs the slowest lookup
+ * instead of the sum of all of them. Every distinct product id is fetched once, the whole batch
+ * shares a single deadline (never later than the request's own) and the number of in-flight
+ * lookups is capped across all requests.
+ */
+@Service
+public class ProductResolver {
+
+    private final ProductService productService;
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final long timeoutNanos;
+
+    public ProductResolver(ProductService productService,
+                           @Qualifier("productResolutionExecutor") ExecutorService executor,
+                           ProductResolutionProperties properties) {
+        this.productService = productService;
+        this.executor = executor;
+        this.permits = new Semaphore(properties.maxConcurrency());
+        this.timeoutNanos = properties.timeout().toNanos();
+    }
+
+    public List<Product> resolve(List<ProductRequest> productRequests) {
+        Fetched fetched = fetchAll(productRequests.stream().map(ProductRequest::productId).toList());
+        if (!fetched.failures().isEmpty()) {
+            throw new ProductResolutionException(fetched.failures());
+        }
+
+        List<Product> products = new ArrayList<>(productRequests.size());
+        productRequests.forEach(productRequest ->
+                products.add(Product.of(fetched.responses().get(productRequest.productId()), productRequest.quantity())));
+        return products;
+    }
+
+    /**
+     * Resolves the products of many requests at once, for batch operations. Unlike
+     * {@link #resolve(List)} it does not fail on the first product that cannot be resolved: the
+     * failures are returned next to the products that were, so each request can be answered on its own.
+     */
+    public Resolution resolveAll(Collection<Long> productIds) {
+        Fetched fetched = fetchAll(productIds);
+        Map<Long, Product> products = new LinkedHashMap<>();
+        fetched.responses().forEach((id, response) -> products.put(id, Product.of(response, 1)));
+        return new Resolution(products, fetched.failures());
+    }
+
+    private Fetched fetchAll(Collection<Long> productIds) {
+        long deadline = System.nanoTime() + Math.min(timeoutNanos, RequestDeadline.remainingNanos());
+
+        Map<Long, Future<PlatziProductResponse>> futures = new LinkedHashMap<>();
+        productIds.forEach(productId -> futures.computeIfAbsent(productId,
+                id -> executor.submit(ServerTiming.wrap(RequestDeadline.wrap(() -> fetch(id, deadline))))));
+
+        Map<Long, PlatziProductResponse> responses = new LinkedHashMap<>();
+        Map<Long, Throwable> failures = new LinkedHashMap<>();
+        try {
+            for (Map.Entry<Long, Future<PlatziProductResponse>> entry : futures.entrySet()) {
+                try {
+                    long remaining = deadline - System.nanoTime();
+                    responses.put(entry.getKey(), entry.getValue().get(remaining, TimeUnit.NANOSECONDS));
+                } catch (ExecutionException exception) {
+                    failures.put(entry.getKey(), unwrap(exception.getCause()));
+                } catch (TimeoutException exception) {
+                    failures.put(entry.getKey(), timeout());
+                }
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            futures.values().forEach(future -> future.cancel(true));
+            throw new IllegalStateException("Interrupted while resolving products", exception);
+        }
+
+        if (!failures.isEmpty()) {
+            futures.values().forEach(future -> future.cancel(true));
+        }
+        return new Fetched(responses, failures);
+    }
+
+    private PlatziProductResponse fetch(Long id, long deadline) throws InterruptedException, TimeoutException {
+        if (!permits.tryAcquire(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+            throw timeout();
+        }
+        try {
+            return productService.getProductById(id);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private TimeoutException timeout() {
+        return new TimeoutException("Timed out after " + TimeUnit.NANOSECONDS.toMillis(timeoutNanos) + " ms");
+    }
+
+    private static Throwable unwrap(Throwable throwable) {
+        if (throwable instanceof UndeclaredThrowableException undeclared && undeclared.getCause() != null) {
+            return undeclared.getCause();
+        }
+        return throwable;
+    }
+
+    private record Fetched(Map<Long, PlatziProductResponse> responses, Map<Long, Throwable> failures) {
+    }
+
+    /**
+     * Products resolved by {@link #resolveAll(Collection)}, with a quantity of one, and the ids that
+     * could not be resolved.
+     */
+    public record Resolution(Map<Long, Product> products, Map<Long, Throwable> failures) {
+
+        /**
+         * The products of one request, failing with those of its products that could not be resolved.
+         */
+        public List<Product> productsFor(List<ProductRequest> productRequests) {
+            Map<Long, Throwable> missing = new LinkedHashMap<>();
+            List<Product> resolved = new ArrayList<>(productRequests.size());
+            for (ProductRequest productRequest : productRequests) {
+                Product product = products.get(productRequest.productId());
+                if (product == null) {
+                    missing.put(productRequest.productId(), failures.get(productRequest.productId()));
+                } else {
+                    resolved.add(product.toBuilder().quantity(productRequest.quantity()).build());
+                }
+            }
+            if (!missing.isEmpty()) {
+                throw new ProductResolutionException(missing);
+            }
+            return resolved;
+        }
+    }
+}
@@ -1,29 +1,158 @@
 package cardoso.commerce.app.service;
 
+import cardoso.commerce.app.cache.DistributedFetchLock;
+import cardoso.commerce.app.cache.SingleFlight;
+import cardoso.commerce.app.cache.TwoTierCache;
+import cardoso.commerce.app.catalog.CatalogIndex;
+import cardoso.commerce.app.catalog.CatalogPages;
+import cardoso.commerce.app.catalog.CatalogSnapshot;
+import cardoso.commerce.app.catalog.CatalogSnapshotService;
 import cardoso.commerce.app.client.PlatziStoreClient;
 import cardoso.commerce.app.client.response.PlatziProductResponse;
+import cardoso.commerce.app.config.CatalogCacheProperties;
+import cardoso.commerce.app.diagnostics.ServerTiming;
+import cardoso.commerce.app.exception.DataNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Service
 @RequiredArgsConstructor
 public class ProductService {
 
     private final PlatziStoreClient platziStoreClient;
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final CacheManager cacheManager;
+    private final SingleFlight<Long, PlatziProductResponse> productSingleFlight;
+    private final DistributedFetchLock distributedFetchLock;
+    private final CatalogPages catalogPages;
+    private final CatalogCacheProperties catalogCacheProperties;
 
     private static final String PRODUCT_CACHE = "products";
+    private static final String CATALOG_KEY = "catalog";
 
-    @Cacheable(value = PRODUCT_CACHE)
+    /**
+     * Returns the upstream product list. Its products are cached one per id, in the entries
+     * {@link #getProductById(long)} reads, and the list as a {@link CatalogIndex} of their ids, so it
+     * is put back together from the product entries in a few pipelined reads and stays consistent
+     * with single product lookups. Products that left the cache on their own, expired or evicted,
+     * are loaded one by one; when more than {@code basket.catalog.cache.max-item-loads} are missing
+     * the whole list is loaded again instead.
+     */
     public List<PlatziProductResponse> getAllProducts() {
-        return platziStoreClient.getAllProducts();
+        AtomicReference<List<PlatziProductResponse>> loaded = new AtomicReference<>();
+        CatalogIndex index = catalogIndex(loaded);
+        List<PlatziProductResponse> products = loaded.get();
+        return products != null ? products : assemble(index);
     }
 
-    @Cacheable(value = PRODUCT_CACHE, key = "#id")
+    /**
+     * Returns the current catalog: the snapshot when it is fresh, otherwise the cached upstream
+     * list of {@link #getAllProducts()}, which is only put together when its version changed.
+     */
+    public CatalogSnapshot getCatalog() {
+        CatalogSnapshot snapshot = catalogSnapshotService.current();
+        if (snapshot != null) {
+            return snapshot;
+        }
+        AtomicReference<List<PlatziProductResponse>> loaded = new AtomicReference<>();
+        CatalogIndex index = catalogIndex(loaded);
+        return catalogPages.catalog(index.version(), () -> loaded.get() != null ? loaded.get() : assemble(index));
+    }
+
+    /**
+     * Returns the cached index, loading the list from upstream into {@code loaded} when there is none.
+     */
+    private CatalogIndex catalogIndex(AtomicReference<List<PlatziProductResponse>> loaded) {
+        return productCache().get(CATALOG_KEY, () -> {
+            List<PlatziProductResponse> products = platziStoreClient.getAllProducts();
+            loaded.set(products);
+            return storeProducts(products);
+        });
+    }
+
+    private List<PlatziProductResponse> assemble(CatalogIndex index) {
+        List<Long> ids = index.idList();
+        Map<Object, Object> cached = productCache().getAll(ids);
+        if (ids.size() - cached.size() > catalogCacheProperties.maxItemLoads()) {
+            List<PlatziProductResponse> products = platziStoreClient.getAllProducts();
+            productCache().put(CATALOG_KEY, storeProducts(products));
+            return products;
+        }
+
+        List<PlatziProductResponse> products = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            PlatziProductResponse product = (PlatziProductResponse) cached.get(id);
+            if (product == null) {
+                try {
+                    product = getProductById(id);
+                } catch (DataNotFoundException exception) {
+                    // removed upstream since the list was read
+                    continue;
+                }
+            }
+            products.add(product);
+        }
+        return products;
+    }
+
+    /**
+     * Caches every product of an upstream list under its id and returns the index of the list.
+     */
+    private CatalogIndex storeProducts(List<PlatziProductResponse> products) {
+        Map<Long, PlatziProductResponse> byId = LinkedHashMap.newLinkedHashMap(products.size());
+        products.forEach(product -> byId.put(product.id(), product));
+        productCache().putAll(byId);
+        return CatalogIndex.of(products);
+    }
+
+    /**
+     * Returns a product from the snapshot or the cache, loading it from the product API on a miss.
+     * The lookup counts as {@link ServerTiming.Phase#PRODUCT_CACHE} time of the request, except for
+     * the upstream call, which counts as {@link ServerTiming.Phase#PRODUCT_UPSTREAM}.
+     */
     public PlatziProductResponse getProductById(long id) {
-        return platziStoreClient.getProductById(id);
+        long start = System.nanoTime();
+        try {
+            return lookup(id);
+        } finally {
+            ServerTiming.record(ServerTiming.Phase.PRODUCT_CACHE, start);
+        }
+    }
+
+    private PlatziProductResponse lookup(long id) {
+        PlatziProductResponse snapshotProduct = catalogSnapshotService.find(id);
+        if (snapshotProduct != null) {
+            return snapshotProduct;
+        }
+
+        Cache cache = productCache();
+        try {
+            return cache.get(id, () -> productSingleFlight.execute(id,
+                    () -> distributedFetchLock.load(cache, id, () -> fetchUpstream(id))));
+        } catch (Cache.ValueRetrievalException exception) {
+            if (exception.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw exception;
+        }
+    }
+
+    private PlatziProductResponse fetchUpstream(long id) {
+        long start = System.nanoTime();
+        try {
+            return platziStoreClient.getProductById(id);
+        } finally {
+            ServerTiming.move(ServerTiming.Phase.PRODUCT_CACHE, ServerTiming.Phase.PRODUCT_UPSTREAM, start);
+        }
     }
 
     @Cacheable(value = PRODUCT_CACHE, key = "#id", unless = "#result == null")
@@ -34,4 +163,8 @@ public class ProductService {
         }
         return product;
     }
-}
\ No newline at end of file
+
+    private TwoTierCache productCache() {
+        return (TwoTierCache) cacheManager.getCache(PRODUCT_CACHE);
+    }
+}
@@ -0,0 +1,156 @@
+package cardoso.commerce.app.service;
+
+import cardoso.commerce.app.config.BasketExportProperties;
+import cardoso.commerce.app.config.BasketUpdateProperties;
+import cardoso.commerce.app.controller.request.BasketRequest;
+import cardoso.commerce.app.controller.request.PaymentRequest;
+import cardoso.commerce.app.entity.Basket;
+import cardoso.commerce.app.entity.Status;
+import cardoso.commerce.app.exception.BusinessesException;
+import cardoso.commerce.app.exception.DataNotFoundException;
+import cardoso.commerce.app.exception.PreconditionFailedException;
+import cardoso.commerce.app.idempotency.IdempotencyStore;
+import cardoso.commerce.app.repository.BasketExportFilter;
+import cardoso.commerce.app.repository.BasketUpdates;
+import cardoso.commerce.app.repository.ReactiveBasketRepository;
+import cardoso.commerce.app.sales.SalesCounters;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Reactive counterpart of {@link BasketService} with the same basket rules.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveBasketService {
+
+    private final ReactiveBasketRepository basketRepository;
+    private final ReactiveProductResolver productResolver;
+    private final BasketUpdateProperties updateProperties;
+    private final BasketExportProperties exportProperties;
+    private final BasketExportService exportService;
+    private final SalesCounters salesCounters;
+    private final BasketSizeMetrics basketSizeMetrics;
+    private final IdempotencyStore idempotencyStore;
+
+    public Mono<Basket> createBasket(BasketRequest basketRequest) {
+        return productResolver.resolve(basketRequest.products())
+                .flatMap(products -> withRetries(() -> basketRepository.findByClientIdAndStatus(basketRequest.clientId(), Status.OPEN)
+                        .map(Optional::of)
+                        .defaultIfEmpty(Optional.empty())
+                        .flatMap(existingBasket -> {
+                            if (existingBasket.isEmpty()) {
+                                Basket newBasket = Basket.builder()
+                                        .clientId(basketRequest.clientId())
+                                        .status(Status.OPEN)
+                                        .build();
+                                newBasket.replaceProducts(products);
+                                return basketRepository.save(newBasket)
+                                        .onErrorResume(DuplicateKeyException.class, exception -> Mono.empty());
+                            }
+                            return applied(existingBasket.get(), basketRepository.addProducts(existingBasket.get(), products));
+                        }), 1))
+                .doOnNext(basket -> basketSizeMetrics.record(BasketSizeMetrics.CREATE, basket));
+    }
+
+    public Mono<Basket> getBasketById(String id) {
+        return basketRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new DataNotFoundException("Basket not found with id: " + id)));
+    }
+
+    public Mono<Long> getBasketVersion(String id) {
+        return basketRepository.findVersion(id)
+                .switchIfEmpty(Mono.error(() -> new DataNotFoundException("Basket not found with id: " + id)));
+    }
+
+    public Mono<Basket> updateBasket(String id, BasketRequest request) {
+        return updateBasket(id, request, null);
+    }
+
+    public Mono<Basket> updateBasket(String id, BasketRequest request, Set<Long> expectedVersions) {
+        return productResolver.resolve(request.products())
+                .flatMap(products -> withRetries(() -> getBasketById(id)
+                        .flatMap(basket -> {
+                            long version = BasketUpdates.versionOf(basket);
+                            if (expectedVersions != null && !expectedVersions.contains(version)) {
+                                return Mono.error(new PreconditionFailedException(
+                                        "Basket " + id + " is at version " + version));
+                            }
+                            if (basket.getStatus() != Status.OPEN) {
+                                return Mono.error(new BusinessesException("Cannot update a closed basket"));
+                            }
+                            return applied(basket, basketRepository.replaceProducts(basket, products));
+                        }), 1))
+                .doOnNext(basket -> basketSizeMetrics.record(BasketSizeMetrics.UPDATE, basket));
+    }
+
+    public Mono<Basket> updatePaymentMethod(String id, PaymentRequest request, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return updatePaymentMethod(id, request);
+        }
+        return idempotencyStore.executeReactive(idempotencyKey, BasketService.paymentFingerprint(id, request),
+                Basket.class, updatePaymentMethod(id, request));
+    }
+
+    public Mono<Basket> updatePaymentMethod(String id, PaymentRequest request) {
+        return withRetries(() -> getBasketById(id)
+                .flatMap(basket -> {
+                    if (basket.getStatus() != Status.SOLD) {
+                        return applied(basket, basketRepository.checkout(basket, request.getPaymentMethod()))
+                                .flatMap(this::recordSale);
+                    }
+                    if (basket.getPaymentMethod() != request.getPaymentMethod()) {
+                        return Mono.error(new BusinessesException("Basket was already paid with " + basket.getPaymentMethod()));
+                    }
+                    return Mono.just(basket);
+                }), 1);
+    }
+
+    /**
+     * Export lines of the baskets matching {@code filter}, read from the cursor as the client
+     * consumes them. See {@link BasketExportService}.
+     */
+    public Flux<byte[]> exportBaskets(BasketExportFilter filter) {
+        return Mono.fromSupplier(() -> BasketExportService.validate(filter))
+                .flatMapMany(valid -> basketRepository.findForExport(valid, exportProperties.batchSize()))
+                .map(exportService::line);
+    }
+
+    public Mono<Void> deleteBasket(String id) {
+        return basketRepository.deleteById(id);
+    }
+
+    /**
+     * Adds a basket that was just checked out to the basket size metrics and to the sales counters,
+     * the latter off the event loop since they are written through the blocking Redis client.
+     */
+    private Mono<Basket> recordSale(Basket basket) {
+        basketSizeMetrics.record(BasketSizeMetrics.CHECKOUT, basket);
+        return Mono.fromRunnable(() -> salesCounters.record(basket))
+                .subscribeOn(Schedulers.boundedElastic())
+                .thenReturn(basket);
+    }
+
+    private static Mono<Basket> applied(Basket basket, Mono<Boolean> update) {
+        return update.filter(Boolean::booleanValue).map(applied -> basket);
+    }
+
+    private Mono<Basket> withRetries(Supplier<Mono<Basket>> attempt, int attemptNumber) {
+        return Mono.defer(attempt)
+                .switchIfEmpty(Mono.defer(() -> attemptNumber >= updateProperties.maxAttempts()
+                        ? Mono.error(new OptimisticLockingFailureException(
+                                "Basket was modified concurrently, gave up after " + attemptNumber + " attempts"))
+                        : withRetries(attempt, attemptNumber + 1)));
+    }
+}
@@ -0,0 +1,76 @@
+package cardoso.commerce.app.service;
+
+import cardoso.commerce.app.client.response.PlatziProductResponse;
+import cardoso.commerce.app.config.ProductResolutionProperties;
+import cardoso.commerce.app.controller.request.ProductRequest;
+import cardoso.commerce.app.entity.Product;
+import cardoso.commerce.app.exception.ProductResolutionException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Reactive counterpart of {@link ProductResolver}: distinct product ids are looked up concurrently
+ * without holding a thread each, under one shared deadline and the same concurrency cap per batch.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveProductResolver {
+
+    private final ReactiveProductService productService;
+    private final int maxConcurrency;
+    private final long timeoutNanos;
+
+    public ReactiveProductResolver(ReactiveProductService productService, ProductResolutionProperties properties) {
+        this.productService = productService;
+        this.maxConcurrency = properties.maxConcurrency();
+        this.timeoutNanos = properties.timeout().toNanos();
+    }
+
+    public Mono<List<Product>> resolve(List<ProductRequest> productRequests) {
+        return Mono.defer(() -> {
+            long deadline = System.nanoTime() + timeoutNanos;
+            return Flux.fromStream(productRequests.stream().map(ProductRequest::productId).distinct())
+                    .flatMap(id -> fetch(id, deadline), maxConcurrency)
+                    .collectMap(Lookup::id)
+                    .flatMap(lookups -> toProducts(productRequests, lookups));
+        });
+    }
+
+    private Mono<Lookup> fetch(Long id, long deadline) {
+        return Mono.defer(() -> productService.getProductById(id)
+                        .timeout(Duration.ofNanos(Math.max(0, deadline - System.nanoTime())), Mono.error(this::timeout)))
+                .map(response -> new Lookup(id, response, null))
+                .onErrorResume(error -> Mono.just(new Lookup(id, null, error)));
+    }
+
+    private Mono<List<Product>> toProducts(List<ProductRequest> productRequests, Map<Long, Lookup> lookups) {
+        Map<Long, Throwable> failures = new LinkedHashMap<>();
+        lookups.values().stream()
+                .filter(lookup -> lookup.failure() != null)
+                .forEach(lookup -> failures.put(lookup.id(), lookup.failure()));
+        if (!failures.isEmpty()) {
+            return Mono.error(new ProductResolutionException(failures));
+        }
+
+        List<Product> products = new ArrayList<>(productRequests.size());
+        productRequests.forEach(productRequest -> products.add(
+                Product.of(lookups.get(productRequest.productId()).response(), productRequest.quantity())));
+        return Mono.just(products);
+    }
+
+    private TimeoutException timeout() {
+        return new TimeoutException("Timed out after " + TimeUnit.NANOSECONDS.toMillis(timeoutNanos) + " ms");
+    }
+
+    private record Lookup(Long id, PlatziProductResponse response, Throwable failure) {}
+}
@@ -0,0 +1,71 @@
+package cardoso.commerce.app.service;
+
+import cardoso.commerce.app.cache.SingleFlight;
+import cardoso.commerce.app.catalog.CatalogPages;
+import cardoso.commerce.app.catalog.CatalogSnapshot;
+import cardoso.commerce.app.catalog.CatalogSnapshotService;
+import cardoso.commerce.app.client.ReactivePlatziStoreClient;
+import cardoso.commerce.app.client.response.PlatziProductResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Reactive counterpart of {@link ProductService}. Reads the same snapshot and product cache and
+ * shares in-flight upstream loads with blocking callers.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveProductService {
+
+    private final ReactivePlatziStoreClient platziStoreClient;
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final CacheManager cacheManager;
+    private final SingleFlight<Long, PlatziProductResponse> productSingleFlight;
+    private final CatalogPages catalogPages;
+
+    private static final String PRODUCT_CACHE = "products";
+
+    @Cacheable(value = PRODUCT_CACHE, sync = true)
+    public Mono<List<PlatziProductResponse>> getAllProducts() {
+        return platziStoreClient.getAllProducts();
+    }
+
+    /**
+     * Reactive counterpart of {@link ProductService#getCatalog()}.
+     */
+    public Mono<CatalogSnapshot> getCatalog() {
+        return Mono.defer(() -> {
+            CatalogSnapshot snapshot = catalogSnapshotService.current();
+            if (snapshot != null) {
+                return Mono.just(snapshot);
+            }
+
+            Cache cache = cacheManager.getCache(PRODUCT_CACHE);
+            return Mono.fromFuture(() -> cache.<List<PlatziProductResponse>>retrieve(SimpleKey.EMPTY,
+                            () -> platziStoreClient.getAllProducts().toFuture()), true)
+                    .map(products -> catalogPages.catalog(null, products));
+        });
+    }
+
+    public Mono<PlatziProductResponse> getProductById(long id) {
+        return Mono.defer(() -> {
+            PlatziProductResponse snapshotProduct = catalogSnapshotService.find(id);
+            if (snapshotProduct != null) {
+                return Mono.just(snapshotProduct);
+            }
+
+            Cache cache = cacheManager.getCache(PRODUCT_CACHE);
+            return Mono.fromFuture(() -> cache.retrieve(id, () -> productSingleFlight.executeAsync(id,
+                    () -> platziStoreClient.getProductById(id).toFuture())), true);
+        });
+    }
+}
@@ -0,0 +1,132 @@
+package cardoso.commerce.app.service;
+
+import cardoso.commerce.app.config.SalesProperties;
+import cardoso.commerce.app.controller.response.SalesBucket;
+import cardoso.commerce.app.controller.response.SalesReport;
+import cardoso.commerce.app.entity.PaymentMethod;
+import cardoso.commerce.app.exception.BusinessesException;
+import cardoso.commerce.app.repository.BasketRepository;
+import cardoso.commerce.app.repository.PaymentSales;
+import cardoso.commerce.app.repository.ProductSales;
+import cardoso.commerce.app.sales.SalesCounters;
+import cardoso.commerce.app.sales.SalesGranularity;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Sales reports read from the {@link SalesCounters}, and the rebuild that recomputes those counters
+ * from the SOLD baskets in MongoDB, for history sold before the counters existed or sales they
+ * missed. A rebuild covers whole UTC days and overwrites their buckets, so a checkout counted while
+ * it runs may be lost and should be followed by another rebuild of that day.
+ */
+@Service
+@RequiredArgsConstructor
+public class SalesService {
+
+    private final SalesCounters salesCounters;
+    private final BasketRepository basketRepository;
+    private final SalesProperties properties;
+
+    /**
+     * Returns the buckets of {@code granularity} between {@code from} and {@code to}, which default
+     * to now, widened to whole buckets.
+     */
+    public SalesReport report(SalesGranularity granularity, Instant from, Instant to) {
+        requireEnabled();
+        Instant end = to != null ? to : Instant.now();
+        requireRange(from, end);
+        if (granularity.count(from, end) > properties.maxBuckets()) {
+            throw new BusinessesException("A sales report can cover at most " + properties.maxBuckets() + " buckets");
+        }
+
+        Instant start = granularity.bucketOf(from);
+        Instant aligned = granularity.roundUp(end);
+        return new SalesReport(granularity, start, aligned, salesCounters.read(granularity, start, aligned));
+    }
+
+    /**
+     * Recomputes every bucket of the UTC days overlapping {@code [from, to)} from MongoDB. Minute
+     * and hour buckets past their retention are not written back.
+     */
+    public void rebuild(Instant from, Instant to) {
+        requireEnabled();
+        requireRange(from, to);
+        Instant start = SalesGranularity.DAY.bucketOf(from);
+        Instant end = SalesGranularity.DAY.roundUp(to);
+
+        Map<SalesGranularity, Map<Instant, Tally>> tallies = new EnumMap<>(SalesGranularity.class);
+        for (SalesGranularity granularity : SalesGranularity.values()) {
+            tallies.put(granularity, new HashMap<>());
+        }
+        try (Stream<PaymentSales> payments = basketRepository.streamPaymentSales(start, end)) {
+            payments.filter(row -> row.paymentMethod() != null)
+                    .forEach(row -> add(tallies, row.minute(), tally -> tally.add(row)));
+        }
+        try (Stream<ProductSales> products = basketRepository.streamProductSales(start, end)) {
+            products.filter(row -> row.productId() != null)
+                    .forEach(row -> add(tallies, row.minute(), tally -> tally.add(row)));
+        }
+
+        tallies.forEach((granularity, buckets) -> {
+            Map<Instant, SalesBucket> rebuilt = new HashMap<>();
+            buckets.forEach((bucket, tally) -> rebuilt.put(bucket, tally.toBucket(bucket)));
+            salesCounters.replace(granularity, start, end, rebuilt);
+        });
+    }
+
+    /**
+     * Adds a per-minute row to the bucket of every granularity it falls in that is still retained.
+     */
+    private void add(Map<SalesGranularity, Map<Instant, Tally>> tallies, Instant minute, Consumer<Tally> row) {
+        tallies.forEach((granularity, buckets) -> {
+            Instant bucket = granularity.bucketOf(minute);
+            if (salesCounters.isRetained(granularity, bucket)) {
+                row.accept(buckets.computeIfAbsent(bucket, ignored -> new Tally()));
+            }
+        });
+    }
+
+    private void requireEnabled() {
+        if (!salesCounters.isEnabled()) {
+            throw new BusinessesException("Sales aggregates are disabled");
+        }
+    }
+
+    private static void requireRange(Instant from, Instant to) {
+        if (from == null || !from.isBefore(to)) {
+            throw new BusinessesException("from must be before to");
+        }
+    }
+
+    /**
+     * Totals of one bucket while a rebuild adds the per-minute rows to it.
+     */
+    private static class Tally {
+
+        private final Map<PaymentMethod, BigDecimal> revenue = new EnumMap<>(PaymentMethod.class);
+        private final Map<PaymentMethod, Long> baskets = new EnumMap<>(PaymentMethod.class);
+        private final Map<Long, Long> units = new TreeMap<>();
+
+        void add(PaymentSales row) {
+            revenue.merge(row.paymentMethod(), row.revenue(), BigDecimal::add);
+            baskets.merge(row.paymentMethod(), row.baskets(), Long::sum);
+        }
+
+        void add(ProductSales row) {
+            units.merge(row.productId(), row.units(), Long::sum);
+        }
+
+        SalesBucket toBucket(Instant start) {
+            return new SalesBucket(start, revenue, baskets, units);
+        }
+    }
+}
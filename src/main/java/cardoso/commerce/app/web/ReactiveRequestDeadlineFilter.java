@@ -0,0 +1,41 @@
+package cardoso.commerce.app.web;
+
+import cardoso.commerce.app.config.ResilienceProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Reactive counterpart of {@link RequestDeadlineFilter}: the request is cancelled, along with any
+ * upstream calls it is waiting on, once its deadline passes. Basket exports stream for as long as
+ * they take and are left out.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveRequestDeadlineFilter implements WebFilter {
+
+    private final ResilienceProperties properties;
+
+    private static final String EXPORT_PATH = "/basket/export";
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (EXPORT_PATH.equals(exchange.getRequest().getPath().pathWithinApplication().value())) {
+            return chain.filter(exchange);
+        }
+        long timeout = RequestDeadlineFilter.timeoutNanos(properties,
+                exchange.getRequest().getHeaders().getFirst(RequestDeadlineFilter.TIMEOUT_HEADER));
+        return chain.filter(exchange)
+                .timeout(Duration.ofNanos(timeout), Mono.error(() ->
+                        new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, "Request deadline exceeded")));
+    }
+}
@@ -0,0 +1,55 @@
+package cardoso.commerce.app.web;
+
+import cardoso.commerce.app.client.resilience.RequestDeadline;
+import cardoso.commerce.app.config.ResilienceProperties;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Binds a deadline to every incoming request: {@code basket.client.resilience.request-timeout}, or
+ * the caller's {@code X-Request-Timeout} (milliseconds) when that is shorter, though never below
+ * {@code min-request-timeout}.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class RequestDeadlineFilter extends OncePerRequestFilter {
+
+    public static final String TIMEOUT_HEADER = "X-Request-Timeout";
+
+    private final ResilienceProperties properties;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long timeout = timeoutNanos(properties, request.getHeader(TIMEOUT_HEADER));
+        RequestDeadline.set(System.nanoTime() + timeout);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestDeadline.clear();
+        }
+    }
+
+    static long timeoutNanos(ResilienceProperties properties, String header) {
+        long timeout = properties.requestTimeout().toNanos();
+        if (header != null) {
+            try {
+                long floor = Math.min(timeout, properties.minRequestTimeout().toNanos());
+                timeout = Math.max(floor, Math.min(timeout, TimeUnit.MILLISECONDS.toNanos(Long.parseLong(header.trim()))));
+            } catch (NumberFormatException ignored) {
+                // keep the configured timeout
+            }
+        }
+        return timeout;
+    }
+}
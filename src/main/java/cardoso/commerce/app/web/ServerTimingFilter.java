@@ -0,0 +1,79 @@
+package cardoso.commerce.app.web;
+
+import cardoso.commerce.app.config.ServerTimingProperties;
+import cardoso.commerce.app.diagnostics.ServerTiming;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.spi.LoggingEventBuilder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every basket request by {@link ServerTiming} phase and reports it in a {@code Server-Timing}
+ * header, readable in the browser's developer tools. The response body is held back until the
+ * request completes, so the header can include the serialization of the body itself. Requests
+ * slower than {@code basket.diagnostics.server-timing.slow-threshold} are also logged with the same
+ * breakdown. Basket exports stream for as long as they take and are left out.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(prefix = "basket.diagnostics.server-timing", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    private static final String BASKET_PATH = "/basket";
+    private static final String EXPORT_PATH = "/basket/export";
+
+    private final ServerTimingProperties properties;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !(path.equals(BASKET_PATH) || path.startsWith(BASKET_PATH + "/")) || path.equals(EXPORT_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ServerTiming timing = ServerTiming.start();
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        try {
+            filterChain.doFilter(request, wrapper);
+        } finally {
+            ServerTiming.clear();
+            long total = timing.elapsedNanos();
+            String header = timing.header(total);
+            wrapper.setHeader(ServerTiming.HEADER, header);
+            wrapper.copyBodyToResponse();
+            if (total >= properties.slowThreshold().toNanos()) {
+                logSlowRequest(request, wrapper.getStatus(), timing, total, header);
+            }
+        }
+    }
+
+    private static void logSlowRequest(HttpServletRequest request, int status, ServerTiming timing, long total,
+                                       String header) {
+        LoggingEventBuilder event = log.atWarn()
+                .addKeyValue("method", request.getMethod())
+                .addKeyValue("uri", request.getRequestURI())
+                .addKeyValue("status", status)
+                .addKeyValue("total_ms", TimeUnit.NANOSECONDS.toMillis(total));
+        for (ServerTiming.Phase phase : ServerTiming.Phase.values()) {
+            if (timing.count(phase) > 0) {
+                event = event.addKeyValue(phase.metric() + "_ms", TimeUnit.NANOSECONDS.toMillis(timing.nanos(phase)));
+            }
+        }
+        event.log("Slow request {} {} ({}): {}", request.getMethod(), request.getRequestURI(), status, header);
+    }
+}
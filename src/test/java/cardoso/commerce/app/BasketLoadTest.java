@@ -0,0 +1,188 @@
+package cardoso.commerce.app;
+
+import cardoso.commerce.app.support.LatencyDistribution;
+import cardoso.commerce.app.support.LoadReport;
+import cardoso.commerce.app.support.PlatziStubServer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Drives the basket lifecycle end to end, from the HTTP API down to MongoDB and Redis in containers,
+ * against a local stub of the product API with log-normal latency and injected failures. Every
+ * virtual user loops over one scenario: look up a product, create a basket, add to it, replace its
+ * products, read it, pay it and delete it. The report gives throughput and latency percentiles per
+ * step and the run fails when a step breaks the thresholds.
+ *
+ * <p>Runs offline once the images are pulled. Run with {@code mvn -Pbenchmark test
+ * -Dtest=BasketLoadTest}; the load shape and thresholds are read from {@code loadtest.*} system
+ * properties. Needs Docker; skipped otherwise.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "basket.hot-store.enabled=true",
+        "basket.hot-store.key-prefix=basket:hot:load",
+        "basket.sales.enabled=true",
+        "basket.mongo.indexes.enabled=true"
+})
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("Basket Load Test")
+class BasketLoadTest {
+
+    private static final int USERS = Integer.getInteger("loadtest.users", 50);
+    private static final Duration WARM_UP = Duration.parse(System.getProperty("loadtest.warm-up", "PT5S"));
+    private static final Duration RUN_TIME = Duration.parse(System.getProperty("loadtest.duration", "PT30S"));
+    private static final int CATALOG_SIZE = Integer.getInteger("loadtest.catalog-size", 10_000);
+    private static final Duration UPSTREAM_MEDIAN = Duration.parse(System.getProperty("loadtest.upstream-median", "PT0.02S"));
+    private static final Duration UPSTREAM_P99 = Duration.parse(System.getProperty("loadtest.upstream-p99", "PT0.25S"));
+    private static final double UPSTREAM_ERROR_RATE = Double.parseDouble(System.getProperty("loadtest.upstream-error-rate", "0.01"));
+    private static final LoadReport.Thresholds THRESHOLDS = new LoadReport.Thresholds(
+            Double.parseDouble(System.getProperty("loadtest.max-error-rate", "0.01")),
+            Duration.parse(System.getProperty("loadtest.max-p99", "PT1S")),
+            Double.parseDouble(System.getProperty("loadtest.min-throughput", "5")));
+
+    private static final PlatziStubServer stub = new PlatziStubServer(Thread.ofPlatform().name("platzi-stub-", 0).factory())
+            .catalogSize(CATALOG_SIZE)
+            .latency(LatencyDistribution.logNormal(UPSTREAM_MEDIAN, UPSTREAM_P99))
+            .errorRate(UPSTREAM_ERROR_RATE, 503);
+
+    @Container
+    @ServiceConnection
+    static MongoDBContainer mongo = new MongoDBContainer("mongo:7.0");
+
+    @Container
+    @ServiceConnection(name = "redis")
+    static GenericContainer<?> redis = new GenericContainer<>("redis:7.4-alpine").withExposedPorts(6379);
+
+    @DynamicPropertySource
+    static void upstream(DynamicPropertyRegistry registry) {
+        registry.add("basket.client.platzi", stub::url);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        stub.close();
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private final AtomicLong clientIds = new AtomicLong();
+
+    @Test
+    @DisplayName("Should keep every basket step within the thresholds")
+    void basketLifecycle_ShouldMeetThresholds() throws Exception {
+        // Arrange
+        drive(WARM_UP, new LoadReport());
+
+        // Act
+        LoadReport report = new LoadReport();
+        drive(RUN_TIME, report);
+
+        // Assert
+        System.out.printf("%d users for %s, upstream p50=%s p99=%s errors=%.1f%%%n%s", USERS, RUN_TIME,
+                UPSTREAM_MEDIAN, UPSTREAM_P99, UPSTREAM_ERROR_RATE * 100, report.format(RUN_TIME));
+        List<String> violations = report.violations(RUN_TIME, THRESHOLDS);
+        assertTrue(violations.isEmpty(), String.join("\n", violations));
+    }
+
+    private void drive(Duration duration, LoadReport report) throws InterruptedException {
+        long end = System.nanoTime() + duration.toNanos();
+        try (ExecutorService users = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < USERS; i++) {
+                users.submit(() -> {
+                    while (System.nanoTime() < end) {
+                        scenario(report);
+                    }
+                    return null;
+                });
+            }
+            users.shutdown();
+            assertTrue(users.awaitTermination(duration.toSeconds() + 60, TimeUnit.SECONDS));
+        }
+    }
+
+    private void scenario(LoadReport report) throws IOException, InterruptedException {
+        long clientId = clientIds.incrementAndGet();
+        long productId = ThreadLocalRandom.current().nextLong(1, CATALOG_SIZE + 1);
+        long otherProductId = ThreadLocalRandom.current().nextLong(1, CATALOG_SIZE + 1);
+
+        call(report, "product", request("/products/" + productId).GET(), 200);
+        HttpResponse<String> created = call(report, "create",
+                request("/basket").POST(json(basket(clientId, productId, 1))), 201);
+        if (created == null) {
+            return;
+        }
+        String id = objectMapper.readTree(created.body()).get("id").asText();
+        call(report, "add", request("/basket").POST(json(basket(clientId, otherProductId, 2))), 201);
+        call(report, "update", request("/basket/" + id).PUT(json(basket(clientId, otherProductId, 3))), 200);
+        call(report, "read", request("/basket/" + id).GET(), 200);
+        call(report, "pay", request("/basket/" + id + "/payment").PUT(json("{\"paymentMethod\":\"PIX\"}")), 200);
+        call(report, "delete", request("/basket/" + id).DELETE(), 204);
+    }
+
+    /**
+     * Sends a request and records its latency under {@code operation}, returning the response when
+     * it has the expected status.
+     */
+    private HttpResponse<String> call(LoadReport report, String operation, HttpRequest.Builder request,
+                                      int expectedStatus) throws InterruptedException {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+            boolean success = response.statusCode() == expectedStatus;
+            report.record(operation, System.nanoTime() - start, success);
+            return success ? response : null;
+        } catch (IOException exception) {
+            report.record(operation, System.nanoTime() - start, false);
+            return null;
+        }
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Content-Type", "application/json");
+    }
+
+    private static HttpRequest.BodyPublisher json(String body) {
+        return HttpRequest.BodyPublishers.ofString(body);
+    }
+
+    private static String basket(long clientId, long productId, int quantity) {
+        return "{\"clientId\":" + clientId + ",\"products\":[{\"productId\":" + productId
+                + ",\"quantity\":" + quantity + "}]}";
+    }
+}
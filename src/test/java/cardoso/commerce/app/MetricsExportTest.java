@@ -0,0 +1,74 @@
+package cardoso.commerce.app;
+
+import cardoso.commerce.app.support.InMemoryCacheConfig;
+import cardoso.commerce.app.support.PlatziStubServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Scrapes the Prometheus endpoint after a product lookup that goes upstream, against a local stub of
+ * the product API and with the Redis cache tier kept in memory.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureObservability(tracing = false)
+@Import(InMemoryCacheConfig.class)
+@ActiveProfiles("test")
+@DisplayName("Metrics Export Tests")
+class MetricsExportTest {
+
+    private static final PlatziStubServer stub = new PlatziStubServer();
+
+    @DynamicPropertySource
+    static void upstream(DynamicPropertyRegistry registry) {
+        registry.add("basket.client.platzi", stub::url);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        stub.close();
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    @DisplayName("Should export endpoint, Feign, cache and basket size metrics with low-cardinality tags")
+    void prometheus_ShouldExportHotPathMetrics() throws Exception {
+        // Arrange
+        try (HttpClient httpClient = HttpClient.newHttpClient()) {
+            httpClient.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/products/7")).build(),
+                    HttpResponse.BodyHandlers.discarding());
+
+            // Act
+            HttpResponse<String> scrape = httpClient.send(
+                    HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/actuator/prometheus")).build(),
+                    HttpResponse.BodyHandlers.ofString());
+
+            // Assert
+            assertEquals(200, scrape.statusCode());
+            String metrics = scrape.body();
+            assertTrue(metrics.contains("http_server_requests_seconds_bucket{"), metrics);
+            assertTrue(metrics.contains("uri=\"/products/{id}\""), metrics);
+            assertFalse(metrics.contains("uri=\"/products/7\""), metrics);
+            assertTrue(metrics.contains("feign_client_requests_seconds_bucket{"), metrics);
+            assertTrue(metrics.contains("clientName=\"cardoso.commerce.app.client.PlatziStoreClient\""), metrics);
+            assertTrue(metrics.contains("cache_gets_total{"), metrics);
+            assertTrue(metrics.contains("basket_size_lines_bucket{"), metrics);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package cardoso.commerce.app;
+
+import cardoso.commerce.app.controller.BasketController;
+import cardoso.commerce.app.controller.ReactiveBasketController;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.main.web-application-type=reactive")
+@ActiveProfiles("test")
+class ReactiveAppApplicationTests {
+
+	@Autowired
+	private ApplicationContext context;
+
+	@Test
+	void contextLoads() {
+		assertEquals(1, context.getBeanNamesForType(ReactiveBasketController.class).length);
+		assertEquals(0, context.getBeanNamesForType(BasketController.class).length);
+	}
+
+}
@@ -0,0 +1,177 @@
+package cardoso.commerce.app;
+
+import cardoso.commerce.app.support.InMemoryCacheConfig;
+import cardoso.commerce.app.support.PlatziStubServer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Boots the application in servlet mode on platform threads, in servlet mode on virtual threads and
+ * in reactive mode against a stub upstream that answers in three seconds, and drives
+ * {@code GET /products/{id}} with 300 concurrent clients over a catalog too large to be cached, so
+ * servlet mode on platform threads runs out of request threads. Redis is replaced by an in-memory
+ * remote tier. Run with {@code mvn -Pbenchmark test}.
+ */
+@Tag("benchmark")
+@DisplayName("Runtime Mode Benchmark")
+class RuntimeModeBenchmarkTest {
+
+    private static final Duration UPSTREAM_LATENCY = Duration.ofSeconds(3);
+    private static final Duration WARM_UP = Duration.ofSeconds(3);
+    private static final Duration RUN_TIME = Duration.ofSeconds(10);
+    private static final int CATALOG_SIZE = 1_000_000;
+    private static final int CLIENTS = 300;
+    private static final String STUB_THREAD_PREFIX = "platzi-stub-";
+
+    @Test
+    void compareServletWithReactive() throws Exception {
+        Result servlet = run(Mode.SERVLET);
+        Result reactive = run(Mode.REACTIVE);
+
+        System.out.println(servlet);
+        System.out.println(reactive);
+        assertTrue(reactive.throughput() > servlet.throughput());
+    }
+
+    @Test
+    void compareVirtualWithPlatformThreads() throws Exception {
+        Result platform = run(Mode.SERVLET);
+        Result virtual = run(Mode.SERVLET_VIRTUAL_THREADS);
+
+        System.out.println(platform);
+        System.out.println(virtual);
+        assertTrue(virtual.throughput() > platform.throughput());
+    }
+
+    private Result run(Mode mode) throws Exception {
+        try (PlatziStubServer stub = new PlatziStubServer(Thread.ofPlatform().name(STUB_THREAD_PREFIX, 0).factory())
+                     .catalogSize(CATALOG_SIZE)
+                     .latency(UPSTREAM_LATENCY);
+             ConfigurableApplicationContext context = new SpringApplicationBuilder(AppApplication.class, InMemoryCacheConfig.class)
+                     .web(mode.type)
+                     .profiles(mode.profiles)
+                     .run("--server.port=0",
+                             "--basket.client.platzi=" + stub.url(),
+                             "--basket.client.resilience.bulkhead.max-concurrent-calls=" + CLIENTS * 2,
+                             "--basket.client.resilience.hedge.enabled=false",
+                             "--basket.client.transport.pool.max-connections=" + CLIENTS * 2,
+                             "--basket.client.transport.pool.max-idle-connections=" + CLIENTS * 2);
+             HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build()) {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+
+            // ramp up so the first burst does not hit a cold JIT with every client at once
+            drive(httpClient, baseUrl, CLIENTS / 10, WARM_UP, new ArrayList<>(), new AtomicLong());
+            drive(httpClient, baseUrl, CLIENTS, WARM_UP, new ArrayList<>(), new AtomicLong());
+
+            AtomicInteger peakThreads = new AtomicInteger();
+            Thread sampler = Thread.ofPlatform().daemon().start(() -> samplePeakThreads(peakThreads));
+            List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+            AtomicLong errors = new AtomicLong();
+            drive(httpClient, baseUrl, CLIENTS, RUN_TIME, latencies, errors);
+            sampler.interrupt();
+            return Result.of(mode, latencies, errors.get(), peakThreads.get());
+        }
+    }
+
+    /**
+     * Tracks the peak number of platform threads outside the stub, which runs on platform threads
+     * of its own.
+     */
+    private static void samplePeakThreads(AtomicInteger peak) {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        while (!Thread.currentThread().isInterrupted()) {
+            int count = (int) Arrays.stream(threads.getThreadInfo(threads.getAllThreadIds(), 0))
+                    .filter(info -> info != null && !info.getThreadName().startsWith(STUB_THREAD_PREFIX))
+                    .count();
+            peak.accumulateAndGet(count, Math::max);
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException exception) {
+                return;
+            }
+        }
+    }
+
+    private static void drive(HttpClient httpClient, String baseUrl, int clientCount, Duration duration,
+                              List<Long> latencies, AtomicLong errors) throws InterruptedException {
+        long end = System.nanoTime() + duration.toNanos();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clientCount; i++) {
+                clients.submit(() -> {
+                    while (System.nanoTime() < end) {
+                        long id = ThreadLocalRandom.current().nextLong(1, CATALOG_SIZE + 1);
+                        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/products/" + id)).build();
+                        long start = System.nanoTime();
+                        HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                        latencies.add(System.nanoTime() - start);
+                        if (response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                    return null;
+                });
+            }
+            clients.shutdown();
+            clients.awaitTermination(duration.toSeconds() + 30, TimeUnit.SECONDS);
+        }
+    }
+
+    private enum Mode {
+        SERVLET(WebApplicationType.SERVLET, "test"),
+        SERVLET_VIRTUAL_THREADS(WebApplicationType.SERVLET, "test", "virtual-threads"),
+        REACTIVE(WebApplicationType.REACTIVE, "test");
+
+        private final WebApplicationType type;
+        private final String[] profiles;
+
+        Mode(WebApplicationType type, String... profiles) {
+            this.type = type;
+            this.profiles = profiles;
+        }
+    }
+
+    private record Result(Mode mode, int requests, long errors, double throughput, double p50Millis,
+                          double p99Millis, int peakThreads) {
+
+        static Result of(Mode mode, List<Long> latencies, long errors, int peakThreads) {
+            List<Long> sorted = new ArrayList<>(latencies);
+            Collections.sort(sorted);
+            return new Result(mode, sorted.size(), errors, (sorted.size() - errors) / (double) RUN_TIME.toSeconds(),
+                    percentile(sorted, 0.50), percentile(sorted, 0.99), peakThreads);
+        }
+
+        private static double percentile(List<Long> sorted, double percentile) {
+            return sorted.get((int) Math.min(sorted.size() - 1, Math.ceil(percentile * sorted.size()) - 1)) / 1_000_000.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-23s requests=%d errors=%d throughput=%.0f/s p50=%.1fms p99=%.1fms peakThreads=%d",
+                    mode, requests, errors, throughput, p50Millis, p99Millis, peakThreads);
+        }
+    }
+}
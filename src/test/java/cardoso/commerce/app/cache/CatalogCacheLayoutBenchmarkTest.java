@@ -0,0 +1,121 @@
+package cardoso.commerce.app.cache;
+
+import cardoso.commerce.app.catalog.CatalogIndex;
+import cardoso.commerce.app.client.response.PlatziProductResponse;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the product list cached as one value with the per-product layout of {@code ProductService}
+ * on a 50k-product catalog in a real Redis: bytes moved and latency to read the whole list, and bytes
+ * written when one product changes. Run with {@code mvn -Pbenchmark test}; needs Docker.
+ */
+@Tag("benchmark")
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("Catalog Cache Layout Benchmark")
+class CatalogCacheLayoutBenchmarkTest {
+
+    private static final int PRODUCTS = 50_000;
+    private static final int ROUNDS = 20;
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>("redis:7.4-alpine").withExposedPorts(6379);
+
+    private static LettuceConnectionFactory connectionFactory;
+    private static RedisCacheManager redisCacheManager;
+
+    private final CompactCacheCodec codec = new CompactCacheCodec(true, 1024);
+
+    @BeforeAll
+    static void connect() {
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration(redis.getHost(), redis.getFirstMappedPort()));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisCacheManager = RedisCacheManager.builder(connectionFactory)
+                .cacheDefaults(RedisCacheConfiguration.defaultCacheConfig()
+                        .entryTtl(Duration.ofMinutes(10))
+                        .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(new CompactCacheCodec(true, 1024))))
+                .build();
+        redisCacheManager.afterPropertiesSet();
+    }
+
+    @AfterAll
+    static void disconnect() {
+        connectionFactory.destroy();
+    }
+
+    @Test
+    void compareBlobWithPerProductLayout() {
+        List<PlatziProductResponse> products = LongStream.rangeClosed(1, PRODUCTS)
+                .mapToObj(id -> new PlatziProductResponse(id, "Product " + id, BigDecimal.valueOf(100 + id * 37, 2)))
+                .toList();
+        long now = System.currentTimeMillis();
+
+        Cache blobs = redisCacheManager.getCache("catalog-blob");
+        CacheEntry blob = new CacheEntry(new ArrayList<>(products), now);
+        blobs.put("all", blob);
+        Result blobLayout = new Result("blob", codec.serialize(blob).length,
+                time(() -> ((CacheEntry) blobs.get("all").get()).value()), codec.serialize(blob).length);
+
+        TwoTierCache items = new TwoTierCache(redisCacheManager.getCache("catalog-items"), 0, Duration.ofMinutes(1),
+                CacheSpec.of(Duration.ofMinutes(10)), CacheInvalidationPublisher.disabled(), Runnable::run,
+                Clock.systemUTC(), new RedisBatchOperations(connectionFactory, 1000));
+        Map<Long, PlatziProductResponse> byId = new LinkedHashMap<>();
+        products.forEach(product -> byId.put(product.id(), product));
+        items.putAll(byId);
+        CatalogIndex index = CatalogIndex.of(products);
+        items.put("catalog", index);
+        long itemBytes = codec.serialize(new CacheEntry(index, now)).length
+                + products.stream().mapToLong(product -> codec.serialize(new CacheEntry(product, now)).length).sum();
+        Result itemLayout = new Result("per-product", itemBytes,
+                time(() -> items.getAll(((CatalogIndex) items.get("catalog").get()).idList())),
+                codec.serialize(new CacheEntry(products.get(0), now)).length);
+
+        System.out.println(blobLayout);
+        System.out.println(itemLayout);
+        assertEquals(PRODUCTS, items.getAll(index.idList()).size());
+        assertTrue(itemLayout.updateBytes() * 1000 < blobLayout.updateBytes());
+    }
+
+    private static double time(Supplier<Object> read) {
+        read.get();
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            assertNotNull(read.get());
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / ROUNDS;
+    }
+
+    private record Result(String layout, long readBytes, double readMillis, long updateBytes) {
+
+        @Override
+        public String toString() {
+            return String.format("%-12s full read=%d bytes in %.1fms, one product update=%d bytes",
+                    layout, readBytes, readMillis, updateBytes);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package cardoso.commerce.app.cache;
+
+import cardoso.commerce.app.catalog.CatalogIndex;
+import cardoso.commerce.app.client.response.PlatziProductResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.support.NullValue;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Compact Cache Codec Tests")
+class CompactCacheCodecTest {
+
+    private final CompactCacheCodec codec = new CompactCacheCodec(true, 1024);
+
+    @Test
+    @DisplayName("Should read back a cached product, including missing fields and large prices")
+    void serialize_ShouldRoundTripProducts() {
+        // Arrange
+        List<CacheEntry> entries = List.of(
+                new CacheEntry(new PlatziProductResponse(7L, "Café ☕", new BigDecimal("19.90")), 1_700_000_000_000L),
+                new CacheEntry(new PlatziProductResponse(-1L, null, new BigDecimal("-123456789012345678901234.5678")), 0L),
+                new CacheEntry(new PlatziProductResponse(null, "", null), 42L),
+                new CacheEntry(null, 42L));
+
+        for (CacheEntry entry : entries) {
+            // Act
+            byte[] encoded = codec.serialize(entry);
+
+            // Assert
+            assertEquals(CompactCacheCodec.MAGIC, encoded[0]);
+            assertEquals(entry, codec.deserialize(encoded));
+        }
+    }
+
+    @Test
+    @DisplayName("Should compress the product list and keep it smaller than JDK and JSON serialization")
+    void serialize_ShouldCompressLargeValues() {
+        // Arrange
+        CacheEntry entry = new CacheEntry(new ArrayList<>(products(200)), 1_700_000_000_000L);
+
+        // Act
+        byte[] compact = codec.serialize(entry);
+        byte[] jdk = RedisSerializer.java().serialize(entry);
+        byte[] json = new GenericJackson2JsonRedisSerializer().serialize(entry);
+
+        // Assert
+        assertEquals(entry, codec.deserialize(compact));
+        assertEquals(0x01, compact[2]);
+        assertTrue(compact.length * 4 < jdk.length, compact.length + " vs " + jdk.length);
+        assertTrue(compact.length * 4 < json.length, compact.length + " vs " + json.length);
+        assertEquals(0, new CompactCacheCodec(true, Integer.MAX_VALUE).serialize(entry)[2]);
+    }
+
+    @Test
+    @DisplayName("Should read back a catalog index as delta-encoded ids")
+    void serialize_ShouldRoundTripCatalogIndex() {
+        // Arrange
+        CatalogIndex index = new CatalogIndex(-42L, LongStream.rangeClosed(1, 50_000).map(id -> id * 3).toArray());
+        CacheEntry entry = new CacheEntry(index, 1_700_000_000_000L);
+        CacheEntry unordered = new CacheEntry(new CatalogIndex(7L, new long[]{9, 2, Long.MAX_VALUE, -5}), 1L);
+
+        // Act
+        byte[] encoded = codec.serialize(entry);
+
+        // Assert
+        assertEquals(entry, codec.deserialize(encoded));
+        assertEquals(unordered, codec.deserialize(codec.serialize(unordered)));
+        assertTrue(encoded.length < 50_000 / 10, String.valueOf(encoded.length));
+    }
+
+    @Test
+    @DisplayName("Should read values stored with JDK serialization before the codec existed")
+    void deserialize_ShouldReadJdkSerializedValues() {
+        // Arrange
+        CacheEntry legacy = new CacheEntry(new ArrayList<>(products(3)), 1_700_000_000_000L);
+        byte[] stored = RedisSerializer.java().serialize(legacy);
+
+        // Act & Assert
+        assertEquals(legacy, codec.deserialize(stored));
+        assertEquals(legacy, new CompactCacheCodec(false, 1024).deserialize(codec.serialize(legacy)));
+    }
+
+    @Test
+    @DisplayName("Should fall back to JDK serialization for values it has no layout for")
+    void serialize_ShouldFallBackForOtherTypes() {
+        for (Object value : new Object[]{NullValue.INSTANCE, new CacheEntry("product-1", 1L)}) {
+            // Act
+            byte[] encoded = codec.serialize(value);
+
+            // Assert
+            assertJdkSerialized(encoded);
+            assertEquals(value, codec.deserialize(encoded));
+        }
+    }
+
+    @Test
+    @DisplayName("Should only write JDK serialization while compact writes are off")
+    void serialize_ShouldWriteJdkWhenCompactIsOff() {
+        // Arrange
+        CacheEntry entry = new CacheEntry(products(1).get(0), 1L);
+
+        // Act
+        byte[] encoded = new CompactCacheCodec(false, 1024).serialize(entry);
+
+        // Assert
+        assertJdkSerialized(encoded);
+        assertEquals(entry, codec.deserialize(encoded));
+    }
+
+    @Test
+    @DisplayName("Should treat values of an unknown format version as misses and reject corrupt ones")
+    void deserialize_ShouldHandleUnknownAndCorruptValues() {
+        // Arrange
+        byte[] encoded = codec.serialize(new CacheEntry(products(1).get(0), 1L));
+        byte[] newer = encoded.clone();
+        newer[1] = CompactCacheCodec.VERSION + 1;
+
+        // Act & Assert
+        assertNull(codec.deserialize(newer));
+        assertThrows(SerializationException.class, () -> codec.deserialize(Arrays.copyOf(encoded, encoded.length - 2)));
+        assertThrows(SerializationException.class, () -> codec.deserialize(new byte[]{CompactCacheCodec.MAGIC, CompactCacheCodec.VERSION, 0, 9}));
+    }
+
+    private static void assertJdkSerialized(byte[] encoded) {
+        assertEquals((byte) 0xAC, encoded[0]);
+        assertEquals((byte) 0xED, encoded[1]);
+    }
+
+    private static List<PlatziProductResponse> products(int count) {
+        return LongStream.rangeClosed(1, count)
+                .mapToObj(id -> new PlatziProductResponse(id, "Product " + id, BigDecimal.valueOf(100 + id * 37, 2)))
+                .toList();
+    }
+}
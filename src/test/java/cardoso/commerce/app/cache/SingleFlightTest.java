@@ -0,0 +1,128 @@
+package cardoso.commerce.app.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Single Flight Unit Tests")
+class SingleFlightTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SingleFlight<Long, String> singleFlight = new SingleFlight<>("products", meterRegistry);
+
+    @Test
+    @DisplayName("Should run one load for concurrent callers of the same key")
+    void execute_ShouldCollapseConcurrentCalls() throws Exception {
+        // Arrange
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>();
+
+        // Act
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 50; i++) {
+                results.add(executor.submit(() -> singleFlight.execute(1L, () -> {
+                    loads.incrementAndGet();
+                    await(release);
+                    return "product-1";
+                })));
+            }
+            while (singleFlight.collapsedCount() < 49) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+            for (Future<String> result : results) {
+                assertEquals("product-1", result.get(5, TimeUnit.SECONDS));
+            }
+        }
+
+        // Assert
+        assertEquals(1, loads.get());
+        assertEquals(49.0, meterRegistry.get("cache.collapsed.calls").tag("scope", "local").functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("Should share the loader error with every waiting caller")
+    void execute_ShouldShareErrors() throws Exception {
+        // Arrange
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        IllegalStateException failure = new IllegalStateException("upstream down");
+
+        // Act
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<String> leader = executor.submit(() -> singleFlight.execute(1L, () -> {
+                started.countDown();
+                await(release);
+                throw failure;
+            }));
+            await(started);
+            Future<String> follower = executor.submit(() -> singleFlight.execute(1L, () -> "unused"));
+            while (singleFlight.collapsedCount() < 1) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            // Assert
+            assertSame(failure, assertThrows(Exception.class, leader::get).getCause());
+            assertSame(failure, assertThrows(Exception.class, follower::get).getCause());
+        }
+    }
+
+    @Test
+    @DisplayName("Should load again once the previous call has finished")
+    void execute_ShouldNotCacheResults() {
+        AtomicInteger loads = new AtomicInteger();
+
+        singleFlight.execute(1L, () -> "v" + loads.incrementAndGet());
+        String second = singleFlight.execute(1L, () -> "v" + loads.incrementAndGet());
+
+        assertEquals("v2", second);
+        assertEquals(0, singleFlight.collapsedCount());
+    }
+
+    @Test
+    @DisplayName("Should share an in-flight async load with later callers")
+    void executeAsync_ShouldCollapseConcurrentCalls() {
+        // Arrange
+        AtomicInteger loads = new AtomicInteger();
+        CompletableFuture<String> upstream = new CompletableFuture<>();
+
+        // Act
+        CompletableFuture<String> first = singleFlight.executeAsync(1L, () -> {
+            loads.incrementAndGet();
+            return upstream;
+        });
+        CompletableFuture<String> second = singleFlight.executeAsync(1L, () -> {
+            loads.incrementAndGet();
+            return CompletableFuture.completedFuture("other");
+        });
+        second.cancel(true);
+        upstream.complete("product-1");
+
+        // Assert
+        assertEquals("product-1", first.join());
+        assertEquals(1, loads.get());
+        assertEquals(1, singleFlight.collapsedCount());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
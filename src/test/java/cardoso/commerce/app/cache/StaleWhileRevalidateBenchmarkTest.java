@@ -0,0 +1,98 @@
+package cardoso.commerce.app.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares caller latency of hard-expiring entries (today's {@code @Cacheable} behaviour) with
+ * stale-while-revalidate while the upstream takes 50 ms per load. Run with {@code mvn -Pbenchmark test}.
+ */
+@Tag("benchmark")
+@DisplayName("Stale While Revalidate Benchmark")
+class StaleWhileRevalidateBenchmarkTest {
+
+    private static final Duration UPSTREAM_LATENCY = Duration.ofMillis(50);
+    private static final Duration RUN_TIME = Duration.ofSeconds(5);
+    private static final int CALLERS = 32;
+
+    @Test
+    void compareHardExpiryWithStaleWhileRevalidate() throws Exception {
+        Result hardExpiry = run("hard-expiry", CacheSpec.of(Duration.ofMillis(200)));
+        Result staleWhileRevalidate = run("stale-while-revalidate",
+                new CacheSpec(Duration.ofMillis(200), Duration.ofSeconds(30), 0.8, 5));
+
+        System.out.println(hardExpiry);
+        System.out.println(staleWhileRevalidate);
+        assertTrue(staleWhileRevalidate.blockedCalls() <= hardExpiry.blockedCalls());
+    }
+
+    private Result run(String name, CacheSpec spec) throws Exception {
+        try (ExecutorService refreshExecutor = Executors.newVirtualThreadPerTaskExecutor();
+             ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            TwoTierCache cache = new TwoTierCache(new ConcurrentMapCache(name), 1_000, Duration.ofMinutes(1), spec,
+                    CacheInvalidationPublisher.disabled(), refreshExecutor, Clock.systemUTC());
+            SingleFlight<Long, String> singleFlight = new SingleFlight<>(name, new SimpleMeterRegistry());
+            List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+            long end = System.nanoTime() + RUN_TIME.toNanos();
+
+            for (int i = 0; i < CALLERS; i++) {
+                callers.submit(() -> {
+                    while (System.nanoTime() < end) {
+                        long start = System.nanoTime();
+                        cache.get(1L, () -> singleFlight.execute(1L, StaleWhileRevalidateBenchmarkTest::slowLoad));
+                        latencies.add(System.nanoTime() - start);
+                        Thread.sleep(1);
+                    }
+                    return null;
+                });
+            }
+            callers.shutdown();
+            callers.awaitTermination(RUN_TIME.toSeconds() + 10, TimeUnit.SECONDS);
+            return Result.of(name, latencies);
+        }
+    }
+
+    private static String slowLoad() {
+        try {
+            Thread.sleep(UPSTREAM_LATENCY);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+        return "product-1";
+    }
+
+    private record Result(String name, int calls, long blockedCalls, double p50Micros, double p99Micros, double maxMicros) {
+
+        static Result of(String name, List<Long> latencies) {
+            List<Long> sorted = new ArrayList<>(latencies);
+            Collections.sort(sorted);
+            long blocked = sorted.stream().filter(nanos -> nanos >= UPSTREAM_LATENCY.toNanos() / 2).count();
+            return new Result(name, sorted.size(), blocked,
+                    percentile(sorted, 0.50), percentile(sorted, 0.99), sorted.get(sorted.size() - 1) / 1_000.0);
+        }
+
+        private static double percentile(List<Long> sorted, double percentile) {
+            return sorted.get((int) Math.min(sorted.size() - 1, Math.ceil(percentile * sorted.size()) - 1)) / 1_000.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-24s calls=%d blocked=%d p50=%.1fus p99=%.1fus max=%.1fus",
+                    name, calls, blockedCalls, p50Micros, p99Micros, maxMicros);
+        }
+    }
+}
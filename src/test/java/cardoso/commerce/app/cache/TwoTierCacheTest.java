@@ -0,0 +1,308 @@
+package cardoso.commerce.app.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Two Tier Cache Unit Tests")
+class TwoTierCacheTest {
+
+    private ConcurrentMapCacheManager remoteCacheManager;
+    private TwoTierCacheManager cacheManager;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        remoteCacheManager = new ConcurrentMapCacheManager();
+        meterRegistry = new SimpleMeterRegistry();
+        cacheManager = new TwoTierCacheManager(remoteCacheManager, 100, Duration.ofMinutes(1),
+                name -> CacheSpec.of(Duration.ofMinutes(1)), CacheInvalidationPublisher.disabled(),
+                Runnable::run, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should serve repeated reads from the local tier")
+    void get_ShouldPromoteRemoteHitToLocalTier() {
+        // Arrange
+        Cache remote = remoteCacheManager.getCache("products");
+        remote.put(1L, "product-1");
+        Cache cache = cacheManager.getCache("products");
+
+        // Act
+        cache.get(1L);
+        remote.evict(1L);
+        Cache.ValueWrapper wrapper = cache.get(1L);
+
+        // Assert
+        assertNotNull(wrapper);
+        assertEquals("product-1", wrapper.get());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("tier", "local").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("Should drop the local copy when another instance invalidates the key")
+    void onMessage_ShouldEvictLocalEntry() throws Exception {
+        // Arrange
+        ObjectMapper objectMapper = new ObjectMapper();
+        Cache cache = cacheManager.getCache("products");
+        cache.put(1L, "product-1");
+        remoteCacheManager.getCache("products").put(1L, "product-1-v2");
+        CacheInvalidationListener listener = new CacheInvalidationListener(cacheManager, objectMapper, "self");
+        byte[] body = objectMapper.writeValueAsBytes(new CacheInvalidationMessage("other", "products", "1"));
+
+        // Act
+        listener.onMessage(new DefaultMessage(new byte[0], body), null);
+
+        // Assert
+        assertEquals("product-1-v2", cache.get(1L).get());
+    }
+
+    @Test
+    @DisplayName("Should ignore invalidations published by the same instance")
+    void onMessage_ShouldIgnoreOwnMessages() throws Exception {
+        // Arrange
+        ObjectMapper objectMapper = new ObjectMapper();
+        Cache cache = cacheManager.getCache("products");
+        cache.put(1L, "product-1");
+        remoteCacheManager.getCache("products").put(1L, "product-1-v2");
+        CacheInvalidationListener listener = new CacheInvalidationListener(cacheManager, objectMapper, "self");
+        byte[] body = objectMapper.writeValueAsBytes(new CacheInvalidationMessage("self", "products", "1"));
+
+        // Act
+        listener.onMessage(new DefaultMessage(new byte[0], body), null);
+
+        // Assert
+        assertEquals("product-1", cache.get(1L).get());
+    }
+
+    @Test
+    @DisplayName("Should serve a stale entry and reload it in the background")
+    void get_ShouldServeStaleEntryWhileRevalidating() {
+        // Arrange
+        MutableClock clock = new MutableClock();
+        List<Runnable> refreshes = new ArrayList<>();
+        TwoTierCache cache = new TwoTierCache(remoteCacheManager.getCache("products"), 100, Duration.ofMinutes(10),
+                new CacheSpec(Duration.ofSeconds(30), Duration.ofMinutes(5), 0, 0),
+                CacheInvalidationPublisher.disabled(), refreshes::add, clock);
+        cache.put(1L, "product-1");
+        clock.advance(Duration.ofSeconds(31));
+
+        // Act
+        String stale = cache.get(1L, () -> "product-1-v2");
+
+        // Assert
+        assertEquals("product-1", stale);
+        assertNull(cache.get(1L));
+        assertEquals(1, refreshes.size());
+        refreshes.get(0).run();
+        assertEquals("product-1-v2", cache.get(1L).get());
+        assertEquals(1, cache.staleHitCount());
+    }
+
+    @Test
+    @DisplayName("Should load synchronously once the hard TTL has passed")
+    void get_ShouldReload_WhenHardTtlExpired() {
+        // Arrange
+        MutableClock clock = new MutableClock();
+        TwoTierCache cache = new TwoTierCache(remoteCacheManager.getCache("products"), 100, Duration.ofMinutes(10),
+                new CacheSpec(Duration.ofSeconds(30), Duration.ofMinutes(5), 0, 0),
+                CacheInvalidationPublisher.disabled(), Runnable::run, clock);
+        cache.put(1L, "product-1");
+        clock.advance(Duration.ofMinutes(6));
+
+        // Act
+        String value = cache.get(1L, () -> "product-1-v2");
+
+        // Assert
+        assertEquals("product-1-v2", value);
+        assertEquals(0, cache.staleHitCount());
+    }
+
+    @Test
+    @DisplayName("Should refresh hot entries before they go stale")
+    void get_ShouldRefreshAhead_WhenEntryIsReadOften() {
+        // Arrange
+        MutableClock clock = new MutableClock();
+        List<Runnable> refreshes = new ArrayList<>();
+        TwoTierCache cache = new TwoTierCache(remoteCacheManager.getCache("products"), 100, Duration.ofMinutes(10),
+                new CacheSpec(Duration.ofSeconds(30), Duration.ofMinutes(5), 0.8, 3),
+                CacheInvalidationPublisher.disabled(), refreshes::add, clock);
+        cache.put(1L, "product-1");
+        clock.advance(Duration.ofSeconds(25));
+
+        // Act
+        for (int i = 0; i < 3; i++) {
+            assertEquals("product-1", cache.get(1L, () -> "product-1-v2"));
+        }
+
+        // Assert
+        assertEquals(1, refreshes.size());
+        assertEquals(0, cache.staleHitCount());
+    }
+
+    @Test
+    @DisplayName("Should load a missing entry asynchronously and write it to both tiers")
+    void retrieve_ShouldLoadAndStoreMissingEntry() {
+        // Arrange
+        Cache remote = remoteCacheManager.getCache("products");
+        Cache cache = cacheManager.getCache("products");
+
+        // Act
+        String value = cache.retrieve(1L, () -> CompletableFuture.completedFuture("product-1")).join();
+
+        // Assert
+        assertEquals("product-1", value);
+        assertInstanceOf(CacheEntry.class, remote.get(1L).get());
+        assertEquals("product-1", ((Cache.ValueWrapper) cache.retrieve(1L).join()).get());
+    }
+
+    @Test
+    @DisplayName("Should serve a stale entry to async callers and reload it in the background")
+    void retrieve_ShouldServeStaleEntryWhileRevalidating() {
+        // Arrange
+        MutableClock clock = new MutableClock();
+        List<Runnable> refreshes = new ArrayList<>();
+        TwoTierCache cache = new TwoTierCache(remoteCacheManager.getCache("products"), 100, Duration.ofMinutes(10),
+                new CacheSpec(Duration.ofSeconds(30), Duration.ofMinutes(5), 0, 0),
+                CacheInvalidationPublisher.disabled(), refreshes::add, clock);
+        cache.put(1L, "product-1");
+        clock.advance(Duration.ofSeconds(31));
+
+        // Act
+        String stale = cache.retrieve(1L, () -> CompletableFuture.completedFuture("product-1-v2")).join();
+
+        // Assert
+        assertEquals("product-1", stale);
+        assertNull(cache.retrieve(1L).join());
+        assertEquals(1, refreshes.size());
+        refreshes.get(0).run();
+        assertEquals("product-1-v2", cache.get(1L).get());
+    }
+
+    @Test
+    @DisplayName("Should read many keys from both tiers without copying remote hits to the local tier")
+    void getAll_ShouldReadBothTiers() {
+        // Arrange
+        Cache remote = remoteCacheManager.getCache("products");
+        TwoTierCache cache = (TwoTierCache) cacheManager.getCache("products");
+        cache.put(1L, "product-1");
+        remote.put(2L, new CacheEntry("product-2", System.currentTimeMillis()));
+        remote.put(3L, new CacheEntry(null, System.currentTimeMillis()));
+
+        // Act
+        Map<Object, Object> values = cache.getAll(List.of(1L, 2L, 3L, 4L));
+
+        // Assert
+        assertEquals(Map.of(1L, "product-1", 2L, "product-2"), values);
+        assertNull(cache.getLocal().getIfPresent("2"));
+    }
+
+    @Test
+    @DisplayName("Should write many keys to the remote tier and drop the local copies of changed ones")
+    void putAll_ShouldWriteRemoteAndEvictChangedKeys() {
+        // Arrange
+        Cache remote = remoteCacheManager.getCache("products");
+        TwoTierCache cache = (TwoTierCache) cacheManager.getCache("products");
+        cache.get(1L, () -> "product-1");
+
+        // Act
+        cache.putAll(Map.of(1L, "product-1-v2", 2L, "product-2"));
+
+        // Assert
+        assertNull(cache.getLocal().getIfPresent("1"));
+        assertEquals("product-1-v2", ((CacheEntry) remote.get(1L).get()).value());
+        assertEquals("product-2", cache.get(2L).get());
+    }
+
+    @Test
+    @DisplayName("Should tell other instances to evict only the changed keys")
+    void putAll_ShouldNotClearOtherKeys() throws Exception {
+        // Arrange
+        ObjectMapper objectMapper = new ObjectMapper();
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        CacheInvalidationPublisher publisher = new CacheInvalidationPublisher(redisTemplate, objectMapper, "invalidations");
+        TwoTierCache cache = new TwoTierCache(remoteCacheManager.getCache("products"), 100, Duration.ofMinutes(1),
+                CacheSpec.of(Duration.ofMinutes(1)), publisher, Runnable::run, Clock.systemUTC());
+        cache.put(1L, "product-1");
+        cache.put(2L, "product-2");
+        cache.get(3L, () -> "product-3");
+        clearInvocations(redisTemplate);
+
+        // Act
+        cache.putAll(Map.of(1L, "product-1", 2L, "product-2-v2"));
+
+        // Assert
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(eq("invalidations"), payload.capture());
+        CacheInvalidationMessage message = objectMapper.readValue(payload.getValue(), CacheInvalidationMessage.class);
+        assertNull(message.key());
+        assertEquals(List.of("2"), message.keys());
+        assertNotNull(cache.getLocal().getIfPresent("1"));
+        assertNull(cache.getLocal().getIfPresent("2"));
+        assertNotNull(cache.getLocal().getIfPresent("3"));
+    }
+
+    @Test
+    @DisplayName("Should evict only the keys of a batch invalidation from another instance")
+    void onMessage_ShouldEvictBatchKeys() throws Exception {
+        // Arrange
+        ObjectMapper objectMapper = new ObjectMapper();
+        TwoTierCache cache = (TwoTierCache) cacheManager.getCache("products");
+        cache.put(1L, "product-1");
+        cache.put(2L, "product-2");
+        CacheInvalidationListener listener = new CacheInvalidationListener(cacheManager, objectMapper, "self");
+        byte[] body = objectMapper.writeValueAsBytes(new CacheInvalidationMessage("other", "products", null, List.of("2")));
+
+        // Act
+        listener.onMessage(new DefaultMessage(new byte[0], body), null);
+
+        // Assert
+        assertNotNull(cache.getLocal().getIfPresent("1"));
+        assertNull(cache.getLocal().getIfPresent("2"));
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package cardoso.commerce.app.catalog;
+
+import cardoso.commerce.app.client.response.PlatziProductResponse;
+import cardoso.commerce.app.config.CatalogPageProperties;
+import cardoso.commerce.app.exception.BusinessesException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Catalog Pages Unit Tests")
+class CatalogPagesTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private CatalogPages pages;
+    private CatalogSnapshot catalog;
+
+    @BeforeEach
+    void setUp() {
+        pages = new CatalogPages(objectMapper, new CatalogPageProperties(2, 10, 100));
+        catalog = CatalogSnapshot.of(List.of(product(30L), product(10L), product(20L), product(40L), product(50L)), Instant.now());
+    }
+
+    @Test
+    @DisplayName("Should page products in id order after the given id")
+    void page_ShouldFollowKeyset() throws Exception {
+        // Act
+        JsonNode first = read(pages.page(catalog, pages.request(null, null, null)));
+        JsonNode second = read(pages.page(catalog, pages.request(first.get("nextAfterId").asLong(), 3, null)));
+
+        // Assert
+        assertEquals(List.of(10L, 20L), ids(first));
+        assertEquals(20L, first.get("nextAfterId").asLong());
+        assertEquals(List.of(30L, 40L, 50L), ids(second));
+        assertTrue(second.get("nextAfterId").isNull());
+    }
+
+    @Test
+    @DisplayName("Should serialize only the requested fields")
+    void page_ShouldProjectFields() throws Exception {
+        // Act
+        JsonNode page = read(pages.page(catalog, pages.request(null, 1, "price, id")));
+
+        // Assert
+        JsonNode item = page.get("items").get(0);
+        List<String> fields = new ArrayList<>();
+        item.fieldNames().forEachRemaining(fields::add);
+        assertEquals(List.of("id", "price"), fields);
+        assertEquals(0, new BigDecimal("10.00").compareTo(item.get("price").decimalValue()));
+    }
+
+    @Test
+    @DisplayName("Should serialize a page once per catalog version")
+    void page_ShouldReuseSerializedBytes() {
+        // Act
+        CatalogPage first = pages.page(catalog, pages.request(null, 2, "id,title,price"));
+        CatalogPage second = pages.page(catalog, pages.request(null, null, null));
+        CatalogSnapshot changed = CatalogSnapshot.of(List.of(product(10L), product(20L, "11.00")), Instant.now());
+        CatalogPage third = pages.page(changed, pages.request(null, null, null));
+
+        // Assert
+        assertSame(first.body(), second.body());
+        assertEquals(first.etag(), second.etag());
+        assertNotSame(first.body(), third.body());
+        assertNotEquals(first.etag(), third.etag());
+    }
+
+    @Test
+    @DisplayName("Should index the upstream list once while there is no snapshot")
+    void catalog_ShouldReuseCatalogOfSameList() {
+        // Arrange
+        List<PlatziProductResponse> products = List.of(product(1L));
+
+        // Act
+        CatalogSnapshot first = pages.catalog(null, products);
+        CatalogSnapshot second = pages.catalog(null, products);
+
+        // Assert
+        assertSame(first, second);
+        assertSame(catalog, pages.catalog(catalog, products));
+    }
+
+    @Test
+    @DisplayName("Should reject limits out of range and unknown fields")
+    void request_ShouldValidateParameters() {
+        // Act & Assert
+        assertThrows(BusinessesException.class, () -> pages.request(null, 0, null));
+        assertThrows(BusinessesException.class, () -> pages.request(null, 11, null));
+        assertThrows(BusinessesException.class, () -> pages.request(null, 5, "id,description"));
+    }
+
+    private JsonNode read(CatalogPage page) throws Exception {
+        return objectMapper.readTree(page.body());
+    }
+
+    private static List<Long> ids(JsonNode page) {
+        return page.get("items").findValues("id").stream().map(JsonNode::asLong).toList();
+    }
+
+    private static PlatziProductResponse product(Long id) {
+        return product(id, "10.00");
+    }
+
+    private static PlatziProductResponse product(Long id, String price) {
+        return PlatziProductResponse.builder()
+                .id(id)
+                .title("Product " + id)
+                .price(new BigDecimal(price))
+                .build();
+    }
+}
@@ -0,0 +1,65 @@
+package cardoso.commerce.app.catalog;
+
+import cardoso.commerce.app.client.response.PlatziProductResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Product Index Unit Tests")
+class ProductIndexTest {
+
+    @Test
+    @DisplayName("Should find every indexed product and miss unknown ids")
+    void get_ShouldReturnIndexedProducts() {
+        // Arrange
+        List<PlatziProductResponse> products = LongStream.rangeClosed(1, 100_000)
+                .map(id -> id * 7919)
+                .mapToObj(ProductIndexTest::product)
+                .toList();
+
+        // Act
+        ProductIndex index = ProductIndex.of(products);
+
+        // Assert
+        assertEquals(100_000, index.size());
+        assertEquals(262_144, index.capacity());
+        products.forEach(product -> assertSame(product, index.get(product.id())));
+        assertNull(index.get(1L));
+        assertNull(index.get(Long.MIN_VALUE));
+    }
+
+    @Test
+    @DisplayName("Should keep the last product for a repeated id")
+    void of_ShouldReplaceDuplicateIds() {
+        // Arrange
+        PlatziProductResponse first = product(5L);
+        PlatziProductResponse second = product(5L);
+
+        // Act
+        ProductIndex index = ProductIndex.of(List.of(first, second));
+
+        // Assert
+        assertEquals(1, index.size());
+        assertSame(second, index.get(5L));
+    }
+
+    @Test
+    @DisplayName("Should answer lookups on an empty index")
+    void get_ShouldReturnNull_WhenIndexIsEmpty() {
+        assertNull(ProductIndex.empty().get(1L));
+        assertEquals(0, ProductIndex.empty().size());
+    }
+
+    private static PlatziProductResponse product(long id) {
+        return PlatziProductResponse.builder()
+                .id(id)
+                .title("Product " + id)
+                .price(BigDecimal.ONE)
+                .build();
+    }
+}
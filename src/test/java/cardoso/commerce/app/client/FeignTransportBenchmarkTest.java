@@ -0,0 +1,134 @@
+package cardoso.commerce.app.client;
+
+import cardoso.commerce.app.config.TransportConfig;
+import cardoso.commerce.app.config.TransportProperties;
+import cardoso.commerce.app.exception.CustomErrorDecoder;
+import cardoso.commerce.app.support.PlatziStubServer;
+import feign.Client;
+import feign.Feign;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.cloud.openfeign.support.SpringDecoder;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the JDK {@code HttpURLConnection} transport with the pooled OkHttp transport, with and
+ * without gzip, against the local stub: the bulk {@code /products} call and concurrent single
+ * product lookups. Run with {@code mvn -Pbenchmark test}.
+ */
+@Tag("benchmark")
+@DisplayName("Feign Transport Benchmark")
+class FeignTransportBenchmarkTest {
+
+    private static final HttpMessageConverters MESSAGE_CONVERTERS =
+            new HttpMessageConverters(new MappingJackson2HttpMessageConverter());
+
+    private static final int CATALOG_SIZE = 1_000;
+    private static final int BULK_CALLS = 200;
+    private static final int CALLERS = 16;
+    private static final Duration RUN_TIME = Duration.ofSeconds(5);
+
+    @Test
+    void compareTransports() throws Exception {
+        List<Result> results = List.of(
+                run("jdk", stub -> new Client.Default(null, null)),
+                run("okhttp", stub -> okHttp(false)),
+                run("okhttp+gzip", stub -> okHttp(true)));
+
+        results.forEach(System.out::println);
+        Result jdk = results.get(0);
+        Result gzip = results.get(2);
+        assertTrue(gzip.bulkBytes() < jdk.bulkBytes());
+        assertTrue(gzip.connections() <= jdk.connections());
+    }
+
+    private Result run(String name, Function<PlatziStubServer, Client> transport) throws Exception {
+        try (PlatziStubServer stub = new PlatziStubServer().catalogSize(CATALOG_SIZE).gzip(true)) {
+            PlatziStoreClient client = Feign.builder()
+                    .client(new DeadlineAwareFeignClient(transport.apply(stub)))
+                    .contract(new SpringMvcContract())
+                    .decoder(new SpringDecoder(() -> MESSAGE_CONVERTERS))
+                    .errorDecoder(new CustomErrorDecoder())
+                    .target(PlatziStoreClient.class, stub.url());
+
+            List<Long> bulkLatencies = new ArrayList<>();
+            for (int i = 0; i < BULK_CALLS; i++) {
+                long start = System.nanoTime();
+                assertEquals(CATALOG_SIZE, client.getAllProducts().size());
+                bulkLatencies.add(System.nanoTime() - start);
+            }
+            long bulkBytes = stub.bytesSent() / BULK_CALLS;
+
+            List<Long> lookupLatencies = Collections.synchronizedList(new ArrayList<>());
+            long end = System.nanoTime() + RUN_TIME.toNanos();
+            try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < CALLERS; i++) {
+                    callers.submit(() -> {
+                        while (System.nanoTime() < end) {
+                            long id = ThreadLocalRandom.current().nextLong(1, CATALOG_SIZE + 1);
+                            long start = System.nanoTime();
+                            client.getProductById(id);
+                            lookupLatencies.add(System.nanoTime() - start);
+                        }
+                        return null;
+                    });
+                }
+                callers.shutdown();
+                callers.awaitTermination(RUN_TIME.toSeconds() + 10, TimeUnit.SECONDS);
+            }
+            return Result.of(name, bulkLatencies, bulkBytes, lookupLatencies, stub.connectionCount());
+        }
+    }
+
+    private static Client okHttp(boolean gzip) {
+        TransportProperties properties = new TransportProperties(TransportProperties.Type.OKHTTP,
+                Duration.ofSeconds(2), Duration.ofSeconds(5), true, gzip,
+                new TransportProperties.Pool(64, 32, Duration.ofMinutes(1)));
+        return new feign.okhttp.OkHttpClient(new TransportConfig().platziHttpClient(properties, new SimpleMeterRegistry(),
+                new MockEnvironment()));
+    }
+
+    private record Result(String name, double bulkP50Micros, long bulkBytes, int lookups, double lookupP50Micros,
+                          double lookupP99Micros, long connections) {
+
+        static Result of(String name, List<Long> bulk, long bulkBytes, List<Long> lookups, long connections) {
+            List<Long> sortedBulk = sorted(bulk);
+            List<Long> sortedLookups = sorted(lookups);
+            return new Result(name, percentile(sortedBulk, 0.50), bulkBytes, sortedLookups.size(),
+                    percentile(sortedLookups, 0.50), percentile(sortedLookups, 0.99), connections);
+        }
+
+        private static List<Long> sorted(List<Long> latencies) {
+            List<Long> sorted = new ArrayList<>(latencies);
+            Collections.sort(sorted);
+            return sorted;
+        }
+
+        private static double percentile(List<Long> sorted, double percentile) {
+            return sorted.get((int) Math.min(sorted.size() - 1, Math.ceil(percentile * sorted.size()) - 1)) / 1_000.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-12s bulk p50=%.1fus bytes/call=%d | lookups=%d p50=%.1fus p99=%.1fus | connections=%d",
+                    name, bulkP50Micros, bulkBytes, lookups, lookupP50Micros, lookupP99Micros, connections);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package cardoso.commerce.app.client;
+
+import cardoso.commerce.app.client.response.PlatziProductResponse;
+import cardoso.commerce.app.config.TransportConfig;
+import cardoso.commerce.app.config.TransportProperties;
+import cardoso.commerce.app.exception.CustomErrorDecoder;
+import cardoso.commerce.app.support.PlatziStubServer;
+import feign.Client;
+import feign.Feign;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.cloud.openfeign.support.SpringDecoder;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Feign Transport Tests")
+class FeignTransportTest {
+
+    private static final HttpMessageConverters MESSAGE_CONVERTERS =
+            new HttpMessageConverters(new MappingJackson2HttpMessageConverter());
+
+    private PlatziStubServer stub;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        stub = new PlatziStubServer().catalogSize(200).gzip(true);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        stub.close();
+    }
+
+    @Test
+    @DisplayName("Should request and decode gzip responses")
+    void getAllProducts_ShouldDecodeGzipResponses() {
+        // Arrange
+        PlatziStoreClient gzipClient = client(properties(true));
+        PlatziStoreClient identityClient = client(properties(false));
+
+        // Act
+        List<PlatziProductResponse> products = gzipClient.getAllProducts();
+        long gzipBytes = stub.bytesSent();
+        identityClient.getAllProducts();
+        long identityBytes = stub.bytesSent() - gzipBytes;
+
+        // Assert
+        assertEquals(200, products.size());
+        assertEquals("Product 200", products.get(199).title());
+        assertTrue(gzipBytes * 3 < identityBytes, "gzip=" + gzipBytes + " identity=" + identityBytes);
+    }
+
+    @Test
+    @DisplayName("Should reuse pooled connections across calls")
+    void getProductById_ShouldReusePooledConnections() {
+        // Arrange
+        PlatziStoreClient client = client(properties(true));
+
+        // Act
+        for (long id = 1; id <= 50; id++) {
+            assertEquals(id, client.getProductById(id).id());
+        }
+
+        // Assert
+        assertEquals(50, stub.requestCount());
+        assertEquals(1, stub.connectionCount());
+        assertEquals(1.0, meterRegistry.get("platzi.http.pool.connection.count").tag("state", "idle").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should keep concurrent calls within the configured maximum of connections")
+    void getProductById_ShouldRespectMaxConnections() throws Exception {
+        // Arrange
+        stub.latency(Duration.ofMillis(200));
+        PlatziStoreClient client = client(properties(true, 2));
+
+        // Act
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<PlatziProductResponse>> calls = LongStream.rangeClosed(1, 6)
+                    .mapToObj(id -> executor.submit(() -> client.getProductById(id)))
+                    .toList();
+            for (Future<PlatziProductResponse> call : calls) {
+                assertNotNull(call.get());
+            }
+        }
+
+        // Assert
+        assertEquals(6, stub.requestCount());
+        assertEquals(2, stub.connectionCount());
+    }
+
+    private PlatziStoreClient client(TransportProperties properties) {
+        Client transport = new feign.okhttp.OkHttpClient(new TransportConfig().platziHttpClient(properties, meterRegistry,
+                new MockEnvironment()));
+        return Feign.builder()
+                .client(new DeadlineAwareFeignClient(transport))
+                .contract(new SpringMvcContract())
+                .decoder(new SpringDecoder(() -> MESSAGE_CONVERTERS))
+                .errorDecoder(new CustomErrorDecoder())
+                .target(PlatziStoreClient.class, stub.url());
+    }
+
+    private static TransportProperties properties(boolean gzip) {
+        return properties(gzip, 64);
+    }
+
+    private static TransportProperties properties(boolean gzip, int maxConnections) {
+        return new TransportProperties(TransportProperties.Type.OKHTTP, Duration.ofSeconds(2), Duration.ofSeconds(5),
+                true, gzip, new TransportProperties.Pool(maxConnections, 8, Duration.ofMinutes(1)));
+    }
+}
@@ -0,0 +1,90 @@
+package cardoso.commerce.app.client;
+
+import cardoso.commerce.app.client.resilience.ResilientCallExecutor;
+import cardoso.commerce.app.config.ResilienceProperties;
+import cardoso.commerce.app.exception.DataNotFoundException;
+import cardoso.commerce.app.exception.UpstreamServiceException;
+import cardoso.commerce.app.support.PlatziStubServer;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Reactive Platzi Store Client Tests")
+class ReactivePlatziStoreClientTest {
+
+    private PlatziStubServer stub;
+    private ExecutorService hedgeExecutor;
+    private SimpleMeterRegistry meterRegistry;
+    private ReactivePlatziStoreClient client;
+
+    @BeforeEach
+    void setUp() {
+        stub = new PlatziStubServer();
+        hedgeExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        meterRegistry = new SimpleMeterRegistry();
+
+        ResilienceProperties properties = new ResilienceProperties(Duration.ofSeconds(5), Duration.ofMillis(100),
+                new ResilienceProperties.CircuitBreaker(50, 20, 10, Duration.ofSeconds(30)),
+                new ResilienceProperties.Bulkhead(16, Duration.ofMillis(100)),
+                new ResilienceProperties.Retry(3, Duration.ofMillis(5), Duration.ofMillis(20), 0.2, 10, 100),
+                new ResilienceProperties.Hedge(false, 0.95, Duration.ofMillis(20), 64));
+        ResilientCallExecutor executor = new ResilientCallExecutor(CircuitBreaker.ofDefaults("platzi"),
+                Bulkhead.ofDefaults("platzi"), properties, hedgeExecutor, meterRegistry);
+        client = new ReactivePlatziStoreClient(WebClient.create(stub.url()), executor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        hedgeExecutor.close();
+        stub.close();
+    }
+
+    @Test
+    @DisplayName("Should retry transient upstream failures")
+    void getProductById_ShouldRetryTransientFailures() {
+        // Arrange
+        stub.failNext(2, 503);
+
+        // Act & Assert
+        StepVerifier.create(client.getProductById(1L))
+                .assertNext(product -> assertEquals(1L, product.id()))
+                .verifyComplete();
+        assertEquals(3, stub.requestCount());
+        assertEquals(2.0, meterRegistry.get("upstream.retries").tag("result", "attempted").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should map a missing product without retrying")
+    void getProductById_ShouldNotRetryNotFound() {
+        // Act & Assert
+        StepVerifier.create(client.getProductById(999L))
+                .expectError(DataNotFoundException.class)
+                .verify();
+        assertEquals(1, stub.requestCount());
+    }
+
+    @Test
+    @DisplayName("Should give up once the retry attempts are used")
+    void getAllProducts_ShouldFail_WhenUpstreamKeepsFailing() {
+        // Arrange
+        stub.errorRate(1.0, 500);
+
+        // Act & Assert
+        StepVerifier.create(client.getAllProducts())
+                .expectErrorSatisfies(error -> assertEquals(500, ((UpstreamServiceException) error).getStatus()))
+                .verify();
+        assertEquals(3, stub.requestCount());
+    }
+}
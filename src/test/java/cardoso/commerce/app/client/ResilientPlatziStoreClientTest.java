@@ -0,0 +1,212 @@
+package cardoso.commerce.app.client;
+
+import cardoso.commerce.app.client.resilience.RequestDeadline;
+import cardoso.commerce.app.client.resilience.ResilientCallExecutor;
+import cardoso.commerce.app.client.resilience.RetryBudget;
+import cardoso.commerce.app.client.response.PlatziProductResponse;
+import cardoso.commerce.app.config.ResilienceConfig;
+import cardoso.commerce.app.config.ResilienceProperties;
+import cardoso.commerce.app.exception.CustomErrorDecoder;
+import cardoso.commerce.app.exception.DataNotFoundException;
+import cardoso.commerce.app.support.PlatziStubServer;
+import feign.Client;
+import feign.Feign;
+import feign.Retryer;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.cloud.openfeign.support.SpringDecoder;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Resilient Platzi Store Client Tests")
+class ResilientPlatziStoreClientTest {
+
+    private static final HttpMessageConverters MESSAGE_CONVERTERS =
+            new HttpMessageConverters(new MappingJackson2HttpMessageConverter());
+
+    private PlatziStubServer stub;
+    private ExecutorService hedgeExecutor;
+    private SimpleMeterRegistry meterRegistry;
+    private CircuitBreaker circuitBreaker;
+    private Bulkhead bulkhead;
+    private PlatziStoreClient client;
+
+    @BeforeEach
+    void setUp() {
+        stub = new PlatziStubServer();
+        hedgeExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        meterRegistry = new SimpleMeterRegistry();
+
+        ResilienceProperties properties = new ResilienceProperties(Duration.ofSeconds(5), Duration.ofMillis(100),
+                new ResilienceProperties.CircuitBreaker(50, 20, 10, Duration.ofSeconds(30)),
+                new ResilienceProperties.Bulkhead(16, Duration.ofMillis(100)),
+                new ResilienceProperties.Retry(3, Duration.ofMillis(5), Duration.ofMillis(20), 0.2, 10, 100),
+                new ResilienceProperties.Hedge(true, 0.95, Duration.ofMillis(20), 64));
+        circuitBreaker = CircuitBreaker.of("platzi", ResilienceConfig.circuitBreakerConfig(properties.circuitBreaker()));
+        bulkhead = Bulkhead.of("platzi", BulkheadConfig.custom().maxConcurrentCalls(16).build());
+        ResilientCallExecutor executor = new ResilientCallExecutor(circuitBreaker, bulkhead, properties,
+                hedgeExecutor, meterRegistry);
+
+        PlatziStoreClient feignClient = Feign.builder()
+                .client(new DeadlineAwareFeignClient(new Client.Default(null, null)))
+                .retryer(Retryer.NEVER_RETRY)
+                .contract(new SpringMvcContract())
+                .decoder(new SpringDecoder(() -> MESSAGE_CONVERTERS))
+                .errorDecoder(new CustomErrorDecoder())
+                .target(PlatziStoreClient.class, stub.url());
+        client = new ResilientPlatziStoreClient(feignClient, executor, properties.hedge());
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestDeadline.clear();
+        hedgeExecutor.close();
+        stub.close();
+    }
+
+    @Test
+    @DisplayName("Should retry transient upstream failures")
+    void getProductById_ShouldRetryTransientFailures() {
+        // Arrange
+        stub.failNext(2, 503);
+
+        // Act
+        PlatziProductResponse product = client.getProductById(1L);
+
+        // Assert
+        assertEquals(1L, product.id());
+        assertEquals(3, stub.requestCount());
+        assertEquals(2.0, meterRegistry.get("upstream.retries").tag("result", "attempted").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should not retry a missing product")
+    void getProductById_ShouldNotRetryNotFound() {
+        // Act & Assert
+        assertThrows(DataNotFoundException.class, () -> client.getProductById(999L));
+        assertEquals(1, stub.requestCount());
+        assertEquals(0, circuitBreaker.getMetrics().getNumberOfFailedCalls());
+    }
+
+    @Test
+    @DisplayName("Should allow retries only while the budget has tokens")
+    void retryBudget_ShouldCapRetriesToRatioOfTraffic() {
+        // Arrange
+        RetryBudget budget = new RetryBudget(0.2, 2, 5);
+
+        // Act & Assert
+        assertTrue(budget.tryWithdraw());
+        assertTrue(budget.tryWithdraw());
+        assertFalse(budget.tryWithdraw());
+        for (int i = 0; i < 5; i++) {
+            budget.deposit();
+        }
+        assertTrue(budget.tryWithdraw());
+        assertFalse(budget.tryWithdraw());
+    }
+
+    @Test
+    @DisplayName("Should open the circuit and reject calls without reaching the upstream")
+    void getProductById_ShouldOpenCircuit_WhenUpstreamKeepsFailing() {
+        // Arrange
+        stub.errorRate(1.0, 500);
+        for (int i = 0; i < 10; i++) {
+            assertThrows(RuntimeException.class, () -> client.getProductById(1L));
+        }
+        long requestsBefore = stub.requestCount();
+
+        // Act & Assert
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertThrows(CallNotPermittedException.class, () -> client.getProductById(1L));
+        assertEquals(requestsBefore, stub.requestCount());
+    }
+
+    @Test
+    @DisplayName("Should hedge a lookup that is slower than the tracked p95")
+    void getProductById_ShouldHedgeSlowRequests() {
+        // Arrange
+        for (int i = 0; i < 64; i++) {
+            client.getProductById(1L);
+        }
+        stub.slowNext(1, Duration.ofSeconds(2));
+
+        // Act
+        long start = System.nanoTime();
+        PlatziProductResponse product = client.getProductById(2L);
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        // Assert
+        assertEquals(2L, product.id());
+        assertTrue(elapsed.compareTo(Duration.ofSeconds(1)) < 0, "hedge did not win: " + elapsed);
+        assertEquals(1.0, meterRegistry.get("upstream.hedges").tag("result", "won").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should interrupt the losing hedge attempt and release its bulkhead permit")
+    void getProductById_ShouldReleaseLosingHedgeAttempt() throws InterruptedException {
+        // Arrange
+        for (int i = 0; i < 64; i++) {
+            client.getProductById(1L);
+        }
+        stub.slowNext(1, Duration.ofSeconds(3));
+
+        // Act
+        client.getProductById(2L);
+        long released = System.nanoTime() + Duration.ofSeconds(1).toNanos();
+        while (bulkhead.getMetrics().getAvailableConcurrentCalls() < 16 && System.nanoTime() < released) {
+            Thread.sleep(10);
+        }
+
+        // Assert
+        assertEquals(16, bulkhead.getMetrics().getAvailableConcurrentCalls());
+        assertEquals(0, circuitBreaker.getMetrics().getNumberOfFailedCalls());
+    }
+
+    @Test
+    @DisplayName("Should give up when the request deadline passes")
+    void getProductById_ShouldRespectRequestDeadline() {
+        // Arrange
+        stub.latency(Duration.ofSeconds(2));
+        RequestDeadline.set(System.nanoTime() + Duration.ofMillis(200).toNanos());
+
+        // Act
+        long start = System.nanoTime();
+        assertThrows(RuntimeException.class, () -> client.getProductById(1L));
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        // Assert
+        assertTrue(elapsed.compareTo(Duration.ofSeconds(1)) < 0, "deadline was not enforced: " + elapsed);
+    }
+
+    @Test
+    @DisplayName("Should not open the circuit when calls fail on the caller's short deadline")
+    void getProductById_ShouldKeepCircuitClosed_WhenCallerDeadlinesAreShort() {
+        // Arrange
+        stub.latency(Duration.ofMillis(500));
+
+        // Act
+        for (int i = 0; i < 15; i++) {
+            RequestDeadline.set(System.nanoTime() + Duration.ofMillis(30).toNanos());
+            assertThrows(RuntimeException.class, () -> client.getProductById(1L));
+        }
+        RequestDeadline.clear();
+
+        // Assert
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertEquals(0, circuitBreaker.getMetrics().getNumberOfFailedCalls());
+    }
+}
@@ -0,0 +1,151 @@
+package cardoso.commerce.app.controller;
+
+import cardoso.commerce.app.client.response.PlatziProductResponse;
+import cardoso.commerce.app.repository.BasketRepository;
+import cardoso.commerce.app.service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+/**
+ * Imports the same baskets once through single {@code POST /basket} calls and once through
+ * {@code POST /basket/batch}, with 16 concurrent importers each, and compares operations per second.
+ * Product lookups answer immediately so the comparison is about HTTP round trips and MongoDB writes.
+ * Needs Docker; run with {@code mvn -Pbenchmark test}.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("Basket Batch Benchmark")
+class BasketBatchBenchmarkTest {
+
+    private static final int BASKETS = 20_000;
+    private static final int BATCH_SIZE = 500;
+    private static final int IMPORTERS = 16;
+
+    @Container
+    @ServiceConnection
+    static MongoDBContainer mongo = new MongoDBContainer("mongo:7.0");
+
+    @Value("${local.server.port}")
+    private int port;
+
+    @Autowired
+    private BasketRepository basketRepository;
+
+    @MockitoBean
+    private ProductService productService;
+
+    @BeforeEach
+    void setUp() {
+        when(productService.getProductById(anyLong())).thenAnswer(invocation -> PlatziProductResponse.builder()
+                .id(invocation.getArgument(0))
+                .title("Product " + invocation.getArgument(0))
+                .price(BigDecimal.TEN)
+                .build());
+    }
+
+    @Test
+    void compareSingleCallsWithBatch() throws Exception {
+        try (HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build()) {
+            // warm up both paths on clients that are not measured
+            run("warm-up", httpClient, BASKETS / 10, 1, 0);
+            run("warm-up", httpClient, BASKETS / 10, BATCH_SIZE, 0);
+
+            Result single = run("single-calls", httpClient, BASKETS, 1, 1_000_000);
+            Result batch = run("batch", httpClient, BASKETS, BATCH_SIZE, 2_000_000);
+
+            System.out.println(single);
+            System.out.println(batch);
+            assertEquals(0, single.errors());
+            assertEquals(0, batch.errors());
+            assertTrue(batch.operationsPerSecond() > single.operationsPerSecond());
+        }
+    }
+
+    private Result run(String name, HttpClient httpClient, int baskets, int batchSize, long firstClientId) throws Exception {
+        basketRepository.deleteAll();
+        AtomicLong errors = new AtomicLong();
+        int requests = baskets / batchSize;
+        long start = System.nanoTime();
+        try (ExecutorService importers = Executors.newFixedThreadPool(IMPORTERS)) {
+            for (int i = 0; i < requests; i++) {
+                long clientId = firstClientId + (long) i * batchSize;
+                importers.submit(() -> {
+                    HttpResponse<String> response = httpClient.send(request(clientId, batchSize), HttpResponse.BodyHandlers.ofString());
+                    boolean ok = batchSize == 1
+                            ? response.statusCode() == 201
+                            : response.statusCode() == 200 && !response.body().contains("\"error\":\"");
+                    if (!ok) {
+                        errors.incrementAndGet();
+                    }
+                    return null;
+                });
+            }
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        assertEquals(baskets, basketRepository.count());
+        return new Result(name, baskets, elapsed, errors.get());
+    }
+
+    private HttpRequest request(long firstClientId, int batchSize) {
+        String path = batchSize == 1 ? "/basket" : "/basket/batch";
+        String body = batchSize == 1
+                ? basketJson(firstClientId)
+                : IntStream.range(0, batchSize)
+                        .mapToObj(i -> basketJson(firstClientId + i))
+                        .collect(Collectors.joining(",", "{\"operations\":[", "]}"));
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static String basketJson(long clientId) {
+        List<String> products = List.of(
+                "{\"productId\":" + (clientId % 50 + 1) + ",\"quantity\":2}",
+                "{\"productId\":" + (clientId % 7 + 1) + ",\"quantity\":1}");
+        return "{\"clientId\":" + clientId + ",\"products\":[" + String.join(",", products) + "]}";
+    }
+
+    private record Result(String name, int operations, Duration elapsed, long errors) {
+
+        double operationsPerSecond() {
+            return operations * 1_000_000_000.0 / elapsed.toNanos();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-14s operations=%d elapsed=%dms throughput=%.0f ops/s errors=%d",
+                    name, operations, elapsed.toMillis(), operationsPerSecond(), errors);
+        }
+    }
+}
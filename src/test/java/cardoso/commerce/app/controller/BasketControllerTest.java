@@ -1,9 +1,20 @@
 package cardoso.commerce.app.controller;
 
+import cardoso.commerce.app.controller.request.BasketBatchOperation;
+import cardoso.commerce.app.controller.request.BasketBatchRequest;
 import cardoso.commerce.app.controller.request.BasketRequest;
 import cardoso.commerce.app.controller.request.PaymentRequest;
 import cardoso.commerce.app.controller.request.ProductRequest;
+import cardoso.commerce.app.controller.response.BasketBatchResponse;
+import cardoso.commerce.app.controller.response.BasketBatchResult;
 import cardoso.commerce.app.entity.Basket;
+import cardoso.commerce.app.entity.PaymentMethod;
+import cardoso.commerce.app.entity.Status;
+import cardoso.commerce.app.exception.BusinessesException;
+import cardoso.commerce.app.exception.PreconditionFailedException;
+import cardoso.commerce.app.repository.BasketExportFilter;
+import cardoso.commerce.app.service.BasketBatchService;
+import cardoso.commerce.app.service.BasketExportService;
 import cardoso.commerce.app.service.BasketService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -12,9 +23,18 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.async.StandardServletAsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncManager;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.ConstraintViolationException;
+import java.io.ByteArrayOutputStream;
+import java.time.Duration;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -25,6 +45,12 @@ class BasketControllerTest {
     @Mock
     private BasketService basketService;
 
+    @Mock
+    private BasketBatchService basketBatchService;
+
+    @Mock
+    private BasketExportService basketExportService;
+
     @InjectMocks
     private BasketController basketController;
 
@@ -36,7 +62,7 @@ class BasketControllerTest {
         when(basketService.getBasketById(basketId)).thenReturn(expectedBasket);
 
         // Act
-        ResponseEntity<Basket> response = basketController.getBasketById(basketId);
+        ResponseEntity<Basket> response = basketController.getBasketById(basketId, null);
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -44,6 +70,102 @@ class BasketControllerTest {
         verify(basketService).getBasketById(basketId);
     }
 
+    @Test
+    void getBasketById_ShouldReturnNotModified_WhenVersionMatches() {
+        // Arrange
+        String basketId = "basket-1";
+        when(basketService.getBasketVersion(basketId)).thenReturn(3L);
+
+        // Act
+        ResponseEntity<Basket> response = basketController.getBasketById(basketId, "\"2\", W/\"3\"");
+
+        // Assert
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals("\"3\"", response.getHeaders().getETag());
+        assertNull(response.getBody());
+        verify(basketService, never()).getBasketById(basketId);
+    }
+
+    @Test
+    void getBasketById_ShouldReturnNotModified_WhenUnversionedBasketIsRevalidated() {
+        // Arrange
+        String basketId = "basket-1";
+        Basket legacy = Basket.builder().id(basketId).build();
+        when(basketService.getBasketById(basketId)).thenReturn(legacy);
+        when(basketService.getBasketVersion(basketId)).thenReturn(0L);
+        String etag = basketController.getBasketById(basketId, null).getHeaders().getETag();
+
+        // Act
+        ResponseEntity<Basket> response = basketController.getBasketById(basketId, etag);
+
+        // Assert
+        assertEquals("\"0\"", etag);
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        verify(basketService, times(1)).getBasketById(basketId);
+    }
+
+    @Test
+    void getBasketById_ShouldReturnBasket_WhenVersionChanged() {
+        // Arrange
+        String basketId = "basket-1";
+        Basket basket = Basket.builder().id(basketId).version(4L).build();
+        when(basketService.getBasketVersion(basketId)).thenReturn(4L);
+        when(basketService.getBasketById(basketId)).thenReturn(basket);
+
+        // Act
+        ResponseEntity<Basket> response = basketController.getBasketById(basketId, "\"3\"");
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("\"4\"", response.getHeaders().getETag());
+        assertSame(basket, response.getBody());
+    }
+
+    @Test
+    void exportBaskets_ShouldStreamNdjson() throws Exception {
+        // Arrange
+        BasketExportFilter filter = new BasketExportFilter(Status.SOLD, PaymentMethod.PIX, "66f1a2b3c4d5e6f7a8b9c0d1", null);
+
+        // Act
+        when(basketExportService.timeout()).thenReturn(Duration.ofHours(2));
+        ResponseEntity<StreamingResponseBody> response = basketController.exportBaskets(
+                Status.SOLD, PaymentMethod.PIX, "66f1a2b3c4d5e6f7a8b9c0d1", null, new MockHttpServletRequest());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(BasketExportService.NDJSON, response.getHeaders().getContentType().toString());
+        verify(basketExportService).export(filter, out);
+    }
+
+    @Test
+    void exportBaskets_ShouldStreamWithItsOwnAsyncTimeout() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAsyncSupported(true);
+        StandardServletAsyncWebRequest asyncWebRequest = new StandardServletAsyncWebRequest(request, new MockHttpServletResponse());
+        asyncWebRequest.setTimeout(30_000L);
+        WebAsyncManager asyncManager = WebAsyncUtils.getAsyncManager(request);
+        asyncManager.setAsyncWebRequest(asyncWebRequest);
+        when(basketExportService.timeout()).thenReturn(Duration.ofHours(2));
+
+        // Act
+        basketController.exportBaskets(Status.SOLD, null, null, null, request);
+        asyncManager.startCallableProcessing(() -> null);
+
+        // Assert
+        assertEquals(Duration.ofHours(2).toMillis(), request.getAsyncContext().getTimeout());
+    }
+
+    @Test
+    void exportBaskets_ShouldRejectInvalidResumeId() {
+        // Act & Assert
+        assertThrows(BusinessesException.class,
+                () -> basketController.exportBaskets(Status.SOLD, null, "not-an-id", null, new MockHttpServletRequest()));
+        verifyNoInteractions(basketExportService);
+    }
+
     @Test
     void getBasketById_ShouldThrowException_WhenServiceThrowsException() {
         // Arrange
@@ -51,7 +173,7 @@ class BasketControllerTest {
         when(basketService.getBasketById(basketId)).thenThrow(new RuntimeException("Not Found"));
 
         // Act & Assert
-        assertThrows(RuntimeException.class, () -> basketController.getBasketById(basketId));
+        assertThrows(RuntimeException.class, () -> basketController.getBasketById(basketId, null));
         verify(basketService).getBasketById(basketId);
     }
 
@@ -92,6 +214,26 @@ class BasketControllerTest {
         verify(basketService).createBasket(invalidRequest);
     }
 
+    @Test
+    void applyBatch_ShouldReturnResultPerOperation() {
+        // Arrange
+        List<BasketBatchOperation> operations = List.of(
+                new BasketBatchOperation(null, 12345L, List.of(new ProductRequest(1L, 2))),
+                new BasketBatchOperation("missing", null, List.of(new ProductRequest(1L, 1))));
+        List<BasketBatchResult> results = List.of(
+                BasketBatchResult.applied(0, 201, new Basket()),
+                BasketBatchResult.failed(1, 404, "missing", "Basket not found with id: missing"));
+        when(basketBatchService.apply(operations)).thenReturn(results);
+
+        // Act
+        ResponseEntity<BasketBatchResponse> response = basketController.applyBatch(new BasketBatchRequest(operations));
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(results, response.getBody().results());
+        verify(basketBatchService).apply(operations);
+    }
+
     @Test
     void updateBasket_ShouldReturnUpdatedBasket_WhenRequestIsValid() {
         // Arrange
@@ -101,15 +243,29 @@ class BasketControllerTest {
         BasketRequest request = new BasketRequest(12345L, products);
 
         Basket updatedBasket = new Basket();
-        when(basketService.updateBasket(basketId, request)).thenReturn(updatedBasket);
+        when(basketService.updateBasket(basketId, request, null)).thenReturn(updatedBasket);
 
         // Act
-        ResponseEntity<Basket> response = basketController.updateBasket(basketId, request);
+        ResponseEntity<Basket> response = basketController.updateBasket(basketId, null, request);
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertSame(updatedBasket, response.getBody());
-        verify(basketService).updateBasket(basketId, request);
+        verify(basketService).updateBasket(basketId, request, null);
+    }
+
+    @Test
+    void updateBasket_ShouldRequireVersionsFromIfMatch() {
+        // Arrange
+        String basketId = "basket-1";
+        BasketRequest request = new BasketRequest(12345L, List.of(new ProductRequest(1L, 2)));
+        when(basketService.updateBasket(basketId, request, Set.of(3L)))
+                .thenThrow(new PreconditionFailedException("Basket basket-1 is at version 4"));
+
+        // Act & Assert
+        assertThrows(PreconditionFailedException.class,
+                () -> basketController.updateBasket(basketId, "\"3\", W/\"4\", \"other\"", request));
+        verify(basketService).updateBasket(basketId, request, Set.of(3L));
     }
 
     @Test
@@ -121,13 +277,13 @@ class BasketControllerTest {
         );
         BasketRequest request = new BasketRequest(12345L, products);
 
-        when(basketService.updateBasket(nonExistentId, request))
+        when(basketService.updateBasket(nonExistentId, request, null))
                 .thenThrow(new RuntimeException("Basket not found"));
 
         // Act & Assert
         assertThrows(RuntimeException.class,
-                () -> basketController.updateBasket(nonExistentId, request));
-        verify(basketService).updateBasket(nonExistentId, request);
+                () -> basketController.updateBasket(nonExistentId, null, request));
+        verify(basketService).updateBasket(nonExistentId, request, null);
     }
 
     @Test
@@ -136,15 +292,32 @@ class BasketControllerTest {
         String basketId = "basket-1";
         PaymentRequest request = mock(PaymentRequest.class);
         Basket paidBasket = new Basket();
-        when(basketService.updatePaymentMethod(basketId, request)).thenReturn(paidBasket);
+        when(basketService.updatePaymentMethod(basketId, request, null)).thenReturn(paidBasket);
+
+        // Act
+        ResponseEntity<Basket> response = basketController.payBasket(basketId, null, request);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertSame(paidBasket, response.getBody());
+        verify(basketService).updatePaymentMethod(basketId, request, null);
+    }
+
+    @Test
+    void payBasket_ShouldPassIdempotencyKey_WhenHeaderIsPresent() {
+        // Arrange
+        String basketId = "basket-1";
+        PaymentRequest request = mock(PaymentRequest.class);
+        Basket paidBasket = new Basket();
+        when(basketService.updatePaymentMethod(basketId, request, "key-1")).thenReturn(paidBasket);
 
         // Act
-        ResponseEntity<Basket> response = basketController.payBasket(basketId, request);
+        ResponseEntity<Basket> response = basketController.payBasket(basketId, "key-1", request);
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertSame(paidBasket, response.getBody());
-        verify(basketService).updatePaymentMethod(basketId, request);
+        verify(basketService).updatePaymentMethod(basketId, request, "key-1");
     }
 
     @Test
@@ -152,13 +325,13 @@ class BasketControllerTest {
         // Arrange
         String basketId = "basket-1";
         PaymentRequest request = mock(PaymentRequest.class);
-        when(basketService.updatePaymentMethod(basketId, request))
+        when(basketService.updatePaymentMethod(basketId, request, null))
                 .thenThrow(new RuntimeException("Payment failed"));
 
         // Act & Assert
         assertThrows(RuntimeException.class,
-                () -> basketController.payBasket(basketId, request));
-        verify(basketService).updatePaymentMethod(basketId, request);
+                () -> basketController.payBasket(basketId, null, request));
+        verify(basketService).updatePaymentMethod(basketId, request, null);
     }
 
     @Test
@@ -1,5 +1,9 @@
 package cardoso.commerce.app.controller;
 
+import cardoso.commerce.app.catalog.CatalogPage;
+import cardoso.commerce.app.catalog.CatalogPageRequest;
+import cardoso.commerce.app.catalog.CatalogPages;
+import cardoso.commerce.app.catalog.CatalogSnapshot;
 import cardoso.commerce.app.client.response.PlatziProductResponse;
 import cardoso.commerce.app.service.ProductService;
 import org.junit.jupiter.api.BeforeEach;
@@ -9,14 +13,21 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.Collections;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -26,6 +37,9 @@ class ProductControllerTest {
     @Mock
     private ProductService productService;
 
+    @Mock
+    private CatalogPages catalogPages;
+
     @InjectMocks
     private ProductController productController;
 
@@ -157,4 +171,51 @@ class ProductControllerTest {
         // Optional: make sure no other interactions happened
         verifyNoMoreInteractions(productService);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should answer 304 without rendering the page when the catalog is unchanged")
+    void getCatalogPage_ShouldReturnNotModified_WhenEtagMatches() {
+        // Arrange
+        CatalogPageRequest request = new CatalogPageRequest(null, 50, List.of("id"));
+        CatalogSnapshot catalog = CatalogSnapshot.of(mockProducts, Instant.now());
+        when(catalogPages.request(null, null, "id")).thenReturn(request);
+        when(productService.getCatalog()).thenReturn(catalog);
+        when(catalogPages.etag(catalog)).thenReturn("\"abc\"");
+        MockHttpServletRequest httpRequest = new MockHttpServletRequest("GET", "/products/catalog");
+        httpRequest.addHeader(HttpHeaders.IF_NONE_MATCH, "\"abc\"");
+
+        // Act
+        ResponseEntity<byte[]> response = productController.getCatalogPage(null, null, "id",
+                new ServletWebRequest(httpRequest, new MockHttpServletResponse()));
+
+        // Assert
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals("\"abc\"", response.getHeaders().getETag());
+        assertNull(response.getBody());
+        verify(catalogPages, never()).page(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should return the cached page bytes with the catalog ETag")
+    void getCatalogPage_ShouldReturnPage_WhenEtagDiffers() {
+        // Arrange
+        CatalogPageRequest request = new CatalogPageRequest(null, 50, List.of("id"));
+        CatalogSnapshot catalog = CatalogSnapshot.of(mockProducts, Instant.now());
+        byte[] body = "{\"items\":[],\"nextAfterId\":null}".getBytes(StandardCharsets.UTF_8);
+        when(catalogPages.request(null, null, "id")).thenReturn(request);
+        when(productService.getCatalog()).thenReturn(catalog);
+        when(catalogPages.etag(catalog)).thenReturn("\"abc\"");
+        when(catalogPages.page(catalog, request)).thenReturn(new CatalogPage(body, "\"abc\""));
+        MockHttpServletRequest httpRequest = new MockHttpServletRequest("GET", "/products/catalog");
+        httpRequest.addHeader(HttpHeaders.IF_NONE_MATCH, "\"old\"");
+
+        // Act
+        ResponseEntity<byte[]> response = productController.getCatalogPage(null, null, "id",
+                new ServletWebRequest(httpRequest, new MockHttpServletResponse()));
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("\"abc\"", response.getHeaders().getETag());
+        assertSame(body, response.getBody());
+    }
+}
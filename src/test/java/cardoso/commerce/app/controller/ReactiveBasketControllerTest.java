@@ -0,0 +1,197 @@
+package cardoso.commerce.app.controller;
+
+import cardoso.commerce.app.controller.request.BasketRequest;
+import cardoso.commerce.app.controller.request.PaymentRequest;
+import cardoso.commerce.app.controller.request.ProductRequest;
+import cardoso.commerce.app.entity.Basket;
+import cardoso.commerce.app.entity.PaymentMethod;
+import cardoso.commerce.app.entity.Status;
+import cardoso.commerce.app.exception.DataNotFoundException;
+import cardoso.commerce.app.repository.BasketExportFilter;
+import cardoso.commerce.app.service.ReactiveBasketService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Reactive Basket Controller Unit Tests")
+class ReactiveBasketControllerTest {
+
+    @Mock
+    private ReactiveBasketService basketService;
+
+    @InjectMocks
+    private ReactiveBasketController basketController;
+
+    @Test
+    void getBasketById_ShouldReturnBasket_WhenExists() {
+        // Arrange
+        String basketId = "basket-1";
+        Basket expectedBasket = new Basket();
+        when(basketService.getBasketById(basketId)).thenReturn(Mono.just(expectedBasket));
+
+        // Act & Assert
+        StepVerifier.create(basketController.getBasketById(basketId, null))
+                .assertNext(response -> {
+                    assertEquals(HttpStatus.OK, response.getStatusCode());
+                    assertSame(expectedBasket, response.getBody());
+                })
+                .verifyComplete();
+        verify(basketService).getBasketById(basketId);
+    }
+
+    @Test
+    void getBasketById_ShouldReturnNotModified_WhenVersionMatches() {
+        // Arrange
+        String basketId = "basket-1";
+        when(basketService.getBasketVersion(basketId)).thenReturn(Mono.just(3L));
+        when(basketService.getBasketById(basketId)).thenReturn(Mono.error(new AssertionError("basket loaded")));
+
+        // Act & Assert
+        StepVerifier.create(basketController.getBasketById(basketId, "\"3\""))
+                .assertNext(response -> {
+                    assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+                    assertEquals("\"3\"", response.getHeaders().getETag());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void getBasketById_ShouldReturnNotModified_WhenUnversionedBasketIsRevalidated() {
+        // Arrange
+        String basketId = "basket-1";
+        when(basketService.getBasketById(basketId)).thenReturn(Mono.just(Basket.builder().id(basketId).build()));
+        when(basketService.getBasketVersion(basketId)).thenReturn(Mono.just(0L));
+        String etag = basketController.getBasketById(basketId, null).block().getHeaders().getETag();
+
+        // Act & Assert
+        assertEquals("\"0\"", etag);
+        StepVerifier.create(basketController.getBasketById(basketId, etag))
+                .assertNext(response -> assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode()))
+                .verifyComplete();
+    }
+
+    @Test
+    void getBasketById_ShouldError_WhenServiceErrors() {
+        // Arrange
+        String basketId = "invalid-id";
+        when(basketService.getBasketById(basketId)).thenReturn(Mono.error(new DataNotFoundException("Not Found")));
+
+        // Act & Assert
+        StepVerifier.create(basketController.getBasketById(basketId, null))
+                .expectError(DataNotFoundException.class)
+                .verify();
+        verify(basketService).getBasketById(basketId);
+    }
+
+    @Test
+    void createBasket_ShouldReturnCreatedBasket_WhenRequestIsValid() {
+        // Arrange
+        BasketRequest request = new BasketRequest(12345L, List.of(new ProductRequest(1L, 2)));
+        Basket createdBasket = new Basket();
+        when(basketService.createBasket(request)).thenReturn(Mono.just(createdBasket));
+
+        // Act & Assert
+        StepVerifier.create(basketController.createBasket(request))
+                .assertNext(response -> {
+                    assertEquals(HttpStatus.CREATED, response.getStatusCode());
+                    assertSame(createdBasket, response.getBody());
+                })
+                .verifyComplete();
+        verify(basketService).createBasket(request);
+    }
+
+    @Test
+    void updateBasket_ShouldReturnUpdatedBasket_WhenRequestIsValid() {
+        // Arrange
+        String basketId = "basket-1";
+        BasketRequest request = new BasketRequest(12345L, List.of(new ProductRequest(1L, 2)));
+        Basket updatedBasket = new Basket();
+        when(basketService.updateBasket(basketId, request, null)).thenReturn(Mono.just(updatedBasket));
+
+        // Act & Assert
+        StepVerifier.create(basketController.updateBasket(basketId, null, request))
+                .assertNext(response -> {
+                    assertEquals(HttpStatus.OK, response.getStatusCode());
+                    assertSame(updatedBasket, response.getBody());
+                })
+                .verifyComplete();
+        verify(basketService).updateBasket(basketId, request, null);
+    }
+
+    @Test
+    void payBasket_ShouldReturnBasketWithPayment_WhenRequestIsValid() {
+        // Arrange
+        String basketId = "basket-1";
+        PaymentRequest request = mock(PaymentRequest.class);
+        Basket paidBasket = new Basket();
+        when(basketService.updatePaymentMethod(basketId, request, null)).thenReturn(Mono.just(paidBasket));
+
+        // Act & Assert
+        StepVerifier.create(basketController.payBasket(basketId, null, request))
+                .assertNext(response -> {
+                    assertEquals(HttpStatus.OK, response.getStatusCode());
+                    assertSame(paidBasket, response.getBody());
+                })
+                .verifyComplete();
+        verify(basketService).updatePaymentMethod(basketId, request, null);
+    }
+
+    @Test
+    void payBasket_ShouldPassIdempotencyKey_WhenHeaderIsPresent() {
+        // Arrange
+        String basketId = "basket-1";
+        PaymentRequest request = mock(PaymentRequest.class);
+        Basket paidBasket = new Basket();
+        when(basketService.updatePaymentMethod(basketId, request, "key-1")).thenReturn(Mono.just(paidBasket));
+
+        // Act & Assert
+        StepVerifier.create(basketController.payBasket(basketId, "key-1", request))
+                .assertNext(response -> assertSame(paidBasket, response.getBody()))
+                .verifyComplete();
+        verify(basketService).updatePaymentMethod(basketId, request, "key-1");
+    }
+
+    @Test
+    void deleteBasket_ShouldReturnNoContent_WhenBasketExists() {
+        // Arrange
+        String basketId = "basket-1";
+        when(basketService.deleteBasket(basketId)).thenReturn(Mono.empty());
+
+        // Act & Assert
+        StepVerifier.create(basketController.deleteBasket(basketId))
+                .assertNext(response -> {
+                    assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+                    assertNull(response.getBody());
+                })
+                .verifyComplete();
+        verify(basketService).deleteBasket(basketId);
+    }
+
+    @Test
+    void exportBaskets_ShouldStreamExportLines() {
+        // Arrange
+        BasketExportFilter filter = new BasketExportFilter(Status.SOLD, PaymentMethod.PIX, null, null);
+        byte[] line = "{\"id\":\"basket-1\"}\n".getBytes(StandardCharsets.UTF_8);
+        when(basketService.exportBaskets(filter)).thenReturn(Flux.just(line));
+
+        // Act & Assert
+        StepVerifier.create(basketController.exportBaskets(Status.SOLD, PaymentMethod.PIX, null, null))
+                .expectNext(line)
+                .verifyComplete();
+        verify(basketService).exportBaskets(filter);
+    }
+}
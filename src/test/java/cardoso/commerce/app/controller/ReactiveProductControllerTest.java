@@ -0,0 +1,85 @@
+package cardoso.commerce.app.controller;
+
+import cardoso.commerce.app.client.response.PlatziProductResponse;
+import cardoso.commerce.app.exception.DataNotFoundException;
+import cardoso.commerce.app.service.ReactiveProductService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Reactive Product Controller Unit Tests")
+class ReactiveProductControllerTest {
+
+    @Mock
+    private ReactiveProductService productService;
+
+    @InjectMocks
+    private ReactiveProductController productController;
+
+    @Test
+    @DisplayName("Should return all products successfully")
+    void getAllProducts_ShouldReturnAllProducts() {
+        // Arrange
+        List<PlatziProductResponse> products = List.of(product(1L), product(2L));
+        when(productService.getAllProducts()).thenReturn(Mono.just(products));
+
+        // Act & Assert
+        StepVerifier.create(productController.getAllProducts())
+                .assertNext(response -> {
+                    assertEquals(HttpStatus.OK, response.getStatusCode());
+                    assertEquals(products, response.getBody());
+                })
+                .verifyComplete();
+        verify(productService).getAllProducts();
+    }
+
+    @Test
+    @DisplayName("Should return product by ID successfully")
+    void getProductById_ShouldReturnProduct_WhenValidId() {
+        // Arrange
+        PlatziProductResponse product = product(1L);
+        when(productService.getProductById(1L)).thenReturn(Mono.just(product));
+
+        // Act & Assert
+        StepVerifier.create(productController.getProductById(1L))
+                .assertNext(response -> {
+                    assertEquals(HttpStatus.OK, response.getStatusCode());
+                    assertEquals(product, response.getBody());
+                })
+                .verifyComplete();
+        verify(productService).getProductById(1L);
+    }
+
+    @Test
+    @DisplayName("Should propagate a missing product")
+    void getProductById_ShouldError_WhenProductDoesNotExist() {
+        // Arrange
+        when(productService.getProductById(99L)).thenReturn(Mono.error(new DataNotFoundException("Product not found")));
+
+        // Act & Assert
+        StepVerifier.create(productController.getProductById(99L))
+                .expectError(DataNotFoundException.class)
+                .verify();
+    }
+
+    private static PlatziProductResponse product(Long id) {
+        return PlatziProductResponse.builder()
+                .id(id)
+                .title("Product " + id)
+                .price(BigDecimal.valueOf(99.99))
+                .build();
+    }
+}
@@ -0,0 +1,102 @@
+package cardoso.commerce.app.diagnostics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Server Timing Tests")
+class ServerTimingTest {
+
+    @AfterEach
+    void tearDown() {
+        ServerTiming.clear();
+    }
+
+    @Test
+    @DisplayName("Should ignore timings recorded outside a request")
+    void record_ShouldDoNothingWithoutRequest() {
+        // Act & Assert
+        assertDoesNotThrow(() -> ServerTiming.record(ServerTiming.Phase.MONGO_READ, System.nanoTime()));
+        assertEquals("total;dur=1.500", ServerTiming.start().header(1_500_000));
+    }
+
+    @Test
+    @DisplayName("Should format the recorded phases as a Server-Timing header")
+    void header_ShouldListRecordedPhases() {
+        // Arrange
+        ServerTiming timing = ServerTiming.start();
+        long now = System.nanoTime();
+
+        // Act
+        ServerTiming.record(ServerTiming.Phase.MONGO_READ, now - 2_500_000);
+        ServerTiming.record(ServerTiming.Phase.MONGO_READ, now - 1_000_000);
+
+        // Assert
+        assertEquals(2, timing.count(ServerTiming.Phase.MONGO_READ));
+        assertTrue(timing.nanos(ServerTiming.Phase.MONGO_READ) >= 3_500_000);
+        assertTrue(timing.header(12_034_000).matches(
+                "mongo-read;dur=3\\.\\d{3};desc=\"MongoDB reads \\(2\\)\", total;dur=12\\.034"), timing.header(12_034_000));
+    }
+
+    @Test
+    @DisplayName("Should move the time of a nested upstream call out of the cache lookup")
+    void move_ShouldNotCountNestedTimeTwice() {
+        // Arrange
+        ServerTiming timing = ServerTiming.start();
+        long lookupStart = System.nanoTime() - 5_000_000;
+        long upstreamStart = System.nanoTime() - 4_000_000;
+
+        // Act
+        ServerTiming.move(ServerTiming.Phase.PRODUCT_CACHE, ServerTiming.Phase.PRODUCT_UPSTREAM, upstreamStart);
+        ServerTiming.record(ServerTiming.Phase.PRODUCT_CACHE, lookupStart);
+
+        // Assert
+        long cache = timing.nanos(ServerTiming.Phase.PRODUCT_CACHE);
+        assertTrue(cache >= 0 && cache < 4_000_000, String.valueOf(cache));
+        assertTrue(timing.nanos(ServerTiming.Phase.PRODUCT_UPSTREAM) >= 4_000_000);
+        assertEquals(1, timing.count(ServerTiming.Phase.PRODUCT_CACHE));
+        assertEquals(1, timing.count(ServerTiming.Phase.PRODUCT_UPSTREAM));
+    }
+
+    @Test
+    @DisplayName("Should record work handed to virtual threads in the request's timing")
+    void wrap_ShouldCarryTimingToOtherThreads() throws Exception {
+        // Arrange
+        ServerTiming timing = ServerTiming.start();
+
+        // Act
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<?> wrapped = executor.submit(ServerTiming.wrap(() -> {
+                ServerTiming.record(ServerTiming.Phase.HOT_STORE, System.nanoTime());
+                return null;
+            }));
+            wrapped.get(5, TimeUnit.SECONDS);
+            ServerTiming.clear();
+            executor.submit(ServerTiming.wrap(() -> {
+                ServerTiming.record(ServerTiming.Phase.HOT_STORE, System.nanoTime());
+                return null;
+            })).get(5, TimeUnit.SECONDS);
+        }
+
+        // Assert
+        assertEquals(1, timing.count(ServerTiming.Phase.HOT_STORE));
+    }
+
+    @Test
+    @DisplayName("Should classify MongoDB commands as reads or writes")
+    void commandListener_ShouldClassifyCommands() {
+        // Act & Assert
+        assertEquals(ServerTiming.Phase.MONGO_READ, ServerTimingCommandListener.phase("find"));
+        assertEquals(ServerTiming.Phase.MONGO_READ, ServerTimingCommandListener.phase("aggregate"));
+        assertEquals(ServerTiming.Phase.MONGO_WRITE, ServerTimingCommandListener.phase("findAndModify"));
+        assertEquals(ServerTiming.Phase.MONGO_WRITE, ServerTimingCommandListener.phase("update"));
+        assertNull(ServerTimingCommandListener.phase("hello"));
+    }
+}
@@ -0,0 +1,98 @@
+package cardoso.commerce.app.diagnostics;
+
+import cardoso.commerce.app.config.PinningMonitorProperties;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Virtual Thread Pinning Monitor Tests")
+class VirtualThreadPinningMonitorTest {
+
+    private static final Object MONITOR = new Object();
+    private static final ReentrantLock LOCK = new ReentrantLock();
+
+    private SimpleMeterRegistry meterRegistry;
+    private VirtualThreadPinningMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        monitor = new VirtualThreadPinningMonitor(new PinningMonitorProperties(true, Duration.ofMillis(10)), meterRegistry);
+        monitor.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        monitor.stop();
+    }
+
+    @Test
+    @DisplayName("Should report a virtual thread blocking inside a synchronized block")
+    void report_ShouldTimePinningBySite() throws Exception {
+        // Act
+        Thread.ofVirtual().start(VirtualThreadPinningMonitorTest::blockInsideMonitor).join();
+
+        // Assert
+        Timer pinned = awaitPinning("blockInsideMonitor");
+        assertEquals(1, pinned.count());
+        assertTrue(pinned.totalTime(TimeUnit.MILLISECONDS) >= 10);
+    }
+
+    @Test
+    @DisplayName("Should not report a virtual thread blocking under a ReentrantLock")
+    void report_ShouldIgnoreThreadsThatCanUnmount() throws Exception {
+        // Act
+        Thread.ofVirtual().start(VirtualThreadPinningMonitorTest::blockUnderLock).join();
+        Thread.ofVirtual().start(VirtualThreadPinningMonitorTest::blockInsideMonitor).join();
+
+        // Assert
+        awaitPinning("blockInsideMonitor");
+        assertNull(meterRegistry.find("jvm.threads.virtual.pinned").tag("site", site("blockUnderLock")).timer());
+    }
+
+    private Timer awaitPinning(String method) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (System.nanoTime() < deadline) {
+            Timer timer = meterRegistry.find("jvm.threads.virtual.pinned").tag("site", site(method)).timer();
+            if (timer != null && timer.count() > 0) {
+                return timer;
+            }
+            Thread.sleep(50);
+        }
+        return fail("No pinning reported for " + method);
+    }
+
+    private static String site(String method) {
+        return VirtualThreadPinningMonitorTest.class.getName() + "." + method;
+    }
+
+    private static void blockInsideMonitor() {
+        synchronized (MONITOR) {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static void blockUnderLock() {
+        LOCK.lock();
+        try {
+            Thread.sleep(50);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        } finally {
+            LOCK.unlock();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package cardoso.commerce.app.entity;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Basket Unit Tests")
+class BasketTest {
+
+    @Test
+    @DisplayName("Should merge repeated products into one line and sum quantities")
+    void addProducts_ShouldMergeLinesByProductId() {
+        // Arrange
+        Basket basket = Basket.builder().build();
+        basket.replaceProducts(List.of(product(5L, "10.00", 1)));
+
+        // Act
+        basket.addProducts(List.of(product(5L, "10.00", 2), product(7L, "3.50", 1), product(5L, "10.00", 3)));
+
+        // Assert
+        assertEquals(2, basket.getProducts().size());
+        assertEquals(6, basket.getProducts().get(0).getQuantity());
+        assertEquals(new BigDecimal("63.50"), basket.getTotalPrice());
+    }
+
+    @Test
+    @DisplayName("Should reprice a merged line at the latest price")
+    void addProducts_ShouldMoveTotalByRepricedLine() {
+        // Arrange
+        Basket basket = Basket.builder().build();
+        basket.replaceProducts(List.of(product(5L, "10.00", 2), product(7L, "3.50", 1)));
+
+        // Act
+        basket.addProducts(List.of(product(5L, "12.00", 1)));
+
+        // Assert
+        assertEquals(new BigDecimal("12.00"), basket.getProducts().get(0).getPrice());
+        assertEquals(new BigDecimal("39.50"), basket.getTotalPrice());
+    }
+
+    @Test
+    @DisplayName("Should compute a missing total before adding to a stored basket")
+    void addProducts_ShouldInitializeMissingTotal() {
+        // Arrange
+        Basket basket = Basket.builder()
+                .products(new ArrayList<>(List.of(product(1L, "2.00", 2))))
+                .build();
+
+        // Act
+        basket.addProducts(List.of(product(2L, "1.00", 1)));
+
+        // Assert
+        assertEquals(new BigDecimal("5.00"), basket.getTotalPrice());
+    }
+
+    @Test
+    @DisplayName("Should replace every line and merge duplicates in the replacement")
+    void replaceProducts_ShouldResetLinesAndTotal() {
+        // Arrange
+        Basket basket = Basket.builder().build();
+        basket.replaceProducts(List.of(product(1L, "2.00", 2)));
+
+        // Act
+        basket.replaceProducts(List.of(product(3L, "4.00", 1), product(3L, "4.00", 1)));
+
+        // Assert
+        assertEquals(1, basket.getProducts().size());
+        assertEquals(3L, basket.getProducts().get(0).getId());
+        assertEquals(new BigDecimal("8.00"), basket.getTotalPrice());
+    }
+
+    private static Product product(Long id, String price, int quantity) {
+        return Product.builder()
+                .id(id)
+                .title("Product " + id)
+                .price(new BigDecimal(price))
+                .quantity(quantity)
+                .build();
+    }
+}
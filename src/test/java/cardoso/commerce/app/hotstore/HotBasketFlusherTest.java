@@ -0,0 +1,212 @@
+package cardoso.commerce.app.hotstore;
+
+import cardoso.commerce.app.config.HotBasketProperties;
+import cardoso.commerce.app.entity.Basket;
+import cardoso.commerce.app.entity.Status;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Range;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessages;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.StreamOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Hot Basket Flusher Unit Tests")
+class HotBasketFlusherTest {
+
+    @Mock
+    private HotBasketStore store;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulk;
+
+    private HotBasketFlusher flusher;
+
+    @BeforeEach
+    void setUp() {
+        HotBasketProperties properties = new HotBasketProperties(true, "basket:hot", Duration.ofSeconds(1), 500,
+                Duration.ofMinutes(30), Duration.ofSeconds(30));
+        flusher = new HotBasketFlusher(store, redisTemplate, mongoTemplate, properties, new SimpleMeterRegistry());
+        lenient().when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Basket.class)).thenReturn(bulk);
+    }
+
+    @Test
+    @DisplayName("Should upsert open baskets in one bulk write and let them expire from Redis")
+    void flush_ShouldUpsertOpenBaskets() {
+        // Arrange
+        Map<String, HotBasketStore.Entry> entries = new LinkedHashMap<>();
+        entries.put("a", new HotBasketStore.Entry(basket("a", Status.OPEN, 3L), "3", false));
+        entries.put("b", new HotBasketStore.Entry(basket("b", Status.OPEN, 0L), "0", false));
+        when(store.load(Set.of("a", "b"))).thenReturn(entries);
+
+        // Act
+        flusher.flush(Set.of("a", "b"));
+
+        // Assert
+        verify(bulk, times(2)).replaceOne(any(Query.class), any(Basket.class), any(FindAndReplaceOptions.class));
+        verify(bulk).execute();
+        verify(store).release("a", "3", false);
+        verify(store).release("b", "0", false);
+    }
+
+    @Test
+    @DisplayName("Should drop sold baskets and delete tombstones once written")
+    void flush_ShouldDropClosedBaskets() {
+        // Arrange
+        Map<String, HotBasketStore.Entry> entries = new LinkedHashMap<>();
+        entries.put("sold", new HotBasketStore.Entry(basket("sold", Status.SOLD, 4L), "4", false));
+        entries.put("gone", new HotBasketStore.Entry(null, "2", true));
+        when(store.load(List.of("sold", "gone"))).thenReturn(entries);
+
+        // Act
+        flusher.flush(List.of("sold", "gone"));
+
+        // Assert
+        verify(bulk).replaceOne(any(Query.class), any(Basket.class), any(FindAndReplaceOptions.class));
+        verify(bulk).remove(any(Query.class));
+        verify(store).release("sold", "4", true);
+        verify(store).release("gone", "2", true);
+    }
+
+    @Test
+    @DisplayName("Should keep going when MongoDB already holds a newer version")
+    void flush_ShouldIgnoreNewerStoredVersions() {
+        // Arrange
+        when(store.load(List.of("a"))).thenReturn(Map.of("a", new HotBasketStore.Entry(basket("a", Status.OPEN, 3L), "3", false)));
+        BulkWriteError duplicateId = new BulkWriteError(11000,
+                "E11000 duplicate key error collection: basket-service.basket index: _id_ dup key", new BsonDocument(), 0);
+        MongoBulkWriteException cause = new MongoBulkWriteException(BulkWriteResult.unacknowledged(), List.of(duplicateId),
+                null, new ServerAddress(), Set.of());
+        when(bulk.execute()).thenThrow(new BulkOperationException("Bulk write failed", cause));
+
+        // Act & Assert
+        assertDoesNotThrow(() -> flusher.flush(List.of("a")));
+        verify(store).release(eq("a"), eq("3"), eq(false));
+    }
+
+    @Test
+    @DisplayName("Should keep rejected baskets in Redis and report them")
+    void flush_ShouldKeepRejectedBaskets() {
+        // Arrange
+        Map<String, HotBasketStore.Entry> entries = new LinkedHashMap<>();
+        entries.put("a", new HotBasketStore.Entry(basket("a", Status.SOLD, 3L), "3", false));
+        entries.put("b", new HotBasketStore.Entry(basket("b", Status.OPEN, 1L), "1", false));
+        when(store.load(List.of("a", "b"))).thenReturn(entries);
+        BulkWriteError openBasketPerClient = new BulkWriteError(11000,
+                "E11000 duplicate key error collection: basket-service.basket index: open_basket_per_client dup key",
+                new BsonDocument(), 1);
+        MongoBulkWriteException cause = new MongoBulkWriteException(BulkWriteResult.unacknowledged(),
+                List.of(openBasketPerClient), null, new ServerAddress(), Set.of());
+        when(bulk.execute()).thenThrow(new BulkOperationException("Bulk write failed", cause));
+
+        // Act
+        Set<String> failed = flusher.flush(List.of("a", "b"));
+
+        // Assert
+        assertEquals(Set.of("b"), failed);
+        verify(store).release("a", "3", true);
+        verify(store, never()).release(eq("b"), any(), anyBoolean());
+    }
+
+    @Test
+    @DisplayName("Should leave the log entries of rejected baskets unacknowledged for the next run")
+    @SuppressWarnings("unchecked")
+    void flushLog_ShouldKeepEntriesOfRejectedBaskets() {
+        // Arrange
+        StreamOperations<String, Object, Object> streams = mock(StreamOperations.class);
+        when(redisTemplate.opsForStream()).thenReturn(streams);
+        when(store.isEnabled()).thenReturn(true);
+        when(store.logKey()).thenReturn("basket:hot:log");
+        when(streams.pending(eq("basket:hot:log"), eq(HotBasketFlusher.GROUP), any(Range.class), anyLong()))
+                .thenReturn(new PendingMessages(HotBasketFlusher.GROUP, List.of()));
+        when(streams.read(any(Consumer.class), any(StreamReadOptions.class), any(StreamOffset.class)))
+                .thenReturn(List.of(logRecord("1-0", "a"), logRecord("2-0", "b"), logRecord("3-0", "a")), List.of());
+        Map<String, HotBasketStore.Entry> entries = new LinkedHashMap<>();
+        entries.put("a", new HotBasketStore.Entry(basket("a", Status.OPEN, 3L), "3", false));
+        entries.put("b", new HotBasketStore.Entry(basket("b", Status.OPEN, 1L), "1", false));
+        when(store.load(Set.of("a", "b"))).thenReturn(entries);
+        BulkWriteError rejected = new BulkWriteError(121, "Document failed validation", new BsonDocument(), 1);
+        when(bulk.execute()).thenThrow(new BulkOperationException("Bulk write failed", new MongoBulkWriteException(
+                BulkWriteResult.unacknowledged(), List.of(rejected), null, new ServerAddress(), Set.of())));
+
+        // Act
+        flusher.flushLog();
+
+        // Assert
+        verify(streams).acknowledge("basket:hot:log", HotBasketFlusher.GROUP, RecordId.of("1-0"), RecordId.of("3-0"));
+        verify(streams).delete("basket:hot:log", RecordId.of("1-0"), RecordId.of("3-0"));
+        verify(store, never()).release(eq("b"), any(), anyBoolean());
+    }
+
+    @Test
+    @DisplayName("Should not write anything when no basket is left in Redis")
+    void flush_ShouldSkipReleasedBaskets() {
+        // Arrange
+        when(store.load(List.of("a"))).thenReturn(Map.of());
+
+        // Act
+        flusher.flush(List.of("a"));
+
+        // Assert
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static MapRecord<String, Object, Object> logRecord(String recordId, String basketId) {
+        return (MapRecord<String, Object, Object>) (MapRecord<String, ?, ?>) StreamRecords.newRecord()
+                .in("basket:hot:log")
+                .withId(RecordId.of(recordId))
+                .ofMap(Map.of(HotBasketStore.LOG_ID, basketId));
+    }
+
+    private static Basket basket(String id, Status status, Long version) {
+        Basket basket = Basket.builder()
+                .id(id)
+                .clientId(1L)
+                .status(status)
+                .version(version)
+                .build();
+        basket.replaceProducts(List.of());
+        return basket;
+    }
+}
@@ -0,0 +1,239 @@
+package cardoso.commerce.app.hotstore;
+
+import cardoso.commerce.app.config.BasketBatchProperties;
+import cardoso.commerce.app.controller.request.BasketBatchOperation;
+import cardoso.commerce.app.controller.request.BasketRequest;
+import cardoso.commerce.app.controller.request.PaymentRequest;
+import cardoso.commerce.app.controller.request.ProductRequest;
+import cardoso.commerce.app.controller.response.BasketBatchResult;
+import cardoso.commerce.app.entity.Basket;
+import cardoso.commerce.app.entity.PaymentMethod;
+import cardoso.commerce.app.entity.Product;
+import cardoso.commerce.app.entity.Status;
+import cardoso.commerce.app.exception.PreconditionFailedException;
+import cardoso.commerce.app.repository.BasketRepository;
+import cardoso.commerce.app.service.BasketBatchService;
+import cardoso.commerce.app.service.BasketService;
+import cardoso.commerce.app.service.ProductResolver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the servlet basket flow against real Redis and MongoDB with the hot store on, flushing by hand
+ * instead of on schedule. Needs Docker; skipped otherwise.
+ */
+@SpringBootTest(properties = {
+        "basket.hot-store.enabled=true",
+        "basket.hot-store.max-flush-lag=1h",
+        "basket.hot-store.claim-after=0s",
+        "basket.hot-store.key-prefix=basket:hot:test"
+})
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("Hot Basket Write-Behind Tests")
+class HotBasketWriteBehindTest {
+
+    private static final long CLIENT_ID = 42L;
+
+    @Container
+    @ServiceConnection
+    static MongoDBContainer mongo = new MongoDBContainer("mongo:7.0");
+
+    @Container
+    @ServiceConnection(name = "redis")
+    static GenericContainer<?> redis = new GenericContainer<>("redis:7.4-alpine").withExposedPorts(6379);
+
+    @Autowired
+    private BasketService basketService;
+
+    @Autowired
+    private BasketRepository basketRepository;
+
+    @Autowired
+    private HotBasketFlusher flusher;
+
+    @Autowired
+    private HotBasketStore store;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @MockitoBean
+    private ProductResolver productResolver;
+
+    @BeforeEach
+    void setUp() {
+        basketRepository.deleteAll();
+        redisTemplate.getConnectionFactory().getConnection().serverCommands().flushAll();
+        when(productResolver.resolve(anyList())).thenAnswer(invocation -> {
+            List<ProductRequest> requests = invocation.getArgument(0);
+            return requests.stream()
+                    .map(request -> Product.builder()
+                            .id(request.productId())
+                            .title("Product " + request.productId())
+                            .price(new BigDecimal("2.50"))
+                            .quantity(request.quantity())
+                            .build())
+                    .toList();
+        });
+    }
+
+    @Test
+    @DisplayName("Should serve edits from Redis and write them to MongoDB on flush")
+    void createBasket_ShouldWriteBehind() {
+        // Arrange
+        Basket created = basketService.createBasket(request(1L));
+        basketService.createBasket(request(2L));
+
+        // Act
+        boolean storedBeforeFlush = basketRepository.existsById(created.getId());
+        flusher.flushLog();
+
+        // Assert
+        assertFalse(storedBeforeFlush);
+        assertEquals(2, basketService.getBasketById(created.getId()).getProducts().size());
+        Basket stored = basketRepository.findById(created.getId()).orElseThrow();
+        assertEquals(2, stored.getProducts().size());
+        assertEquals(new BigDecimal("5.00"), stored.getTotalPrice());
+        assertEquals(0, redisTemplate.opsForStream().size(store.logKey()));
+    }
+
+    @Test
+    @DisplayName("Should write the basket to MongoDB as soon as it is checked out")
+    void updatePaymentMethod_ShouldFlushImmediately() {
+        // Arrange
+        Basket created = basketService.createBasket(request(1L));
+
+        PaymentRequest payment = new PaymentRequest();
+        payment.setPaymentMethod(PaymentMethod.PIX);
+
+        // Act
+        basketService.updatePaymentMethod(created.getId(), payment);
+
+        // Assert
+        Basket stored = basketRepository.findById(created.getId()).orElseThrow();
+        assertEquals(Status.SOLD, stored.getStatus());
+        assertTrue(store.find(created.getId()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should read the version without the basket and reject updates to a stale one")
+    void getBasketVersion_ShouldTrackEveryWrite() {
+        // Arrange
+        Basket created = basketService.createBasket(request(1L));
+        long createdVersion = basketService.getBasketVersion(created.getId());
+
+        // Act
+        Basket updated = basketService.updateBasket(created.getId(), request(2L), Set.of(createdVersion));
+        PaymentRequest payment = new PaymentRequest();
+        payment.setPaymentMethod(PaymentMethod.PIX);
+        Basket paid = basketService.updatePaymentMethod(created.getId(), payment);
+
+        // Assert
+        assertEquals(created.getVersion(), createdVersion);
+        assertNotEquals(createdVersion, updated.getVersion());
+        assertEquals(paid.getVersion(), basketService.getBasketVersion(created.getId()));
+        assertThrows(PreconditionFailedException.class,
+                () -> basketService.updateBasket(created.getId(), request(3L), Set.of(createdVersion)));
+    }
+
+    @Test
+    @DisplayName("Should replay log entries left unacknowledged by a crashed flusher")
+    void flushLog_ShouldClaimAbandonedEntries() {
+        // Arrange
+        Basket created = basketService.createBasket(request(1L));
+        flusher.flushLog();
+        basketService.updateBasket(created.getId(), request(3L));
+        redisTemplate.opsForStream().read(Consumer.from(HotBasketFlusher.GROUP, "crashed"),
+                StreamReadOptions.empty().count(10), StreamOffset.create(store.logKey(), ReadOffset.lastConsumed()));
+
+        // Act
+        flusher.flushLog();
+
+        // Assert
+        Basket stored = basketRepository.findById(created.getId()).orElseThrow();
+        assertEquals(3L, stored.getProducts().get(0).getId());
+        assertEquals(0, redisTemplate.opsForStream().pending(store.logKey(), HotBasketFlusher.GROUP).getTotalPendingMessages());
+    }
+
+    @Test
+    @DisplayName("Should not bring a deleted basket back when an older write is replayed")
+    void deleteBasket_ShouldNotResurrect() {
+        // Arrange
+        Basket created = basketService.createBasket(request(1L));
+        flusher.flushLog();
+
+        // Act
+        basketService.deleteBasket(created.getId());
+        flusher.flush(List.of(created.getId()));
+        flusher.flushLog();
+
+        // Assert
+        assertFalse(basketRepository.existsById(created.getId()));
+        assertTrue(store.find(created.getId()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should not let a batch overwrite a single update made after the batch read the basket")
+    void batchUpdate_ShouldConflictWithInterleavedSingleUpdate() {
+        // Arrange
+        Basket stored = Basket.builder().clientId(CLIENT_ID).status(Status.OPEN).build();
+        stored.replaceProducts(List.of(Product.builder().id(1L).title("Product 1").price(BigDecimal.ONE).quantity(1).build()));
+        String id = basketRepository.save(stored).getId();
+        when(productResolver.resolveAll(anyCollection())).thenReturn(new ProductResolver.Resolution(
+                Map.of(4L, Product.builder().id(4L).title("Product 4").price(BigDecimal.ONE).quantity(1).build()),
+                Map.of()));
+        BasketRepository interleaving = mock(BasketRepository.class, delegatesTo(basketRepository));
+        doAnswer(invocation -> {
+            List<Basket> loaded = basketRepository.findAllById(invocation.<Iterable<String>>getArgument(0));
+            basketService.updateBasket(id, request(2L));
+            return loaded;
+        }).when(interleaving).findAllById(anyIterable());
+        BasketBatchService batchService = new BasketBatchService(interleaving, productResolver, store,
+                new BasketBatchProperties(10));
+
+        // Act
+        List<BasketBatchResult> results = batchService.apply(List.of(
+                new BasketBatchOperation(id, null, List.of(new ProductRequest(4L, 1)))));
+        flusher.flushLog();
+
+        // Assert
+        assertEquals(409, results.get(0).status());
+        Basket flushed = basketRepository.findById(id).orElseThrow();
+        assertEquals(2L, flushed.getProducts().get(0).getId());
+        assertEquals(basketService.getBasketVersion(id), flushed.getVersion());
+    }
+
+    private static BasketRequest request(long productId) {
+        return new BasketRequest(CLIENT_ID, List.of(new ProductRequest(productId, 1)));
+    }
+}
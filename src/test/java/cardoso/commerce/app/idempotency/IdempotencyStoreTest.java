@@ -0,0 +1,222 @@
+package cardoso.commerce.app.idempotency;
+
+import cardoso.commerce.app.config.IdempotencyProperties;
+import cardoso.commerce.app.entity.Basket;
+import cardoso.commerce.app.entity.PaymentMethod;
+import cardoso.commerce.app.entity.Status;
+import cardoso.commerce.app.exception.BusinessesException;
+import cardoso.commerce.app.exception.IdempotencyKeyConflictException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Idempotency Store Unit Tests")
+class IdempotencyStoreTest {
+
+    private static final String FINGERPRINT = "payment:basket-1:PIX";
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private HashOperations<String, Object, Object> hashOperations;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private SimpleMeterRegistry meterRegistry;
+    private IdempotencyStore store;
+    private AtomicInteger executions;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        IdempotencyProperties properties = new IdempotencyProperties(true, "basket:idempotency", Duration.ofHours(24),
+                Duration.ofSeconds(30), Duration.ofMillis(100), Duration.ofMillis(10), 1000, 16);
+        store = new IdempotencyStore(redisTemplate, objectMapper, properties, meterRegistry);
+        executions = new AtomicInteger();
+        lenient().when(redisTemplate.opsForHash()).thenReturn(hashOperations);
+    }
+
+    @Test
+    @DisplayName("Should run the request and store its response when the key is new")
+    void execute_ShouldRunAndStoreResponse_WhenKeyIsNew() {
+        // Arrange
+        claimResult(1L);
+
+        // Act
+        Basket response = store.execute("key-1", FINGERPRINT, Basket.class, this::checkout);
+
+        // Assert
+        assertEquals(1, executions.get());
+        assertEquals(Status.SOLD, response.getStatus());
+        verify(redisTemplate, times(2)).execute(any(RedisScript.class), anyList(), any(Object[].class));
+        verifyNoInteractions(hashOperations);
+    }
+
+    @Test
+    @DisplayName("Should return the stored response without running the request again")
+    void execute_ShouldReplayStoredResponse_WhenKeyIsDone() throws Exception {
+        // Arrange
+        claimResult(0L);
+        String stored = objectMapper.writeValueAsString(checkout());
+        executions.set(0);
+        storedEntry(IdempotencyStore.DONE, FINGERPRINT, stored);
+
+        // Act
+        Basket response = store.execute("key-1", FINGERPRINT, Basket.class, this::checkout);
+
+        // Assert
+        assertEquals(0, executions.get());
+        assertEquals("basket-1", response.getId());
+        assertEquals(PaymentMethod.PIX, response.getPaymentMethod());
+        assertEquals(1, meterRegistry.counter("basket.idempotency.requests", "outcome", "replayed").count());
+    }
+
+    @Test
+    @DisplayName("Should run a reactive request once and replay its response to the retry")
+    void executeReactive_ShouldRunOnceAndReplayResponse() throws Exception {
+        // Arrange
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenReturn(1L, 1L, 0L);
+        storedEntry(IdempotencyStore.DONE, FINGERPRINT, objectMapper.writeValueAsString(checkout()));
+        executions.set(0);
+        Mono<Basket> action = Mono.fromSupplier(this::checkout);
+
+        // Act
+        Basket first = store.executeReactive("key-1", FINGERPRINT, Basket.class, action).block();
+        Basket retry = store.executeReactive("key-1", FINGERPRINT, Basket.class, action).block();
+
+        // Assert
+        assertEquals(1, executions.get());
+        assertEquals(Status.SOLD, first.getStatus());
+        assertEquals("basket-1", retry.getId());
+        assertEquals(1, meterRegistry.counter("basket.idempotency.requests", "outcome", "replayed").count());
+    }
+
+    @Test
+    @DisplayName("Should wait for an in-flight request and reject the retry when it does not finish in time")
+    void execute_ShouldReject_WhenFirstRequestIsStillRunning() {
+        // Arrange
+        claimResult(0L);
+        storedEntry(IdempotencyStore.PENDING, FINGERPRINT, null);
+
+        // Act
+        IdempotencyKeyConflictException exception = assertThrows(IdempotencyKeyConflictException.class,
+                () -> store.execute("key-1", FINGERPRINT, Basket.class, this::checkout));
+
+        // Assert
+        assertFalse(exception.isReused());
+        assertEquals(0, executions.get());
+        verify(hashOperations, atLeast(2)).multiGet(eq("basket:idempotency:key-1"), anyCollection());
+    }
+
+    @Test
+    @DisplayName("Should reject a key that was sent with a different request")
+    void execute_ShouldReject_WhenKeyIsReused() {
+        // Arrange
+        claimResult(0L);
+        storedEntry(IdempotencyStore.DONE, "payment:basket-2:PIX", "{}");
+
+        // Act
+        IdempotencyKeyConflictException exception = assertThrows(IdempotencyKeyConflictException.class,
+                () -> store.execute("key-1", FINGERPRINT, Basket.class, this::checkout));
+
+        // Assert
+        assertTrue(exception.isReused());
+        assertEquals(0, executions.get());
+    }
+
+    @Test
+    @DisplayName("Should release the key when the request fails so it can be retried")
+    void execute_ShouldReleaseKey_WhenRequestFails() {
+        // Arrange
+        claimResult(1L);
+
+        // Act
+        assertThrows(BusinessesException.class, () -> store.execute("key-1", FINGERPRINT, Basket.class, () -> {
+            throw new BusinessesException("Basket was already paid with CREDIT_CARD");
+        }));
+
+        // Assert
+        verify(redisTemplate, times(2)).execute(any(RedisScript.class), eq(List.of("basket:idempotency:key-1")), any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("Should run the request once and rethrow when it fails with a data access error")
+    void execute_ShouldNotRunAgain_WhenRequestFailsWithDataAccessError() {
+        // Arrange
+        claimResult(1L);
+
+        // Act
+        assertThrows(OptimisticLockingFailureException.class, () -> store.execute("key-1", FINGERPRINT, Basket.class, () -> {
+            executions.incrementAndGet();
+            throw new OptimisticLockingFailureException("Basket basket-1 changed concurrently");
+        }));
+
+        // Assert
+        assertEquals(1, executions.get());
+        assertEquals(0, meterRegistry.counter("basket.idempotency.requests", "outcome", "unavailable").count());
+    }
+
+    @Test
+    @DisplayName("Should run the request without deduplication when Redis is down")
+    void execute_ShouldRunRequest_WhenRedisIsUnavailable() {
+        // Arrange
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+                .thenThrow(new RedisConnectionFailureException("Connection refused"));
+
+        // Act
+        Basket response = store.execute("key-1", FINGERPRINT, Basket.class, this::checkout);
+
+        // Assert
+        assertEquals(1, executions.get());
+        assertEquals(Status.SOLD, response.getStatus());
+    }
+
+    @Test
+    @DisplayName("Should reject keys longer than the configured limit")
+    void execute_ShouldRejectOversizedKey() {
+        // Act & Assert
+        assertThrows(BusinessesException.class,
+                () -> store.execute("k".repeat(17), FINGERPRINT, Basket.class, this::checkout));
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void claimResult(Long claimed) {
+        lenient().when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenReturn(claimed);
+    }
+
+    private void storedEntry(String state, String fingerprint, String response) {
+        when(hashOperations.multiGet(eq("basket:idempotency:key-1"), anyCollection()))
+                .thenReturn(Arrays.asList(state, fingerprint, response));
+    }
+
+    private Basket checkout() {
+        executions.incrementAndGet();
+        return Basket.builder()
+                .id("basket-1")
+                .status(Status.SOLD)
+                .paymentMethod(PaymentMethod.PIX)
+                .build();
+    }
+}
@@ -0,0 +1,136 @@
+package cardoso.commerce.app.repository;
+
+import cardoso.commerce.app.entity.Basket;
+import cardoso.commerce.app.entity.Product;
+import cardoso.commerce.app.entity.Status;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the in-place basket writes, and how the batch bulk write reports the baskets it could not
+ * write, against a real MongoDB with the declared indexes. Needs Docker; skipped otherwise.
+ */
+@SpringBootTest(properties = "basket.mongo.indexes.enabled=true")
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("Basket Bulk Write Tests")
+class BasketBulkWriteTest {
+
+    @Container
+    @ServiceConnection
+    static MongoDBContainer mongo = new MongoDBContainer("mongo:7.0");
+
+    @Autowired
+    private BasketRepository basketRepository;
+
+    @Autowired
+    private ReactiveBasketRepository reactiveBasketRepository;
+
+    @BeforeEach
+    void setUp() {
+        basketRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should insert new baskets and update stored ones in one bulk write")
+    void writeAll_ShouldInsertAndUpdate() {
+        // Arrange
+        Basket stored = basketRepository.save(newBasket(1L));
+        stored.replaceProducts(List.of(product(2)));
+        Basket created = newBasket(2L);
+
+        // Act
+        Set<String> failed = basketRepository.writeAll(List.of(stored, created));
+
+        // Assert
+        assertTrue(failed.isEmpty());
+        assertEquals(1L, stored.getVersion());
+        assertEquals(0L, created.getVersion());
+        Basket reloaded = basketRepository.findById(stored.getId()).orElseThrow();
+        assertEquals(1L, reloaded.getVersion());
+        assertEquals(new BigDecimal("20.00"), reloaded.getTotalPrice());
+        assertTrue(basketRepository.existsById(created.getId()));
+    }
+
+    @Test
+    @DisplayName("Should report stale baskets and second OPEN baskets without failing the rest")
+    void writeAll_ShouldReportConflicts() {
+        // Arrange
+        Basket stale = basketRepository.save(newBasket(1L));
+        Basket concurrent = basketRepository.findById(stale.getId()).orElseThrow();
+        basketRepository.addProducts(concurrent, List.of(product(1)));
+        stale.replaceProducts(List.of(product(3)));
+        Basket duplicate = newBasket(1L);
+        Basket created = newBasket(2L);
+
+        // Act
+        Set<String> failed = basketRepository.writeAll(List.of(stale, duplicate, created));
+
+        // Assert
+        assertEquals(Set.of(stale.getId(), duplicate.getId()), failed);
+        assertNull(duplicate.getVersion());
+        assertEquals(2, basketRepository.findById(stale.getId()).orElseThrow().getProducts().get(0).getQuantity());
+        assertTrue(basketRepository.existsById(created.getId()));
+    }
+
+    @Test
+    @DisplayName("Should merge a stored line and add a new one in the same update")
+    void addProducts_ShouldMergeAndAddLines() {
+        // Arrange
+        Basket servlet = basketRepository.save(newBasket(1L));
+        Basket reactive = basketRepository.save(newBasket(2L));
+        List<Product> additions = List.of(product(2), product(9L, 1));
+
+        // Act
+        boolean servletApplied = basketRepository.addProducts(servlet, additions);
+        Boolean reactiveApplied = reactiveBasketRepository.addProducts(reactive, additions).block();
+
+        // Assert
+        assertTrue(servletApplied);
+        assertEquals(Boolean.TRUE, reactiveApplied);
+        for (Basket basket : List.of(servlet, reactive)) {
+            Basket reloaded = basketRepository.findById(basket.getId()).orElseThrow();
+            assertEquals(1L, reloaded.getVersion());
+            assertEquals(List.of(3, 1), reloaded.getProducts().stream().map(Product::getQuantity).toList());
+            assertEquals(new BigDecimal("40.00"), reloaded.getTotalPrice());
+        }
+    }
+
+    private static Basket newBasket(Long clientId) {
+        Basket basket = Basket.builder()
+                .id(new ObjectId().toHexString())
+                .clientId(clientId)
+                .status(Status.OPEN)
+                .build();
+        basket.replaceProducts(List.of(product(1)));
+        return basket;
+    }
+
+    private static Product product(int quantity) {
+        return product(1L, quantity);
+    }
+
+    private static Product product(Long id, int quantity) {
+        return Product.builder()
+                .id(id)
+                .title("Product " + id)
+                .price(new BigDecimal("10.00"))
+                .quantity(quantity)
+                .build();
+    }
+}
@@ -0,0 +1,96 @@
+package cardoso.commerce.app.repository;
+
+import cardoso.commerce.app.entity.Basket;
+import cardoso.commerce.app.entity.PaymentMethod;
+import cardoso.commerce.app.entity.Status;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Basket Exports Unit Tests")
+class BasketExportsTest {
+
+    private static final String AFTER_ID = "66f1a2b3c4d5e6f7a8b9c0d1";
+    private static final String BEFORE_ID = "66f1a2b3c4d5e6f7a8b9c0ff";
+
+    private QueryMapper queryMapper;
+    private MongoPersistentEntity<?> entity;
+
+    @BeforeEach
+    void setUp() {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        queryMapper = new QueryMapper(converter);
+        entity = mappingContext.getRequiredPersistentEntity(Basket.class);
+    }
+
+    @Test
+    @DisplayName("Should page SOLD baskets of one payment method through the status_payment_id index")
+    void query_ShouldUseStatusPaymentIndex_WhenFullyFiltered() {
+        // Act
+        Query query = BasketExports.query(new BasketExportFilter(Status.SOLD, PaymentMethod.PIX, AFTER_ID, BEFORE_ID), 500);
+
+        // Assert
+        Document filter = queryMapper.getMappedObject(query.getQueryObject(), entity);
+        assertEquals("SOLD", filter.get("status"));
+        assertEquals("PIX", filter.get("paymentMethod"));
+        Document id = filter.get("_id", Document.class);
+        assertEquals(new ObjectId(AFTER_ID), id.get("$gt"));
+        assertEquals(new ObjectId(BEFORE_ID), id.get("$lt"));
+        assertEquals(new Document("_id", 1), queryMapper.getMappedSort(query.getSortObject(), entity));
+        assertEquals("status_payment_id", query.getHint());
+        assertEquals(500, query.getMeta().getCursorBatchSize());
+    }
+
+    @Test
+    @DisplayName("Should page baskets of one status through the status_id index")
+    void query_ShouldUseStatusIndex_WhenFilteredByStatusOnly() {
+        // Act
+        Query query = BasketExports.query(new BasketExportFilter(Status.SOLD, null, null, null), 500);
+
+        // Assert
+        assertEquals("status_id", query.getHint());
+        assertFalse(query.getQueryObject().containsKey("id"));
+    }
+
+    @Test
+    @DisplayName("Should walk the id index when the filter has no status")
+    void query_ShouldUseIdIndex_WhenFilteredWithoutStatus() {
+        // Act
+        Query query = BasketExports.query(new BasketExportFilter(null, PaymentMethod.PIX, null, null), 500);
+
+        // Assert
+        assertEquals("_id_", query.getHint());
+    }
+
+    @Test
+    @DisplayName("Should leave product titles out of the projection")
+    void query_ShouldProjectExportedFields() {
+        // Act
+        Query query = BasketExports.query(new BasketExportFilter(null, null, null, null), 500);
+
+        // Assert
+        Document fields = query.getFieldsObject();
+        assertTrue(fields.containsKey("totalPrice"));
+        assertTrue(fields.containsKey("products.quantity"));
+        assertFalse(fields.containsKey("products.title"));
+        assertFalse(fields.containsKey("products"));
+    }
+}
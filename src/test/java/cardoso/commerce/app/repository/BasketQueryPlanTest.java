@@ -0,0 +1,185 @@
+package cardoso.commerce.app.repository;
+
+import cardoso.commerce.app.entity.Basket;
+import cardoso.commerce.app.entity.PaymentMethod;
+import cardoso.commerce.app.entity.Status;
+import com.mongodb.ExplainVerbosity;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Explains the basket queries against a real MongoDB with the declared indexes and checks that none
+ * of them scans the collection. Needs Docker; skipped otherwise.
+ */
+@SpringBootTest(properties = "basket.mongo.indexes.enabled=true")
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("Basket Query Plan Tests")
+class BasketQueryPlanTest {
+
+    @Container
+    @ServiceConnection
+    static MongoDBContainer mongo = new MongoDBContainer("mongo:7.0");
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private BasketRepository basketRepository;
+
+    @BeforeEach
+    void setUp() {
+        basketRepository.deleteAll();
+        basketRepository.saveAll(LongStream.rangeClosed(1, 500)
+                .mapToObj(clientId -> Basket.builder()
+                        .clientId(clientId)
+                        .status(clientId % 2 == 0 ? Status.OPEN : Status.SOLD)
+                        .paymentMethod(clientId % 2 == 0 ? null : PaymentMethod.PIX)
+                        .products(new ArrayList<>())
+                        .build())
+                .toList());
+    }
+
+    @Test
+    @DisplayName("Should use an index to find the open basket of a client")
+    void findByClientIdAndStatus_ShouldUseIndex() {
+        // Act & Assert
+        assertIndexScan(Query.query(where("clientId").is(42L).and("status").is(Status.OPEN)));
+        assertIndexScan(Query.query(where("clientId").is(43L).and("status").is(Status.SOLD)));
+    }
+
+    @Test
+    @DisplayName("Should use the id index for lookups and versioned updates")
+    void findById_ShouldUseIdIndex() {
+        // Arrange
+        Basket basket = basketRepository.findByClientIdAndStatus(42L, Status.OPEN).orElseThrow();
+
+        // Act & Assert
+        assertIndexScan(Query.query(where("id").is(basket.getId())));
+        assertIndexScan(BasketUpdates.current(basket));
+    }
+
+    @Test
+    @DisplayName("Should use an index to page SOLD baskets by payment method and id")
+    void soldBasketsByPaymentMethod_ShouldUseIndex() {
+        // Arrange
+        Basket first = basketRepository.findByClientIdAndStatus(1L, Status.SOLD).orElseThrow();
+
+        // Act & Assert
+        assertIndexScan(Query.query(where("status").is(Status.SOLD).and("paymentMethod").is(PaymentMethod.PIX)
+                        .and("id").gt(first.getId()))
+                .with(Sort.by("id")));
+    }
+
+    @Test
+    @DisplayName("Should export baskets in id order reading only the matching ones")
+    void exportQuery_ShouldNotSortInMemory() {
+        // Arrange
+        List<BasketExportFilter> filters = List.of(
+                new BasketExportFilter(Status.SOLD, PaymentMethod.PIX, null, null),
+                new BasketExportFilter(Status.SOLD, null, null, null),
+                new BasketExportFilter(Status.OPEN, null, null, null),
+                new BasketExportFilter(null, null, null, null));
+
+        for (BasketExportFilter filter : filters) {
+            // Act
+            Query query = BasketExports.query(filter, 100);
+            Document explain = mongoTemplate.getCollection("basket")
+                    .find(queryMapper().getMappedObject(query.getQueryObject(), basketEntity()))
+                    .sort(queryMapper().getMappedSort(query.getSortObject(), basketEntity()))
+                    .hintString(query.getHint())
+                    .explain(ExplainVerbosity.EXECUTION_STATS);
+            String winningPlan = explain.get("queryPlanner", Document.class).get("winningPlan", Document.class).toJson();
+            Document executionStats = explain.get("executionStats", Document.class);
+
+            // Assert
+            assertFalse(winningPlan.contains("\"SORT\""), winningPlan);
+            assertFalse(winningPlan.contains("COLLSCAN"), winningPlan);
+            assertEquals(mongoTemplate.count(query, Basket.class),
+                    executionStats.getInteger("totalDocsExamined").longValue(), filter + ": " + winningPlan);
+        }
+        try (Stream<Basket> exported = basketRepository.streamForExport(filters.get(0), 100)) {
+            List<String> ids = exported.map(Basket::getId).toList();
+            assertEquals(250, ids.size());
+            assertEquals(ids.stream().sorted().toList(), ids);
+        }
+    }
+
+    @Test
+    @DisplayName("Should replay SOLD baskets without soldAt at their ObjectId time")
+    void salesPipelines_ShouldReplayLegacyBaskets() {
+        // Arrange
+        Instant today = Instant.now().truncatedTo(ChronoUnit.DAYS);
+
+        // Act
+        long baskets;
+        try (Stream<PaymentSales> sales = basketRepository.streamPaymentSales(today, today.plus(1, ChronoUnit.DAYS))) {
+            baskets = sales.peek(row -> assertEquals(PaymentMethod.PIX, row.paymentMethod()))
+                    .mapToLong(PaymentSales::baskets)
+                    .sum();
+        }
+
+        // Assert
+        assertEquals(250, baskets);
+    }
+
+    @Test
+    @DisplayName("Should reject a second OPEN basket for the same client")
+    void save_ShouldRejectSecondOpenBasket() {
+        // Arrange
+        Basket duplicate = Basket.builder()
+                .clientId(42L)
+                .status(Status.OPEN)
+                .products(new ArrayList<>())
+                .build();
+
+        // Act & Assert
+        assertThrows(DuplicateKeyException.class, () -> basketRepository.save(duplicate));
+    }
+
+    private QueryMapper queryMapper() {
+        return new QueryMapper(mongoTemplate.getConverter());
+    }
+
+    private MongoPersistentEntity<?> basketEntity() {
+        return mongoTemplate.getConverter().getMappingContext().getRequiredPersistentEntity(Basket.class);
+    }
+
+    private void assertIndexScan(Query query) {
+        QueryMapper queryMapper = queryMapper();
+        MongoPersistentEntity<?> entity = basketEntity();
+        Document explain = mongoTemplate.getCollection("basket")
+                .find(queryMapper.getMappedObject(query.getQueryObject(), entity))
+                .sort(queryMapper.getMappedSort(query.getSortObject(), entity))
+                .explain();
+        String winningPlan = explain.get("queryPlanner", Document.class).get("winningPlan", Document.class).toJson();
+
+        assertFalse(winningPlan.contains("COLLSCAN"), winningPlan);
+        assertTrue(List.of("IXSCAN", "IDHACK").stream().anyMatch(winningPlan::contains), winningPlan);
+    }
+}
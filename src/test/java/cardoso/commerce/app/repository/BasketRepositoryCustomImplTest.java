@@ -0,0 +1,61 @@
+package cardoso.commerce.app.repository;
+
+import cardoso.commerce.app.entity.Basket;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Basket Repository Version Lookup Unit Tests")
+class BasketRepositoryCustomImplTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private ReactiveMongoTemplate reactiveMongoTemplate;
+
+    @Test
+    @DisplayName("Should read baskets stored before versioning as version 0")
+    void findVersion_ShouldDefaultToZero_WhenBasketHasNoVersion() {
+        // Arrange
+        when(mongoTemplate.findOne(any(Query.class), eq(Basket.class))).thenReturn(Basket.builder().id("basket-1").build());
+
+        // Act & Assert
+        assertEquals(Optional.of(0L), new BasketRepositoryCustomImpl(mongoTemplate).findVersion("basket-1"));
+    }
+
+    @Test
+    @DisplayName("Should report missing baskets as empty")
+    void findVersion_ShouldBeEmpty_WhenBasketIsMissing() {
+        // Act & Assert
+        assertEquals(Optional.empty(), new BasketRepositoryCustomImpl(mongoTemplate).findVersion("basket-1"));
+    }
+
+    @Test
+    @DisplayName("Should read baskets stored before versioning as version 0 on the reactive stack")
+    void findVersion_ShouldDefaultToZero_WhenReactiveBasketHasNoVersion() {
+        // Arrange
+        when(reactiveMongoTemplate.findOne(any(Query.class), eq(Basket.class)))
+                .thenReturn(Mono.just(Basket.builder().id("basket-1").build()));
+
+        // Act & Assert
+        StepVerifier.create(new ReactiveBasketRepositoryCustomImpl(reactiveMongoTemplate).findVersion("basket-1"))
+                .expectNext(0L)
+                .verifyComplete();
+    }
+}
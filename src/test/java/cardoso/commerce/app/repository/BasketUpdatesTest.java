@@ -0,0 +1,190 @@
+package cardoso.commerce.app.repository;
+
+import cardoso.commerce.app.entity.Basket;
+import cardoso.commerce.app.entity.PaymentMethod;
+import cardoso.commerce.app.entity.Product;
+import cardoso.commerce.app.entity.Status;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.convert.UpdateMapper;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Basket Updates Unit Tests")
+class BasketUpdatesTest {
+
+    private MongoMappingContext mappingContext;
+    private MappingMongoConverter converter;
+
+    @BeforeEach
+    void setUp() {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+    }
+
+    @Test
+    @DisplayName("Should increment merged lines without touching the others")
+    void addProducts_ShouldTouchOnlyChangedLines() {
+        // Arrange
+        Basket basket = basket(product(5L, "10.00", 1), product(7L, "3.50", 1));
+
+        // Act
+        Document update = map(BasketUpdates.addProducts(basket, List.of(product(5L, "10.00", 2))));
+
+        // Assert
+        Document inc = update.get("$inc", Document.class);
+        assertEquals(2, inc.get("products.0.quantity"));
+        assertEquals(1, inc.get("version"));
+        assertFalse(inc.containsKey("products.1.quantity"));
+        Document set = update.get("$set", Document.class);
+        assertEquals("33.50", set.get("totalPrice"));
+        assertFalse(set.containsKey("products"));
+        assertFalse(update.containsKey("$push"));
+    }
+
+    @Test
+    @DisplayName("Should write the refreshed price and title of a merged line that adds no quantity")
+    void addProducts_ShouldSetPriceAndTitle_WhenOnlyThoseChange() {
+        // Arrange
+        Basket basket = basket(product(5L, "10.00", 2), product(7L, "3.50", 1));
+        Product repriced = Product.builder().id(5L).title("Product 5 v2").price(new BigDecimal("12.00")).quantity(0).build();
+
+        // Act
+        Document update = map(BasketUpdates.addProducts(basket, List.of(repriced)));
+
+        // Assert
+        Document set = update.get("$set", Document.class);
+        assertEquals("12.00", set.get("products.0.price"));
+        assertEquals("Product 5 v2", set.get("products.0.title"));
+        assertEquals("27.50", set.get("totalPrice"));
+        assertFalse(set.containsKey("products.1.price"));
+        assertEquals(0, update.get("$inc", Document.class).get("products.0.quantity"));
+    }
+
+    @Test
+    @DisplayName("Should push only new lines when no stored line changes")
+    void addProducts_ShouldPushNewLines() {
+        // Arrange
+        Basket basket = basket(product(5L, "10.00", 1));
+
+        // Act
+        Document update = map(BasketUpdates.addProducts(basket, List.of(product(9L, "1.00", 1))));
+
+        // Assert
+        List<?> pushed = update.get("$push", Document.class).get("products", Document.class).getList("$each", Object.class);
+        assertEquals(1, pushed.size());
+        assertFalse(update.get("$inc", Document.class).containsKey("products.0.quantity"));
+        assertEquals(2, basket.getProducts().size());
+    }
+
+    @Test
+    @DisplayName("Should set the whole product list when merging and adding lines at once")
+    void addProducts_ShouldSetProducts_WhenMergingAndAdding() {
+        // Arrange
+        Basket basket = basket(product(5L, "10.00", 1), product(7L, "3.50", 1));
+
+        // Act
+        Document update = map(BasketUpdates.addProducts(basket, List.of(product(5L, "10.00", 2), product(9L, "1.00", 1))));
+
+        // Assert
+        Document set = update.get("$set", Document.class);
+        assertEquals(3, set.getList("products", Document.class).size());
+        assertEquals("34.50", set.get("totalPrice"));
+        assertEquals(Set.of("version"), update.get("$inc", Document.class).keySet());
+        assertFalse(update.containsKey("$push"));
+    }
+
+    @Test
+    @DisplayName("Should set the whole product list when replacing lines")
+    void replaceProducts_ShouldSetProducts() {
+        // Arrange
+        Basket basket = basket(product(5L, "10.00", 1));
+
+        // Act
+        Document update = map(BasketUpdates.replaceProducts(basket, List.of(product(3L, "4.00", 1), product(3L, "4.00", 1))));
+
+        // Assert
+        Document set = update.get("$set", Document.class);
+        assertEquals(1, set.getList("products", Document.class).size());
+        assertEquals("8.00", set.get("totalPrice"));
+        assertEquals(1, update.get("$inc", Document.class).get("version"));
+    }
+
+    @Test
+    @DisplayName("Should set payment method and status on checkout")
+    void checkout_ShouldSetPaymentAndStatus() {
+        // Arrange
+        Basket basket = basket(product(5L, "10.00", 1));
+
+        // Act
+        Document update = map(BasketUpdates.checkout(basket, PaymentMethod.PIX));
+
+        // Assert
+        Document set = update.get("$set", Document.class);
+        assertEquals("PIX", set.get("paymentMethod"));
+        assertEquals("SOLD", set.get("status"));
+        assertEquals(Status.SOLD, basket.getStatus());
+        assertNotNull(basket.getSoldAt());
+        assertEquals(Date.from(basket.getSoldAt()), set.get("soldAt"));
+    }
+
+    @Test
+    @DisplayName("Should match the basket at the version it was read")
+    void current_ShouldGuardOnVersion() {
+        // Arrange
+        Basket basket = basket(product(5L, "10.00", 1));
+
+        // Act
+        Document query = new QueryMapper(converter).getMappedObject(BasketUpdates.current(basket).getQueryObject(),
+                mappingContext.getPersistentEntity(Basket.class));
+        BasketUpdates.advance(basket);
+
+        // Assert
+        assertEquals("basket-1", query.get("_id"));
+        assertEquals(3L, query.get("version"));
+        assertEquals(4L, basket.getVersion());
+    }
+
+    private Document map(Update update) {
+        return new UpdateMapper(converter).getMappedObject(update.getUpdateObject(),
+                mappingContext.getPersistentEntity(Basket.class));
+    }
+
+    private static Basket basket(Product... products) {
+        Basket basket = Basket.builder()
+                .id("basket-1")
+                .clientId(1L)
+                .status(Status.OPEN)
+                .version(3L)
+                .build();
+        basket.replaceProducts(new ArrayList<>(List.of(products)));
+        return basket;
+    }
+
+    private static Product product(Long id, String price, int quantity) {
+        return Product.builder()
+                .id(id)
+                .title("Product " + id)
+                .price(new BigDecimal(price))
+                .quantity(quantity)
+                .build();
+    }
+}
@@ -0,0 +1,119 @@
+package cardoso.commerce.app.repository;
+
+import cardoso.commerce.app.config.MongoIndexProperties;
+import cardoso.commerce.app.entity.Basket;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Mongo Index Manager Unit Tests")
+class MongoIndexManagerTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private IndexOperations indexOperations;
+
+    @BeforeEach
+    void setUp() {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        lenient().when(mongoTemplate.getConverter()).thenReturn(converter);
+        lenient().when(mongoTemplate.getCollectionName(Basket.class)).thenReturn("basket");
+        lenient().when(mongoTemplate.indexOps(Basket.class)).thenReturn(indexOperations);
+    }
+
+    @Test
+    @DisplayName("Should declare a unique index on clientId limited to OPEN baskets")
+    void declaredIndexes_ShouldIncludePartialUniqueOpenBasketIndex() {
+        // Act
+        List<IndexDefinition> indexes = manager(true).declaredIndexes(Basket.class);
+
+        // Assert
+        IndexDefinition openBasket = index(indexes, "open_basket_per_client");
+        assertEquals(new Document("clientId", 1), openBasket.getIndexKeys());
+        assertTrue(openBasket.getIndexOptions().getBoolean("unique"));
+        assertEquals(new Document("status", "OPEN"), openBasket.getIndexOptions().get("partialFilterExpression"));
+        assertEquals(new Document("clientId", 1).append("status", 1), index(indexes, "client_status").getIndexKeys());
+        assertNotNull(index(indexes, "status_payment_id"));
+        assertEquals(new Document("status", 1).append("_id", 1), index(indexes, "status_id").getIndexKeys());
+        assertEquals(new Document("status", 1).append("soldAt", 1), index(indexes, "status_sold_at").getIndexKeys());
+    }
+
+    @Test
+    @DisplayName("Should create every declared index and accept them when present")
+    void afterSingletonsInstantiated_ShouldCreateAndCheckIndexes() {
+        // Arrange
+        when(indexOperations.getIndexInfo()).thenReturn(List.of(
+                info("client_status", false), info("open_basket_per_client", true), info("status_payment_id", false),
+                info("status_id", false), info("status_sold_at", false)));
+
+        // Act
+        manager(true).afterSingletonsInstantiated();
+
+        // Assert
+        verify(indexOperations, times(5)).createIndex(any(IndexDefinition.class));
+    }
+
+    @Test
+    @DisplayName("Should fail startup when an index does not match its declaration")
+    void afterSingletonsInstantiated_ShouldFailWhenIndexDiffers() {
+        // Arrange
+        when(indexOperations.getIndexInfo()).thenReturn(List.of(
+                info("client_status", false), info("open_basket_per_client", false), info("status_payment_id", false),
+                info("status_id", false), info("status_sold_at", false)));
+
+        // Act & Assert
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> manager(true).afterSingletonsInstantiated());
+        assertTrue(exception.getMessage().contains("open_basket_per_client"));
+    }
+
+    @Test
+    @DisplayName("Should not touch MongoDB when disabled")
+    void afterSingletonsInstantiated_ShouldSkipWhenDisabled() {
+        // Act
+        manager(false).afterSingletonsInstantiated();
+
+        // Assert
+        verifyNoInteractions(indexOperations);
+    }
+
+    private MongoIndexManager manager(boolean enabled) {
+        return new MongoIndexManager(mongoTemplate, new MongoIndexProperties(enabled));
+    }
+
+    private static IndexDefinition index(List<IndexDefinition> indexes, String name) {
+        return indexes.stream()
+                .filter(index -> name.equals(index.getIndexOptions().getString("name")))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static IndexInfo info(String name, boolean unique) {
+        return new IndexInfo(List.of(), name, unique, false, null);
+    }
+}
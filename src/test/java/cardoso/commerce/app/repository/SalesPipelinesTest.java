@@ -0,0 +1,91 @@
+package cardoso.commerce.app.repository;
+
+import cardoso.commerce.app.entity.Basket;
+import cardoso.commerce.app.entity.PaymentMethod;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.aggregation.TypeBasedAggregationOperationContext;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Sales Pipelines Unit Tests")
+class SalesPipelinesTest {
+
+    private static final Instant FROM = Instant.parse("2025-09-01T00:00:00Z");
+    private static final Instant TO = Instant.parse("2025-09-02T00:00:00Z");
+
+    private TypeBasedAggregationOperationContext context;
+
+    @BeforeEach
+    void setUp() {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        context = new TypeBasedAggregationOperationContext(Basket.class, mappingContext, new QueryMapper(converter));
+    }
+
+    @Test
+    @DisplayName("Should match SOLD baskets by soldAt, or by ObjectId time when soldAt is missing")
+    void payments_ShouldMatchSoldBasketsInRange() {
+        // Act
+        List<Document> pipeline = SalesPipelines.payments(FROM, TO).toPipeline(context);
+
+        // Assert
+        String match = pipeline.get(0).toJson();
+        assertTrue(match.contains("\"status\": \"SOLD\""), match);
+        assertTrue(match.contains("\"soldAt\""), match);
+        Document legacy = pipeline.get(0).get("$match", Document.class).getList("$and", Document.class).get(1)
+                .getList("$or", Document.class).get(1).getList("$and", Document.class).get(1);
+        Document id = legacy.get("_id", Document.class);
+        assertEquals(new ObjectId("68b4e2000000000000000000"), id.get("$gte"));
+        assertEquals(new ObjectId("68b633800000000000000000"), id.get("$lt"));
+        assertTrue(pipeline.get(1).containsKey("$group"));
+    }
+
+    @Test
+    @DisplayName("Should unwind products and group units by product id")
+    void products_ShouldGroupByStoredProductId() {
+        // Act
+        List<Document> pipeline = SalesPipelines.products(FROM, TO).toPipeline(context);
+
+        // Assert
+        assertEquals(new Document("path", "$products"), pipeline.get(1).get("$unwind"));
+        Document group = pipeline.get(2).get("$group", Document.class);
+        assertEquals("$products._id", group.get("_id", Document.class).get("productId"));
+    }
+
+    @Test
+    @DisplayName("Should read decimal revenue and minute buckets from the grouped rows")
+    void paymentSales_ShouldConvertRow() {
+        // Arrange
+        Document row = new Document("_id", new Document("minute", Date.from(FROM)).append("paymentMethod", "PIX"))
+                .append("revenue", new Decimal128(new BigDecimal("25.50")))
+                .append("baskets", 2);
+
+        // Act
+        PaymentSales sales = SalesPipelines.paymentSales(row);
+
+        // Assert
+        assertEquals(FROM, sales.minute());
+        assertEquals(PaymentMethod.PIX, sales.paymentMethod());
+        assertEquals(new BigDecimal("25.50"), sales.revenue());
+        assertEquals(2, sales.baskets());
+    }
+}
@@ -0,0 +1,127 @@
+package cardoso.commerce.app.sales;
+
+import cardoso.commerce.app.config.SalesProperties;
+import cardoso.commerce.app.controller.response.SalesBucket;
+import cardoso.commerce.app.entity.Basket;
+import cardoso.commerce.app.entity.PaymentMethod;
+import cardoso.commerce.app.entity.Product;
+import cardoso.commerce.app.entity.Status;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Sales Counters Unit Tests")
+class SalesCountersTest {
+
+    private static final Instant SOLD_AT = Instant.parse("2025-09-01T12:34:56Z");
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    @DisplayName("Should add a sale to its minute, hour and day buckets in one script")
+    void record_ShouldIncrementEveryGranularity() {
+        // Act
+        counters(true).record(basket());
+
+        // Assert
+        List<String> keys = List.of("basket:sales:minute:" + Instant.parse("2025-09-01T12:34:00Z").getEpochSecond(),
+                "basket:sales:hour:" + Instant.parse("2025-09-01T12:00:00Z").getEpochSecond(),
+                "basket:sales:day:" + Instant.parse("2025-09-01T00:00:00Z").getEpochSecond());
+        verify(redisTemplate).execute(any(RedisScript.class), eq(keys), eq("PIX"), eq("2550"),
+                eq(String.valueOf(Instant.parse("2025-09-03T12:35:00Z").toEpochMilli())),
+                eq(String.valueOf(Instant.parse("2025-11-30T13:00:00Z").toEpochMilli())),
+                eq(String.valueOf(Instant.parse("2035-08-31T00:00:00Z").toEpochMilli())),
+                eq("7"), eq("2"), eq("9"), eq("1"));
+        assertEquals(1, meterRegistry.counter("basket.sales.updates", "outcome", "recorded").count());
+    }
+
+    @Test
+    @DisplayName("Should not fail the checkout when Redis is unavailable")
+    void record_ShouldSwallowRedisFailures() {
+        // Arrange
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+                .thenThrow(new RedisConnectionFailureException("down"));
+
+        // Act & Assert
+        assertDoesNotThrow(() -> counters(true).record(basket()));
+        assertEquals(1, meterRegistry.counter("basket.sales.updates", "outcome", "failed").count());
+    }
+
+    @Test
+    @DisplayName("Should not touch Redis when disabled")
+    void record_ShouldSkipWhenDisabled() {
+        // Act
+        counters(false).record(basket());
+
+        // Assert
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    @DisplayName("Should read every bucket of the range, empty ones included")
+    @SuppressWarnings("unchecked")
+    void read_ShouldReturnOneBucketPerStart() {
+        // Arrange
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenReturn(List.of(
+                Map.of("revenue:PIX", "2550", "baskets:PIX", "2", "units:7", "3"),
+                Map.of()));
+
+        // Act
+        List<SalesBucket> buckets = counters(true).read(SalesGranularity.HOUR,
+                Instant.parse("2025-09-01T12:00:00Z"), Instant.parse("2025-09-01T14:00:00Z"));
+
+        // Assert
+        assertEquals(2, buckets.size());
+        assertEquals(Instant.parse("2025-09-01T13:00:00Z"), buckets.get(1).start());
+        assertEquals(new BigDecimal("25.50"), buckets.get(0).revenue().get(PaymentMethod.PIX));
+        assertEquals(2L, buckets.get(0).baskets().get(PaymentMethod.PIX));
+        assertEquals(3L, buckets.get(0).units().get(7L));
+        assertTrue(buckets.get(1).revenue().isEmpty());
+    }
+
+    private SalesCounters counters(boolean enabled) {
+        SalesProperties properties = new SalesProperties(enabled, "basket:sales", Duration.ofHours(48),
+                Duration.ofDays(90), Duration.ofDays(3650), 1500);
+        return new SalesCounters(redisTemplate, properties, meterRegistry);
+    }
+
+    private static Basket basket() {
+        return Basket.builder()
+                .id("66f1a2b3c4d5e6f7a8b9c0d1")
+                .status(Status.SOLD)
+                .paymentMethod(PaymentMethod.PIX)
+                .soldAt(SOLD_AT)
+                .totalPrice(new BigDecimal("25.50"))
+                .products(List.of(
+                        Product.builder().id(7L).price(new BigDecimal("10.00")).quantity(2).build(),
+                        Product.builder().id(9L).price(new BigDecimal("5.50")).quantity(1).build()))
+                .build();
+    }
+}
@@ -0,0 +1,212 @@
+package cardoso.commerce.app.service;
+
+import cardoso.commerce.app.config.BasketBatchProperties;
+import cardoso.commerce.app.controller.request.BasketBatchOperation;
+import cardoso.commerce.app.controller.request.ProductRequest;
+import cardoso.commerce.app.controller.response.BasketBatchResult;
+import cardoso.commerce.app.entity.Basket;
+import cardoso.commerce.app.entity.Product;
+import cardoso.commerce.app.entity.Status;
+import cardoso.commerce.app.exception.BusinessesException;
+import cardoso.commerce.app.exception.DataNotFoundException;
+import cardoso.commerce.app.hotstore.HotBasketStore;
+import cardoso.commerce.app.repository.BasketRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Basket Batch Service Unit Tests")
+class BasketBatchServiceTest {
+
+    @Mock
+    private BasketRepository basketRepository;
+
+    @Mock
+    private ProductResolver productResolver;
+
+    @Mock
+    private HotBasketStore hotBasketStore;
+
+    private BasketBatchService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new BasketBatchService(basketRepository, productResolver, hotBasketStore, new BasketBatchProperties(3));
+        lenient().when(productResolver.resolveAll(anyCollection())).thenReturn(new ProductResolver.Resolution(
+                Map.of(1L, product(1L), 2L, product(2L)),
+                Map.of(9L, new DataNotFoundException("Product not found"))));
+        lenient().when(basketRepository.writeAll(anyCollection())).thenReturn(Set.of());
+    }
+
+    @Test
+    @DisplayName("Should resolve products once and write every basket in one bulk write")
+    void apply_ShouldResolveOnceAndWriteOnce() {
+        // Arrange
+        Basket stored = openBasket("basket-1", 7L);
+        when(basketRepository.findAllById(List.of("basket-1"))).thenReturn(List.of(stored));
+        when(basketRepository.findByClientIdInAndStatus(List.of(42L), Status.OPEN)).thenReturn(List.of());
+
+        // Act
+        List<BasketBatchResult> results = service.apply(List.of(
+                new BasketBatchOperation(null, 42L, List.of(new ProductRequest(1L, 2))),
+                new BasketBatchOperation("basket-1", null, List.of(new ProductRequest(2L, 1))),
+                new BasketBatchOperation(null, 42L, List.of(new ProductRequest(1L, 1), new ProductRequest(2L, 1)))));
+
+        // Assert
+        verify(productResolver).resolveAll(List.of(1L, 2L));
+        Collection<Basket> written = writtenBaskets();
+        assertEquals(2, written.size());
+        assertEquals(201, results.get(0).status());
+        assertEquals(200, results.get(1).status());
+        assertEquals(201, results.get(2).status());
+        assertEquals(results.get(0).basketId(), results.get(2).basketId());
+        assertEquals(new BigDecimal("40.00"), results.get(2).totalPrice());
+        assertEquals("basket-1", results.get(1).basketId());
+    }
+
+    @Test
+    @DisplayName("Should fail only the operations that cannot be applied")
+    void apply_ShouldReportFailuresPerOperation() {
+        // Arrange
+        Basket sold = openBasket("sold", 1L);
+        sold.setStatus(Status.SOLD);
+        when(basketRepository.findAllById(anyCollection())).thenReturn(List.of(sold));
+
+        // Act
+        List<BasketBatchResult> results = service.apply(List.of(
+                new BasketBatchOperation("missing", null, List.of(new ProductRequest(1L, 1))),
+                new BasketBatchOperation("sold", null, List.of(new ProductRequest(1L, 1))),
+                new BasketBatchOperation(null, 42L, List.of(new ProductRequest(9L, 1)))));
+
+        // Assert
+        assertEquals(404, results.get(0).status());
+        assertEquals(400, results.get(1).status());
+        assertEquals(404, results.get(2).status());
+        assertTrue(writtenBaskets().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should report a conflict for every operation on a basket that was not written")
+    void apply_ShouldReportConflicts() {
+        // Arrange
+        when(basketRepository.findAllById(List.of("basket-1"))).thenReturn(List.of(openBasket("basket-1", 7L)));
+        when(basketRepository.writeAll(anyCollection())).thenReturn(Set.of("basket-1"));
+
+        // Act
+        List<BasketBatchResult> results = service.apply(List.of(
+                new BasketBatchOperation("basket-1", null, List.of(new ProductRequest(1L, 1))),
+                new BasketBatchOperation("basket-1", null, List.of(new ProductRequest(2L, 1)))));
+
+        // Assert
+        assertEquals(409, results.get(0).status());
+        assertEquals(409, results.get(1).status());
+        assertNotNull(results.get(1).error());
+    }
+
+    @Test
+    @DisplayName("Should write baskets held by the hot store to Redis instead of MongoDB")
+    void apply_ShouldWriteHotBasketsToRedis() {
+        // Arrange
+        Basket hot = openBasket("hot", 42L);
+        when(hotBasketStore.isEnabled()).thenReturn(true);
+        when(hotBasketStore.findAll(anyCollection())).thenReturn(Map.of());
+        when(hotBasketStore.findOpenBaskets(anyCollection())).thenReturn(Map.of(42L, hot));
+        when(hotBasketStore.update(hot)).thenReturn(true);
+
+        // Act
+        List<BasketBatchResult> results = service.apply(List.of(
+                new BasketBatchOperation(null, 42L, List.of(new ProductRequest(1L, 1)))));
+
+        // Assert
+        assertEquals(200, results.get(0).status());
+        verify(hotBasketStore).update(hot);
+        verify(basketRepository, never()).findByClientIdInAndStatus(anyList(), any());
+        verify(basketRepository, never()).writeAll(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Should move stored and new baskets into the hot store and report those it already holds")
+    void apply_ShouldInsertStoredAndNewBasketsIntoHotStore() {
+        // Arrange
+        Basket stored = openBasket("basket-1", 7L);
+        when(hotBasketStore.isEnabled()).thenReturn(true);
+        when(hotBasketStore.findAll(anyCollection())).thenReturn(Map.of());
+        when(hotBasketStore.findOpenBaskets(anyCollection())).thenReturn(Map.of());
+        when(basketRepository.findAllById(List.of("basket-1"))).thenReturn(List.of(stored));
+        when(basketRepository.findByClientIdInAndStatus(List.of(42L), Status.OPEN)).thenReturn(List.of());
+        // a single request moved basket-1 into the hot store after the batch read it from MongoDB
+        when(hotBasketStore.insert(stored)).thenReturn(false);
+        when(hotBasketStore.insert(argThat(basket -> basket != stored))).thenReturn(true);
+
+        // Act
+        List<BasketBatchResult> results = service.apply(List.of(
+                new BasketBatchOperation("basket-1", null, List.of(new ProductRequest(1L, 1))),
+                new BasketBatchOperation(null, 42L, List.of(new ProductRequest(2L, 1)))));
+
+        // Assert
+        assertEquals(409, results.get(0).status());
+        assertEquals(201, results.get(1).status());
+        verify(hotBasketStore, times(2)).insert(any(Basket.class));
+        verify(hotBasketStore, never()).update(any(Basket.class));
+        verify(basketRepository, never()).writeAll(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Should reject batches larger than the configured limit")
+    void apply_ShouldRejectOversizedBatch() {
+        // Arrange
+        List<BasketBatchOperation> operations = new ArrayList<>(Collections.nCopies(4,
+                new BasketBatchOperation(null, 42L, List.of(new ProductRequest(1L, 1)))));
+
+        // Act & Assert
+        assertThrows(BusinessesException.class, () -> service.apply(operations));
+        verifyNoInteractions(productResolver, basketRepository);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Collection<Basket> writtenBaskets() {
+        ArgumentCaptor<Collection<Basket>> written = ArgumentCaptor.forClass(Collection.class);
+        verify(basketRepository).writeAll(written.capture());
+        return written.getValue();
+    }
+
+    private static Basket openBasket(String id, Long clientId) {
+        Basket basket = Basket.builder()
+                .id(id)
+                .clientId(clientId)
+                .status(Status.OPEN)
+                .version(3L)
+                .build();
+        basket.replaceProducts(List.of());
+        return basket;
+    }
+
+    private static Product product(Long id) {
+        return Product.builder()
+                .id(id)
+                .title("Product " + id)
+                .price(new BigDecimal("10.00"))
+                .quantity(1)
+                .build();
+    }
+}
@@ -0,0 +1,134 @@
+package cardoso.commerce.app.service;
+
+import cardoso.commerce.app.controller.request.BasketRequest;
+import cardoso.commerce.app.controller.request.ProductRequest;
+import cardoso.commerce.app.entity.Basket;
+import cardoso.commerce.app.entity.Product;
+import cardoso.commerce.app.entity.Status;
+import cardoso.commerce.app.repository.BasketRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+
+/**
+ * Hammers one basket with concurrent add-items requests against a real MongoDB and checks that no
+ * update was lost. Needs Docker; skipped otherwise.
+ */
+@SpringBootTest(properties = {"basket.update.max-attempts=100", "basket.mongo.indexes.enabled=true"})
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("Basket Concurrency Stress Tests")
+class BasketConcurrencyStressTest {
+
+    private static final long CLIENT_ID = 42L;
+    private static final BigDecimal PRICE = new BigDecimal("2.50");
+    private static final int WRITERS = 32;
+    private static final int REQUESTS_PER_WRITER = 25;
+
+    @Container
+    @ServiceConnection
+    static MongoDBContainer mongo = new MongoDBContainer("mongo:7.0");
+
+    @Autowired
+    private BasketService basketService;
+
+    @Autowired
+    private BasketRepository basketRepository;
+
+    @MockitoBean
+    private ProductResolver productResolver;
+
+    @BeforeEach
+    void setUp() {
+        basketRepository.deleteAll();
+        when(productResolver.resolve(anyList())).thenAnswer(invocation -> {
+            List<ProductRequest> requests = invocation.getArgument(0);
+            return requests.stream()
+                    .map(request -> Product.builder()
+                            .id(request.productId())
+                            .title("Product " + request.productId())
+                            .price(PRICE)
+                            .quantity(request.quantity())
+                            .build())
+                    .toList();
+        });
+    }
+
+    @Test
+    @DisplayName("Should apply every concurrent add to the same basket exactly once")
+    void createBasket_ShouldNotLoseConcurrentAdds() throws Exception {
+        // Arrange
+        basketService.createBasket(request(1L));
+        AtomicInteger applied = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+
+        // Act
+        try (ExecutorService writers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int writer = 0; writer < WRITERS; writer++) {
+                long productId = writer % 4 + 1;
+                writers.submit(() -> {
+                    for (int i = 0; i < REQUESTS_PER_WRITER; i++) {
+                        try {
+                            basketService.createBasket(request(productId));
+                            applied.incrementAndGet();
+                        } catch (OptimisticLockingFailureException exception) {
+                            conflicts.incrementAndGet();
+                        }
+                    }
+                });
+            }
+        }
+
+        // Assert
+        assertEquals(WRITERS * REQUESTS_PER_WRITER, applied.get() + conflicts.get());
+        assertTrue(applied.get() > 0);
+        List<Basket> baskets = basketRepository.findAll();
+        assertEquals(1, baskets.size());
+        Basket basket = baskets.get(0);
+        int quantity = basket.getProducts().stream().mapToInt(Product::getQuantity).sum();
+        assertEquals(Status.OPEN, basket.getStatus());
+        assertEquals(4, basket.getProducts().size());
+        assertEquals(1 + applied.get(), quantity);
+        assertEquals(0, PRICE.multiply(BigDecimal.valueOf(quantity)).compareTo(basket.getTotalPrice()));
+        assertEquals(applied.get(), basket.getVersion());
+    }
+
+    @Test
+    @DisplayName("Should open a single basket when a client's first requests race")
+    void createBasket_ShouldOpenOneBasketPerClient() {
+        // Act
+        try (ExecutorService writers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int writer = 0; writer < WRITERS; writer++) {
+                writers.submit(() -> basketService.createBasket(request(1L)));
+            }
+        }
+
+        // Assert
+        List<Basket> baskets = basketRepository.findAll();
+        assertEquals(1, baskets.size());
+        assertEquals(WRITERS, baskets.get(0).getProducts().get(0).getQuantity());
+    }
+
+    private static BasketRequest request(long productId) {
+        return new BasketRequest(CLIENT_ID, List.of(new ProductRequest(productId, 1)));
+    }
+}
@@ -0,0 +1,92 @@
+package cardoso.commerce.app.service;
+
+import cardoso.commerce.app.config.BasketExportProperties;
+import cardoso.commerce.app.entity.Basket;
+import cardoso.commerce.app.entity.PaymentMethod;
+import cardoso.commerce.app.entity.Product;
+import cardoso.commerce.app.entity.Status;
+import cardoso.commerce.app.exception.BusinessesException;
+import cardoso.commerce.app.repository.BasketExportFilter;
+import cardoso.commerce.app.repository.BasketRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Basket Export Service Unit Tests")
+class BasketExportServiceTest {
+
+    @Mock
+    private BasketRepository basketRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private BasketExportService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new BasketExportService(basketRepository, new BasketExportProperties(100, Duration.ofHours(2)), objectMapper);
+    }
+
+    @Test
+    @DisplayName("Should write one JSON line per basket and close the cursor")
+    void export_ShouldWriteNdjson() throws Exception {
+        // Arrange
+        BasketExportFilter filter = new BasketExportFilter(Status.SOLD, PaymentMethod.PIX, null, null);
+        AtomicBoolean closed = new AtomicBoolean();
+        when(basketRepository.streamForExport(filter, 100))
+                .thenReturn(Stream.of(basket("66f1a2b3c4d5e6f7a8b9c0d1"), basket("66f1a2b3c4d5e6f7a8b9c0d2"))
+                        .onClose(() -> closed.set(true)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        service.export(filter, out);
+
+        // Assert
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n", -1);
+        assertEquals(3, lines.length);
+        assertEquals("", lines[2]);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals("66f1a2b3c4d5e6f7a8b9c0d1", first.get("id").asText());
+        assertEquals(2, first.get("products").get(0).get("quantity").asInt());
+        assertFalse(first.get("products").get(0).has("title"));
+        assertTrue(closed.get());
+    }
+
+    @Test
+    @DisplayName("Should reject export bounds that are not basket ids")
+    void validate_ShouldRejectInvalidIds() {
+        // Act & Assert
+        assertThrows(BusinessesException.class,
+                () -> BasketExportService.validate(new BasketExportFilter(null, null, "not-an-id", null)));
+        assertDoesNotThrow(() -> BasketExportService.validate(
+                new BasketExportFilter(null, null, "66f1a2b3c4d5e6f7a8b9c0d1", null)));
+    }
+
+    private static Basket basket(String id) {
+        return Basket.builder()
+                .id(id)
+                .clientId(42L)
+                .status(Status.SOLD)
+                .paymentMethod(PaymentMethod.PIX)
+                .totalPrice(new BigDecimal("20.00"))
+                .products(List.of(Product.builder().id(1L).price(BigDecimal.TEN).quantity(2).build()))
+                .version(2L)
+                .build();
+    }
+}
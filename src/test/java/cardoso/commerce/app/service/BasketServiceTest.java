@@ -0,0 +1,138 @@
+package cardoso.commerce.app.service;
+
+import cardoso.commerce.app.config.BasketUpdateProperties;
+import cardoso.commerce.app.controller.request.BasketRequest;
+import cardoso.commerce.app.controller.request.PaymentRequest;
+import cardoso.commerce.app.controller.request.ProductRequest;
+import cardoso.commerce.app.entity.Basket;
+import cardoso.commerce.app.entity.PaymentMethod;
+import cardoso.commerce.app.entity.Product;
+import cardoso.commerce.app.entity.Status;
+import cardoso.commerce.app.exception.PreconditionFailedException;
+import cardoso.commerce.app.hotstore.HotBasketFlusher;
+import cardoso.commerce.app.hotstore.HotBasketStore;
+import cardoso.commerce.app.idempotency.IdempotencyStore;
+import cardoso.commerce.app.repository.BasketRepository;
+import cardoso.commerce.app.sales.SalesCounters;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Basket Service Unit Tests")
+class BasketServiceTest {
+
+    @Mock
+    private BasketRepository basketRepository;
+
+    @Mock
+    private ProductResolver productResolver;
+
+    @Mock
+    private HotBasketStore hotBasketStore;
+
+    @Mock
+    private HotBasketFlusher hotBasketFlusher;
+
+    @Mock
+    private IdempotencyStore idempotencyStore;
+
+    @Mock
+    private SalesCounters salesCounters;
+
+    private BasketService basketService;
+
+    @BeforeEach
+    void setUp() {
+        basketService = new BasketService(basketRepository, productResolver, new BasketUpdateProperties(3),
+                hotBasketStore, hotBasketFlusher, idempotencyStore, salesCounters,
+                new BasketSizeMetrics(new SimpleMeterRegistry()));
+    }
+
+    @Test
+    @DisplayName("Should accept If-Match \"0\" for a basket stored before versioning")
+    void updateBasket_ShouldAcceptVersionZero_WhenBasketIsUnversioned() {
+        // Arrange
+        Basket legacy = legacyBasket();
+        BasketRequest request = new BasketRequest(1L, List.of(new ProductRequest(9L, 1)));
+        List<Product> products = List.of(product(9L));
+        when(productResolver.resolve(request.products())).thenReturn(products);
+        when(basketRepository.findById("basket-1")).thenReturn(Optional.of(legacy));
+        when(basketRepository.replaceProducts(any(Basket.class), anyList())).thenReturn(true);
+
+        // Act
+        Basket updated = basketService.updateBasket("basket-1", request, Set.of(0L));
+
+        // Assert
+        assertSame(legacy, updated);
+        verify(basketRepository).replaceProducts(legacy, products);
+    }
+
+    @Test
+    @DisplayName("Should reject an If-Match version the unversioned basket is not at")
+    void updateBasket_ShouldRejectOtherVersions_WhenBasketIsUnversioned() {
+        // Arrange
+        BasketRequest request = new BasketRequest(1L, List.of(new ProductRequest(9L, 1)));
+        when(basketRepository.findById("basket-1")).thenReturn(Optional.of(legacyBasket()));
+
+        // Act & Assert
+        PreconditionFailedException exception = assertThrows(PreconditionFailedException.class,
+                () -> basketService.updateBasket("basket-1", request, Set.of(1L)));
+        assertEquals("Basket basket-1 is at version 0", exception.getMessage());
+        verify(basketRepository, never()).replaceProducts(any(Basket.class), anyList());
+    }
+
+    @Test
+    @DisplayName("Should record a hot checkout once even when its flush fails and the client retries")
+    void updatePaymentMethod_ShouldRecordSaleOnce_WhenFlushFailsAndCheckoutIsRetried() {
+        // Arrange
+        Basket basket = legacyBasket();
+        PaymentRequest request = new PaymentRequest();
+        request.setPaymentMethod(PaymentMethod.PIX);
+        when(hotBasketStore.isEnabled()).thenReturn(true);
+        when(hotBasketStore.find("basket-1")).thenReturn(Optional.of(basket));
+        when(hotBasketStore.update(basket)).thenReturn(true);
+        when(hotBasketFlusher.flush(List.of("basket-1"))).thenReturn(Set.of("basket-1"), Set.of());
+
+        // Act
+        assertThrows(IllegalStateException.class, () -> basketService.updatePaymentMethod("basket-1", request));
+        Basket retried = basketService.updatePaymentMethod("basket-1", request);
+
+        // Assert
+        assertEquals(Status.SOLD, retried.getStatus());
+        verify(salesCounters, times(1)).record(basket);
+        verify(hotBasketStore, times(1)).update(basket);
+    }
+
+    private static Basket legacyBasket() {
+        Basket basket = Basket.builder()
+                .id("basket-1")
+                .clientId(1L)
+                .status(Status.OPEN)
+                .build();
+        basket.replaceProducts(List.of(product(5L)));
+        return basket;
+    }
+
+    private static Product product(Long id) {
+        return Product.builder()
+                .id(id)
+                .title("Product " + id)
+                .price(BigDecimal.TEN)
+                .quantity(1)
+                .build();
+    }
+}
@@ -0,0 +1,158 @@
+package cardoso.commerce.app.service;
+
+import cardoso.commerce.app.client.response.PlatziProductResponse;
+import cardoso.commerce.app.config.ProductResolutionProperties;
+import cardoso.commerce.app.controller.request.ProductRequest;
+import cardoso.commerce.app.entity.Product;
+import cardoso.commerce.app.exception.DataNotFoundException;
+import cardoso.commerce.app.exception.ProductResolutionException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Product Resolver Unit Tests")
+class ProductResolverTest {
+
+    @Mock
+    private ProductService productService;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.close();
+    }
+
+    @Test
+    @DisplayName("Should resolve lookups concurrently and keep request order")
+    void resolve_ShouldFanOutLookups() {
+        // Arrange
+        ProductResolver resolver = resolver(Duration.ofSeconds(5), 64);
+        when(productService.getProductById(anyLong())).thenAnswer(invocation -> {
+            Thread.sleep(200);
+            return product(invocation.getArgument(0));
+        });
+        List<ProductRequest> requests = LongStream.rangeClosed(1, 20)
+                .mapToObj(id -> new ProductRequest(id, 1))
+                .toList();
+
+        // Act
+        long start = System.nanoTime();
+        List<Product> products = resolver.resolve(requests);
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        // Assert
+        assertEquals(20, products.size());
+        assertEquals(1L, products.get(0).getId());
+        assertEquals(20L, products.get(19).getId());
+        assertTrue(elapsed.compareTo(Duration.ofSeconds(2)) < 0, "lookups ran sequentially: " + elapsed);
+    }
+
+    @Test
+    @DisplayName("Should fetch a repeated product id only once")
+    void resolve_ShouldDeduplicateProductIds() {
+        // Arrange
+        ProductResolver resolver = resolver(Duration.ofSeconds(5), 64);
+        when(productService.getProductById(5L)).thenReturn(product(5L));
+
+        // Act
+        List<Product> products = resolver.resolve(List.of(new ProductRequest(5L, 1), new ProductRequest(5L, 3)));
+
+        // Assert
+        assertEquals(2, products.size());
+        assertEquals(3, products.get(1).getQuantity());
+        verify(productService, times(1)).getProductById(5L);
+    }
+
+    @Test
+    @DisplayName("Should report every failed lookup together")
+    void resolve_ShouldReportFailuresInBulk() {
+        // Arrange
+        ProductResolver resolver = resolver(Duration.ofSeconds(5), 64);
+        when(productService.getProductById(1L)).thenReturn(product(1L));
+        when(productService.getProductById(2L)).thenThrow(new DataNotFoundException("Product not found"));
+        when(productService.getProductById(3L)).thenThrow(new DataNotFoundException("Product not found"));
+
+        // Act
+        ProductResolutionException exception = assertThrows(ProductResolutionException.class, () -> resolver.resolve(List.of(
+                new ProductRequest(1L, 1), new ProductRequest(2L, 1), new ProductRequest(3L, 1))));
+
+        // Assert
+        assertEquals(2, exception.getFailures().size());
+        assertTrue(exception.isNotFound());
+    }
+
+    @Test
+    @DisplayName("Should resolve a batch past failures and fail only the requests that need them")
+    void resolveAll_ShouldKeepPartialResults() {
+        // Arrange
+        ProductResolver resolver = resolver(Duration.ofSeconds(5), 64);
+        when(productService.getProductById(1L)).thenReturn(product(1L));
+        when(productService.getProductById(2L)).thenThrow(new DataNotFoundException("Product not found"));
+
+        // Act
+        ProductResolver.Resolution resolution = resolver.resolveAll(List.of(1L, 2L));
+
+        // Assert
+        List<Product> products = resolution.productsFor(List.of(new ProductRequest(1L, 4)));
+        assertEquals(4, products.get(0).getQuantity());
+        assertEquals(1, resolution.products().get(1L).getQuantity());
+        ProductResolutionException exception = assertThrows(ProductResolutionException.class,
+                () -> resolution.productsFor(List.of(new ProductRequest(1L, 1), new ProductRequest(2L, 1))));
+        assertEquals(Set.of(2L), exception.getFailures().keySet());
+    }
+
+    @Test
+    @DisplayName("Should fail lookups that miss the deadline")
+    void resolve_ShouldTimeOutSlowLookups() {
+        // Arrange
+        ProductResolver resolver = resolver(Duration.ofMillis(100), 64);
+        when(productService.getProductById(anyLong())).thenAnswer(invocation -> {
+            Thread.sleep(2_000);
+            return product(invocation.getArgument(0));
+        });
+
+        // Act
+        ProductResolutionException exception = assertThrows(ProductResolutionException.class,
+                () -> resolver.resolve(List.of(new ProductRequest(1L, 1))));
+
+        // Assert
+        assertInstanceOf(TimeoutException.class, exception.getFailures().get(1L));
+        assertFalse(exception.isNotFound());
+    }
+
+    private ProductResolver resolver(Duration timeout, int maxConcurrency) {
+        return new ProductResolver(productService, executor, new ProductResolutionProperties(timeout, maxConcurrency));
+    }
+
+    private static PlatziProductResponse product(long id) {
+        return PlatziProductResponse.builder()
+                .id(id)
+                .title("Product " + id)
+                .price(BigDecimal.TEN)
+                .build();
+    }
+}
@@ -0,0 +1,155 @@
+package cardoso.commerce.app.service;
+
+import cardoso.commerce.app.cache.CacheEntry;
+import cardoso.commerce.app.cache.CacheInvalidationPublisher;
+import cardoso.commerce.app.cache.CacheSpec;
+import cardoso.commerce.app.cache.DistributedFetchLock;
+import cardoso.commerce.app.cache.SingleFlight;
+import cardoso.commerce.app.cache.TwoTierCache;
+import cardoso.commerce.app.cache.TwoTierCacheManager;
+import cardoso.commerce.app.catalog.CatalogIndex;
+import cardoso.commerce.app.catalog.CatalogPages;
+import cardoso.commerce.app.catalog.CatalogSnapshot;
+import cardoso.commerce.app.catalog.CatalogSnapshotService;
+import cardoso.commerce.app.client.PlatziStoreClient;
+import cardoso.commerce.app.client.response.PlatziProductResponse;
+import cardoso.commerce.app.config.CatalogCacheProperties;
+import cardoso.commerce.app.config.CatalogPageProperties;
+import cardoso.commerce.app.config.SingleFlightProperties;
+import cardoso.commerce.app.exception.DataNotFoundException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Product Service Catalog Cache Unit Tests")
+class ProductServiceTest {
+
+    @Mock
+    private PlatziStoreClient platziStoreClient;
+
+    @Mock
+    private CatalogSnapshotService catalogSnapshotService;
+
+    private ConcurrentMapCacheManager remoteCacheManager;
+    private TwoTierCache cache;
+    private ProductService productService;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        remoteCacheManager = new ConcurrentMapCacheManager();
+        TwoTierCacheManager cacheManager = new TwoTierCacheManager(remoteCacheManager, 10_000, Duration.ofMinutes(1),
+                name -> CacheSpec.of(Duration.ofMinutes(10)), CacheInvalidationPublisher.disabled(),
+                Runnable::run, meterRegistry);
+        DistributedFetchLock distributedFetchLock = new DistributedFetchLock(null,
+                new SingleFlightProperties(new SingleFlightProperties.DistributedLock(false, null, null, null)),
+                meterRegistry);
+        productService = new ProductService(platziStoreClient, catalogSnapshotService, cacheManager,
+                new SingleFlight<>("products", meterRegistry), distributedFetchLock,
+                new CatalogPages(new ObjectMapper(), new CatalogPageProperties(50, 200, 100)),
+                new CatalogCacheProperties(1000, 2));
+        cache = (TwoTierCache) cacheManager.getCache("products");
+    }
+
+    @Test
+    @DisplayName("Should cache each product and the list as an index of their ids")
+    void getAllProducts_ShouldStoreProductsAndIndex() {
+        // Arrange
+        List<PlatziProductResponse> products = products(1, 5);
+        when(platziStoreClient.getAllProducts()).thenReturn(products);
+
+        // Act
+        List<PlatziProductResponse> loaded = productService.getAllProducts();
+        List<PlatziProductResponse> assembled = productService.getAllProducts();
+
+        // Assert
+        assertEquals(products, loaded);
+        assertEquals(products, assembled);
+        assertEquals(products.get(2), productService.getProductById(3L));
+        CacheEntry index = (CacheEntry) remoteCacheManager.getCache("products").get("catalog").get();
+        assertEquals(CatalogIndex.of(products), index.value());
+        verify(platziStoreClient, times(1)).getAllProducts();
+        verify(platziStoreClient, never()).getProductById(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should load only the evicted products and skip the ones removed upstream")
+    void getAllProducts_ShouldReloadMissingProducts() {
+        // Arrange
+        List<PlatziProductResponse> products = products(1, 5);
+        PlatziProductResponse updated = new PlatziProductResponse(2L, "Product 2 v2", BigDecimal.TEN);
+        when(platziStoreClient.getAllProducts()).thenReturn(products);
+        when(platziStoreClient.getProductById(2L)).thenReturn(updated);
+        when(platziStoreClient.getProductById(4L)).thenThrow(new DataNotFoundException("Product not found"));
+        productService.getAllProducts();
+
+        // Act
+        cache.evict(2L);
+        cache.evict(4L);
+        List<PlatziProductResponse> assembled = productService.getAllProducts();
+
+        // Assert
+        assertEquals(List.of(products.get(0), updated, products.get(2), products.get(4)), assembled);
+        verify(platziStoreClient, times(1)).getAllProducts();
+        verify(platziStoreClient, times(2)).getProductById(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should load the whole list again when too many products are missing")
+    void getAllProducts_ShouldReloadList_WhenTooManyProductsAreMissing() {
+        // Arrange
+        List<PlatziProductResponse> products = products(1, 5);
+        when(platziStoreClient.getAllProducts()).thenReturn(products);
+        productService.getAllProducts();
+        LongStream.rangeClosed(1, 3).forEach(cache::evict);
+
+        // Act
+        List<PlatziProductResponse> assembled = productService.getAllProducts();
+
+        // Assert
+        assertEquals(products, assembled);
+        assertEquals(products.get(0), cache.get(1L).get());
+        verify(platziStoreClient, times(2)).getAllProducts();
+        verify(platziStoreClient, never()).getProductById(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should build the catalog once per version of the cached list")
+    void getCatalog_ShouldFollowIndexVersion() {
+        // Arrange
+        when(platziStoreClient.getAllProducts()).thenReturn(products(1, 3), products(1, 4));
+
+        // Act
+        CatalogSnapshot first = productService.getCatalog();
+        CatalogSnapshot second = productService.getCatalog();
+        cache.evict("catalog");
+        CatalogSnapshot third = productService.getCatalog();
+
+        // Assert
+        assertSame(first, second);
+        assertNotSame(second, third);
+        assertEquals(4, third.products().size());
+    }
+
+    private static List<PlatziProductResponse> products(long from, long to) {
+        return LongStream.rangeClosed(from, to)
+                .mapToObj(id -> new PlatziProductResponse(id, "Product " + id, BigDecimal.valueOf(id)))
+                .toList();
+    }
+}
@@ -0,0 +1,110 @@
+package cardoso.commerce.app.service;
+
+import cardoso.commerce.app.config.BasketExportProperties;
+import cardoso.commerce.app.config.BasketUpdateProperties;
+import cardoso.commerce.app.controller.request.BasketRequest;
+import cardoso.commerce.app.controller.request.ProductRequest;
+import cardoso.commerce.app.entity.Basket;
+import cardoso.commerce.app.entity.Product;
+import cardoso.commerce.app.entity.Status;
+import cardoso.commerce.app.exception.PreconditionFailedException;
+import cardoso.commerce.app.idempotency.IdempotencyStore;
+import cardoso.commerce.app.repository.ReactiveBasketRepository;
+import cardoso.commerce.app.sales.SalesCounters;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Reactive Basket Service Unit Tests")
+class ReactiveBasketServiceTest {
+
+    @Mock
+    private ReactiveBasketRepository basketRepository;
+
+    @Mock
+    private ReactiveProductResolver productResolver;
+
+    @Mock
+    private BasketExportService exportService;
+
+    @Mock
+    private SalesCounters salesCounters;
+
+    @Mock
+    private IdempotencyStore idempotencyStore;
+
+    private ReactiveBasketService basketService;
+
+    @BeforeEach
+    void setUp() {
+        basketService = new ReactiveBasketService(basketRepository, productResolver, new BasketUpdateProperties(3),
+                new BasketExportProperties(1000, Duration.ofHours(2)), exportService, salesCounters,
+                new BasketSizeMetrics(new SimpleMeterRegistry()), idempotencyStore);
+    }
+
+    @Test
+    @DisplayName("Should accept If-Match \"0\" for a basket stored before versioning")
+    void updateBasket_ShouldAcceptVersionZero_WhenBasketIsUnversioned() {
+        // Arrange
+        Basket legacy = legacyBasket();
+        BasketRequest request = new BasketRequest(1L, List.of(new ProductRequest(9L, 1)));
+        List<Product> products = List.of(product(9L));
+        when(productResolver.resolve(request.products())).thenReturn(Mono.just(products));
+        when(basketRepository.findById("basket-1")).thenReturn(Mono.just(legacy));
+        when(basketRepository.replaceProducts(legacy, products)).thenReturn(Mono.just(true));
+
+        // Act & Assert
+        StepVerifier.create(basketService.updateBasket("basket-1", request, Set.of(0L)))
+                .assertNext(updated -> assertSame(legacy, updated))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Should reject an If-Match version the unversioned basket is not at")
+    void updateBasket_ShouldRejectOtherVersions_WhenBasketIsUnversioned() {
+        // Arrange
+        BasketRequest request = new BasketRequest(1L, List.of(new ProductRequest(9L, 1)));
+        when(productResolver.resolve(request.products())).thenReturn(Mono.just(List.of(product(9L))));
+        when(basketRepository.findById("basket-1")).thenReturn(Mono.just(legacyBasket()));
+
+        // Act & Assert
+        StepVerifier.create(basketService.updateBasket("basket-1", request, Set.of(1L)))
+                .expectErrorMatches(error -> error instanceof PreconditionFailedException
+                        && error.getMessage().equals("Basket basket-1 is at version 0"))
+                .verify();
+    }
+
+    private static Basket legacyBasket() {
+        Basket basket = Basket.builder()
+                .id("basket-1")
+                .clientId(1L)
+                .status(Status.OPEN)
+                .build();
+        basket.replaceProducts(List.of(product(5L)));
+        return basket;
+    }
+
+    private static Product product(Long id) {
+        return Product.builder()
+                .id(id)
+                .title("Product " + id)
+                .price(BigDecimal.TEN)
+                .quantity(1)
+                .build();
+    }
+}
@@ -0,0 +1,103 @@
+package cardoso.commerce.app.service;
+
+import cardoso.commerce.app.client.response.PlatziProductResponse;
+import cardoso.commerce.app.config.ProductResolutionProperties;
+import cardoso.commerce.app.controller.request.ProductRequest;
+import cardoso.commerce.app.exception.DataNotFoundException;
+import cardoso.commerce.app.exception.ProductResolutionException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Reactive Product Resolver Unit Tests")
+class ReactiveProductResolverTest {
+
+    @Mock
+    private ReactiveProductService productService;
+
+    @Test
+    @DisplayName("Should resolve lookups concurrently, once per id, and keep request order")
+    void resolve_ShouldFanOutDistinctLookups() {
+        // Arrange
+        ReactiveProductResolver resolver = resolver(Duration.ofSeconds(5));
+        when(productService.getProductById(anyLong())).thenAnswer(invocation ->
+                Mono.just(product(invocation.getArgument(0))).delayElement(Duration.ofMillis(200)));
+        List<ProductRequest> requests = LongStream.rangeClosed(1, 20)
+                .mapToObj(id -> new ProductRequest(id, 1))
+                .collect(Collectors.toList());
+        requests.add(new ProductRequest(1L, 3));
+
+        // Act & Assert
+        StepVerifier.create(resolver.resolve(requests))
+                .assertNext(products -> {
+                    assertEquals(21, products.size());
+                    assertEquals(20L, products.get(19).getId());
+                    assertEquals(3, products.get(20).getQuantity());
+                })
+                .expectComplete()
+                .verify(Duration.ofSeconds(2));
+        verify(productService, times(1)).getProductById(1L);
+    }
+
+    @Test
+    @DisplayName("Should report every failed lookup together")
+    void resolve_ShouldReportFailuresInBulk() {
+        // Arrange
+        ReactiveProductResolver resolver = resolver(Duration.ofSeconds(5));
+        when(productService.getProductById(1L)).thenReturn(Mono.just(product(1L)));
+        when(productService.getProductById(2L)).thenReturn(Mono.error(new DataNotFoundException("Product not found")));
+        when(productService.getProductById(3L)).thenReturn(Mono.error(new DataNotFoundException("Product not found")));
+
+        // Act & Assert
+        StepVerifier.create(resolver.resolve(List.of(
+                        new ProductRequest(1L, 1), new ProductRequest(2L, 1), new ProductRequest(3L, 1))))
+                .expectErrorSatisfies(error -> {
+                    ProductResolutionException exception = assertInstanceOf(ProductResolutionException.class, error);
+                    assertEquals(2, exception.getFailures().size());
+                    assertTrue(exception.isNotFound());
+                })
+                .verify();
+    }
+
+    @Test
+    @DisplayName("Should fail lookups that miss the deadline")
+    void resolve_ShouldTimeOutSlowLookups() {
+        // Arrange
+        ReactiveProductResolver resolver = resolver(Duration.ofMillis(100));
+        when(productService.getProductById(1L)).thenReturn(Mono.never());
+
+        // Act & Assert
+        StepVerifier.create(resolver.resolve(List.of(new ProductRequest(1L, 1))))
+                .expectErrorSatisfies(error -> assertInstanceOf(TimeoutException.class,
+                        ((ProductResolutionException) error).getFailures().get(1L)))
+                .verify(Duration.ofSeconds(2));
+    }
+
+    private ReactiveProductResolver resolver(Duration timeout) {
+        return new ReactiveProductResolver(productService, new ProductResolutionProperties(timeout, 64));
+    }
+
+    private static PlatziProductResponse product(long id) {
+        return PlatziProductResponse.builder()
+                .id(id)
+                .title("Product " + id)
+                .price(BigDecimal.TEN)
+                .build();
+    }
+}
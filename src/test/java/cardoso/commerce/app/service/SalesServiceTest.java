@@ -0,0 +1,138 @@
+package cardoso.commerce.app.service;
+
+import cardoso.commerce.app.config.SalesProperties;
+import cardoso.commerce.app.controller.response.SalesBucket;
+import cardoso.commerce.app.controller.response.SalesReport;
+import cardoso.commerce.app.entity.PaymentMethod;
+import cardoso.commerce.app.exception.BusinessesException;
+import cardoso.commerce.app.repository.BasketRepository;
+import cardoso.commerce.app.repository.PaymentSales;
+import cardoso.commerce.app.repository.ProductSales;
+import cardoso.commerce.app.sales.SalesCounters;
+import cardoso.commerce.app.sales.SalesGranularity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Sales Service Unit Tests")
+class SalesServiceTest {
+
+    private static final Instant DAY = Instant.parse("2025-09-01T00:00:00Z");
+    private static final Instant NEXT_DAY = Instant.parse("2025-09-02T00:00:00Z");
+
+    @Mock
+    private SalesCounters salesCounters;
+
+    @Mock
+    private BasketRepository basketRepository;
+
+    private SalesService service;
+
+    @BeforeEach
+    void setUp() {
+        SalesProperties properties = new SalesProperties(true, "basket:sales", Duration.ofHours(48),
+                Duration.ofDays(90), Duration.ofDays(3650), 100);
+        service = new SalesService(salesCounters, basketRepository, properties);
+        lenient().when(salesCounters.isEnabled()).thenReturn(true);
+    }
+
+    @Test
+    @DisplayName("Should widen the report range to whole buckets")
+    void report_ShouldAlignRangeToBuckets() {
+        // Arrange
+        Instant from = Instant.parse("2025-09-01T10:00:00Z");
+        Instant to = Instant.parse("2025-09-01T13:00:00Z");
+        List<SalesBucket> buckets = List.of();
+        when(salesCounters.read(SalesGranularity.HOUR, from, to)).thenReturn(buckets);
+
+        // Act
+        SalesReport report = service.report(SalesGranularity.HOUR,
+                Instant.parse("2025-09-01T10:15:00Z"), Instant.parse("2025-09-01T12:30:00Z"));
+
+        // Assert
+        assertEquals(from, report.from());
+        assertEquals(to, report.to());
+        assertSame(buckets, report.buckets());
+    }
+
+    @Test
+    @DisplayName("Should reject reports with more buckets than allowed")
+    void report_ShouldRejectTooManyBuckets() {
+        // Act & Assert
+        assertThrows(BusinessesException.class, () -> service.report(SalesGranularity.MINUTE, DAY, NEXT_DAY));
+        assertThrows(BusinessesException.class, () -> service.report(SalesGranularity.HOUR, NEXT_DAY, DAY));
+        verify(salesCounters, never()).read(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should roll the replayed minutes up into hour and day buckets")
+    void rebuild_ShouldRollMinutesUp() {
+        // Arrange
+        when(salesCounters.isRetained(any(), any())).thenReturn(true);
+        when(basketRepository.streamPaymentSales(DAY, NEXT_DAY)).thenReturn(Stream.of(
+                new PaymentSales(Instant.parse("2025-09-01T12:01:00Z"), PaymentMethod.PIX, new BigDecimal("10.00"), 1),
+                new PaymentSales(Instant.parse("2025-09-01T12:59:00Z"), PaymentMethod.PIX, new BigDecimal("5.50"), 1),
+                new PaymentSales(Instant.parse("2025-09-01T13:10:00Z"), PaymentMethod.CREDIT, new BigDecimal("7.00"), 1)));
+        when(basketRepository.streamProductSales(DAY, NEXT_DAY)).thenReturn(Stream.of(
+                new ProductSales(Instant.parse("2025-09-01T12:01:00Z"), 7L, 2),
+                new ProductSales(Instant.parse("2025-09-01T13:10:00Z"), 7L, 3)));
+
+        // Act
+        service.rebuild(Instant.parse("2025-09-01T12:00:00Z"), Instant.parse("2025-09-01T14:00:00Z"));
+
+        // Assert
+        Map<Instant, SalesBucket> hours = replaced(SalesGranularity.HOUR);
+        SalesBucket noon = hours.get(Instant.parse("2025-09-01T12:00:00Z"));
+        assertEquals(2, hours.size());
+        assertEquals(new BigDecimal("15.50"), noon.revenue().get(PaymentMethod.PIX));
+        assertEquals(2L, noon.baskets().get(PaymentMethod.PIX));
+        assertEquals(2L, noon.units().get(7L));
+
+        SalesBucket day = replaced(SalesGranularity.DAY).get(DAY);
+        assertEquals(new BigDecimal("7.00"), day.revenue().get(PaymentMethod.CREDIT));
+        assertEquals(5L, day.units().get(7L));
+        assertEquals(3, replaced(SalesGranularity.MINUTE).size());
+    }
+
+    @Test
+    @DisplayName("Should leave out buckets past their retention")
+    void rebuild_ShouldSkipExpiredBuckets() {
+        // Arrange
+        when(salesCounters.isRetained(any(), any()))
+                .thenAnswer(invocation -> invocation.getArgument(0) == SalesGranularity.DAY);
+        when(basketRepository.streamPaymentSales(DAY, NEXT_DAY)).thenReturn(Stream.of(
+                new PaymentSales(Instant.parse("2025-09-01T12:01:00Z"), PaymentMethod.PIX, new BigDecimal("10.00"), 1)));
+        when(basketRepository.streamProductSales(DAY, NEXT_DAY)).thenReturn(Stream.empty());
+
+        // Act
+        service.rebuild(DAY, NEXT_DAY);
+
+        // Assert
+        assertTrue(replaced(SalesGranularity.MINUTE).isEmpty());
+        assertTrue(replaced(SalesGranularity.HOUR).isEmpty());
+        assertEquals(1, replaced(SalesGranularity.DAY).size());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Instant, SalesBucket> replaced(SalesGranularity granularity) {
+        ArgumentCaptor<Map<Instant, SalesBucket>> buckets = ArgumentCaptor.forClass(Map.class);
+        verify(salesCounters).replace(eq(granularity), eq(DAY), eq(NEXT_DAY), buckets.capture());
+        return buckets.getValue();
+    }
+}
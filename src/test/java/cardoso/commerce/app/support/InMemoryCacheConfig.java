@@ -0,0 +1,30 @@
+package cardoso.commerce.app.support;
+
+import cardoso.commerce.app.cache.CacheInvalidationPublisher;
+import cardoso.commerce.app.cache.CacheSpec;
+import cardoso.commerce.app.cache.TwoTierCacheManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Replaces the Redis tier of the caches with an in-memory one, for tests that run without Redis.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class InMemoryCacheConfig {
+
+    @Bean
+    @Primary
+    TwoTierCacheManager inMemoryCacheManager(@Qualifier("cacheRefreshExecutor") ExecutorService cacheRefreshExecutor,
+                                             MeterRegistry meterRegistry) {
+        return new TwoTierCacheManager(new ConcurrentMapCacheManager(), 10_000, Duration.ofSeconds(10),
+                name -> CacheSpec.of(Duration.ofMinutes(10)), CacheInvalidationPublisher.disabled(),
+                cacheRefreshExecutor, meterRegistry);
+    }
+}
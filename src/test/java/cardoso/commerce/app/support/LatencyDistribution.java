@@ -0,0 +1,36 @@
+package cardoso.commerce.app.support;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Latency distributions for {@link PlatziStubServer#latency(Supplier)}.
+ */
+public final class LatencyDistribution {
+
+    private static final double Z_99 = 2.326;
+
+    private LatencyDistribution() {
+    }
+
+    public static Supplier<Duration> fixed(Duration latency) {
+        return () -> latency;
+    }
+
+    public static Supplier<Duration> uniform(Duration min, Duration max) {
+        long minNanos = min.toNanos();
+        long maxNanos = max.toNanos();
+        return () -> Duration.ofNanos(ThreadLocalRandom.current().nextLong(minNanos, maxNanos + 1));
+    }
+
+    /**
+     * Log-normal latencies with the given median and 99th percentile, the long-tailed shape of most
+     * HTTP services.
+     */
+    public static Supplier<Duration> logNormal(Duration median, Duration p99) {
+        double mu = Math.log(median.toNanos());
+        double sigma = Math.log((double) p99.toNanos() / median.toNanos()) / Z_99;
+        return () -> Duration.ofNanos((long) Math.exp(mu + sigma * ThreadLocalRandom.current().nextGaussian()));
+    }
+}
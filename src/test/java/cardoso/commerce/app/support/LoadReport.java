@@ -0,0 +1,108 @@
+package cardoso.commerce.app.support;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Latencies and failures of the operations of a load test, summarized per operation as throughput
+ * and latency percentiles and checked against {@link Thresholds}.
+ */
+public class LoadReport {
+
+    private final Map<String, Recorder> operations = new ConcurrentSkipListMap<>();
+
+    public void record(String operation, long nanos, boolean success) {
+        operations.computeIfAbsent(operation, name -> new Recorder()).add(nanos, success);
+    }
+
+    public List<Stats> summarize(Duration elapsed) {
+        List<Stats> stats = new ArrayList<>();
+        operations.forEach((operation, recorder) -> stats.add(recorder.stats(operation, elapsed)));
+        return stats;
+    }
+
+    /**
+     * Returns a line for every operation that breaks {@code thresholds}, none when the run passed.
+     */
+    public List<String> violations(Duration elapsed, Thresholds thresholds) {
+        List<String> violations = new ArrayList<>();
+        for (Stats stats : summarize(elapsed)) {
+            if (stats.errorRate() > thresholds.maxErrorRate()) {
+                violations.add(String.format("%s error rate %.2f%% > %.2f%%", stats.operation(),
+                        stats.errorRate() * 100, thresholds.maxErrorRate() * 100));
+            }
+            if (stats.p99Millis() > thresholds.maxP99().toMillis()) {
+                violations.add(String.format("%s p99 %.1fms > %dms", stats.operation(),
+                        stats.p99Millis(), thresholds.maxP99().toMillis()));
+            }
+            if (stats.throughput() < thresholds.minThroughput()) {
+                violations.add(String.format("%s throughput %.1f/s < %.1f/s", stats.operation(),
+                        stats.throughput(), thresholds.minThroughput()));
+            }
+        }
+        return violations;
+    }
+
+    public String format(Duration elapsed) {
+        StringBuilder table = new StringBuilder(String.format("%-10s %9s %7s %10s %9s %9s %9s %9s%n",
+                "operation", "requests", "errors", "rate/s", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+        for (Stats stats : summarize(elapsed)) {
+            table.append(String.format("%-10s %9d %7d %10.1f %9.1f %9.1f %9.1f %9.1f%n", stats.operation(),
+                    stats.requests(), stats.errors(), stats.throughput(), stats.p50Millis(), stats.p95Millis(),
+                    stats.p99Millis(), stats.maxMillis()));
+        }
+        return table.toString();
+    }
+
+    /**
+     * Pass/fail limits applied to every operation: the share of failed requests, the latency of the
+     * 99th percentile and the successful requests per second.
+     */
+    public record Thresholds(double maxErrorRate, Duration maxP99, double minThroughput) {
+    }
+
+    public record Stats(String operation, int requests, long errors, double throughput, double p50Millis,
+                        double p95Millis, double p99Millis, double maxMillis) {
+
+        public double errorRate() {
+            return requests == 0 ? 0 : (double) errors / requests;
+        }
+    }
+
+    private static class Recorder {
+
+        private long[] latencies = new long[1024];
+        private int size;
+        private long errors;
+
+        synchronized void add(long nanos, boolean success) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = nanos;
+            if (!success) {
+                errors++;
+            }
+        }
+
+        synchronized Stats stats(String operation, Duration elapsed) {
+            long[] sorted = Arrays.copyOf(latencies, size);
+            Arrays.sort(sorted);
+            double seconds = elapsed.toNanos() / 1e9;
+            return new Stats(operation, size, errors, (size - errors) / seconds, percentile(sorted, 0.50),
+                    percentile(sorted, 0.95), percentile(sorted, 0.99), percentile(sorted, 1.0));
+        }
+
+        private static double percentile(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.min(sorted.length - 1, Math.max(0, Math.ceil(percentile * sorted.length) - 1));
+            return sorted[index] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package cardoso.commerce.app.support;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Local stand-in for the Platzi Fake Store API with injectable latency and failures. Serves
+ * {@code GET /products} and {@code GET /products/{id}} for ids 1 to {@code catalogSize}; unknown ids
+ * answer 400 like the real API. Tracks the client connections it accepted and the bytes it sent,
+ * and gzips responses for clients that ask for it when {@link #gzip(boolean)} is on.
+ */
+public class PlatziStubServer implements AutoCloseable {
+
+    static {
+        // without TCP_NODELAY the JDK server's header and body writes hit delayed ACKs (~40 ms per response)
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicInteger failNext = new AtomicInteger();
+    private final AtomicInteger slowNext = new AtomicInteger();
+    private final AtomicLong bytesSent = new AtomicLong();
+    private final Set<InetSocketAddress> connections = ConcurrentHashMap.newKeySet();
+
+    private volatile int catalogSize = 100;
+    private volatile Supplier<Duration> latency = () -> Duration.ZERO;
+    private volatile Duration slowLatency = Duration.ZERO;
+    private volatile double errorRate;
+    private volatile int errorStatus = 500;
+    private volatile boolean gzip;
+
+    public PlatziStubServer() {
+        this(Thread.ofVirtual().factory());
+    }
+
+    /**
+     * Serves every request on a new thread from {@code threadFactory}; load tests pass platform
+     * threads so the stub does not compete with the application for virtual thread carriers.
+     */
+    public PlatziStubServer(ThreadFactory threadFactory) {
+        executor = Executors.newThreadPerTaskExecutor(threadFactory);
+        try {
+            server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        } catch (IOException exception) {
+            throw new IllegalStateException(exception);
+        }
+        server.createContext("/products", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public String url() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public long requestCount() {
+        return requests.get();
+    }
+
+    public long connectionCount() {
+        return connections.size();
+    }
+
+    public long bytesSent() {
+        return bytesSent.get();
+    }
+
+    public PlatziStubServer gzip(boolean gzip) {
+        this.gzip = gzip;
+        return this;
+    }
+
+    public PlatziStubServer catalogSize(int catalogSize) {
+        this.catalogSize = catalogSize;
+        return this;
+    }
+
+    public PlatziStubServer latency(Duration latency) {
+        return latency(() -> latency);
+    }
+
+    public PlatziStubServer latency(Supplier<Duration> latency) {
+        this.latency = latency;
+        return this;
+    }
+
+    public PlatziStubServer errorRate(double errorRate, int status) {
+        this.errorRate = errorRate;
+        this.errorStatus = status;
+        return this;
+    }
+
+    public PlatziStubServer failNext(int requests, int status) {
+        this.errorStatus = status;
+        this.failNext.set(requests);
+        return this;
+    }
+
+    public PlatziStubServer slowNext(int requests, Duration latency) {
+        this.slowLatency = latency;
+        this.slowNext.set(requests);
+        return this;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.close();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        connections.add(exchange.getRemoteAddress());
+        try (exchange) {
+            sleep(slowNext.getAndUpdate(n -> Math.max(0, n - 1)) > 0 ? slowLatency : latency.get());
+
+            if (failNext.getAndUpdate(n -> Math.max(0, n - 1)) > 0
+                    || (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate)) {
+                respond(exchange, errorStatus, "{\"message\":\"injected failure\"}");
+                return;
+            }
+
+            String path = exchange.getRequestURI().getPath();
+            if (path.equals("/products") || path.equals("/products/")) {
+                StringBuilder body = new StringBuilder("[");
+                for (long id = 1; id <= catalogSize; id++) {
+                    body.append(id > 1 ? "," : "").append(product(id));
+                }
+                respond(exchange, 200, body.append(']').toString());
+                return;
+            }
+
+            long id = Long.parseLong(path.substring(path.lastIndexOf('/') + 1));
+            if (id < 1 || id > catalogSize) {
+                respond(exchange, 400, "{\"message\":\"Could not find any entity\"}");
+                return;
+            }
+            respond(exchange, 200, product(id));
+        } catch (NumberFormatException exception) {
+            respond(exchange, 400, "{\"message\":\"invalid id\"}");
+        }
+    }
+
+    public static String product(long id) {
+        BigDecimal price = BigDecimal.valueOf(id * 100 + 99, 2);
+        return "{\"id\":" + id + ",\"title\":\"Product " + id + "\",\"price\":" + price + "}";
+    }
+
+    private void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        if (gzip && acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            bytes = gzip(bytes);
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+        }
+        bytesSent.addAndGet(bytes.length);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(bytes);
+        }
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(bytes.length / 4);
+        try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(buffer)) {
+            gzipOutputStream.write(bytes);
+        }
+        return buffer.toByteArray();
+    }
+
+    private static void sleep(Duration duration) {
+        if (duration.isZero() || duration.isNegative()) {
+            return;
+        }
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
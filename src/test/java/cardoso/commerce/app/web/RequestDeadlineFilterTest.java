@@ -0,0 +1,32 @@
+package cardoso.commerce.app.web;
+
+import cardoso.commerce.app.config.ResilienceProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DisplayName("Request Deadline Filter Unit Tests")
+class RequestDeadlineFilterTest {
+
+    private final ResilienceProperties properties = new ResilienceProperties(Duration.ofSeconds(5),
+            Duration.ofMillis(100),
+            new ResilienceProperties.CircuitBreaker(50, 20, 10, Duration.ofSeconds(30)),
+            new ResilienceProperties.Bulkhead(16, Duration.ofMillis(100)),
+            new ResilienceProperties.Retry(3, Duration.ofMillis(5), Duration.ofMillis(20), 0.2, 10, 100),
+            new ResilienceProperties.Hedge(true, 0.95, Duration.ofMillis(20), 64));
+
+    @Test
+    @DisplayName("Should use the caller's timeout only between the floor and the configured timeout")
+    void timeoutNanos_ShouldClampHeaderToConfiguredRange() {
+        // Act & Assert
+        assertEquals(Duration.ofSeconds(5).toNanos(), RequestDeadlineFilter.timeoutNanos(properties, null));
+        assertEquals(Duration.ofSeconds(5).toNanos(), RequestDeadlineFilter.timeoutNanos(properties, "abc"));
+        assertEquals(Duration.ofSeconds(5).toNanos(), RequestDeadlineFilter.timeoutNanos(properties, "60000"));
+        assertEquals(Duration.ofMillis(800).toNanos(), RequestDeadlineFilter.timeoutNanos(properties, "800"));
+        assertEquals(Duration.ofMillis(100).toNanos(), RequestDeadlineFilter.timeoutNanos(properties, "1"));
+        assertEquals(Duration.ofMillis(100).toNanos(), RequestDeadlineFilter.timeoutNanos(properties, "-5"));
+    }
+}
@@ -0,0 +1,74 @@
+package cardoso.commerce.app.web;
+
+import cardoso.commerce.app.config.ServerTimingProperties;
+import cardoso.commerce.app.diagnostics.ServerTiming;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Server Timing Filter Tests")
+class ServerTimingFilterTest {
+
+    private final ServerTimingFilter filter = new ServerTimingFilter(new ServerTimingProperties(true, Duration.ZERO));
+
+    @Test
+    @DisplayName("Should add the phases of a basket request to the Server-Timing header after its body")
+    void doFilter_ShouldReportPhasesOfBasketRequests() throws Exception {
+        // Arrange
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilter(new MockHttpServletRequest("GET", "/basket/basket-1"), response,
+                new MockFilterChain(new RespondingServlet()));
+
+        // Assert
+        assertEquals("{\"id\":\"basket-1\"}", response.getContentAsString());
+        String header = response.getHeader(ServerTiming.HEADER);
+        assertNotNull(header);
+        assertTrue(header.startsWith("mongo-read;dur="), header);
+        assertTrue(header.contains("serialization;dur="), header);
+        assertTrue(header.contains("total;dur="), header);
+    }
+
+    @Test
+    @DisplayName("Should leave exports and other endpoints alone")
+    void doFilter_ShouldSkipExportsAndOtherPaths() throws Exception {
+        for (String path : new String[]{"/basket/export", "/products/catalog", "/basketball"}) {
+            // Arrange
+            MockHttpServletResponse response = new MockHttpServletResponse();
+
+            // Act
+            filter.doFilter(new MockHttpServletRequest("GET", path), response,
+                    new MockFilterChain(new RespondingServlet()));
+
+            // Assert
+            assertNull(response.getHeader(ServerTiming.HEADER), path);
+        }
+    }
+
+    /**
+     * Reads from MongoDB and serializes its response, as far as the timing can tell.
+     */
+    private static class RespondingServlet extends HttpServlet {
+
+        @Override
+        protected void service(HttpServletRequest request, HttpServletResponse response) throws IOException {
+            ServerTiming.record(ServerTiming.Phase.MONGO_READ, System.nanoTime());
+            long start = System.nanoTime();
+            response.setContentType("application/json");
+            response.getWriter().write("{\"id\":\"basket-1\"}");
+            response.flushBuffer();
+            ServerTiming.record(ServerTiming.Phase.SERIALIZATION, start);
+        }
+    }
+}